@@ -0,0 +1,68 @@
+package com.github.tomakehurst.wiremock.jetty94;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Builds a thread pool that handles each request on its own virtual thread, so blocking
+ * work such as fixed delays, dribbled bodies and proxying no longer ties up one of a
+ * limited number of container threads.
+ * <p>
+ * Jetty's acceptors and selectors are started before any requests arrive, from outside
+ * the pool, and stay on the platform threads of a {@link QueuedThreadPool} sized by
+ * {@link Options#containerThreads()}. Work handed on from those threads, or from virtual
+ * threads, runs on a new virtual thread.
+ */
+public class VirtualThreadPoolFactory implements ThreadPoolFactory {
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        VirtualThreadPool threadPool = new VirtualThreadPool(options.containerThreads());
+        threadPool.setName("wiremock");
+        return threadPool;
+    }
+
+    static class VirtualThreadPool extends QueuedThreadPool {
+
+        private static final ThreadLocal<Boolean> IS_POOL_THREAD = ThreadLocal.withInitial(() -> false);
+
+        private final ThreadFactory virtualThreadFactory = Thread.ofVirtual().name("wiremock-virtual-", 0).factory();
+
+        VirtualThreadPool(int maxThreads) {
+            super(maxThreads);
+            // Reserved threads would let a selector run a request on its own platform thread
+            setReservedThreads(0);
+        }
+
+        @Override
+        public void execute(Runnable job) {
+            Thread current = Thread.currentThread();
+            if (isRunning() && (current.isVirtual() || IS_POOL_THREAD.get())) {
+                virtualThreadFactory.newThread(job).start();
+            } else {
+                super.execute(job);
+            }
+        }
+
+        /**
+         * Always declined so that selectors hand each task to {@link #execute(Runnable)}
+         * rather than running it themselves and handing selection to another thread.
+         */
+        @Override
+        public boolean tryExecute(Runnable task) {
+            return false;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return super.newThread(() -> {
+                IS_POOL_THREAD.set(true);
+                runnable.run();
+            });
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.jetty94.VirtualThreadPoolFactory;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class VirtualThreadPoolAcceptanceTest {
+
+    private static final int CONTAINER_THREADS = 20;
+    private static final int CONCURRENT_REQUESTS = 200;
+    private static final int DELAY = 500;
+
+    @Rule
+    public WireMockRule wm = new WireMockRule(
+            wireMockConfig()
+                    .dynamicPort()
+                    .containerThreads(CONTAINER_THREADS)
+                    .threadPoolFactory(new VirtualThreadPoolFactory())
+                    .extensions(new ThreadReportingTransformer())
+    );
+
+    @Test
+    public void handlesStubRequestsOnVirtualThreads() {
+        wm.stubFor(get("/thread").willReturn(ok()));
+
+        WireMockResponse response = new WireMockTestClient(wm.port()).get("/thread");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.firstHeader("X-Virtual-Thread"), is("true"));
+    }
+
+    @Test
+    public void servesMoreConcurrentDelayedResponsesThanThereAreContainerThreads() throws Exception {
+        wm.stubFor(get("/delayed").willReturn(ok().withFixedDelay(DELAY)));
+        final WireMockTestClient client = new WireMockTestClient(wm.port());
+
+        long start = System.currentTimeMillis();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<WireMockResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(executor.submit(() -> client.get("/delayed")));
+            }
+            for (Future<WireMockResponse> response: responses) {
+                assertThat(response.get().statusCode(), is(200));
+            }
+        }
+
+        // With only platform threads this would take at least (CONCURRENT_REQUESTS / CONTAINER_THREADS) * DELAY
+        long elapsed = System.currentTimeMillis() - start;
+        assertThat(elapsed, lessThan((long) DELAY * (CONCURRENT_REQUESTS / CONTAINER_THREADS)));
+    }
+
+    public static class ThreadReportingTransformer extends ResponseDefinitionTransformer {
+
+        @Override
+        public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+            return like(responseDefinition)
+                    .withHeader("X-Virtual-Thread", String.valueOf(Thread.currentThread().isVirtual()))
+                    .build();
+        }
+
+        @Override
+        public String getName() {
+            return "thread-reporting";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
+import com.github.tomakehurst.wiremock.jetty94.VirtualThreadPoolFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Compares how long the queued (platform) and virtual thread pools take to serve a burst of
+ * concurrent responses with a fixed delay. Run with {@code ./gradlew :java21:benchmark}, or with
+ * arguments {@code <requests> <delay millis> <container threads>}. Defaults to 10000 requests
+ * delayed by 1000ms, with 200 container threads. The open file limit must allow a connection
+ * per request.
+ */
+public class VirtualThreadPoolBenchmark {
+
+    public static void main(String... args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int delay = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int containerThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("%d concurrent requests, %dms delay, %d container threads%n", requests, delay, containerThreads);
+        run("Queued thread pool", new QueuedThreadPoolFactory(), requests, delay, containerThreads);
+        run("Virtual thread pool", new VirtualThreadPoolFactory(), requests, delay, containerThreads);
+    }
+
+    private static void run(String name, ThreadPoolFactory threadPoolFactory, int requests, int delay, int containerThreads) throws Exception {
+        WireMockServer wm = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(containerThreads)
+                .jettyAcceptQueueSize(requests)
+                .threadPoolFactory(threadPoolFactory)
+                .disableRequestJournal()
+                .stubRequestLoggingDisabled(true));
+        wm.start();
+        wm.stubFor(get("/delayed").willReturn(ok("delayed").withFixedDelay(delay)));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(wm.url("/delayed")))
+                .timeout(Duration.ofMinutes(10))
+                .build();
+
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+
+            int failures = 0;
+            for (CompletableFuture<HttpResponse<Void>> response: responses) {
+                try {
+                    if (response.get().statusCode() != 200) {
+                        failures++;
+                    }
+                } catch (Exception e) {
+                    failures++;
+                }
+            }
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            System.out.printf("%-20s %8dms %10.1f req/s %6d failed%n",
+                    name, elapsedMillis, requests * 1000.0 / elapsedMillis, failures);
+        } finally {
+            wm.stop();
+        }
+    }
+}
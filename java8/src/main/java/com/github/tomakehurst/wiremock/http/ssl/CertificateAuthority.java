@@ -113,8 +113,22 @@ public class CertificateAuthority {
         SNIHostName hostName
     ) throws CertificateGenerationUnsupportedException {
         try {
-            KeyPair pair = generateKeyPair(keyType);
-            String sigAlg = "SHA256With" + keyType;
+            return generateCertificate(generateKeyPair(keyType), hostName);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CertificateGenerationUnsupportedException(
+                "Your runtime does not support generating certificates at runtime",
+                e
+            );
+        }
+    }
+
+    CertChainAndKey generateCertificate(
+        KeyPair pair,
+        SNIHostName hostName
+    ) throws CertificateGenerationUnsupportedException {
+        try {
+            // The signature is made with this authority's key, so it's that key's algorithm which matters, not the new one's
+            String sigAlg = certificateChain[0].getSigAlgName();
             X509CertInfo info = makeX509CertInfo(sigAlg, hostName.getAsciiName(), Period.ofYears(1), pair.getPublic(), subjectAlternativeName(hostName));
 
             X509CertImpl certificate = sign(info);
@@ -138,9 +152,10 @@ public class CertificateAuthority {
         return certificate;
     }
 
-    private static KeyPair generateKeyPair(String keyType) throws NoSuchAlgorithmException {
+    static KeyPair generateKeyPair(String keyType) throws NoSuchAlgorithmException {
         KeyPairGenerator keyGen = KeyPairGenerator.getInstance(keyType);
-        keyGen.initialize(2048, new SecureRandom());
+        // 256 bits selects the P-256 curve, which every client that offers ECDSA supports
+        keyGen.initialize("EC".equals(keyType) ? 256 : 2048, new SecureRandom());
         return keyGen.generateKeyPair();
     }
 
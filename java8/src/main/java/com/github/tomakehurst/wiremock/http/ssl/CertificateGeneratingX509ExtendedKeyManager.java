@@ -108,12 +108,15 @@ public class CertificateGeneratingX509ExtendedKeyManager extends DelegatingX509E
     }
 
     /**
+     * A certificate is generated for a key type the keystore has no key for (e.g. EC when the CA is RSA)
+     * if the client offered it, as clients tend to prefer ECDSA, which is also much quicker to generate.
+     *
      * @param keyType non null, may be invalid
      * @param defaultAlias nullable
      * @param handshakeSession nullable
      */
     private String tryToChooseServerAlias(String keyType, String defaultAlias, ExtendedSSLSession handshakeSession) {
-        if (defaultAlias != null && handshakeSession != null) {
+        if ((defaultAlias != null || dynamicKeyStore.canGenerate(keyType)) && handshakeSession != null) {
             return chooseServerAlias(keyType, defaultAlias, handshakeSession);
         } else {
             return defaultAlias;
@@ -122,7 +125,7 @@ public class CertificateGeneratingX509ExtendedKeyManager extends DelegatingX509E
 
     /**
      * @param keyType non null, guaranteed to be valid
-     * @param defaultAlias non null, guaranteed to match a private key entry
+     * @param defaultAlias nullable, if present guaranteed to match a private key entry
      * @param handshakeSession non null
      */
     private String chooseServerAlias(String keyType, String defaultAlias, ExtendedSSLSession handshakeSession) {
@@ -153,18 +156,17 @@ public class CertificateGeneratingX509ExtendedKeyManager extends DelegatingX509E
 
     /**
      * @param keyType non null, guaranteed to be valid
-     * @param defaultAlias non null, guaranteed to match a private key entry
+     * @param defaultAlias nullable, if present guaranteed to match a private key entry
      * @param requestedServerNames non null, non empty
      */
     private String chooseServerAlias(String keyType, String defaultAlias, List<SNIHostName> requestedServerNames) {
-        X509Certificate[] certificateChain = super.getCertificateChain(defaultAlias);
+        X509Certificate[] certificateChain = defaultAlias != null ? super.getCertificateChain(defaultAlias) : null;
         if (certificateChain != null && matches(certificateChain[0], requestedServerNames)) {
             return defaultAlias;
         } else {
             try {
                 SNIHostName requestedServerName = requestedServerNames.get(0);
-                dynamicKeyStore.generateCertificateIfNecessary(keyType, requestedServerName);
-                return requestedServerName.getAsciiName();
+                return dynamicKeyStore.generateCertificateIfNecessary(keyType, requestedServerName);
             } catch (KeyStoreException | CertificateGenerationUnsupportedException e) {
                 notify("certificates cannot be generated; perhaps the sun internal classes are not available?", e);
                 return defaultAlias;
@@ -1,40 +1,129 @@
 package com.github.tomakehurst.wiremock.http.ssl;
 
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.Source;
+
 import javax.net.ssl.SNIHostName;
+import java.security.KeyPair;
+import java.security.KeyStore;
 import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 public class DynamicKeyStore {
 
-    private final X509KeyStore keyStore;
+    private final X509KeyStore generatedCertificates;
     private final CertificateAuthority existingCertificateAuthority;
+    private final KeyPairPool keyPairPool;
+    private final Source<KeyStore> generatedCertificatesSource;
+    private final Notifier notifier;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean(false);
+    private final ExecutorService saver = new ThreadPoolExecutor(
+            0, 1,
+            10, SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "wiremock-keystore-saver");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
 
     public DynamicKeyStore(X509KeyStore keyStore) {
-        this.keyStore = requireNonNull(keyStore);
-        this.existingCertificateAuthority = requireNonNull(keyStore.getCertificateAuthority(), "Keystore does not contain a certificate that can act as a certificate authority");
+        this(keyStore, new KeyPairPool(0), keyStore, null, null);
+    }
+
+    /**
+     * @param keyStore                    contains the certificate authority, never saved
+     * @param keyPairPool                 supplies the key pairs for generated certificates
+     * @param generatedCertificates       holds the generated certificates, may be the same as keyStore
+     * @param generatedCertificatesSource nullable, if present generated certificates are saved
+     *                                    to it so they survive a restart
+     * @param notifier                    nullable, told about failures to save
+     */
+    public DynamicKeyStore(
+        X509KeyStore keyStore,
+        KeyPairPool keyPairPool,
+        X509KeyStore generatedCertificates,
+        Source<KeyStore> generatedCertificatesSource,
+        Notifier notifier
+    ) {
+        this.existingCertificateAuthority = requireNonNull(requireNonNull(keyStore).getCertificateAuthority(), "Keystore does not contain a certificate that can act as a certificate authority");
+        this.keyPairPool = requireNonNull(keyPairPool);
+        this.generatedCertificates = requireNonNull(generatedCertificates);
+        this.generatedCertificatesSource = generatedCertificatesSource;
+        this.notifier = notifier;
     }
 
     PrivateKey getPrivateKey(String alias) {
-        return keyStore.getPrivateKey(alias);
+        return generatedCertificates.getPrivateKey(alias);
     }
 
     X509Certificate[] getCertificateChain(String alias) {
-        return keyStore.getCertificateChain(alias);
+        return generatedCertificates.getCertificateChain(alias);
+    }
+
+    /**
+     * @param keyType non null, may be invalid
+     * @return whether a certificate can be generated for this key type even
+     *         when the keystore has no key of that type to fall back on
+     */
+    boolean canGenerate(String keyType) {
+        return keyPairPool.supports(keyType);
     }
 
     /**
      * @param keyType             non null, guaranteed to be valid
      * @param requestedServerName non null
+     * @return the alias of the certificate for the requested server name
      */
-    void generateCertificateIfNecessary(
+    String generateCertificateIfNecessary(
         String keyType,
         SNIHostName requestedServerName
     ) throws CertificateGenerationUnsupportedException, KeyStoreException {
-        if (getPrivateKey(requestedServerName.getAsciiName()) == null) {
-            generateCertificate(keyType, requestedServerName);
+        String alias = aliasFor(keyType, requestedServerName);
+        if (getPrivateKey(alias) == null || !isCurrentlyValid(getCertificateChain(alias))) {
+            generateCertificate(alias, keyType, requestedServerName);
+        }
+        return alias;
+    }
+
+    /**
+     * RSA certificates keep the plain host name as their alias, as they always have, so
+     * that keystores saved by earlier versions are still used.
+     */
+    private static String aliasFor(String keyType, SNIHostName requestedServerName) {
+        String hostName = requestedServerName.getAsciiName();
+        return "RSA".equals(keyType) ? hostName : hostName + "#" + keyType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Certificates saved while a different certificate authority was in use would not be
+     * trusted, so they are treated as invalid and regenerated.
+     */
+    private boolean isCurrentlyValid(X509Certificate[] certificateChain) {
+        if (certificateChain == null || certificateChain.length == 0) {
+            return false;
+        }
+        if (certificateChain.length < 2 || !certificateChain[1].equals(existingCertificateAuthority.certificateChain()[0])) {
+            return false;
+        }
+        try {
+            certificateChain[0].checkValidity();
+            return true;
+        } catch (CertificateExpiredException | CertificateNotYetValidException e) {
+            return false;
         }
     }
 
@@ -43,10 +132,34 @@ public class DynamicKeyStore {
      * @param requestedServerName non null
      */
     private void generateCertificate(
+        String alias,
         String keyType,
         SNIHostName requestedServerName
     ) throws CertificateGenerationUnsupportedException, KeyStoreException {
-        CertChainAndKey newCertChainAndKey = existingCertificateAuthority.generateCertificate(keyType, requestedServerName);
-        keyStore.setKeyEntry(requestedServerName.getAsciiName(), newCertChainAndKey);
+        KeyPair keyPair;
+        try {
+            keyPair = keyPairPool.take(keyType);
+        } catch (NoSuchAlgorithmException e) {
+            throw new CertificateGenerationUnsupportedException("Your runtime does not support generating " + keyType + " keys", e);
+        }
+        CertChainAndKey newCertChainAndKey = existingCertificateAuthority.generateCertificate(keyPair, requestedServerName);
+        generatedCertificates.setKeyEntry(alias, newCertChainAndKey);
+        scheduleSave();
+    }
+
+    private void scheduleSave() {
+        if (generatedCertificatesSource != null && saveScheduled.compareAndSet(false, true)) {
+            saver.execute(() -> {
+                // Cleared before saving so that a certificate added while saving triggers another save
+                saveScheduled.set(false);
+                try {
+                    generatedCertificates.saveTo(generatedCertificatesSource);
+                } catch (Exception e) {
+                    if (notifier != null) {
+                        notifier.error("Unable to save generated certificates to the browser proxy generated certificates keystore", e);
+                    }
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.github.tomakehurst.wiremock.http.ssl;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Keeps a few key pairs of each supported type generated ahead of time on a
+ * background thread, so that generating a certificate for a new host during a
+ * TLS handshake doesn't have to wait for a (slow, in the case of RSA) key pair.
+ */
+public class KeyPairPool {
+
+    public static final int DEFAULT_SIZE = 4;
+
+    private final int size;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final ExecutorService generator = new ThreadPoolExecutor(
+            0, 1,
+            10, SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "wiremock-key-pair-generator");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
+
+    public KeyPairPool(int size, String... keyTypes) {
+        this.size = size;
+        for (String keyType : keyTypes) {
+            Pool pool = new Pool(keyType);
+            pools.put(keyType, pool);
+            pool.refill();
+        }
+    }
+
+    public static KeyPairPool withDefaults() {
+        return new KeyPairPool(DEFAULT_SIZE, "RSA", "EC");
+    }
+
+    boolean supports(String keyType) {
+        return pools.containsKey(keyType);
+    }
+
+    /**
+     * @return a pre-generated key pair if one is available, otherwise a newly generated one
+     */
+    KeyPair take(String keyType) throws NoSuchAlgorithmException {
+        Pool pool = pools.get(keyType);
+        if (pool == null) {
+            return CertificateAuthority.generateKeyPair(keyType);
+        }
+
+        KeyPair keyPair = pool.keyPairs.poll();
+        pool.refill();
+        return keyPair != null ? keyPair : CertificateAuthority.generateKeyPair(keyType);
+    }
+
+    private class Pool {
+
+        private final String keyType;
+        private final BlockingQueue<KeyPair> keyPairs = new LinkedBlockingQueue<>();
+        private final AtomicBoolean refilling = new AtomicBoolean(false);
+
+        private Pool(String keyType) {
+            this.keyType = keyType;
+        }
+
+        private void refill() {
+            if (keyPairs.size() < size && refilling.compareAndSet(false, true)) {
+                generator.execute(() -> {
+                    try {
+                        while (keyPairs.size() < size) {
+                            keyPairs.offer(CertificateAuthority.generateKeyPair(keyType));
+                        }
+                    } catch (NoSuchAlgorithmException e) {
+                        // Leave the pool empty; take() will report the problem when it generates one itself
+                    } finally {
+                        refilling.set(false);
+                    }
+                });
+            }
+        }
+    }
+}
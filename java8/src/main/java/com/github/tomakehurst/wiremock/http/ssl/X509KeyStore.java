@@ -1,5 +1,7 @@
 package com.github.tomakehurst.wiremock.http.ssl;
 
+import com.github.tomakehurst.wiremock.common.Source;
+
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -97,4 +99,8 @@ public class X509KeyStore {
     void setKeyEntry(String alias, CertChainAndKey newCertChainAndKey) throws KeyStoreException {
         keyStore.setKeyEntry(alias, newCertChainAndKey.key, password, newCertChainAndKey.certificateChain);
     }
+
+    void saveTo(Source<KeyStore> source) {
+        source.save(keyStore);
+    }
 }
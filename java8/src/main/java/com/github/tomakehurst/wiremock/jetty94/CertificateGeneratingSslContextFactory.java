@@ -1,8 +1,10 @@
 package com.github.tomakehurst.wiremock.jetty94;
 
 import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.Source;
 import com.github.tomakehurst.wiremock.http.ssl.CertificateGeneratingX509ExtendedKeyManager;
 import com.github.tomakehurst.wiremock.http.ssl.DynamicKeyStore;
+import com.github.tomakehurst.wiremock.http.ssl.KeyPairPool;
 import com.github.tomakehurst.wiremock.http.ssl.ApacheHttpHostNameMatcher;
 import com.github.tomakehurst.wiremock.http.ssl.X509KeyStore;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
@@ -17,10 +19,23 @@ import static java.util.Objects.requireNonNull;
 class CertificateGeneratingSslContextFactory extends SslContextFactory.Server {
 
     private final X509KeyStore x509KeyStore;
+    private final X509KeyStore generatedCertificates;
+    private final Source<KeyStore> generatedCertificatesSource;
     private final Notifier notifier;
+    private final KeyPairPool keyPairPool = KeyPairPool.withDefaults();
 
-    CertificateGeneratingSslContextFactory(X509KeyStore x509KeyStore, Notifier notifier) {
+    /**
+     * @param generatedCertificatesSource nullable, generated certificates are only saved if present
+     */
+    CertificateGeneratingSslContextFactory(
+        X509KeyStore x509KeyStore,
+        X509KeyStore generatedCertificates,
+        Source<KeyStore> generatedCertificatesSource,
+        Notifier notifier
+    ) {
         this.x509KeyStore = requireNonNull(x509KeyStore);
+        this.generatedCertificates = requireNonNull(generatedCertificates);
+        this.generatedCertificatesSource = generatedCertificatesSource;
         this.notifier = requireNonNull(notifier);
     }
 
@@ -31,7 +46,7 @@ class CertificateGeneratingSslContextFactory extends SslContextFactory.Server {
             if (manager instanceof X509ExtendedKeyManager) {
                 return new CertificateGeneratingX509ExtendedKeyManager(
                         (X509ExtendedKeyManager) manager,
-                        new DynamicKeyStore(x509KeyStore),
+                        new DynamicKeyStore(x509KeyStore, keyPairPool, generatedCertificates, generatedCertificatesSource, notifier),
                         new ApacheHttpHostNameMatcher(),
                         notifier
                 );
@@ -1,5 +1,6 @@
 package com.github.tomakehurst.wiremock.jetty94;
 
+import com.github.tomakehurst.wiremock.common.Http2Settings;
 import com.github.tomakehurst.wiremock.common.HttpsSettings;
 import com.github.tomakehurst.wiremock.common.JettySettings;
 import com.github.tomakehurst.wiremock.core.Options;
@@ -9,12 +10,18 @@ import com.github.tomakehurst.wiremock.jetty9.DefaultMultipartRequestConfigurer;
 import com.github.tomakehurst.wiremock.jetty9.JettyHttpServer;
 import com.github.tomakehurst.wiremock.servlet.MultipartRequestConfigurer;
 import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
 import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.io.NetworkTrafficListener;
 import org.eclipse.jetty.server.*;
 import org.eclipse.jetty.server.handler.HandlerCollection;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class Jetty94HttpServer extends JettyHttpServer {
 
     public Jetty94HttpServer(Options options, AdminRequestHandler adminRequestHandler, StubRequestHandler stubRequestHandler) {
@@ -35,6 +42,35 @@ public class Jetty94HttpServer extends JettyHttpServer {
         return httpConfig;
     }
 
+    @Override
+    protected ServerConnector createHttpConnector(String bindAddress, int port, JettySettings jettySettings, NetworkTrafficListener listener) {
+        Http2Settings http2Settings = options.getHttp2Settings();
+        HttpConfiguration httpConfig = createHttpConfig(jettySettings);
+
+        List<ConnectionFactory> connectionFactories = new ArrayList<>();
+        connectionFactories.add(new HttpConnectionFactory(httpConfig));
+
+        if (http2Settings.plainTextEnabled()) {
+            connectionFactories.add(configure(new HTTP2CServerConnectionFactory(httpConfig), http2Settings));
+        }
+
+        // Used by browser proxied HTTPS connections, which ManInTheMiddleSslConnectHandler hands to this connector
+        if (options.browserProxySettings().enabled() && http2Settings.tlsEnabled()) {
+            connectionFactories.add(configure(new HTTP2ServerConnectionFactory(httpConfig), http2Settings));
+            ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory("h2", HttpVersion.HTTP_1_1.asString());
+            alpn.setDefaultProtocol(HttpVersion.HTTP_1_1.asString());
+            connectionFactories.add(alpn);
+        }
+
+        return createServerConnector(
+                bindAddress,
+                jettySettings,
+                port,
+                listener,
+                connectionFactories.toArray(new ConnectionFactory[0])
+        );
+    }
+
     @Override
     protected ServerConnector createHttpsConnector(Server server, String bindAddress, HttpsSettings httpsSettings, JettySettings jettySettings, NetworkTrafficListener listener) {
         SslContextFactory.Server http2SslContextFactory = SslContexts.buildHttp2SslContextFactory(httpsSettings);
@@ -42,7 +78,19 @@ public class Jetty94HttpServer extends JettyHttpServer {
         HttpConfiguration httpConfig = createHttpConfig(jettySettings);
 
         HttpConnectionFactory http = new HttpConnectionFactory(httpConfig);
-        HTTP2ServerConnectionFactory h2 = new HTTP2ServerConnectionFactory(httpConfig);
+
+        if (!options.getHttp2Settings().tlsEnabled()) {
+            return createServerConnector(
+                    bindAddress,
+                    jettySettings,
+                    httpsSettings.port(),
+                    listener,
+                    new SslConnectionFactory(http2SslContextFactory, http.getProtocol()),
+                    http
+            );
+        }
+
+        HTTP2ServerConnectionFactory h2 = configure(new HTTP2ServerConnectionFactory(httpConfig), options.getHttp2Settings());
 
         ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory();
 
@@ -64,6 +112,13 @@ public class Jetty94HttpServer extends JettyHttpServer {
         );
     }
 
+    private static <T extends AbstractHTTP2ServerConnectionFactory> T configure(T connectionFactory, Http2Settings http2Settings) {
+        connectionFactory.setMaxConcurrentStreams(http2Settings.maxConcurrentStreams());
+        connectionFactory.setInitialStreamRecvWindow(http2Settings.initialStreamRecvWindow());
+        connectionFactory.setInitialSessionRecvWindow(http2Settings.initialSessionRecvWindow());
+        return connectionFactory;
+    }
+
     @Override
     protected HandlerCollection createHandler(
         Options options,
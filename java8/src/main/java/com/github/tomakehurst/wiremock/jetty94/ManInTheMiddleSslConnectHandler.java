@@ -18,25 +18,43 @@ import static org.eclipse.jetty.http.HttpMethod.CONNECT;
  * A Handler for the HTTP CONNECT method that, instead of opening up a
  * TCP tunnel between the downstream and upstream sockets, turns the connection
  * into an SSL connection allowing this server to handle it.
+ *
+ * CONNECT requests made over plain HTTP negotiate HTTP/2 with ALPN when an ALPN-capable
+ * connection factory is supplied and an ALPN processor supports its SSLEngine; otherwise,
+ * and always for CONNECT requests made over HTTPS, the connection continues as HTTP/1.1.
+ * See {@link SslContexts} for why.
  */
 class ManInTheMiddleSslConnectHandler extends AbstractHandler {
 
     private final SslConnectionFactory sslConnectionFactory;
+    private final SslConnectionFactory alpnSslConnectionFactory;
+    private volatile boolean alpnSupported;
 
-    ManInTheMiddleSslConnectHandler(SslConnectionFactory sslConnectionFactory) {
+    ManInTheMiddleSslConnectHandler(
+        SslConnectionFactory sslConnectionFactory,
+        SslConnectionFactory alpnSslConnectionFactory
+    ) {
         this.sslConnectionFactory = sslConnectionFactory;
+        this.alpnSslConnectionFactory = alpnSslConnectionFactory;
     }
 
     @Override
     protected void doStart() throws Exception {
         super.doStart();
         sslConnectionFactory.start();
+        if (alpnSslConnectionFactory != null) {
+            alpnSslConnectionFactory.start();
+            alpnSupported = SslContexts.isAlpnSupportedBy(alpnSslConnectionFactory.getSslContextFactory().newSSLEngine());
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
         super.doStop();
         sslConnectionFactory.stop();
+        if (alpnSslConnectionFactory != null) {
+            alpnSslConnectionFactory.stop();
+        }
     }
 
     @Override
@@ -63,7 +81,8 @@ class ManInTheMiddleSslConnectHandler extends AbstractHandler {
         EndPoint endpoint = httpChannel.getEndPoint();
         endpoint.setConnection(null);
 
-        Connection connection = sslConnectionFactory.newConnection(connector, endpoint);
+        SslConnectionFactory connectionFactory = alpnSupported && !baseRequest.isSecure() ? alpnSslConnectionFactory : sslConnectionFactory;
+        Connection connection = connectionFactory.newConnection(connector, endpoint);
         endpoint.setConnection(connection);
 
         endpoint.onOpen();
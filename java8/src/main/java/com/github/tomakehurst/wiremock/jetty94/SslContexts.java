@@ -10,49 +10,79 @@ import com.github.tomakehurst.wiremock.http.ssl.CertificateGenerationUnsupported
 import com.github.tomakehurst.wiremock.http.ssl.X509KeyStore;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.io.ssl.ALPNProcessor;
 import org.eclipse.jetty.server.SslConnectionFactory;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 
+import javax.net.ssl.SSLEngine;
 import java.io.IOException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.ServiceLoader;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 
 public class SslContexts {
 
     public static ManInTheMiddleSslConnectHandler buildManInTheMiddleSslConnectHandler(Options options) {
+        SslContextFactory.Server sslContextFactory = buildManInTheMiddleSslContextFactory(options.httpsSettings(), options.browserProxySettings(), options.notifier());
+        SslConnectionFactory http11SslConnectionFactory = new SslConnectionFactory(
+                sslContextFactory,
+                /*
+                If the proxy CONNECT request is made over HTTPS, and the
+                actual content request is made using HTTP/2 tunneled over
+                HTTPS, and an exception is thrown, the server blocks for 30
+                seconds before flushing the response.
+
+                To fix this, force HTTP/1.1 over TLS when tunneling HTTPS
+                through a CONNECT request made over HTTPS. CONNECT requests
+                made over plain HTTP don't have this problem, so they
+                negotiate HTTP/2 with ALPN when it's enabled, using the alpn
+                & h2 connection factories on the HTTP connector.
+
+                Unfortunately it has proven too hard to write a test to
+                demonstrate the bug; it requires an HTTP client capable of
+                doing ALPN & HTTP/2, which will only offer HTTP/1.1 in the
+                ALPN negotiation when using HTTPS for the initial CONNECT
+                request but will then offer both HTTP/1.1 and HTTP/2 for the
+                actual request (this is how curl 7.64.1 behaves!). Neither
+                Apache HTTP 4, 5, 5 Async, OkHttp, nor the Jetty client
+                could do this. It might be possible to write one using
+                Netty, but it would be hard and time consuming.
+                 */
+                HttpVersion.HTTP_1_1.asString()
+        );
+
+        if (!options.getHttp2Settings().tlsEnabled()) {
+            return new ManInTheMiddleSslConnectHandler(http11SslConnectionFactory, null);
+        }
+
+        // Unlike the HTTPS connector this can't use Conscrypt, as Conscrypt doesn't expose the
+        // requested server name while the certificate is chosen, so ALPN is only possible if
+        // an ALPN processor supports the JDK's SSLEngine (e.g. jetty-alpn-java-server on Java 9+)
+        sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
         return new ManInTheMiddleSslConnectHandler(
-                new SslConnectionFactory(
-                        buildManInTheMiddleSslContextFactory(options.httpsSettings(), options.browserProxySettings(), options.notifier()),
-                                /*
-                                If the proxy CONNECT request is made over HTTPS, and the
-                                actual content request is made using HTTP/2 tunneled over
-                                HTTPS, and an exception is thrown, the server blocks for 30
-                                seconds before flushing the response.
-
-                                To fix this, force HTTP/1.1 over TLS when tunneling HTTPS.
-
-                                This also means the HTTP connector does not need the alpn &
-                                h2 connection factories as it will not use them.
-
-                                Unfortunately it has proven too hard to write a test to
-                                demonstrate the bug; it requires an HTTP client capable of
-                                doing ALPN & HTTP/2, which will only offer HTTP/1.1 in the
-                                ALPN negotiation when using HTTPS for the initial CONNECT
-                                request but will then offer both HTTP/1.1 and HTTP/2 for the
-                                actual request (this is how curl 7.64.1 behaves!). Neither
-                                Apache HTTP 4, 5, 5 Async, OkHttp, nor the Jetty client
-                                could do this. It might be possible to write one using
-                                Netty, but it would be hard and time consuming.
-                                 */
-                        HttpVersion.HTTP_1_1.asString()
-                )
+                http11SslConnectionFactory,
+                new SslConnectionFactory(sslContextFactory, "alpn")
         );
     }
 
+    public static boolean isAlpnSupportedBy(SSLEngine sslEngine) {
+        for (ALPNProcessor.Server processor : ServiceLoader.load(ALPNProcessor.Server.class)) {
+            try {
+                processor.init();
+                if (processor.appliesTo(sslEngine)) {
+                    return true;
+                }
+            } catch (Throwable e) {
+                // Not usable on this JVM, e.g. the JDK 9 processor on Java 8
+            }
+        }
+        return false;
+    }
+
     public static SslContextFactory.Server buildHttp2SslContextFactory(HttpsSettings httpsSettings) {
         SslContextFactory.Server sslContextFactory = SslContexts.defaultSslContextFactory(httpsSettings.keyStore());
         sslContextFactory.setKeyManagerPassword(httpsSettings.keyManagerPassword());
@@ -64,7 +94,7 @@ public class SslContexts {
 
     public static SslContextFactory.Server buildManInTheMiddleSslContextFactory(HttpsSettings httpsSettings, BrowserProxySettings browserProxySettings, final Notifier notifier) {
         KeyStoreSettings browserProxyCaKeyStore = browserProxySettings.caKeyStore();
-        SslContextFactory.Server sslContextFactory = buildSslContextFactory(notifier, browserProxyCaKeyStore, httpsSettings.keyStore());
+        SslContextFactory.Server sslContextFactory = buildSslContextFactory(notifier, browserProxyCaKeyStore, browserProxySettings.generatedCertificatesKeyStore(), httpsSettings.keyStore());
         setupClientAuth(sslContextFactory, httpsSettings);
         return sslContextFactory;
     }
@@ -77,14 +107,14 @@ public class SslContexts {
         sslContextFactory.setNeedClientAuth(httpsSettings.needClientAuth());
     }
 
-    private static SslContextFactory.Server buildSslContextFactory(Notifier notifier, KeyStoreSettings browserProxyCaKeyStore, KeyStoreSettings defaultHttpsKeyStore) {
+    private static SslContextFactory.Server buildSslContextFactory(Notifier notifier, KeyStoreSettings browserProxyCaKeyStore, KeyStoreSettings generatedCertificatesKeyStore, KeyStoreSettings defaultHttpsKeyStore) {
         if (browserProxyCaKeyStore.exists()) {
             X509KeyStore existingKeyStore = toX509KeyStore(browserProxyCaKeyStore);
-            return certificateGeneratingSslContextFactory(notifier, browserProxyCaKeyStore, existingKeyStore);
+            return certificateGeneratingSslContextFactory(notifier, browserProxyCaKeyStore, existingKeyStore, generatedCertificatesKeyStore);
         } else {
             try {
                 X509KeyStore newKeyStore = buildKeyStore(browserProxyCaKeyStore);
-                return certificateGeneratingSslContextFactory(notifier, browserProxyCaKeyStore, newKeyStore);
+                return certificateGeneratingSslContextFactory(notifier, browserProxyCaKeyStore, newKeyStore, generatedCertificatesKeyStore);
             } catch (Exception e) {
                 notifier.error("Unable to generate a certificate authority", e);
                 return defaultSslContextFactory(defaultHttpsKeyStore);
@@ -98,8 +128,10 @@ public class SslContexts {
         return sslContextFactory;
     }
 
-    private static SslContextFactory.Server certificateGeneratingSslContextFactory(Notifier notifier, KeyStoreSettings browserProxyCaKeyStore, X509KeyStore newKeyStore) {
-        SslContextFactory.Server sslContextFactory = new CertificateGeneratingSslContextFactory(newKeyStore, notifier);
+    private static SslContextFactory.Server certificateGeneratingSslContextFactory(Notifier notifier, KeyStoreSettings browserProxyCaKeyStore, X509KeyStore newKeyStore, KeyStoreSettings generatedCertificatesKeyStore) {
+        SslContextFactory.Server sslContextFactory = generatedCertificatesKeyStore.getSource() != null ?
+            new CertificateGeneratingSslContextFactory(newKeyStore, toGeneratedCertificatesKeyStore(generatedCertificatesKeyStore, browserProxyCaKeyStore), generatedCertificatesKeyStore.getSource(), notifier) :
+            new CertificateGeneratingSslContextFactory(newKeyStore, newKeyStore, null, notifier);
         setupKeyStore(sslContextFactory, browserProxyCaKeyStore);
         // Unlike the default one, we can insist that the keystore password is the keystore password
         sslContextFactory.setKeyStorePassword(browserProxyCaKeyStore.password());
@@ -121,6 +153,24 @@ public class SslContexts {
         }
     }
 
+    /**
+     * Generated certificates are kept apart from the CA, which is only ever read, and use the
+     * CA keystore's password as that's the one the key manager recovers their keys with.
+     */
+    private static X509KeyStore toGeneratedCertificatesKeyStore(KeyStoreSettings generatedCertificatesKeyStore, KeyStoreSettings browserProxyCaKeyStore) {
+        char[] password = browserProxyCaKeyStore.password().toCharArray();
+        try {
+            if (generatedCertificatesKeyStore.exists()) {
+                return new X509KeyStore(generatedCertificatesKeyStore.loadStore(), password);
+            }
+            KeyStore keyStore = KeyStore.getInstance(generatedCertificatesKeyStore.type());
+            keyStore.load(null, password);
+            return new X509KeyStore(keyStore, password);
+        } catch (KeyStoreException | IOException | NoSuchAlgorithmException | CertificateException e) {
+            return throwUnchecked(e, null);
+        }
+    }
+
     private static X509KeyStore buildKeyStore(KeyStoreSettings browserProxyCaKeyStore) throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException, CertificateGenerationUnsupportedException {
         final CertificateAuthority certificateAuthority = CertificateAuthority.generateCertificateAuthority();
         KeyStore keyStore = KeyStore.getInstance(browserProxyCaKeyStore.type());
@@ -6,6 +6,7 @@ import com.google.common.io.Resources;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -19,6 +20,8 @@ import java.util.EnumSet;
 import java.util.Objects;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.nio.file.attribute.PosixFilePermission.*;
 import static java.nio.file.attribute.PosixFilePermissions.asFileAttribute;
 
@@ -28,17 +31,42 @@ public class WritableFileOrClasspathKeyStoreSource extends ReadOnlyFileOrClasspa
         super(path, keyStoreType, keyStorePassword);
     }
 
+    /**
+     * Writes to a temporary file first and then moves it into place, as this is
+     * called again with generated certificates once the keystore already exists
+     * and a partial write must never lose the certificate authority.
+     */
     @Override
     public void save(KeyStore keyStore) {
-        Path created = createKeystoreFile(Paths.get(path));
-        try (FileOutputStream fos = new FileOutputStream(created.toFile())) {
-            keyStore.store(fos, keyStorePassword);
+        Path target = Paths.get(path).toAbsolutePath();
+        Path created = createTempKeystoreFile(target);
+        try {
+            try (FileOutputStream fos = new FileOutputStream(created.toFile())) {
+                keyStore.store(fos, keyStorePassword);
+            }
+            moveIntoPlace(created, target);
         } catch (KeyStoreException | NoSuchAlgorithmException | CertificateException | IOException e) {
+            deleteQuietly(created);
             throwUnchecked(e);
         }
     }
 
-    private static Path createKeystoreFile(Path path) {
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static Path createTempKeystoreFile(Path path) {
         FileAttribute<?>[] privateDirAttrs = new FileAttribute<?>[0];
         FileAttribute<?>[] privateFileAttrs = new FileAttribute<?>[0];
         if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
@@ -50,7 +78,7 @@ public class WritableFileOrClasspathKeyStoreSource extends ReadOnlyFileOrClasspa
             if (!Files.exists(path.getParent())) {
                 Files.createDirectories(path.getParent(), privateDirAttrs);
             }
-            return Files.createFile(path, privateFileAttrs);
+            return Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp", privateFileAttrs);
         } catch (IOException e) {
             return throwUnchecked(e, Path.class);
         }
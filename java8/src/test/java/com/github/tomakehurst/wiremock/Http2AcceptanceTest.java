@@ -7,12 +7,23 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http2.api.Session;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.frames.SettingsFrame;
+import org.eclipse.jetty.util.FuturePromise;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -46,4 +57,56 @@ public class Http2AcceptanceTest {
             assertThat(response.getStatusLine().getStatusCode(), is(200));
         }
     }
+
+    @Test
+    public void supportsCleartextHttp2ConnectionsWithPriorKnowledge() throws Exception {
+        HttpClient client = Http2ClientFactory.create();
+
+        wm.stubFor(get("/thing").willReturn(ok("h2c response")));
+
+        ContentResponse response = client.GET("http://localhost:" + wm.port() + "/thing");
+        assertThat(response.getStatus(), is(200));
+        assertThat(response.getVersion(), is(HttpVersion.HTTP_2));
+        assertThat(response.getContentAsString(), is("h2c response"));
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void rejectsCleartextHttp2ConnectionsWhenDisabled() throws Exception {
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig().dynamicPort().http2PlainDisabled(true));
+        wireMockServer.start();
+        try {
+            HttpClient client = Http2ClientFactory.create();
+            client.newRequest("http://localhost:" + wireMockServer.port() + "/thing").timeout(5, SECONDS).send();
+        } finally {
+            wireMockServer.stop();
+        }
+    }
+
+    @Test
+    public void advertisesConfiguredStreamConcurrencyAndFlowControlWindow() throws Exception {
+        WireMockServer wireMockServer = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .http2MaxConcurrentStreams(50)
+                .http2InitialStreamRecvWindow(128 * 1024));
+        wireMockServer.start();
+
+        HTTP2Client http2Client = new HTTP2Client();
+        http2Client.start();
+        try {
+            final CompletableFuture<Map<Integer, Integer>> settings = new CompletableFuture<>();
+            http2Client.connect(new InetSocketAddress("localhost", wireMockServer.port()), new Session.Listener.Adapter() {
+                @Override
+                public void onSettings(Session session, SettingsFrame frame) {
+                    settings.complete(frame.getSettings());
+                }
+            }, new FuturePromise<Session>());
+
+            Map<Integer, Integer> serverSettings = settings.get(5, SECONDS);
+            assertThat(serverSettings.get(SettingsFrame.MAX_CONCURRENT_STREAMS), is(50));
+            assertThat(serverSettings.get(SettingsFrame.INITIAL_WINDOW_SIZE), is(128 * 1024));
+        } finally {
+            http2Client.stop();
+            wireMockServer.stop();
+        }
+    }
 }
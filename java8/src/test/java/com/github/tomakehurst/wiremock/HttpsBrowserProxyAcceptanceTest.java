@@ -37,6 +37,8 @@ import org.eclipse.jetty.client.HttpProxy;
 import org.eclipse.jetty.client.Origin;
 import org.eclipse.jetty.client.ProxyConfiguration;
 import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.conscrypt.Conscrypt;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Ignore;
@@ -44,11 +46,16 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
@@ -68,11 +75,16 @@ import static com.github.tomakehurst.wiremock.core.WireMockApp.FILES_ROOT;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.MAPPINGS_ROOT;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.jetty94.SslContexts.isAlpnSupportedBy;
 import static com.github.tomakehurst.wiremock.testsupport.TestFiles.TRUST_STORE_PASSWORD;
 import static com.github.tomakehurst.wiremock.testsupport.TestFiles.TRUST_STORE_PATH;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
 
 public class HttpsBrowserProxyAcceptanceTest {
 
@@ -139,6 +151,34 @@ public class HttpsBrowserProxyAcceptanceTest {
         assertThat(response.getContentAsString(), is("Got it"));
     }
 
+    @Test
+    public void negotiatesHttp2ForHttpsTunnelledThroughPlainConnect() throws Exception {
+        assumeTrue(isAlpnSupportedBy(SSLContext.getDefault().createSSLEngine()));
+
+        try (Socket socket = new Socket("localhost", proxy.port())) {
+            connectThrough(socket);
+            assertThat(negotiatedProtocolOver(socket), is("h2"));
+        }
+    }
+
+    @Test
+    public void doesNotNegotiateHttp2ForHttpsTunnelledThroughPlainConnectWithoutAlpnSupport() throws Exception {
+        assumeFalse(isAlpnSupportedBy(SSLContext.getDefault().createSSLEngine()));
+
+        try (Socket socket = new Socket("localhost", proxy.port())) {
+            connectThrough(socket);
+            assertThat(negotiatedProtocolOver(socket), not("h2"));
+        }
+    }
+
+    @Test
+    public void doesNotNegotiateHttp2ForHttpsTunnelledThroughHttpsConnect() throws Exception {
+        try (SSLSocket socket = trustAllJdkSocket(new Socket("localhost", proxy.httpsPort()), "localhost", proxy.httpsPort())) {
+            connectThrough(socket);
+            assertThat(negotiatedProtocolOver(socket), not("h2"));
+        }
+    }
+
     @Test
     public void canStubHttpsInBrowserProxyMode() throws Exception {
         target.stubFor(get(urlEqualTo("/stubbed")).willReturn(aResponse().withBody("Should Not Be Returned")));
@@ -336,6 +376,48 @@ public class HttpsBrowserProxyAcceptanceTest {
         assertEquals(keyStore.getCertificateAuthority().certificateChain()[0], cert);
     }
 
+    private static void connectThrough(Socket proxySocket) throws IOException {
+        String authority = "localhost:" + target.httpsPort();
+        OutputStream out = proxySocket.getOutputStream();
+        out.write(("CONNECT " + authority + " HTTP/1.1\r\nHost: " + authority + "\r\n\r\n").getBytes(UTF_8));
+        out.flush();
+
+        InputStream in = proxySocket.getInputStream();
+        StringBuilder responseHead = new StringBuilder();
+        while (!responseHead.toString().endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Proxy closed the connection after: " + responseHead);
+            }
+            responseHead.append((char) b);
+        }
+        assertThat(responseHead.toString().startsWith("HTTP/1.1 200"), is(true));
+    }
+
+    private static String negotiatedProtocolOver(Socket tunnel) throws Exception {
+        // a dotted host name, so that the SNI the certificate is generated from gets sent
+        SSLSocket socket = trustAllConscryptSocket(tunnel, "h2.wiremock.internal", target.httpsPort());
+        Conscrypt.setApplicationProtocols(socket, new String[] { "h2", "http/1.1" });
+        socket.startHandshake();
+        return Conscrypt.getApplicationProtocol(socket);
+    }
+
+    private static SSLSocket trustAllConscryptSocket(Socket socket, String host, int port) throws Exception {
+        SSLContext sslContext = SSLContext.getInstance("TLS", Conscrypt.newProvider());
+        sslContext.init(null, SslContextFactory.TRUST_ALL_CERTS, null);
+        SSLSocketFactory socketFactory = sslContext.getSocketFactory();
+        // Conscrypt's default sockets use the file descriptor of the socket they're layered over, which would
+        // bypass a TLS connection to the proxy
+        Conscrypt.setUseEngineSocket(socketFactory, true);
+        return (SSLSocket) socketFactory.createSocket(socket, host, port, true);
+    }
+
+    private static SSLSocket trustAllJdkSocket(Socket socket, String host, int port) throws Exception {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, SslContextFactory.TRUST_ALL_CERTS, null);
+        return (SSLSocket) sslContext.getSocketFactory().createSocket(socket, host, port, true);
+    }
+
     private Certificate decode(String body) throws Exception {
         String base64 = body.replace("-----BEGIN CERTIFICATE-----", "").replace("-----END CERTIFICATE-----", "");
         byte[] certBytes = Base64.getMimeDecoder().decode(base64);
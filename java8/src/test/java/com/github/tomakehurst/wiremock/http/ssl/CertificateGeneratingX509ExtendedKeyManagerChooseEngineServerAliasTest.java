@@ -1,5 +1,6 @@
 package com.github.tomakehurst.wiremock.http.ssl;
 
+import com.github.tomakehurst.wiremock.common.Source;
 import com.github.tomakehurst.wiremock.testsupport.TestNotifier;
 import org.junit.Test;
 
@@ -10,6 +11,8 @@ import javax.net.ssl.SNIHostName;
 import javax.net.ssl.SNIServerName;
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.X509ExtendedKeyManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.security.KeyFactory;
@@ -24,9 +27,12 @@ import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.RSAPublicKeySpec;
+import java.util.concurrent.CountDownLatch;
 
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.testsupport.TestFiles.KEY_STORE_WITH_CA_PATH;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -89,6 +95,97 @@ public class CertificateGeneratingX509ExtendedKeyManagerChooseEngineServerAliasT
         assertArrayEquals(certificateChain, generatingKeyManager.getCertificateChain(sameKeyAlias));
     }
 
+    @Test
+    public void generatesEcCertificateSignedByRsaAuthorityWhenClientOffersEc() throws Exception {
+
+        KeyStore keyStore = readKeyStore(KEY_STORE_WITH_CA_PATH, "password");
+        String hostname = "example.com";
+
+        // given
+        X509KeyStore x509KeyStore = new X509KeyStore(keyStore, "password".toCharArray());
+        CertificateGeneratingX509ExtendedKeyManager generatingKeyManager = keyManagerFor(keyStore, "password".toCharArray(),
+                new DynamicKeyStore(x509KeyStore, new KeyPairPool(1, "RSA", "EC"), x509KeyStore, null, new TestNotifier()));
+
+        // when
+        SSLEngine sslEngineMock = getSslEngineWithSessionFor(hostname);
+        String keyAlias = generatingKeyManager.chooseEngineServerAlias("EC", null, sslEngineMock);
+
+        // then
+        assertEquals(hostname + "#ec", keyAlias);
+
+        // and
+        X509Certificate[] certificateChain = generatingKeyManager.getCertificateChain(keyAlias);
+        assertEquals("EC", generatingKeyManager.getPrivateKey(keyAlias).getAlgorithm());
+        assertEquals("EC", certificateChain[0].getPublicKey().getAlgorithm());
+        certificateChain[0].verify(x509KeyStore.getCertificateAuthority().certificateChain()[0].getPublicKey());
+    }
+
+    @Test
+    public void savesGeneratedCertificatesSoTheyAreReusedAfterReloading() throws Exception {
+
+        KeyStore keyStore = readKeyStore(KEY_STORE_WITH_CA_PATH, "password");
+        String hostname = "example.com";
+        InMemoryKeyStoreSource keyStoreSource = new InMemoryKeyStoreSource("password".toCharArray());
+
+        // given
+        X509KeyStore x509KeyStore = new X509KeyStore(keyStore, "password".toCharArray());
+        CertificateGeneratingX509ExtendedKeyManager generatingKeyManager = keyManagerFor(keyStore, "password".toCharArray(),
+                new DynamicKeyStore(x509KeyStore, new KeyPairPool(1, "RSA", "EC"), emptyKeyStore("password".toCharArray()), keyStoreSource, new TestNotifier()));
+
+        // when
+        SSLEngine sslEngineMock = getSslEngineWithSessionFor(hostname);
+        String keyAlias = generatingKeyManager.chooseEngineServerAlias("RSA", null, sslEngineMock);
+        X509Certificate[] certificateChain = generatingKeyManager.getCertificateChain(keyAlias);
+
+        // then
+        KeyStore reloaded = keyStoreSource.awaitSave();
+        CertificateGeneratingX509ExtendedKeyManager reloadedKeyManager = keyManagerFor(keyStore, "password".toCharArray(),
+                new DynamicKeyStore(x509KeyStore, new KeyPairPool(0), new X509KeyStore(reloaded, "password".toCharArray()), null, new TestNotifier()));
+        assertEquals(keyAlias, reloadedKeyManager.chooseEngineServerAlias("RSA", null, sslEngineMock));
+        assertArrayEquals(certificateChain, reloadedKeyManager.getCertificateChain(keyAlias));
+
+        // and the CA keystore is left alone
+        assertFalse(keyStore.containsAlias(keyAlias));
+    }
+
+    @Test
+    public void regeneratesSavedCertificatesThatWereIssuedByAnotherCertificateAuthority() throws Exception {
+
+        KeyStore keyStore = readKeyStore(KEY_STORE_WITH_CA_PATH, "password");
+        String hostname = "example.com";
+        char[] password = "password".toCharArray();
+
+        // given
+        KeyStore otherCaKeyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        otherCaKeyStore.load(null, password);
+        CertificateAuthority otherCa = CertificateAuthority.generateCertificateAuthority();
+        otherCaKeyStore.setKeyEntry("other-ca", otherCa.key(), password, otherCa.certificateChain());
+        X509KeyStore generatedCertificates = emptyKeyStore(password);
+        SSLEngine sslEngineMock = getSslEngineWithSessionFor(hostname);
+        String staleAlias = keyManagerFor(otherCaKeyStore, password,
+                new DynamicKeyStore(new X509KeyStore(otherCaKeyStore, password), new KeyPairPool(0), generatedCertificates, null, new TestNotifier()))
+                .chooseEngineServerAlias("RSA", null, sslEngineMock);
+        X509Certificate[] staleChain = generatedCertificates.getCertificateChain(staleAlias);
+
+        // when
+        X509KeyStore x509KeyStore = new X509KeyStore(keyStore, password);
+        CertificateGeneratingX509ExtendedKeyManager generatingKeyManager = keyManagerFor(keyStore, password,
+                new DynamicKeyStore(x509KeyStore, new KeyPairPool(0), generatedCertificates, null, new TestNotifier()));
+        String keyAlias = generatingKeyManager.chooseEngineServerAlias("RSA", null, sslEngineMock);
+
+        // then
+        assertEquals(staleAlias, keyAlias);
+        X509Certificate[] certificateChain = generatingKeyManager.getCertificateChain(keyAlias);
+        assertNotEquals(staleChain[0], certificateChain[0]);
+        certificateChain[0].verify(x509KeyStore.getCertificateAuthority().certificateChain()[0].getPublicKey());
+    }
+
+    private static X509KeyStore emptyKeyStore(char[] password) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        keyStore.load(null, password);
+        return new X509KeyStore(keyStore, password);
+    }
+
     private PublicKey getPublicKey(RSAPrivateCrtKey privateKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
         RSAPublicKeySpec publicKeySpec = new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent());
 
@@ -106,14 +203,17 @@ public class CertificateGeneratingX509ExtendedKeyManagerChooseEngineServerAliasT
     }
 
     private CertificateGeneratingX509ExtendedKeyManager keyManagerFor(KeyStore keyStore, char[] keyStorePassword) throws NoSuchAlgorithmException, KeyStoreException, UnrecoverableKeyException {
+        return keyManagerFor(keyStore, keyStorePassword, new DynamicKeyStore(new X509KeyStore(keyStore, keyStorePassword)));
+    }
+
+    private CertificateGeneratingX509ExtendedKeyManager keyManagerFor(KeyStore keyStore, char[] keyStorePassword, DynamicKeyStore dynamicKeyStore) throws NoSuchAlgorithmException, KeyStoreException, UnrecoverableKeyException {
         KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
         keyManagerFactory.init(keyStore, keyStorePassword);
         X509ExtendedKeyManager keyManager = findExtendedKeyManager(keyManagerFactory.getKeyManagers());
-        X509KeyStore x509KeyStore = new X509KeyStore(keyStore, keyStorePassword);
 
         return new CertificateGeneratingX509ExtendedKeyManager(
                 keyManager,
-                new DynamicKeyStore(x509KeyStore),
+                dynamicKeyStore,
                 new ApacheHttpHostNameMatcher(),
                 new TestNotifier()
         );
@@ -128,6 +228,50 @@ public class CertificateGeneratingX509ExtendedKeyManagerChooseEngineServerAliasT
         throw new AssertionError("Can't run this test of the SSL provider does not create X509ExtendedKeyManager instances");
     }
 
+    private static class InMemoryKeyStoreSource implements Source<KeyStore> {
+
+        private final char[] password;
+        private final CountDownLatch saved = new CountDownLatch(1);
+        private volatile byte[] bytes;
+
+        private InMemoryKeyStoreSource(char[] password) {
+            this.password = password;
+        }
+
+        @Override
+        public KeyStore load() {
+            try {
+                KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+                keyStore.load(new ByteArrayInputStream(bytes), password);
+                return keyStore;
+            } catch (Exception e) {
+                return throwUnchecked(e, KeyStore.class);
+            }
+        }
+
+        @Override
+        public void save(KeyStore keyStore) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                keyStore.store(out, password);
+                bytes = out.toByteArray();
+                saved.countDown();
+            } catch (Exception e) {
+                throwUnchecked(e);
+            }
+        }
+
+        @Override
+        public boolean exists() {
+            return bytes != null;
+        }
+
+        KeyStore awaitSave() throws InterruptedException {
+            assertTrue("Keystore was not saved", saved.await(10, SECONDS));
+            return load();
+        }
+    }
+
     private static KeyStore readKeyStore(String path, String password) throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
         KeyStore trustStore  = KeyStore.getInstance(KeyStore.getDefaultType());
         FileInputStream instream = new FileInputStream(path);
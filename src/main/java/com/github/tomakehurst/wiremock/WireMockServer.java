@@ -29,6 +29,8 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
+import com.github.tomakehurst.wiremock.http.AdminPortHttpServer;
+import com.github.tomakehurst.wiremock.http.AdmissionControlStats;
 import com.github.tomakehurst.wiremock.http.HttpServer;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
 import com.github.tomakehurst.wiremock.http.RequestListener;
@@ -140,6 +142,7 @@ public class WireMockServer implements Container, Stubbing, Admin {
 
     public void stop() {
         httpServer.stop();
+        wireMockApp.stop();
 	}
 
 	public void start() {
@@ -191,6 +194,14 @@ public class WireMockServer implements Container, Stubbing, Admin {
         return httpServer.httpsPort();
     }
 
+    public int adminPort() {
+        checkState(
+                isRunning() && options.getAdminConnectorSettings().enabled() && httpServer instanceof AdminPortHttpServer,
+                "Not listening on a separate admin port. Either no admin port is configured, the HTTP server doesn't support one or the WireMock server is stopped."
+        );
+        return ((AdminPortHttpServer) httpServer).adminPort();
+    }
+
     public String url(String path) {
         if (!path.startsWith("/")) {
             path = "/" + path;
@@ -416,6 +427,16 @@ public class WireMockServer implements Container, Stubbing, Admin {
         return wireMockApp.getAllScenarios();
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return wireMockApp.getProxyConnectionPoolStats();
+    }
+
+    @Override
+    public AdmissionControlStats getAdmissionControlStats() {
+        return wireMockApp.getAdmissionControlStats();
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         return wireMockApp.findTopNearMissesFor(loggedRequest);
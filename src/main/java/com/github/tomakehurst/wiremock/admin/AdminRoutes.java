@@ -113,6 +113,9 @@ public class AdminRoutes {
         router.add(GET, "/docs", GetDocIndexTask.class);
 
         router.add(GET, "/certs/wiremock-ca.crt", GetCaCertTask.class);
+
+        router.add(GET, "/proxy/connection-pool", GetProxyConnectionPoolStatsTask.class);
+        router.add(GET, "/admission-control", GetAdmissionControlStatsTask.class);
     }
 
     protected void initAdditionalRoutes(Router routeBuilder) {
@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.client;
 
 import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
@@ -39,7 +40,7 @@ class BasicMappingBuilder implements ScenarioMappingBuilder {
 	private String scenarioName;
 	private String requiredScenarioState;
 	private String newScenarioState;
-	private UUID id = UUID.randomUUID();
+	private UUID id = Uuids.random();
 	private String name;
     private boolean isPersistent = false;
     private Map<String, Parameters> postServeActions = newLinkedHashMap();
@@ -23,6 +23,7 @@ import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.AdmissionControlStats;
 import com.github.tomakehurst.wiremock.http.HttpClientFactory;
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.HttpStatus;
@@ -277,6 +278,22 @@ public class HttpAdminClient implements Admin {
         );
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetProxyConnectionPoolStatsTask.class),
+            GetProxyConnectionPoolStatsResult.class
+        );
+    }
+
+    @Override
+    public AdmissionControlStats getAdmissionControlStats() {
+        return executeRequest(
+            adminRoutes.requestSpecForTask(GetAdmissionControlStatsTask.class),
+            AdmissionControlStats.class
+        );
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         String body = postJsonAssertOkAndReturnBody(
@@ -44,6 +44,8 @@ public class ResponseDefinitionBuilder {
     protected DelayDistribution delayDistribution;
     protected ChunkedDribbleDelay chunkedDribbleDelay;
     protected String proxyBaseUrl;
+    protected ProxyRequestCoalescing proxyRequestCoalescing;
+    protected ProxyResponseCaching proxyResponseCaching;
     protected Fault fault;
     protected List<String> responseTransformerNames;
     protected Map<String, Object> transformerParameters = newHashMap();
@@ -63,6 +65,8 @@ public class ResponseDefinitionBuilder {
         builder.delayDistribution = responseDefinition.getDelayDistribution();
         builder.chunkedDribbleDelay = responseDefinition.getChunkedDribbleDelay();
         builder.proxyBaseUrl = responseDefinition.getProxyBaseUrl();
+        builder.proxyRequestCoalescing = responseDefinition.getProxyRequestCoalescing();
+        builder.proxyResponseCaching = responseDefinition.getProxyResponseCaching();
         builder.fault = responseDefinition.getFault();
         builder.responseTransformerNames = responseDefinition.getTransformers();
         builder.transformerParameters = responseDefinition.getTransformerParameters() != null ? Parameters.from(responseDefinition.getTransformerParameters()) : Parameters.empty();
@@ -206,6 +210,8 @@ public class ResponseDefinitionBuilder {
             this.delayDistribution = from.delayDistribution;
             this.chunkedDribbleDelay = from.chunkedDribbleDelay;
             this.proxyBaseUrl = from.proxyBaseUrl;
+            this.proxyRequestCoalescing = from.proxyRequestCoalescing;
+            this.proxyResponseCaching = from.proxyResponseCaching;
             this.responseTransformerNames = from.responseTransformerNames;
             this.transformerParameters = from.transformerParameters;
         }
@@ -215,6 +221,29 @@ public class ResponseDefinitionBuilder {
             return this;
         }
 
+        /**
+         * Shares one upstream call between concurrent GET and HEAD requests for the same URL whose values for
+         * the given headers also match.
+         */
+        public ProxyResponseDefinitionBuilder withRequestCoalescing(String... keyHeaders) {
+            this.proxyRequestCoalescing = new ProxyRequestCoalescing(asList(keyHeaders));
+            return this;
+        }
+
+        /**
+         * Caches responses from this stub's target for the given time when the proxy response cache is enabled,
+         * whatever the target's own caching headers say.
+         */
+        public ProxyResponseDefinitionBuilder withResponseCacheTtl(int ttlSeconds) {
+            this.proxyResponseCaching = ProxyResponseCaching.withTtl(ttlSeconds);
+            return this;
+        }
+
+        public ProxyResponseDefinitionBuilder withoutResponseCaching() {
+            this.proxyResponseCaching = ProxyResponseCaching.DISABLED;
+            return this;
+        }
+
         @Override
         public ResponseDefinition build() {
             return !additionalRequestHeaders.isEmpty() ? super.build(new HttpHeaders(additionalRequestHeaders)) : super.build();
@@ -255,6 +284,8 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyRequestCoalescing,
+                    proxyResponseCaching,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -274,6 +305,8 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyRequestCoalescing,
+                    proxyResponseCaching,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -292,6 +325,8 @@ public class ResponseDefinitionBuilder {
                     delayDistribution,
                     chunkedDribbleDelay,
                     proxyBaseUrl,
+                    proxyRequestCoalescing,
+                    proxyResponseCaching,
                     fault,
                     responseTransformerNames,
                     transformerParameters,
@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock.client;
 
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolStatsResult;
 import com.github.tomakehurst.wiremock.admin.model.ListStubMappingsResult;
 import com.github.tomakehurst.wiremock.admin.model.SingleStubMappingResult;
 import com.github.tomakehurst.wiremock.stubbing.*;
@@ -24,6 +25,7 @@ import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
+import com.github.tomakehurst.wiremock.http.AdmissionControlStats;
 import com.github.tomakehurst.wiremock.http.DelayDistribution;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
@@ -834,4 +836,12 @@ public class WireMock {
     public static GlobalSettings getSettings() {
         return defaultInstance.get().getGlobalSettings();
     }
+
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        return admin.getProxyConnectionPoolStats();
+    }
+
+    public AdmissionControlStats getAdmissionControlStats() {
+        return admin.getAdmissionControlStats();
+    }
 }
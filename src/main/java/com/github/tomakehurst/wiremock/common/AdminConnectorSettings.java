@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.Objects;
+
+/**
+ * Settings for serving the admin API from its own port, with its own small thread pool,
+ * so that heavy admin calls and stub traffic can't starve each other of threads.
+ */
+public class AdminConnectorSettings {
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final AdminConnectorSettings DISABLED = new AdminConnectorSettings(false, 0, DEFAULT_THREADS);
+
+    private final boolean enabled;
+    private final int port;
+    private final int threads;
+
+    public AdminConnectorSettings(boolean enabled, int port, int threads) {
+        this.enabled = enabled;
+        this.port = port;
+        this.threads = threads;
+    }
+
+    /**
+     * @return true if the admin API is served only from its own port, false if it shares the stub ports
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the admin port, or 0 for dynamic port selection
+     */
+    public int port() {
+        return port;
+    }
+
+    /**
+     * @return the number of threads handling admin requests, in addition to those accepting
+     *         and selecting connections
+     */
+    public int threads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return "AdminConnectorSettings{" +
+                "enabled=" + enabled +
+                ", port=" + port +
+                ", threads=" + threads +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AdminConnectorSettings that = (AdminConnectorSettings) o;
+        return enabled == that.enabled &&
+                port == that.port &&
+                threads == that.threads;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabled, port, threads);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+
+import java.util.Objects;
+
+/**
+ * Limits on the number of stub requests handled at once. Requests beyond the limit
+ * wait in a bounded queue, and once that's full (or they've waited too long) they are
+ * shed with a 503, or a fault if one is configured. Admin requests are never limited.
+ */
+public class AdmissionControlSettings {
+
+    public static final int UNLIMITED = 0;
+    public static final int DEFAULT_QUEUE_TIMEOUT = 1000;
+
+    public static final AdmissionControlSettings DEFAULTS = new Builder().build();
+
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final int queueTimeout;
+    private final Fault overloadFault;
+
+    public AdmissionControlSettings(int maxConcurrentRequests, int maxQueuedRequests, int queueTimeout, Fault overloadFault) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.queueTimeout = queueTimeout;
+        this.overloadFault = overloadFault;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean enabled() {
+        return maxConcurrentRequests > UNLIMITED;
+    }
+
+    public int maxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int maxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    /**
+     * @return milliseconds a request may wait in the queue before being shed
+     */
+    public int queueTimeout() {
+        return queueTimeout;
+    }
+
+    /**
+     * @return the fault to apply to shed requests, or null to respond with a 503
+     */
+    public Fault overloadFault() {
+        return overloadFault;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionControlSettings{" +
+                "maxConcurrentRequests=" + maxConcurrentRequests +
+                ", maxQueuedRequests=" + maxQueuedRequests +
+                ", queueTimeout=" + queueTimeout +
+                ", overloadFault=" + overloadFault +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AdmissionControlSettings that = (AdmissionControlSettings) o;
+        return maxConcurrentRequests == that.maxConcurrentRequests &&
+                maxQueuedRequests == that.maxQueuedRequests &&
+                queueTimeout == that.queueTimeout &&
+                overloadFault == that.overloadFault;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConcurrentRequests, maxQueuedRequests, queueTimeout, overloadFault);
+    }
+
+    public static final class Builder {
+
+        private int maxConcurrentRequests = UNLIMITED;
+        private int maxQueuedRequests = 0;
+        private int queueTimeout = DEFAULT_QUEUE_TIMEOUT;
+        private Fault overloadFault;
+
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        public Builder maxQueuedRequests(int maxQueuedRequests) {
+            this.maxQueuedRequests = maxQueuedRequests;
+            return this;
+        }
+
+        public Builder queueTimeout(int queueTimeout) {
+            this.queueTimeout = queueTimeout;
+            return this;
+        }
+
+        public Builder overloadFault(Fault overloadFault) {
+            this.overloadFault = overloadFault;
+            return this;
+        }
+
+        public AdmissionControlSettings build() {
+            return new AdmissionControlSettings(maxConcurrentRequests, maxQueuedRequests, queueTimeout, overloadFault);
+        }
+    }
+}
@@ -17,13 +17,15 @@ package com.github.tomakehurst.wiremock.common;
 
 import com.google.common.io.ByteStreams;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLConnection;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 
-public class BinaryFile implements InputStreamSource {
+public class BinaryFile implements SizedInputStreamSource {
 
 	private URI uri;
 
@@ -52,6 +54,34 @@ public class BinaryFile implements InputStreamSource {
 		return name();
 	}
 
+	@Override
+	public long getLength() {
+		if ("file".equals(uri.getScheme())) {
+			return new File(uri).length();
+		}
+
+		try {
+			URLConnection connection = uri.toURL().openConnection();
+			connection.setUseCaches(false);
+			long length = connection.getContentLengthLong();
+			connection.getInputStream().close();
+			return length;
+		} catch (IOException e) {
+			return UNKNOWN_LENGTH;
+		}
+	}
+
+	/**
+	 * @return the time the file was last modified in milliseconds since the epoch, or 0 if it isn't on the filesystem
+	 */
+	public long getLastModified() {
+		if ("file".equals(uri.getScheme())) {
+			return new File(uri).lastModified();
+		}
+
+		return 0;
+	}
+
 	@Override
 	public InputStream getStream() {
 		try {
@@ -23,17 +23,29 @@ public final class BrowserProxySettings {
     private final boolean trustAllProxyTargets;
     private final List<String> trustedProxyTargets;
     private final KeyStoreSettings caKeyStoreSettings;
+    private final KeyStoreSettings generatedCertificatesKeyStoreSettings;
 
     public BrowserProxySettings(
         boolean enabled,
         boolean trustAllProxyTargets,
         List<String> trustedProxyTargets,
         KeyStoreSettings caKeyStoreSettings
+    ) {
+        this(enabled, trustAllProxyTargets, trustedProxyTargets, caKeyStoreSettings, KeyStoreSettings.NO_STORE);
+    }
+
+    public BrowserProxySettings(
+        boolean enabled,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        KeyStoreSettings caKeyStoreSettings,
+        KeyStoreSettings generatedCertificatesKeyStoreSettings
     ) {
         this.enabled = enabled;
         this.trustAllProxyTargets = trustAllProxyTargets;
         this.trustedProxyTargets = trustedProxyTargets;
         this.caKeyStoreSettings = caKeyStoreSettings;
+        this.generatedCertificatesKeyStoreSettings = generatedCertificatesKeyStoreSettings;
     }
 
     public boolean enabled() {
@@ -52,6 +64,14 @@ public final class BrowserProxySettings {
         return caKeyStoreSettings;
     }
 
+    /**
+     * @return where generated certificates are saved so they survive a restart, or
+     *         {@link KeyStoreSettings#NO_STORE} to only keep them in memory
+     */
+    public KeyStoreSettings generatedCertificatesKeyStore() {
+        return generatedCertificatesKeyStoreSettings;
+    }
+
     @Override
     public String toString() {
         return "BrowserProxySettings{" +
@@ -59,6 +79,7 @@ public final class BrowserProxySettings {
                 ", trustAllProxyTargets=" + trustAllProxyTargets +
                 ", trustedProxyTargets=" + trustedProxyTargets +
                 ", caKeyStore='" + caKeyStoreSettings.path() + '\'' +
+                ", generatedCertificatesKeyStore='" + generatedCertificatesKeyStoreSettings.path() + '\'' +
                 '}';
     }
 
@@ -70,12 +91,13 @@ public final class BrowserProxySettings {
         return enabled == that.enabled &&
                 trustAllProxyTargets == that.trustAllProxyTargets &&
                 Objects.equals(trustedProxyTargets, that.trustedProxyTargets) &&
-                Objects.equals(caKeyStoreSettings, that.caKeyStoreSettings);
+                Objects.equals(caKeyStoreSettings, that.caKeyStoreSettings) &&
+                Objects.equals(generatedCertificatesKeyStoreSettings, that.generatedCertificatesKeyStoreSettings);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(enabled, trustAllProxyTargets, trustedProxyTargets, caKeyStoreSettings);
+        return Objects.hash(enabled, trustAllProxyTargets, trustedProxyTargets, caKeyStoreSettings, generatedCertificatesKeyStoreSettings);
     }
 
     public static final class Builder {
@@ -85,6 +107,7 @@ public final class BrowserProxySettings {
         private List<String> trustedProxyTargets = emptyList();
 
         private KeyStoreSettings caKeyStoreSettings = KeyStoreSettings.NO_STORE;
+        private KeyStoreSettings generatedCertificatesKeyStoreSettings = KeyStoreSettings.NO_STORE;
 
         public Builder enabled(boolean enabled) {
             this.enabled = enabled;
@@ -106,8 +129,13 @@ public final class BrowserProxySettings {
             return this;
         }
 
+        public Builder generatedCertificatesKeyStoreSettings(KeyStoreSettings generatedCertificatesKeyStoreSettings) {
+            this.generatedCertificatesKeyStoreSettings = generatedCertificatesKeyStoreSettings;
+            return this;
+        }
+
         public BrowserProxySettings build() {
-            return new BrowserProxySettings(enabled, trustAllProxyTargets, trustedProxyTargets, caKeyStoreSettings);
+            return new BrowserProxySettings(enabled, trustAllProxyTargets, trustedProxyTargets, caKeyStoreSettings, generatedCertificatesKeyStoreSettings);
         }
     }
 }
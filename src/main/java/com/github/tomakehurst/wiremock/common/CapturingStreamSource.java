@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * A body that is passed on from a one-shot stream as it arrives, rather than being read into memory first.
+ * A prefix of up to the capture limit is kept as it goes past so that observers such as the request journal
+ * can see the start of the body via {@link #getCaptured(Limit)} without consuming it.
+ *
+ * Every stream returned by {@link #getStream()} replays the captured prefix first; only one of them can then
+ * carry on reading the source, and any others end where the capture does. Closing a stream closes the source,
+ * releasing it normally if it was read to the end or via the abandon hook otherwise.
+ */
+public class CapturingStreamSource implements SizedInputStreamSource {
+
+    private static final int INITIAL_CAPTURE_SIZE = 8192;
+
+    private final InputStream source;
+    private final long length;
+    private final int captureLimit;
+    private final Closeable onAbandon;
+
+    private byte[] captured;
+    private int capturedLength;
+    private boolean sourceExhausted;
+    private boolean sourceClosed;
+    private CapturingStream sourceOwner;
+
+    public CapturingStreamSource(InputStream source, long length, Limit captureLimit, Closeable onAbandon) {
+        if (captureLimit.isUnlimited()) {
+            throw new IllegalArgumentException("The capture limit of a streamed body must be bounded");
+        }
+
+        this.source = source;
+        this.length = length;
+        this.captureLimit = captureLimit.getValue();
+        this.onAbandon = onAbandon;
+        this.captured = new byte[(int) Math.min(this.captureLimit, length >= 0 ? length : INITIAL_CAPTURE_SIZE)];
+    }
+
+    @Override
+    public InputStream getStream() {
+        return new CapturingStream();
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the start of the body, up to the lesser of the size limit and the capture limit, reading it
+     * from the source if it hasn't gone past yet.
+     */
+    public synchronized byte[] getCaptured(Limit sizeLimit) {
+        int wanted = sizeLimit.isUnlimited() ? captureLimit : Math.min(sizeLimit.getValue(), captureLimit);
+        try {
+            while (capturedLength < wanted && captureMore(wanted - capturedLength) != -1) {
+                // keep reading until we have enough or the source ends
+            }
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        }
+
+        return Arrays.copyOf(captured, Math.min(capturedLength, wanted));
+    }
+
+    public int getCaptureLimit() {
+        return captureLimit;
+    }
+
+    private int captureMore(int max) throws IOException {
+        if (sourceExhausted || sourceClosed || capturedLength >= captureLimit) {
+            return -1;
+        }
+
+        int wanted = Math.min(max, captureLimit - capturedLength);
+        if (captured.length < capturedLength + wanted) {
+            int newSize = Math.max(capturedLength + wanted, Math.min(captured.length * 2, captureLimit));
+            captured = Arrays.copyOf(captured, newSize);
+        }
+
+        int read = source.read(captured, capturedLength, wanted);
+        if (read == -1) {
+            sourceExhausted = true;
+        } else {
+            capturedLength += read;
+        }
+        return read;
+    }
+
+    private synchronized void close() throws IOException {
+        if (sourceClosed) {
+            return;
+        }
+
+        sourceClosed = true;
+        if (!sourceExhausted && onAbandon != null) {
+            onAbandon.close();
+        }
+        source.close();
+    }
+
+    private class CapturingStream extends InputStream {
+
+        private long position;
+        private boolean pastCapture;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!pastCapture) {
+                synchronized (CapturingStreamSource.this) {
+                    while (position >= capturedLength) {
+                        if (captureMore(Math.max(len, INITIAL_CAPTURE_SIZE)) == -1) {
+                            break;
+                        }
+                    }
+
+                    if (position < capturedLength) {
+                        int count = (int) Math.min(len, capturedLength - position);
+                        System.arraycopy(captured, (int) position, b, off, count);
+                        position += count;
+                        return count;
+                    }
+
+                    if (sourceExhausted || sourceClosed || (sourceOwner != null && sourceOwner != this)) {
+                        return -1;
+                    }
+
+                    sourceOwner = this;
+                    pastCapture = true;
+                }
+            }
+
+            // Only the owning stream reads the source past the capture, so it can do so without holding the lock
+            int read = source.read(b, off, len);
+            if (read == -1) {
+                synchronized (CapturingStreamSource.this) {
+                    sourceExhausted = true;
+                }
+            } else {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            CapturingStreamSource.this.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class DataTruncationSettings {
+
+    public static final DataTruncationSettings NO_TRUNCATION = new DataTruncationSettings(Limit.UNLIMITED, Limit.UNLIMITED);
+    public static final DataTruncationSettings DEFAULTS = NO_TRUNCATION;
+
+    private final Limit maxRequestBodySize;
+    private final Limit maxResponseBodySize;
+
+    public DataTruncationSettings(Limit maxRequestBodySize, Limit maxResponseBodySize) {
+        this.maxRequestBodySize = maxRequestBodySize;
+        this.maxResponseBodySize = maxResponseBodySize;
+    }
+
+    /**
+     * The maximum number of request body bytes retained in the request journal. Bodies larger than this
+     * are still matched in full, but only the leading bytes are recorded.
+     */
+    public Limit getMaxRequestBodySize() {
+        return maxRequestBodySize;
+    }
+
+    /**
+     * The maximum number of response body bytes retained in the request journal. Bodies larger than this
+     * are still sent to the client in full, but only the leading bytes are recorded.
+     */
+    public Limit getMaxResponseBodySize() {
+        return maxResponseBodySize;
+    }
+}
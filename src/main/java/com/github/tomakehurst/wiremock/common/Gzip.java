@@ -19,10 +19,19 @@ import com.google.common.io.ByteStreams;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.common.Strings.DEFAULT_CHARSET;
@@ -31,10 +40,47 @@ import static com.google.common.base.Charsets.UTF_8;
 
 public class Gzip {
 
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    // Deflate can't compress by more than about 1032:1, so a larger ISIZE means a corrupt or hostile trailer
+    private static final int MAX_COMPRESSION_RATIO = 1032;
+    private static final int MIN_BUFFER_SIZE = 64;
+    // ISIZE is only checked after inflating, so it isn't trusted with more than this up front; larger bodies grow the buffer
+    private static final int MAX_INITIAL_BUFFER_SIZE = 4 * 1024 * 1024;
+
+    // Inflaters hold native memory, so rather than creating one per gzipped body, a few are kept for reuse
+    private static final BlockingQueue<Inflater> INFLATERS =
+        new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Decompresses a single-member gzip body using a pooled {@link Inflater}, inflating straight into an array
+     * sized from the ISIZE trailer (up to a few MB) so that no intermediate buffers or resizing copies are needed in
+     * the usual case.
+     * Bodies made up of several gzip members are decompressed via {@link GZIPInputStream}.
+     */
     public static byte[] unGzip(byte[] gzippedContent) {
         try {
-            GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(gzippedContent));
-            return ByteStreams.toByteArray(gzipInputStream);
+            int dataOffset = dataOffsetOf(gzippedContent);
+            Inflater inflater = borrowInflater();
+            try {
+                inflater.setInput(gzippedContent, dataOffset, gzippedContent.length - dataOffset);
+                byte[] content = inflate(inflater, initialBufferSizeFor(gzippedContent));
+
+                if (inflater.getRemaining() != TRAILER_SIZE) {
+                    return unGzipAllMembers(gzippedContent);
+                }
+
+                verifyTrailer(gzippedContent, gzippedContent.length - TRAILER_SIZE, content);
+                return content;
+            } finally {
+                returnInflater(inflater);
+            }
         } catch (IOException e) {
             return throwUnchecked(e, byte[].class);
         }
@@ -44,6 +90,18 @@ public class Gzip {
         return new String(unGzip(gzippedContent));
     }
 
+    /**
+     * The uncompressed size recorded in the gzip trailer, or -1 if the content is too short to have one.
+     * As the trailer holds the size modulo 2^32 and is only checked after decompression, this is a hint.
+     */
+    public static long uncompressedSizeOf(byte[] gzippedContent) {
+        if (gzippedContent.length < HEADER_SIZE + TRAILER_SIZE) {
+            return -1;
+        }
+
+        return readUnsignedInt(gzippedContent, gzippedContent.length - 4);
+    }
+
     public static byte[] gzip(String plainContent) {
         return gzip(plainContent, DEFAULT_CHARSET);
     }
@@ -69,4 +127,125 @@ public class Gzip {
                 && content[0] == (byte)GZIPInputStream.GZIP_MAGIC
                 && content[1] == (byte)(GZIPInputStream.GZIP_MAGIC >> 8);
     }
+
+    /**
+     * Checks for the gzip magic number at the start of the stream without consuming it.
+     */
+    public static boolean isGzipped(PushbackInputStream content) throws IOException {
+        byte[] start = new byte[2];
+        int read = ByteStreams.read(content, start, 0, start.length);
+        content.unread(start, 0, read);
+
+        return isGzipped(Arrays.copyOf(start, read));
+    }
+
+    private static byte[] inflate(Inflater inflater, int initialBufferSize) throws IOException {
+        byte[] buffer = new byte[initialBufferSize];
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, MIN_BUFFER_SIZE));
+                }
+
+                int inflated = inflater.inflate(buffer, length, buffer.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                }
+
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid ZLIB data format");
+        }
+
+        return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+    }
+
+    private static int initialBufferSizeFor(byte[] gzippedContent) {
+        long uncompressedSize = uncompressedSizeOf(gzippedContent);
+        long maxPlausibleSize = (long) gzippedContent.length * MAX_COMPRESSION_RATIO;
+        if (uncompressedSize < 0 || uncompressedSize > maxPlausibleSize) {
+            return (int) Math.min(Math.max((long) gzippedContent.length * 2, MIN_BUFFER_SIZE), MAX_INITIAL_BUFFER_SIZE);
+        }
+
+        return (int) Math.min(uncompressedSize, MAX_INITIAL_BUFFER_SIZE);
+    }
+
+    private static int dataOffsetOf(byte[] gzippedContent) throws IOException {
+        if (gzippedContent.length < HEADER_SIZE || !isGzipped(gzippedContent)) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (gzippedContent[2] != DEFLATE_METHOD) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        int flags = gzippedContent[3] & 0xff;
+        int offset = HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (offset + 2 > gzippedContent.length) {
+                throw new EOFException("Unexpected end of GZIP header");
+            }
+            offset += 2 + readUnsignedShort(gzippedContent, offset);
+        }
+        if ((flags & FNAME) != 0) {
+            offset = afterZeroTerminatedField(gzippedContent, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = afterZeroTerminatedField(gzippedContent, offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        if (offset > gzippedContent.length) {
+            throw new EOFException("Unexpected end of GZIP header");
+        }
+
+        return offset;
+    }
+
+    private static int afterZeroTerminatedField(byte[] content, int offset) throws IOException {
+        for (int i = offset; i < content.length; i++) {
+            if (content[i] == 0) {
+                return i + 1;
+            }
+        }
+
+        throw new EOFException("Unexpected end of GZIP header");
+    }
+
+    private static void verifyTrailer(byte[] gzippedContent, int trailerOffset, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+
+        if (readUnsignedInt(gzippedContent, trailerOffset) != crc.getValue() ||
+            readUnsignedInt(gzippedContent, trailerOffset + 4) != (content.length & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+    }
+
+    private static byte[] unGzipAllMembers(byte[] gzippedContent) throws IOException {
+        GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(gzippedContent));
+        return ByteStreams.toByteArray(gzipInputStream);
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | ((bytes[offset + 1] & 0xff) << 8);
+    }
+
+    private static long readUnsignedInt(byte[] bytes, int offset) {
+        return ((long) readUnsignedShort(bytes, offset + 2) << 16) | readUnsignedShort(bytes, offset);
+    }
+
+    private static Inflater borrowInflater() {
+        Inflater inflater = INFLATERS.poll();
+        return inflater != null ? inflater : new Inflater(true);
+    }
+
+    private static void returnInflater(Inflater inflater) {
+        inflater.reset();
+        if (!INFLATERS.offer(inflater)) {
+            inflater.end();
+        }
+    }
 }
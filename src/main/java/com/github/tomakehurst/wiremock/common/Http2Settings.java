@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.Objects;
+
+/**
+ * HTTP/2 settings for servers that support it. Cleartext HTTP/2 (h2c) is accepted on the HTTP port both by upgrade
+ * and with prior knowledge, and HTTP/2 over TLS is negotiated with ALPN on the HTTPS port and for browser proxied
+ * HTTPS.
+ */
+public class Http2Settings {
+
+    public static final int DEFAULT_MAX_CONCURRENT_STREAMS = 128;
+    public static final int DEFAULT_INITIAL_STREAM_RECV_WINDOW = 512 * 1024;
+    public static final int DEFAULT_INITIAL_SESSION_RECV_WINDOW = 1024 * 1024;
+
+    public static final Http2Settings DEFAULTS = new Builder().build();
+
+    private final boolean plainTextEnabled;
+    private final boolean tlsEnabled;
+    private final int maxConcurrentStreams;
+    private final int initialStreamRecvWindow;
+    private final int initialSessionRecvWindow;
+
+    public Http2Settings(
+        boolean plainTextEnabled,
+        boolean tlsEnabled,
+        int maxConcurrentStreams,
+        int initialStreamRecvWindow,
+        int initialSessionRecvWindow
+    ) {
+        this.plainTextEnabled = plainTextEnabled;
+        this.tlsEnabled = tlsEnabled;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.initialStreamRecvWindow = initialStreamRecvWindow;
+        this.initialSessionRecvWindow = initialSessionRecvWindow;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean plainTextEnabled() {
+        return plainTextEnabled;
+    }
+
+    public boolean tlsEnabled() {
+        return tlsEnabled;
+    }
+
+    /**
+     * @return the maximum number of streams a client may have open at once on one connection
+     */
+    public int maxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * @return the flow-control window, in bytes, for request bodies on each stream
+     */
+    public int initialStreamRecvWindow() {
+        return initialStreamRecvWindow;
+    }
+
+    /**
+     * @return the flow-control window, in bytes, for request bodies across all the streams on a connection
+     */
+    public int initialSessionRecvWindow() {
+        return initialSessionRecvWindow;
+    }
+
+    @Override
+    public String toString() {
+        return "Http2Settings{" +
+                "plainTextEnabled=" + plainTextEnabled +
+                ", tlsEnabled=" + tlsEnabled +
+                ", maxConcurrentStreams=" + maxConcurrentStreams +
+                ", initialStreamRecvWindow=" + initialStreamRecvWindow +
+                ", initialSessionRecvWindow=" + initialSessionRecvWindow +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Http2Settings that = (Http2Settings) o;
+        return plainTextEnabled == that.plainTextEnabled &&
+                tlsEnabled == that.tlsEnabled &&
+                maxConcurrentStreams == that.maxConcurrentStreams &&
+                initialStreamRecvWindow == that.initialStreamRecvWindow &&
+                initialSessionRecvWindow == that.initialSessionRecvWindow;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(plainTextEnabled, tlsEnabled, maxConcurrentStreams, initialStreamRecvWindow, initialSessionRecvWindow);
+    }
+
+    public static final class Builder {
+
+        private boolean plainTextEnabled = true;
+        private boolean tlsEnabled = true;
+        private int maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+        private int initialStreamRecvWindow = DEFAULT_INITIAL_STREAM_RECV_WINDOW;
+        private int initialSessionRecvWindow = DEFAULT_INITIAL_SESSION_RECV_WINDOW;
+
+        public Builder plainTextEnabled(boolean plainTextEnabled) {
+            this.plainTextEnabled = plainTextEnabled;
+            return this;
+        }
+
+        public Builder tlsEnabled(boolean tlsEnabled) {
+            this.tlsEnabled = tlsEnabled;
+            return this;
+        }
+
+        public Builder maxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        public Builder initialStreamRecvWindow(int initialStreamRecvWindow) {
+            this.initialStreamRecvWindow = initialStreamRecvWindow;
+            return this;
+        }
+
+        public Builder initialSessionRecvWindow(int initialSessionRecvWindow) {
+            this.initialSessionRecvWindow = initialSessionRecvWindow;
+            return this;
+        }
+
+        public Http2Settings build() {
+            return new Http2Settings(
+                plainTextEnabled,
+                tlsEnabled,
+                maxConcurrentStreams,
+                initialStreamRecvWindow,
+                initialSessionRecvWindow
+            );
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class Limit {
+
+    public static final Limit UNLIMITED = new Limit(null);
+
+    private final Integer value;
+
+    public Limit(Integer value) {
+        this.value = value;
+    }
+
+    public static Limit of(Integer value) {
+        return value == null ? UNLIMITED : new Limit(value);
+    }
+
+    public boolean isUnlimited() {
+        return value == null;
+    }
+
+    public boolean isExceededBy(long size) {
+        return value != null && size > value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return isUnlimited() ? "unlimited" : value.toString();
+    }
+}
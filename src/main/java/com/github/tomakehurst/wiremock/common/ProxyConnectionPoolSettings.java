@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Sizing and connection lifetime settings for the pools of connections used to proxy requests to other servers.
+ * Durations are in milliseconds, with -1 meaning no limit.
+ */
+public class ProxyConnectionPoolSettings {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 1000;
+    public static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = 60000;
+
+    public static final ProxyConnectionPoolSettings DEFAULTS = new Builder().build();
+
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Map<String, Integer> maxConnectionsPerBaseUrl;
+    private final int idleConnectionTimeout;
+    private final int connectionTimeToLive;
+    private final int keepAliveDuration;
+
+    public ProxyConnectionPoolSettings(
+        int maxConnections,
+        int maxConnectionsPerRoute,
+        Map<String, Integer> maxConnectionsPerBaseUrl,
+        int idleConnectionTimeout,
+        int connectionTimeToLive,
+        int keepAliveDuration
+    ) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnectionsPerBaseUrl = ImmutableMap.copyOf(maxConnectionsPerBaseUrl);
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        this.connectionTimeToLive = connectionTimeToLive;
+        this.keepAliveDuration = keepAliveDuration;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int maxConnections() {
+        return maxConnections;
+    }
+
+    public int maxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * @return per-route connection limits that override {@link #maxConnectionsPerRoute()}, keyed by proxy base URL
+     */
+    public Map<String, Integer> maxConnectionsPerBaseUrl() {
+        return maxConnectionsPerBaseUrl;
+    }
+
+    public int idleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    public int connectionTimeToLive() {
+        return connectionTimeToLive;
+    }
+
+    /**
+     * @return how long to keep connections alive when the target doesn't say in a Keep-Alive header
+     */
+    public int keepAliveDuration() {
+        return keepAliveDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyConnectionPoolSettings{" +
+                "maxConnections=" + maxConnections +
+                ", maxConnectionsPerRoute=" + maxConnectionsPerRoute +
+                ", maxConnectionsPerBaseUrl=" + maxConnectionsPerBaseUrl +
+                ", idleConnectionTimeout=" + idleConnectionTimeout +
+                ", connectionTimeToLive=" + connectionTimeToLive +
+                ", keepAliveDuration=" + keepAliveDuration +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProxyConnectionPoolSettings that = (ProxyConnectionPoolSettings) o;
+        return maxConnections == that.maxConnections &&
+                maxConnectionsPerRoute == that.maxConnectionsPerRoute &&
+                idleConnectionTimeout == that.idleConnectionTimeout &&
+                connectionTimeToLive == that.connectionTimeToLive &&
+                keepAliveDuration == that.keepAliveDuration &&
+                Objects.equals(maxConnectionsPerBaseUrl, that.maxConnectionsPerBaseUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConnections, maxConnectionsPerRoute, maxConnectionsPerBaseUrl, idleConnectionTimeout, connectionTimeToLive, keepAliveDuration);
+    }
+
+    public static final class Builder {
+
+        private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        private Integer maxConnectionsPerRoute;
+        private final Map<String, Integer> maxConnectionsPerBaseUrl = new LinkedHashMap<>();
+        private int idleConnectionTimeout = DEFAULT_IDLE_CONNECTION_TIMEOUT;
+        private int connectionTimeToLive = -1;
+        private int keepAliveDuration = -1;
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Defaults to the overall maximum, so that proxying to a single target can use the whole pool.
+         */
+        public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        public Builder maxConnectionsPerRoute(String proxyBaseUrl, int maxConnections) {
+            this.maxConnectionsPerBaseUrl.put(proxyBaseUrl, maxConnections);
+            return this;
+        }
+
+        public Builder idleConnectionTimeout(int idleConnectionTimeout) {
+            this.idleConnectionTimeout = idleConnectionTimeout;
+            return this;
+        }
+
+        public Builder connectionTimeToLive(int connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+            return this;
+        }
+
+        public Builder keepAliveDuration(int keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        public ProxyConnectionPoolSettings build() {
+            return new ProxyConnectionPoolSettings(
+                maxConnections,
+                maxConnectionsPerRoute != null ? maxConnectionsPerRoute : maxConnections,
+                maxConnectionsPerBaseUrl,
+                idleConnectionTimeout,
+                connectionTimeToLive,
+                keepAliveDuration
+            );
+        }
+    }
+}
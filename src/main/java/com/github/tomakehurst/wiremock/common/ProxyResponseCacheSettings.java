@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class ProxyResponseCacheSettings {
+
+    public static final long DEFAULT_MAX_MEMORY_SIZE = 64L * 1024 * 1024;
+    public static final long DEFAULT_MAX_DISK_SIZE = 1024L * 1024 * 1024;
+    public static final ProxyResponseCacheSettings DISABLED = new ProxyResponseCacheSettings(false, DEFAULT_MAX_MEMORY_SIZE, null, DEFAULT_MAX_DISK_SIZE);
+
+    private final boolean enabled;
+    private final long maxMemorySize;
+    private final String diskDirectory;
+    private final long maxDiskSize;
+
+    public ProxyResponseCacheSettings(boolean enabled, long maxMemorySize, String diskDirectory, long maxDiskSize) {
+        this.enabled = enabled;
+        this.maxMemorySize = maxMemorySize;
+        this.diskDirectory = diskDirectory;
+        this.maxDiskSize = maxDiskSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the total size in bytes of the responses held in memory
+     */
+    public long getMaxMemorySize() {
+        return maxMemorySize;
+    }
+
+    /**
+     * @return the directory responses evicted from memory are moved to, or null if they're discarded
+     */
+    public String getDiskDirectory() {
+        return diskDirectory;
+    }
+
+    public long getMaxDiskSize() {
+        return maxDiskSize;
+    }
+}
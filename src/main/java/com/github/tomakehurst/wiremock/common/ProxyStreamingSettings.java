@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+public class ProxyStreamingSettings {
+
+    public static final Limit DEFAULT_CAPTURE_LIMIT = new Limit(1024 * 1024);
+    public static final ProxyStreamingSettings DISABLED = new ProxyStreamingSettings(false, DEFAULT_CAPTURE_LIMIT);
+
+    private final boolean enabled;
+    private final Limit captureLimit;
+
+    public ProxyStreamingSettings(boolean enabled, Limit captureLimit) {
+        if (captureLimit.isUnlimited()) {
+            throw new IllegalArgumentException("The capture limit for streamed proxy responses must be bounded");
+        }
+
+        this.enabled = enabled;
+        this.captureLimit = captureLimit;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the number of bytes from the start of each streamed body kept for the request journal and recorder
+     */
+    public Limit getCaptureLimit() {
+        return captureLimit;
+    }
+}
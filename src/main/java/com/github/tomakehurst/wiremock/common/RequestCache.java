@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Holds things worked out from the request being served on the current thread, such as its body parsed as JSON,
+ * so that stub matching and response templating only have to work them out once per request.
+ */
+public class RequestCache implements AutoCloseable {
+
+    private static final ThreadLocal<RequestCache> currentCache = new ThreadLocal<>();
+
+    private final Map<Object, Object> cache = new HashMap<>();
+    private final RequestCache enclosing;
+    private final boolean open;
+
+    private RequestCache(RequestCache enclosing, boolean open) {
+        this.enclosing = enclosing;
+        this.open = open;
+    }
+
+    /**
+     * Makes a new cache current on this thread until it's closed
+     */
+    public static RequestCache open() {
+        RequestCache cache = new RequestCache(currentCache.get(), true);
+        currentCache.set(cache);
+        return cache;
+    }
+
+    /**
+     * @return the cache for the request being served on this thread, or an empty one that isn't kept if no
+     * request is being served
+     */
+    public static RequestCache current() {
+        RequestCache cache = currentCache.get();
+        return cache != null ? cache : new RequestCache(null, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key) {
+        return (T) cache.get(key);
+    }
+
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    public DocumentContext getJsonDocument(String json) {
+        List<?> key = asList(DocumentContext.class, json);
+        DocumentContext document = get(key);
+        if (document == null) {
+            document = JsonPath.parse(json);
+            put(key, document);
+        }
+
+        return document;
+    }
+
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+
+        if (enclosing != null) {
+            currentCache.set(enclosing);
+        } else {
+            currentCache.remove();
+        }
+    }
+}
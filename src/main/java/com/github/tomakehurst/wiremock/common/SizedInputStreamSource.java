@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+/**
+ * An {@link InputStreamSource} that knows how many bytes its streams will yield without having to read them,
+ * allowing e.g. a Content-Length header to be set while still streaming the body.
+ */
+public interface SizedInputStreamSource extends InputStreamSource {
+
+    long UNKNOWN_LENGTH = -1;
+
+    /**
+     * @return the length of the stream in bytes, or {@link #UNKNOWN_LENGTH} if it can't be determined cheaply
+     */
+    long getLength();
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+/**
+ * A body that has been read from a one-shot stream so that it can be re-read any number of times.
+ * Bodies up to the in-memory threshold are held on the heap; larger ones are spooled to a temp file,
+ * which is removed by {@link #delete()}.
+ */
+public class SpooledBody implements SizedInputStreamSource {
+
+    private static final String TEMP_FILE_PREFIX = "wiremock-body-";
+
+    private final byte[] bytes;
+    private final File file;
+    private final long length;
+
+    private SpooledBody(byte[] bytes, File file, long length) {
+        this.bytes = bytes;
+        this.file = file;
+        this.length = length;
+    }
+
+    public static SpooledBody inMemory(byte[] bytes) {
+        return new SpooledBody(bytes, null, bytes.length);
+    }
+
+    public static SpooledBody spool(InputStream source, Limit maxInMemorySize) throws IOException {
+        if (maxInMemorySize.isUnlimited()) {
+            return inMemory(ByteStreams.toByteArray(source));
+        }
+
+        byte[] head = ByteStreams.toByteArray(ByteStreams.limit(source, maxInMemorySize.getValue() + 1L));
+        if (!maxInMemorySize.isExceededBy(head.length)) {
+            return inMemory(head);
+        }
+
+        File file = File.createTempFile(TEMP_FILE_PREFIX, ".tmp");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            out.write(head);
+            long remaining = ByteStreams.copy(source, out);
+            return new SpooledBody(null, file, head.length + remaining);
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * As {@link #spool(InputStream, Limit)}, decompressing gzipped content. Where the compressed body and its
+     * recorded uncompressed size are both within the in-memory threshold it is inflated straight into a
+     * correctly sized array, otherwise it is decompressed as it is spooled.
+     */
+    public static SpooledBody spoolUnGzipped(InputStream gzipped, Limit maxInMemorySize) throws IOException {
+        if (maxInMemorySize.isUnlimited()) {
+            return inMemory(Gzip.unGzip(ByteStreams.toByteArray(gzipped)));
+        }
+
+        byte[] head = ByteStreams.toByteArray(ByteStreams.limit(gzipped, maxInMemorySize.getValue() + 1L));
+        if (!maxInMemorySize.isExceededBy(head.length) && !maxInMemorySize.isExceededBy(Gzip.uncompressedSizeOf(head))) {
+            return inMemory(Gzip.unGzip(head));
+        }
+
+        InputStream whole = new SequenceInputStream(new ByteArrayInputStream(head), gzipped);
+        return spool(new GZIPInputStream(whole), maxInMemorySize);
+    }
+
+    @Override
+    public InputStream getStream() {
+        if (isInMemory()) {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        try {
+            return new BufferedInputStream(new FileInputStream(file));
+        } catch (IOException e) {
+            return throwUnchecked(e, InputStream.class);
+        }
+    }
+
+    /**
+     * Returns the whole body as a byte array. For spooled bodies this reads the temp file into memory,
+     * so callers that can work with {@link #getStream()} should prefer it.
+     */
+    public byte[] getBytes() {
+        if (isInMemory()) {
+            return bytes;
+        }
+
+        try {
+            return Files.toByteArray(file);
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        }
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    public void delete() {
+        if (file != null) {
+            file.delete();
+        }
+    }
+}
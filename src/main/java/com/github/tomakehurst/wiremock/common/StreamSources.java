@@ -23,21 +23,21 @@ public class StreamSources {
     private StreamSources() {
     }
 
-    public static InputStreamSource forString(final String string, final Charset charset) {
-        return new InputStreamSource() {
-            @Override
-            public InputStream getStream() {
-                return string == null ? null : new ByteArrayInputStream(Strings.bytesFromString(string, charset));
-            }
-        };
+    public static SizedInputStreamSource forString(final String string, final Charset charset) {
+        return forBytes(string == null ? null : Strings.bytesFromString(string, charset));
     }
 
-    public static InputStreamSource forBytes(final byte[] bytes) {
-        return new InputStreamSource() {
+    public static SizedInputStreamSource forBytes(final byte[] bytes) {
+        return new SizedInputStreamSource() {
             @Override
             public InputStream getStream() {
                 return bytes == null ? null : new ByteArrayInputStream(bytes);
             }
+
+            @Override
+            public long getLength() {
+                return bytes == null ? 0 : bytes.length;
+            }
         };
     }
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDs generated from {@link ThreadLocalRandom} rather than the {@link java.security.SecureRandom} shared by
+ * {@link UUID#randomUUID()}, which threads serving requests contend for. They identify stubs and events, and
+ * aren't suitable as secrets.
+ */
+public class Uuids {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    // The millisecond timestamp and sequence number of the last time ordered UUID, as they appear in its top 60 bits
+    private static final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    /**
+     * @return a version 4 (random) UUID
+     */
+    public static UUID random() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000000000000000L)) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return a version 7 UUID: the time in milliseconds followed by random bits, so UUIDs sort in the order they
+     *         were created. Within a millisecond a sequence number keeps those generated by this JVM in order.
+     */
+    public static UUID timeOrdered() {
+        long timestampAndSequence = nextTimestampAndSequence(System.currentTimeMillis());
+        long timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+
+        long mostSigBits = (timestamp << 16) | 0x7000L | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & ~(0xC000000000000000L)) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Runs ahead of the clock if more than 4096 UUIDs are asked for in a millisecond, or if the clock goes back
+     */
+    private static long nextTimestampAndSequence(long now) {
+        long earliest = now << SEQUENCE_BITS;
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            long next = Math.max(last + 1, earliest);
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @return the time a UUID from {@link #timeOrdered()} was created, in milliseconds since the epoch
+     */
+    public static long timestampOf(UUID timeOrderedUuid) {
+        return timeOrderedUuid.getMostSignificantBits() >>> 16;
+    }
+}
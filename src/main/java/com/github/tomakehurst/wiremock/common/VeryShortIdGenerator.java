@@ -15,24 +15,19 @@
  */
 package com.github.tomakehurst.wiremock.common;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class VeryShortIdGenerator implements IdGenerator {
     
     private static final String CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
 
     public String generate() {
-        final StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 5; i++) {
-            sb.append(randomChar());
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final char[] id = new char[5];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = CHARS.charAt(random.nextInt(CHARS.length()));
         }
-        
-        return sb.toString();
-    }
-    
-    private static char randomChar() {
-        final Random random = new Random();
-        final int index = random.nextInt(CHARS.length());
-        return CHARS.charAt(index);
+
+        return new String(id);
     }
 }
@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.core;
 
 import com.github.tomakehurst.wiremock.admin.model.*;
 import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.AdmissionControlStats;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
 import com.github.tomakehurst.wiremock.matching.StringValuePattern;
 import com.github.tomakehurst.wiremock.recording.RecordSpec;
@@ -62,6 +63,10 @@ public interface Admin {
 
     GetScenariosResult getAllScenarios();
 
+    GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats();
+
+    AdmissionControlStats getAdmissionControlStats();
+
     void updateGlobalSettings(GlobalSettings settings);
 
     SnapshotRecordResult snapshotRecord();
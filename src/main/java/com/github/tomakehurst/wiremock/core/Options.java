@@ -15,13 +15,21 @@
  */
 package com.github.tomakehurst.wiremock.core;
 
+import com.github.tomakehurst.wiremock.common.AdminConnectorSettings;
+import com.github.tomakehurst.wiremock.common.AdmissionControlSettings;
 import com.github.tomakehurst.wiremock.common.AsynchronousResponseSettings;
 import com.github.tomakehurst.wiremock.common.BrowserProxySettings;
+import com.github.tomakehurst.wiremock.common.DataTruncationSettings;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Http2Settings;
 import com.github.tomakehurst.wiremock.common.HttpsSettings;
 import com.github.tomakehurst.wiremock.common.JettySettings;
+import com.github.tomakehurst.wiremock.common.Limit;
 import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyResponseCacheSettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
@@ -79,4 +87,13 @@ public interface Options {
     boolean getGzipDisabled();
     boolean getStubRequestLoggingDisabled();
     boolean getStubCorsEnabled();
+    DataTruncationSettings getDataTruncationSettings();
+    Limit getRequestBodySpoolThreshold();
+    ProxyStreamingSettings getProxyStreamingSettings();
+    ProxyConnectionPoolSettings getProxyConnectionPoolSettings();
+    boolean getAsynchronousProxyingEnabled();
+    ProxyResponseCacheSettings getProxyResponseCacheSettings();
+    Http2Settings getHttp2Settings();
+    AdmissionControlSettings getAdmissionControlSettings();
+    AdminConnectorSettings getAdminConnectorSettings();
 }
@@ -18,8 +18,10 @@ package com.github.tomakehurst.wiremock.core;
 import com.github.tomakehurst.wiremock.admin.AdminRoutes;
 import com.github.tomakehurst.wiremock.admin.LimitAndOffsetPaginator;
 import com.github.tomakehurst.wiremock.admin.model.*;
+import com.github.tomakehurst.wiremock.common.AdmissionControlSettings;
 import com.github.tomakehurst.wiremock.common.BrowserProxySettings;
 import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import com.github.tomakehurst.wiremock.common.xml.Xml;
 import com.github.tomakehurst.wiremock.extension.*;
 import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilter;
@@ -70,6 +72,8 @@ public class WireMockApp implements StubServer, Admin {
     private final List<GlobalSettingsListener> globalSettingsListeners;
 
     private Options options;
+    private ProxyResponseRenderer proxyResponseRenderer;
+    private AdmissionController admissionController;
 
     static {
         Xml.optimizeFactoriesLoading();
@@ -146,27 +150,37 @@ public class WireMockApp implements StubServer, Admin {
     public StubRequestHandler buildStubRequestHandler() {
         Map<String, PostServeAction> postServeActions = options.extensionsOfType(PostServeAction.class);
         BrowserProxySettings browserProxySettings = options.browserProxySettings();
+        proxyResponseRenderer = new ProxyResponseRenderer(
+            options.proxyVia(),
+            options.httpsSettings().trustStore(),
+            options.shouldPreserveHostHeader(),
+            options.proxyHostHeader(),
+            globalSettingsHolder,
+            browserProxySettings.trustAllProxyTargets(),
+            browserProxySettings.trustedProxyTargets(),
+            options.getProxyStreamingSettings(),
+            options.getProxyConnectionPoolSettings(),
+            options.getAsynchronousProxyingEnabled(),
+            options.getProxyResponseCacheSettings()
+        );
+        AdmissionControlSettings admissionControlSettings = options.getAdmissionControlSettings();
+        admissionController = admissionControlSettings.enabled() ? new AdmissionController(admissionControlSettings) : null;
         return new StubRequestHandler(
             this,
             new StubResponseRenderer(
                 options.filesRoot().child(FILES_ROOT),
                 getGlobalSettingsHolder(),
-                new ProxyResponseRenderer(
-                    options.proxyVia(),
-                    options.httpsSettings().trustStore(),
-                    options.shouldPreserveHostHeader(),
-                    options.proxyHostHeader(),
-                    globalSettingsHolder,
-                    browserProxySettings.trustAllProxyTargets(),
-                    browserProxySettings.trustedProxyTargets()
-                ),
-                ImmutableList.copyOf(options.extensionsOfType(ResponseTransformer.class).values())
+                proxyResponseRenderer,
+                ImmutableList.copyOf(options.extensionsOfType(ResponseTransformer.class).values()),
+                recorder
             ),
             this,
             postServeActions,
             requestJournal,
             getStubRequestFilters(),
-            options.getStubRequestLoggingDisabled()
+            options.getStubRequestLoggingDisabled(),
+            options.getDataTruncationSettings(),
+            admissionController
         );
     }
 
@@ -221,7 +235,7 @@ public class WireMockApp implements StubServer, Admin {
     @Override
     public void addStubMapping(StubMapping stubMapping) {
         if (stubMapping.getId() == null) {
-            stubMapping.setId(UUID.randomUUID());
+            stubMapping.setId(Uuids.random());
         }
         
         stubMappings.addMapping(stubMapping);
@@ -269,9 +283,18 @@ public class WireMockApp implements StubServer, Admin {
         mappingsSaver.save(stubMappings.getAll());
     }
 
+    public void stop() {
+        if (proxyResponseRenderer != null) {
+            proxyResponseRenderer.stop();
+        }
+    }
+
     @Override
     public void resetAll() {
         resetToDefaultMappings();
+        if (proxyResponseRenderer != null) {
+            proxyResponseRenderer.clearResponseCache();
+        }
     }
 
     @Override
@@ -389,6 +412,30 @@ public class WireMockApp implements StubServer, Admin {
         );
     }
 
+    @Override
+    public GetProxyConnectionPoolStatsResult getProxyConnectionPoolStats() {
+        if (proxyResponseRenderer == null) {
+            return new GetProxyConnectionPoolStatsResult(
+                new ConnectionPoolStats(null, 0, 0, 0, 0),
+                Collections.<ConnectionPoolStats>emptyList()
+            );
+        }
+
+        return new GetProxyConnectionPoolStatsResult(
+            proxyResponseRenderer.getTotalConnectionPoolStats(),
+            proxyResponseRenderer.getConnectionPoolStatsByRoute()
+        );
+    }
+
+    @Override
+    public AdmissionControlStats getAdmissionControlStats() {
+        if (admissionController == null) {
+            return new AdmissionController(AdmissionControlSettings.DEFAULTS).getStats();
+        }
+
+        return admissionController.getStats();
+    }
+
     @Override
     public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
         return new FindNearMissesResult(nearMissCalculator.findNearestTo(loggedRequest));
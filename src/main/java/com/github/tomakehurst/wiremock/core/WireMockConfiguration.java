@@ -21,9 +21,12 @@ import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSourceFactory;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.extension.ExtensionLoader;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.http.trafficlistener.AsyncNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.DoNothingWiremockNetworkTrafficListener;
+import com.github.tomakehurst.wiremock.http.trafficlistener.RollingFileNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.jetty9.JettyHttpServerFactory;
 import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
@@ -39,6 +42,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import com.google.common.io.Resources;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -74,6 +78,7 @@ public class WireMockConfiguration implements Options {
     private String caKeystorePath = DEFAULT_CA_KEYSTORE_PATH;
     private String caKeystorePassword = DEFAULT_CA_KESTORE_PASSWORD;
     private String caKeystoreType = "JKS";
+    private String generatedCertificatesKeystorePath;
     private KeyStoreSettings caKeyStoreSettings = null;
     private boolean trustAllProxyTargets = false;
     private final List<String> trustedProxyTargets = new ArrayList<>();
@@ -111,6 +116,21 @@ public class WireMockConfiguration implements Options {
     private String permittedSystemKeys = null;
 
     private boolean stubCorsEnabled = false;
+    private Limit requestBodySizeLimit = Limit.UNLIMITED;
+    private Limit responseBodySizeLimit = Limit.UNLIMITED;
+    private Limit requestBodySpoolThreshold = Limit.UNLIMITED;
+    private boolean proxyStreamingEnabled = false;
+    private Limit proxyStreamingCaptureLimit = ProxyStreamingSettings.DEFAULT_CAPTURE_LIMIT;
+    private ProxyConnectionPoolSettings.Builder proxyConnectionPool = ProxyConnectionPoolSettings.builder();
+    private boolean asynchronousProxyingEnabled = false;
+    private boolean proxyResponseCacheEnabled = false;
+    private long proxyResponseCacheMaxSize = ProxyResponseCacheSettings.DEFAULT_MAX_MEMORY_SIZE;
+    private String proxyResponseCacheDirectory;
+    private long proxyResponseCacheMaxDiskSize = ProxyResponseCacheSettings.DEFAULT_MAX_DISK_SIZE;
+    private Http2Settings.Builder http2 = Http2Settings.builder();
+    private AdmissionControlSettings.Builder admissionControl = AdmissionControlSettings.builder();
+    private Integer adminPort;
+    private int adminContainerThreads = AdminConnectorSettings.DEFAULT_THREADS;
 
     private MappingsSource getMappingsSource() {
         if (mappingsSource == null) {
@@ -153,6 +173,21 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration adminPort(int adminPort) {
+        this.adminPort = adminPort;
+        return this;
+    }
+
+    public WireMockConfiguration dynamicAdminPort() {
+        this.adminPort = DYNAMIC_PORT;
+        return this;
+    }
+
+    public WireMockConfiguration adminContainerThreads(int adminContainerThreads) {
+        this.adminContainerThreads = adminContainerThreads;
+        return this;
+    }
+
     public WireMockConfiguration containerThreads(Integer containerThreads) {
         this.containerThreads = containerThreads;
         return this;
@@ -178,6 +213,51 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration http2PlainDisabled(boolean disabled) {
+        this.http2.plainTextEnabled(!disabled);
+        return this;
+    }
+
+    public WireMockConfiguration http2TlsDisabled(boolean disabled) {
+        this.http2.tlsEnabled(!disabled);
+        return this;
+    }
+
+    public WireMockConfiguration http2MaxConcurrentStreams(int maxConcurrentStreams) {
+        this.http2.maxConcurrentStreams(maxConcurrentStreams);
+        return this;
+    }
+
+    public WireMockConfiguration http2InitialStreamRecvWindow(int bytes) {
+        this.http2.initialStreamRecvWindow(bytes);
+        return this;
+    }
+
+    public WireMockConfiguration http2InitialSessionRecvWindow(int bytes) {
+        this.http2.initialSessionRecvWindow(bytes);
+        return this;
+    }
+
+    public WireMockConfiguration maxConcurrentStubRequests(int maxConcurrentRequests) {
+        this.admissionControl.maxConcurrentRequests(maxConcurrentRequests);
+        return this;
+    }
+
+    public WireMockConfiguration maxQueuedStubRequests(int maxQueuedRequests) {
+        this.admissionControl.maxQueuedRequests(maxQueuedRequests);
+        return this;
+    }
+
+    public WireMockConfiguration stubRequestQueueTimeout(int milliseconds) {
+        this.admissionControl.queueTimeout(milliseconds);
+        return this;
+    }
+
+    public WireMockConfiguration overloadFault(Fault fault) {
+        this.admissionControl.overloadFault(fault);
+        return this;
+    }
+
     public WireMockConfiguration keystorePath(String path) {
         this.keyStorePath = path;
         return this;
@@ -218,6 +298,16 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    /**
+     * Saves the certificates generated when browser proxying HTTPS to a keystore at this path,
+     * so they are reused after a restart. It has the same type and password as the CA keystore,
+     * which is never written to.
+     */
+    public WireMockConfiguration generatedCertificatesKeystorePath(String path) {
+        this.generatedCertificatesKeystorePath = path;
+        return this;
+    }
+
     public WireMockConfiguration trustStorePath(String truststorePath) {
         this.trustStorePath = truststorePath;
         return this;
@@ -351,6 +441,10 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration captureNetworkTraffic(String directory) {
+        return networkTrafficListener(new AsyncNetworkTrafficListener(new RollingFileNetworkTrafficListener(new File(directory))));
+    }
+
     public WireMockConfiguration adminAuthenticator(Authenticator authenticator) {
         this.adminAuthenticator = authenticator;
         return this;
@@ -400,6 +494,86 @@ public class WireMockConfiguration implements Options {
         return this;
     }
 
+    public WireMockConfiguration maxLoggedRequestSize(int maxSize) {
+        this.requestBodySizeLimit = new Limit(maxSize);
+        return this;
+    }
+
+    public WireMockConfiguration requestBodySpoolThreshold(int maxInMemorySize) {
+        this.requestBodySpoolThreshold = new Limit(maxInMemorySize);
+        return this;
+    }
+
+    public WireMockConfiguration maxLoggedResponseSize(int maxSize) {
+        this.responseBodySizeLimit = new Limit(maxSize);
+        return this;
+    }
+
+    public WireMockConfiguration streamProxiedResponses(boolean enabled) {
+        this.proxyStreamingEnabled = enabled;
+        return this;
+    }
+
+    public WireMockConfiguration proxiedResponseCaptureLimit(int maxSize) {
+        this.proxyStreamingCaptureLimit = new Limit(maxSize);
+        return this;
+    }
+
+    public WireMockConfiguration asynchronousProxyingEnabled(boolean enabled) {
+        this.asynchronousProxyingEnabled = enabled;
+        return this;
+    }
+
+    public WireMockConfiguration cacheProxiedResponses(boolean enabled) {
+        this.proxyResponseCacheEnabled = enabled;
+        return this;
+    }
+
+    public WireMockConfiguration proxyResponseCacheMaxSize(long maxSizeBytes) {
+        this.proxyResponseCacheMaxSize = maxSizeBytes;
+        return this;
+    }
+
+    public WireMockConfiguration proxyResponseCacheDirectory(String path) {
+        this.proxyResponseCacheDirectory = path;
+        return this;
+    }
+
+    public WireMockConfiguration proxyResponseCacheMaxDiskSize(long maxSizeBytes) {
+        this.proxyResponseCacheMaxDiskSize = maxSizeBytes;
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnections(int maxConnections) {
+        this.proxyConnectionPool.maxConnections(maxConnections);
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnectionsPerRoute(int maxConnections) {
+        this.proxyConnectionPool.maxConnectionsPerRoute(maxConnections);
+        return this;
+    }
+
+    public WireMockConfiguration proxyMaxConnectionsPerRoute(String proxyBaseUrl, int maxConnections) {
+        this.proxyConnectionPool.maxConnectionsPerRoute(proxyBaseUrl, maxConnections);
+        return this;
+    }
+
+    public WireMockConfiguration proxyIdleConnectionTimeout(int milliseconds) {
+        this.proxyConnectionPool.idleConnectionTimeout(milliseconds);
+        return this;
+    }
+
+    public WireMockConfiguration proxyConnectionTimeToLive(int milliseconds) {
+        this.proxyConnectionPool.connectionTimeToLive(milliseconds);
+        return this;
+    }
+
+    public WireMockConfiguration proxyKeepAliveDuration(int milliseconds) {
+        this.proxyConnectionPool.keepAliveDuration(milliseconds);
+        return this;
+    }
+
     public WireMockConfiguration trustAllProxyTargets(boolean enabled) {
         this.trustAllProxyTargets = enabled;
         return this;
@@ -575,17 +749,73 @@ public class WireMockConfiguration implements Options {
         return stubCorsEnabled;
     }
 
+    @Override
+    public DataTruncationSettings getDataTruncationSettings() {
+        return new DataTruncationSettings(requestBodySizeLimit, responseBodySizeLimit);
+    }
+
+    @Override
+    public Limit getRequestBodySpoolThreshold() {
+        return requestBodySpoolThreshold;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(proxyStreamingEnabled, proxyStreamingCaptureLimit);
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return proxyConnectionPool.build();
+    }
+
+    @Override
+    public boolean getAsynchronousProxyingEnabled() {
+        return asynchronousProxyingEnabled;
+    }
+
+    @Override
+    public ProxyResponseCacheSettings getProxyResponseCacheSettings() {
+        return new ProxyResponseCacheSettings(
+            proxyResponseCacheEnabled,
+            proxyResponseCacheMaxSize,
+            proxyResponseCacheDirectory,
+            proxyResponseCacheMaxDiskSize
+        );
+    }
+
+    @Override
+    public Http2Settings getHttp2Settings() {
+        return http2.build();
+    }
+
+    @Override
+    public AdmissionControlSettings getAdmissionControlSettings() {
+        return admissionControl.build();
+    }
+
+    @Override
+    public AdminConnectorSettings getAdminConnectorSettings() {
+        return adminPort != null ?
+                new AdminConnectorSettings(true, adminPort, adminContainerThreads) :
+                AdminConnectorSettings.DISABLED;
+    }
+
     @Override
     public BrowserProxySettings browserProxySettings() {
         KeyStoreSettings keyStoreSettings = caKeyStoreSettings != null ?
                 caKeyStoreSettings :
                 new KeyStoreSettings(KeyStoreSourceFactory.getAppropriateForJreVersion(caKeystorePath, caKeystoreType, caKeystorePassword.toCharArray()));
+        KeyStoreSettings generatedCertificatesKeyStoreSettings = generatedCertificatesKeystorePath != null ?
+                new KeyStoreSettings(KeyStoreSourceFactory.getAppropriateForJreVersion(generatedCertificatesKeystorePath, keyStoreSettings.type(), keyStoreSettings.password().toCharArray())) :
+                KeyStoreSettings.NO_STORE;
 
         return new BrowserProxySettings.Builder()
                 .enabled(browserProxyingEnabled)
                 .trustAllProxyTargets(trustAllProxyTargets)
                 .trustedProxyTargets(trustedProxyTargets)
                 .caKeyStoreSettings(keyStoreSettings)
+                .generatedCertificatesKeyStoreSettings(generatedCertificatesKeyStoreSettings)
                 .build();
     }
 }
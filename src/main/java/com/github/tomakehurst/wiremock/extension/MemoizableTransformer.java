@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension;
+
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+/**
+ * Implemented by a {@link ResponseDefinitionTransformer} whose output depends only on the response definition,
+ * its parameters and a few attributes of the request. A stub's transformed response is then kept and reused for
+ * later requests with equal attributes, rather than being transformed again.
+ */
+public interface MemoizableTransformer {
+
+    /**
+     * @return the request attributes that the output of transform() depends on, compared with equals(), or null
+     *         if the output for this request mustn't be reused
+     */
+    Object memoizationKeyFor(Request request, ResponseDefinition responseDefinition, Parameters parameters);
+}
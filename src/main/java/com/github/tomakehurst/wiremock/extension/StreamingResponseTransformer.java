@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import java.io.InputStream;
+
+/**
+ * A {@link ResponseTransformer} that rewrites the response body as it is written to the client, rather than
+ * working on a fully materialised copy of it. Implementations wrap the original body stream, so large bodies can
+ * be transformed in constant memory.
+ *
+ * Status, headers etc. can still be changed by overriding {@link #transform(Request, Response, FileSource, Parameters)}
+ * and delegating to this implementation. Note that the transformed body's length is not known in advance, so the
+ * response will be sent chunked unless chunked encoding is disabled.
+ */
+public abstract class StreamingResponseTransformer extends ResponseTransformer {
+
+    @Override
+    public Response transform(final Request request, final Response response, final FileSource files, final Parameters parameters) {
+        return Response.Builder.like(response)
+            .but()
+            .body(new InputStreamSource() {
+                @Override
+                public InputStream getStream() {
+                    InputStream body = response.getBodyStream();
+                    return body == null ? null : transformBody(request, body, files, parameters);
+                }
+            })
+            .build();
+    }
+
+    public abstract InputStream transformBody(Request request, InputStream body, FileSource files, Parameters parameters);
+}
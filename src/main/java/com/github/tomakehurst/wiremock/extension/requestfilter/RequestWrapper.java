@@ -21,6 +21,8 @@ import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.*;
 
 import static com.github.tomakehurst.wiremock.common.Encoding.encodeBase64;
@@ -31,7 +33,7 @@ import static com.google.common.collect.Maps.newHashMap;
 import static org.apache.commons.lang3.StringUtils.countMatches;
 import static org.apache.commons.lang3.StringUtils.ordinalIndexOf;
 
-public class RequestWrapper implements Request {
+public class RequestWrapper implements Request, StreamableRequest {
 
     private final Request delegate;
 
@@ -222,6 +224,20 @@ public class RequestWrapper implements Request {
         return delegate.getBody();
     }
 
+    @Override
+    public InputStream getBodyStream() {
+        if (bodyTransformer != null) {
+            return new ByteArrayInputStream(getBody());
+        }
+
+        return RequestBodies.streamOf(delegate);
+    }
+
+    @Override
+    public boolean isBodyInMemory() {
+        return bodyTransformer != null || RequestBodies.isInMemory(delegate);
+    }
+
     @Override
     public String getBodyAsString() {
         if (bodyTransformer != null) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.tomakehurst.wiremock.common.BinaryFile;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A template compiled from a body file, which remembers the file's modification time and length
+ * so that it can be used without reading the file again until the file changes.
+ */
+class BodyFileTemplate extends HandlebarsOptimizedTemplate {
+
+	private final long lastModified;
+	private final long length;
+	private final long revalidationIntervalNanos;
+	private volatile long nextRevalidation;
+
+	BodyFileTemplate(Handlebars handlebars, String content, boolean renderVariablesDirectly, long lastModified, long length, long revalidationIntervalMillis) {
+		super(handlebars, content, renderVariablesDirectly);
+		this.lastModified = lastModified;
+		this.length = length;
+		this.revalidationIntervalNanos = MILLISECONDS.toNanos(revalidationIntervalMillis);
+		this.nextRevalidation = System.nanoTime() + revalidationIntervalNanos;
+	}
+
+	/**
+	 * Only looks at the file once per revalidation interval
+	 */
+	boolean isCurrent(BinaryFile file) {
+		long now = System.nanoTime();
+		if (now - nextRevalidation < 0) {
+			return true;
+		}
+
+		if (file.getLastModified() != lastModified || file.getLength() != length) {
+			return false;
+		}
+
+		nextRevalidation = now + revalidationIntervalNanos;
+		return true;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+/**
+ * Approximately counts how often each key has been seen recently, in a fixed amount of memory, so that a
+ * cache can turn away keys used once in favour of those it already holds (as in TinyLFU). A count-min sketch
+ * of counters capped at 15 that are all halved once enough keys have been counted, so old popularity fades.
+ *
+ * Not synchronized: concurrent increments can be lost, which only makes the counts slightly low.
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = { 0x97cb3127, 0x5bd1e995, 0x85ebca6b, 0xc2b2ae35 };
+
+    private final byte[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedKeys) {
+        int width = Integer.highestOneBit((int) Math.max(64, Math.min(expectedKeys, 1 << 20)) - 1) << 1;
+        this.counters = new byte[width * DEPTH];
+        this.mask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = frequency(hash);
+        if (frequency >= MAX_COUNT) {
+            return;
+        }
+
+        // Only the smallest counters are raised, which keeps keys that share counters from inflating each other
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (counters[index] == frequency) {
+                counters[index]++;
+            }
+        }
+
+        if (++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    int frequency(Object key) {
+        return frequency(spread(key.hashCode()));
+    }
+
+    private int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private void halve() {
+        additions = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (byte) (counters[i] >>> 1);
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        int rowHash = (hash ^ SEEDS[row]) * SEEDS[row];
+        rowHash ^= rowHash >>> 16;
+        return row * (mask + 1) + (rowHash & mask);
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
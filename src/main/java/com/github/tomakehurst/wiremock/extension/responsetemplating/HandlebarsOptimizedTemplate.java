@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.extension.responsetemplating;
 
 import java.io.IOException;
+import java.io.Writer;
 
 import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
@@ -24,13 +25,26 @@ import com.github.tomakehurst.wiremock.common.Exceptions;
 
 public class HandlebarsOptimizedTemplate {
 
+	// Render buffers bigger than this are left for the garbage collector rather than being kept for the thread's next render
+	private static final int MAX_POOLED_BUFFER_CAPACITY = 256 * 1024;
+	private static final ThreadLocal<StringBuilder> renderBuffers = new ThreadLocal<>();
+
 	private final Template template;
+	private final VariableTemplate variableTemplate;
 
 	private String startContent;
 	private String templateContent;
 	private String endContent;
 
 	public HandlebarsOptimizedTemplate(final Handlebars handlebars, final String content) {
+		this(handlebars, content, false);
+	}
+
+	/**
+	 * @param renderVariablesDirectly whether templates that only substitute variables can be rendered without
+	 *                                Handlebars, which is only safe when it uses the default delimiters
+	 */
+	HandlebarsOptimizedTemplate(final Handlebars handlebars, final String content, boolean renderVariablesDirectly) {
 		startContent = content;
 		templateContent = "";
 		endContent = "";
@@ -47,6 +61,18 @@ public class HandlebarsOptimizedTemplate {
 		}
 
 		this.template = uncheckedCompileTemplate(handlebars, templateContent);
+		this.variableTemplate = renderVariablesDirectly ? VariableTemplate.compile(handlebars, templateContent) : null;
+	}
+
+	int getSourceLength() {
+		return startContent.length() + templateContent.length() + endContent.length();
+	}
+
+	/**
+	 * @return false when a template of this content would always render it unchanged
+	 */
+	public static boolean containsTemplateSyntax(String content) {
+		return content != null && content.contains(Handlebars.DELIM_START) && content.contains(Handlebars.DELIM_END);
 	}
 
 	private static Template uncheckedCompileTemplate(Handlebars handlebars, String templateContent) {
@@ -58,16 +84,101 @@ public class HandlebarsOptimizedTemplate {
 	}
 
 	public String apply(Object contextData) throws IOException {
-		final RenderCache renderCache = new RenderCache();
-		Context context = Context
-				.newBuilder(contextData)
-				.combine("renderCache", renderCache)
-				.build();
-
-		StringBuilder sb = new StringBuilder();
-		return sb.append(startContent)
-				 .append(template.apply(context))
-				 .append(endContent)
-				 .toString();
+		return apply(contextData, new RenderCache());
+	}
+
+	/**
+	 * @param renderCache shared with the other templates rendered for the same request
+	 */
+	public String apply(Object contextData, RenderCache renderCache) throws IOException {
+		StringBuilder buffer = takeRenderBuffer();
+		try {
+			apply(contextData, renderCache, new StringBuilderWriter(buffer));
+			return buffer.toString();
+		} finally {
+			returnRenderBuffer(buffer);
+		}
+	}
+
+	/**
+	 * Renders straight into the writer, without building the output up as a string first
+	 */
+	public void apply(Object contextData, Writer writer) throws IOException {
+		apply(contextData, new RenderCache(), writer);
+	}
+
+	public void apply(Object contextData, RenderCache renderCache, Writer writer) throws IOException {
+		writer.write(startContent);
+		if (variableTemplate == null || !variableTemplate.apply(contextData, writer)) {
+			Context context = Context
+					.newBuilder(contextData)
+					.combine("renderCache", renderCache)
+					.build();
+			template.apply(context, writer);
+		}
+		writer.write(endContent);
+	}
+
+	boolean isRenderedWithoutHandlebars() {
+		return variableTemplate != null;
+	}
+
+	private StringBuilder takeRenderBuffer() {
+		StringBuilder buffer = renderBuffers.get();
+		if (buffer == null) {
+			return new StringBuilder(getSourceLength());
+		}
+
+		// Removed while in use, in case a helper renders another template on the same thread
+		renderBuffers.remove();
+		buffer.setLength(0);
+		return buffer;
+	}
+
+	private static void returnRenderBuffer(StringBuilder buffer) {
+		if (buffer.capacity() <= MAX_POOLED_BUFFER_CAPACITY) {
+			renderBuffers.set(buffer);
+		}
+	}
+
+	private static class StringBuilderWriter extends Writer {
+
+		private final StringBuilder builder;
+
+		StringBuilderWriter(StringBuilder builder) {
+			this.builder = builder;
+		}
+
+		@Override
+		public void write(int c) {
+			builder.append((char) c);
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) {
+			builder.append(chars, offset, length);
+		}
+
+		@Override
+		public void write(String str) {
+			builder.append(str);
+		}
+
+		@Override
+		public void write(String str, int offset, int length) {
+			builder.append(str, offset, offset + length);
+		}
+
+		@Override
+		public Writer append(CharSequence chars) {
+			builder.append(chars);
+			return this;
+		}
+
+		@Override
+		public void flush() {}
+
+		@Override
+		public void close() {}
 	}
 }
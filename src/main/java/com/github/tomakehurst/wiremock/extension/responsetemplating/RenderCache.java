@@ -1,5 +1,7 @@
 package com.github.tomakehurst.wiremock.extension.responsetemplating;
 
+import com.github.tomakehurst.wiremock.common.RequestCache;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +13,20 @@ public class RenderCache {
 
     private final Map<Key, Object> cache = new HashMap<>();
 
+    /**
+     * @return the render cache shared by all the templates rendered for the request being served on this thread
+     */
+    public static RenderCache forCurrentRequest() {
+        RequestCache requestCache = RequestCache.current();
+        RenderCache renderCache = requestCache.get(RenderCache.class);
+        if (renderCache == null) {
+            renderCache = new RenderCache();
+            requestCache.put(RenderCache.class, renderCache);
+        }
+
+        return renderCache;
+    }
+
     public void put(Key key, Object value) {
         cache.put(key, value);
     }
@@ -22,6 +22,8 @@ import com.github.tomakehurst.wiremock.http.QueryParameter;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Maps;
 
 import java.net.URI;
@@ -36,23 +38,35 @@ public class RequestLine {
     private final String scheme;
     private final String host;
     private final int port;
-    private final Map<String, ListOrSingle<String>> query;
+    private final Supplier<Map<String, ListOrSingle<String>>> query;
+    private final Supplier<UrlPath> pathSegments;
     private final String url;
 
-    private RequestLine(RequestMethod method, String scheme, String host, int port, String url, Map<String, ListOrSingle<String>> query) {
+    private RequestLine(RequestMethod method, String scheme, String host, int port, final String url) {
         this.method = method;
         this.scheme = scheme;
         this.host = host;
         this.port = port;
         this.url = url;
-        this.query = query;
+
+        // Parsed on first use, as most templates only look at one part of the URL if any
+        this.query = Suppliers.memoize(new Supplier<Map<String, ListOrSingle<String>>>() {
+            @Override
+            public Map<String, ListOrSingle<String>> get() {
+                Map<String, QueryParameter> rawQuery = Urls.splitQuery(URI.create(url));
+                return Maps.transformValues(rawQuery, TO_TEMPLATE_MODEL);
+            }
+        });
+        this.pathSegments = Suppliers.memoize(new Supplier<UrlPath>() {
+            @Override
+            public UrlPath get() {
+                return new UrlPath(url);
+            }
+        });
     }
 
     public static RequestLine fromRequest(final Request request) {
-        URI url = URI.create(request.getUrl());
-        Map<String, QueryParameter> rawQuery = Urls.splitQuery(url);
-        Map<String, ListOrSingle<String>> adaptedQuery = Maps.transformValues(rawQuery, TO_TEMPLATE_MODEL);
-        return new RequestLine(request.getMethod(), request.getScheme(), request.getHost(), request.getPort(), request.getUrl(), adaptedQuery);
+        return new RequestLine(request.getMethod(), request.getScheme(), request.getHost(), request.getPort(), request.getUrl());
     }
 
     public RequestMethod getMethod() {
@@ -60,7 +74,7 @@ public class RequestLine {
     }
 
     public UrlPath getPathSegments() {
-        return new UrlPath(url);
+        return pathSegments.get();
     }
 
     public String getPath() {
@@ -72,7 +86,7 @@ public class RequestLine {
     }
 
     public Map<String, ListOrSingle<String>> getQuery() {
-        return query;
+        return query.get();
     }
 
     public String getScheme() {
@@ -20,19 +20,34 @@ import com.github.tomakehurst.wiremock.http.Cookie;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Maps;
 import java.util.Map;
 import java.util.TreeMap;
 
+/**
+ * Each part of the request is only adapted for the template when it's first referenced, so a template that only
+ * looks at the path never copies the headers or decodes the body.
+ */
 public class RequestTemplateModel {
 
     private final RequestLine requestLine;
-    private final Map<String, ListOrSingle<String>> headers;
-    private final Map<String, ListOrSingle<String>> cookies;
-    private final String body;
+    private final Supplier<Map<String, ListOrSingle<String>>> headers;
+    private final Supplier<Map<String, ListOrSingle<String>>> cookies;
+    private final Supplier<String> body;
 
 
     protected RequestTemplateModel(RequestLine requestLine, Map<String, ListOrSingle<String>> headers, Map<String, ListOrSingle<String>> cookies, String body) {
+        this(
+            requestLine,
+            Suppliers.ofInstance(headers),
+            Suppliers.ofInstance(cookies),
+            Suppliers.ofInstance(body)
+        );
+    }
+
+    private RequestTemplateModel(RequestLine requestLine, Supplier<Map<String, ListOrSingle<String>>> headers, Supplier<Map<String, ListOrSingle<String>>> cookies, Supplier<String> body) {
         this.requestLine = requestLine;
         this.headers = headers;
         this.cookies = cookies;
@@ -40,26 +55,42 @@ public class RequestTemplateModel {
     }
 
     public static RequestTemplateModel from(final Request request) {
-        RequestLine requestLine = RequestLine.fromRequest(request);
-        Map<String, ListOrSingle<String>> adaptedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        adaptedHeaders.putAll(Maps.toMap(request.getAllHeaderKeys(), new Function<String, ListOrSingle<String>>() {
+        Supplier<Map<String, ListOrSingle<String>>> adaptedHeaders = new Supplier<Map<String, ListOrSingle<String>>>() {
+            @Override
+            public Map<String, ListOrSingle<String>> get() {
+                Map<String, ListOrSingle<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                headers.putAll(Maps.toMap(request.getAllHeaderKeys(), new Function<String, ListOrSingle<String>>() {
+                    @Override
+                    public ListOrSingle<String> apply(String input) {
+                        return ListOrSingle.of(request.header(input).values());
+                    }
+                }));
+                return headers;
+            }
+        };
+        Supplier<Map<String, ListOrSingle<String>>> adaptedCookies = new Supplier<Map<String, ListOrSingle<String>>>() {
             @Override
-            public ListOrSingle<String> apply(String input) {
-                return ListOrSingle.of(request.header(input).values());
+            public Map<String, ListOrSingle<String>> get() {
+                return Maps.transformValues(request.getCookies(), new Function<Cookie, ListOrSingle<String>>() {
+                    @Override
+                    public ListOrSingle<String> apply(Cookie cookie) {
+                        return ListOrSingle.of(cookie.getValues());
+                    }
+                });
             }
-        }));
-        Map<String, ListOrSingle<String>> adaptedCookies = Maps.transformValues(request.getCookies(), new Function<Cookie, ListOrSingle<String>>() {
+        };
+        Supplier<String> body = new Supplier<String>() {
             @Override
-            public ListOrSingle<String> apply(Cookie cookie) {
-                return ListOrSingle.of(cookie.getValues());
+            public String get() {
+                return request.getBodyAsString();
             }
-        });
+        };
 
         return new RequestTemplateModel(
-            requestLine,
-            adaptedHeaders,
-            adaptedCookies,
-            request.getBodyAsString()
+            RequestLine.fromRequest(request),
+            Suppliers.memoize(adaptedHeaders),
+            Suppliers.memoize(adaptedCookies),
+            Suppliers.memoize(body)
         );
     }
 
@@ -104,15 +135,15 @@ public class RequestTemplateModel {
     }
 
     public Map<String, ListOrSingle<String>> getHeaders() {
-        return headers;
+        return headers.get();
     }
 
     public Map<String, ListOrSingle<String>> getCookies() {
-        return cookies;
+        return cookies.get();
     }
 
     public String getBody() {
-        return body;
+        return body.get();
     }
 
 }
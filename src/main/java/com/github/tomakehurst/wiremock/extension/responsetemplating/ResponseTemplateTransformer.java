@@ -15,18 +15,29 @@
  */
 package com.github.tomakehurst.wiremock.extension.responsetemplating;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Helper;
 import com.github.jknack.handlebars.helper.AssignHelper;
 import com.github.jknack.handlebars.helper.ConditionalHelpers;
 import com.github.jknack.handlebars.helper.NumberHelper;
 import com.github.jknack.handlebars.helper.StringHelpers;
+import com.github.tomakehurst.wiremock.admin.AdminTask;
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.admin.model.PathParams;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.common.Exceptions;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.RequestCache;
 import com.github.tomakehurst.wiremock.common.TextFile;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.extension.MemoizableTransformer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
@@ -36,11 +47,17 @@ import com.github.tomakehurst.wiremock.extension.responsetemplating.helpers.Wire
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.HttpHeaders;
 import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.Function;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -49,23 +66,51 @@ import com.google.common.collect.Iterables;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.github.tomakehurst.wiremock.extension.responsetemplating.HandlebarsOptimizedTemplate.containsTemplateSyntax;
 import static com.google.common.base.MoreObjects.firstNonNull;
 
-public class ResponseTemplateTransformer extends ResponseDefinitionTransformer implements StubLifecycleListener {
+public class ResponseTemplateTransformer extends ResponseDefinitionTransformer implements StubLifecycleListener, AdminApiExtension, MemoizableTransformer {
 
     public static final String NAME = "response-template";
+    public static final long DEFAULT_BODY_FILE_REVALIDATION_INTERVAL = 1000;
+    public static final String MEMOIZATION_KEY_PARAMETER = "memoizationKey";
+
+    private static final JsonFactory STRICT_JSON_FACTORY = new JsonFactory();
+    private static final long ASSUMED_AVERAGE_TEMPLATE_BYTES = 1024;
+    private static final long TEMPLATE_OVERHEAD_BYTES = 256;
+    private static final long MIN_SEGMENT_BYTES = 1024 * 1024;
+    private static final int ADMISSION_FREQUENCY = 2;
 
     private final boolean global;
 
     private final Handlebars handlebars;
+    private final boolean renderVariablesDirectly;
     private final Cache<TemplateCacheKey, HandlebarsOptimizedTemplate> cache;
     private final Long maxCacheEntries;
+    private final Long maxCacheBytes;
+    private final FrequencySketch templateFrequencies;
+    private final long bodyFileRevalidationInterval;
+
+    // Keyed by stub ID, as an earlier transformer may hand over a new response definition for every request
+    private final Map<UUID, Boolean> staticStubs = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong compilations = new AtomicLong();
+    private final AtomicLong compilationFailures = new AtomicLong();
+    private final AtomicLong totalCompileTimeNanos = new AtomicLong();
 
     public static Builder builder() {
         return new Builder();
@@ -80,12 +125,31 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
     }
 
     public ResponseTemplateTransformer(boolean global, Map<String, Helper> helpers) {
-        this(global, new Handlebars(), helpers, null, null);
+        this(global, new Handlebars(), true, helpers, null, null, null, DEFAULT_BODY_FILE_REVALIDATION_INTERVAL);
     }
 
+    /**
+     * @param handlebars renders every template, as it may not use the default delimiters
+     */
     public ResponseTemplateTransformer(boolean global, Handlebars handlebars, Map<String, Helper> helpers, Long maxCacheEntries, Set<String> permittedSystemKeys) {
+        this(global, handlebars, false, helpers, maxCacheEntries, null, permittedSystemKeys, DEFAULT_BODY_FILE_REVALIDATION_INTERVAL);
+    }
+
+    /**
+     * @param renderVariablesDirectly true when the Handlebars instance was created here, so is known to use the
+     *                                default delimiters and templates that only substitute variables can skip it
+     * @param maxCacheBytes           the limit on the estimated memory used by cached templates, which can't be given
+     *                                along with a limit on the number of templates
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"}) // helpers come in the raw map type of the public constructors and builder
+    private ResponseTemplateTransformer(boolean global, Handlebars handlebars, boolean renderVariablesDirectly, Map<String, Helper> helpers, Long maxCacheEntries, Long maxCacheBytes, Set<String> permittedSystemKeys, long bodyFileRevalidationInterval) {
+        if (maxCacheEntries != null && maxCacheBytes != null) {
+            throw new IllegalArgumentException("The template cache can be limited by number of entries or by size, but not both");
+        }
+
         this.global = global;
         this.handlebars = handlebars;
+        this.renderVariablesDirectly = renderVariablesDirectly;
 
         for (StringHelpers helper: StringHelpers.values()) {
             if (!helper.name().equals("now")) {
@@ -115,9 +179,33 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
         }
 
         this.maxCacheEntries = maxCacheEntries;
-        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        this.maxCacheBytes = maxCacheBytes;
+        this.bodyFileRevalidationInterval = bodyFileRevalidationInterval;
+        CacheBuilder<TemplateCacheKey, HandlebarsOptimizedTemplate> cacheBuilder = CacheBuilder.newBuilder()
+                .concurrencyLevel(concurrencyLevelFor(maxCacheBytes))
+                .recordStats()
+                .removalListener(new RemovalListener<TemplateCacheKey, HandlebarsOptimizedTemplate>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<TemplateCacheKey, HandlebarsOptimizedTemplate> notification) {
+                        cachedBytes.addAndGet(-estimatedSizeOf(notification.getValue().getSourceLength()));
+                        if (notification.getCause() != RemovalCause.REPLACED) {
+                            evictions.incrementAndGet();
+                        }
+                    }
+                });
         if (maxCacheEntries != null) {
             cacheBuilder.maximumSize(maxCacheEntries);
+            templateFrequencies = new FrequencySketch(maxCacheEntries);
+        } else if (maxCacheBytes != null) {
+            cacheBuilder.maximumWeight(maxCacheBytes).weigher(new Weigher<TemplateCacheKey, HandlebarsOptimizedTemplate>() {
+                @Override
+                public int weigh(TemplateCacheKey key, HandlebarsOptimizedTemplate template) {
+                    return (int) Math.min(Integer.MAX_VALUE, estimatedSizeOf(template.getSourceLength()));
+                }
+            });
+            templateFrequencies = new FrequencySketch(maxCacheBytes / ASSUMED_AVERAGE_TEMPLATE_BYTES);
+        } else {
+            templateFrequencies = null;
         }
         cache = cacheBuilder.build();
     }
@@ -134,6 +222,10 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
 
     @Override
     public ResponseDefinition transform(Request request, final ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+        if (isStatic(servedStub(), responseDefinition, parameters)) {
+            return responseDefinition;
+        }
+
         ResponseDefinitionBuilder newResponseDefBuilder = ResponseDefinitionBuilder.like(responseDefinition);
 
         final ImmutableMap<String, Object> model = ImmutableMap.<String, Object>builder()
@@ -141,23 +233,24 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
                 .put("request", RequestTemplateModel.from(request))
                 .putAll(addExtraModelElements(request, responseDefinition, files, parameters))
                 .build();
+        final RenderCache renderCache = RenderCache.forCurrentRequest();
 
         if (responseDefinition.specifiesTextBodyContent()) {
             boolean isJsonBody = responseDefinition.getJsonBody() != null;
             HandlebarsOptimizedTemplate bodyTemplate = getTemplate(TemplateCacheKey.forInlineBody(responseDefinition), responseDefinition.getTextBody());
-            applyTemplatedResponseBody(newResponseDefBuilder, model, bodyTemplate, isJsonBody);
+            applyTemplatedResponseBody(newResponseDefBuilder, model, renderCache, bodyTemplate, isJsonBody);
         } else if (responseDefinition.specifiesBodyFile()) {
-            HandlebarsOptimizedTemplate filePathTemplate = new HandlebarsOptimizedTemplate(handlebars, responseDefinition.getBodyFileName());
-            String compiledFilePath = uncheckedApplyTemplate(filePathTemplate, model);
+            HandlebarsOptimizedTemplate filePathTemplate = getTemplate(TemplateCacheKey.forBodyFilePath(responseDefinition), responseDefinition.getBodyFileName());
+            String compiledFilePath = uncheckedApplyTemplate(filePathTemplate, model, renderCache);
 
             boolean disableBodyFileTemplating = parameters.getBoolean("disableBodyFileTemplating", false);
             if (disableBodyFileTemplating) {
                 newResponseDefBuilder.withBodyFile(compiledFilePath);
             } else {
                 TextFile file = files.getTextFileNamed(compiledFilePath);
-                HandlebarsOptimizedTemplate bodyTemplate = getTemplate(
-                        TemplateCacheKey.forFileBody(responseDefinition, compiledFilePath), file.readContentsAsString());
-                applyTemplatedResponseBody(newResponseDefBuilder, model, bodyTemplate, false);
+                HandlebarsOptimizedTemplate bodyTemplate = getBodyFileTemplate(
+                        TemplateCacheKey.forFileBody(responseDefinition, compiledFilePath), file);
+                applyTemplatedResponseBody(newResponseDefBuilder, model, renderCache, bodyTemplate, false);
             }
         }
 
@@ -169,7 +262,7 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
                     int index = 0;
                     for (String headerValue: header.values()) {
                         HandlebarsOptimizedTemplate template = getTemplate(TemplateCacheKey.forHeader(responseDefinition, header.key(), index++), headerValue);
-                        valueListBuilder.add(uncheckedApplyTemplate(template, model));
+                        valueListBuilder.add(uncheckedApplyTemplate(template, model, renderCache));
                     }
 
                     return new HttpHeader(header.key(), valueListBuilder.build());
@@ -180,7 +273,7 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
 
         if (responseDefinition.getProxyBaseUrl() != null) {
             HandlebarsOptimizedTemplate proxyBaseUrlTemplate = getTemplate(TemplateCacheKey.forProxyUrl(responseDefinition), responseDefinition.getProxyBaseUrl());
-            String newProxyBaseUrl = uncheckedApplyTemplate(proxyBaseUrlTemplate, model);
+            String newProxyBaseUrl = uncheckedApplyTemplate(proxyBaseUrlTemplate, model, renderCache);
 
             ResponseDefinitionBuilder.ProxyResponseDefinitionBuilder newProxyResponseDefBuilder = newResponseDefBuilder.proxiedFrom(newProxyBaseUrl);
 
@@ -191,8 +284,8 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
                         ImmutableList.Builder<String> valueListBuilder = ImmutableList.builder();
                         int index = 0;
                         for (String headerValue: header.values()) {
-                            HandlebarsOptimizedTemplate template = getTemplate(TemplateCacheKey.forHeader(responseDefinition, header.key(), index++), headerValue);
-                            valueListBuilder.add(uncheckedApplyTemplate(template, model));
+                            HandlebarsOptimizedTemplate template = getTemplate(TemplateCacheKey.forProxyRequestHeader(responseDefinition, header.key(), index++), headerValue);
+                            valueListBuilder.add(uncheckedApplyTemplate(template, model, renderCache));
                         }
                         return new HttpHeader(header.key(), valueListBuilder.build());
                     }
@@ -208,6 +301,29 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
         }
     }
 
+    /**
+     * Templates can't be known to be deterministic, so a response is only memoized when its stub gives a
+     * memoizationKey parameter: a template rendering the parts of the request the response depends on.
+     */
+    @Override
+    public Object memoizationKeyFor(Request request, ResponseDefinition responseDefinition, Parameters parameters) {
+        if (isStatic(servedStub(), responseDefinition, parameters)) {
+            return Boolean.TRUE;
+        }
+
+        String keyTemplate = parameters.getString(MEMOIZATION_KEY_PARAMETER, null);
+        if (keyTemplate == null) {
+            return null;
+        }
+
+        HandlebarsOptimizedTemplate template = getTemplate(TemplateCacheKey.forMemoizationKey(responseDefinition), keyTemplate);
+        ImmutableMap<String, Object> model = ImmutableMap.<String, Object>of(
+                "parameters", parameters,
+                "request", RequestTemplateModel.from(request)
+        );
+        return uncheckedApplyTemplate(template, model, RenderCache.forCurrentRequest());
+    }
+
     /**
      * Override this to add extra elements to the template model
      */
@@ -215,34 +331,63 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
         return Collections.emptyMap();
     }
 
-    private void applyTemplatedResponseBody(ResponseDefinitionBuilder newResponseDefBuilder, ImmutableMap<String, Object> model, HandlebarsOptimizedTemplate bodyTemplate, boolean isJsonBody) {
-        String newBody = uncheckedApplyTemplate(bodyTemplate, model);
+    private void applyTemplatedResponseBody(ResponseDefinitionBuilder newResponseDefBuilder, ImmutableMap<String, Object> model, RenderCache renderCache, HandlebarsOptimizedTemplate bodyTemplate, boolean isJsonBody) {
+        String newBody = uncheckedApplyTemplate(bodyTemplate, model, renderCache);
         if (isJsonBody) {
-            newResponseDefBuilder.withJsonBody(Json.read(newBody, JsonNode.class));
+            newResponseDefBuilder.withJsonBody(renderedJsonBody(newBody));
         } else {
             newResponseDefBuilder.withBody(newBody);
         }
 
     }
 
-    private String uncheckedApplyTemplate(HandlebarsOptimizedTemplate template, Object context) {
+    /**
+     * Strictly valid JSON is written out as rendered, saving parsing it into a tree and serialising it again.
+     * Anything else is parsed leniently as it always has been, normalising it or failing the request.
+     */
+    private static JsonNode renderedJsonBody(String json) {
+        if (isSingleStrictJsonValue(json)) {
+            return new POJONode(new RawValue(json));
+        }
+
+        return Json.read(json, JsonNode.class);
+    }
+
+    private static boolean isSingleStrictJsonValue(String json) {
+        try (JsonParser parser = STRICT_JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String uncheckedApplyTemplate(HandlebarsOptimizedTemplate template, Object context, RenderCache renderCache) {
         try {
-            return template.apply(context);
+            return template.apply(context, renderCache);
         } catch (IOException e) {
             return throwUnchecked(e, String.class);
         }
     }
 
     private HandlebarsOptimizedTemplate getTemplate(final TemplateCacheKey key, final String content) {
-        if (maxCacheEntries != null && maxCacheEntries < 1) {
-            return new HandlebarsOptimizedTemplate(handlebars, content);
+        if (!cachingEnabled()) {
+            return compile(content);
+        }
+
+        if (!admits(key, content.length())) {
+            HandlebarsOptimizedTemplate template = cache.getIfPresent(key);
+            return template != null ? template : compile(content);
         }
 
         try {
             return cache.get(key, new Callable<HandlebarsOptimizedTemplate>() {
                 @Override
                 public HandlebarsOptimizedTemplate call() {
-                    return new HandlebarsOptimizedTemplate(handlebars, content);
+                    return cached(compile(content));
                 }
             });
         } catch (ExecutionException e) {
@@ -250,24 +395,263 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
         }
     }
 
+    /**
+     * Unlike other templates the file isn't read when the template is cached, unless it has changed since it was compiled
+     */
+    private HandlebarsOptimizedTemplate getBodyFileTemplate(final TemplateCacheKey key, final TextFile file) {
+        if (!cachingEnabled()) {
+            return compile(file.readContentsAsString());
+        }
+
+        if (!admits(key, maxCacheBytes != null ? Math.max(0, file.getLength()) : 0)) {
+            HandlebarsOptimizedTemplate template = cache.getIfPresent(key);
+            boolean stale = template instanceof BodyFileTemplate && !((BodyFileTemplate) template).isCurrent(file);
+            return template != null && !stale ? template : compileBodyFile(file);
+        }
+
+        try {
+            HandlebarsOptimizedTemplate template = cache.get(key, new Callable<HandlebarsOptimizedTemplate>() {
+                @Override
+                public HandlebarsOptimizedTemplate call() {
+                    return cached(compileBodyFile(file));
+                }
+            });
+
+            if (template instanceof BodyFileTemplate && !((BodyFileTemplate) template).isCurrent(file)) {
+                template = cached(compileBodyFile(file));
+                cache.put(key, template);
+            }
+
+            return template;
+        } catch (ExecutionException e) {
+            return Exceptions.throwUnchecked(e, HandlebarsOptimizedTemplate.class);
+        }
+    }
+
+    /**
+     * Once the cache is full, a template is only added when it has been asked for before, so that templates
+     * used once, e.g. by short lived stubs, don't evict ones in regular use. This stands in for TinyLFU's
+     * comparison with the template that would be evicted, which a Guava cache doesn't expose.
+     */
+    private boolean admits(TemplateCacheKey key, long sourceLength) {
+        if (templateFrequencies == null) {
+            return true;
+        }
+
+        templateFrequencies.increment(key);
+        boolean full = maxCacheEntries != null ?
+                cache.size() >= maxCacheEntries :
+                cachedBytes.get() + estimatedSizeOf(sourceLength) > maxCacheBytes;
+        if (!full || templateFrequencies.frequency(key) >= ADMISSION_FREQUENCY) {
+            return true;
+        }
+
+        rejections.incrementAndGet();
+        return false;
+    }
+
+    private HandlebarsOptimizedTemplate cached(HandlebarsOptimizedTemplate template) {
+        cachedBytes.addAndGet(estimatedSizeOf(template.getSourceLength()));
+        return template;
+    }
+
+    /**
+     * A segment per core, so lookups on busy servers don't contend. Guava splits a size limit between the
+     * segments though, so a cache limited by size has fewer when it's small, or large templates wouldn't fit.
+     */
+    private static int concurrencyLevelFor(Long maxCacheBytes) {
+        int cores = Math.max(4, Runtime.getRuntime().availableProcessors());
+        if (maxCacheBytes == null) {
+            return cores;
+        }
+
+        return (int) Math.max(1, Math.min(cores, maxCacheBytes / MIN_SEGMENT_BYTES));
+    }
+
+    /**
+     * The source is held as UTF-16 strings, with about as much again in the text nodes of the compiled template
+     */
+    private static long estimatedSizeOf(long sourceLength) {
+        return TEMPLATE_OVERHEAD_BYTES + sourceLength * 4;
+    }
+
+    private HandlebarsOptimizedTemplate compileBodyFile(TextFile file) {
+        // Looked at before the contents are read, so a change made while reading them is picked up next time
+        long lastModified = file.getLastModified();
+        long length = lastModified != 0 ? file.getLength() : 0;
+        return compile(file.readContentsAsString(), lastModified, length);
+    }
+
+    private HandlebarsOptimizedTemplate compile(String content) {
+        return compile(content, 0, 0);
+    }
+
+    /**
+     * @param lastModified of the body file the content was read from, or 0 if the content can't change
+     */
+    private HandlebarsOptimizedTemplate compile(String content, long lastModified, long length) {
+        long start = System.nanoTime();
+        try {
+            HandlebarsOptimizedTemplate template = lastModified == 0 ?
+                    new HandlebarsOptimizedTemplate(handlebars, content, renderVariablesDirectly) :
+                    new BodyFileTemplate(handlebars, content, renderVariablesDirectly, lastModified, length, bodyFileRevalidationInterval);
+            compilations.incrementAndGet();
+            return template;
+        } catch (RuntimeException e) {
+            compilationFailures.incrementAndGet();
+            throw e;
+        } finally {
+            totalCompileTimeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private boolean cachingEnabled() {
+        return (maxCacheEntries == null || maxCacheEntries > 0) && (maxCacheBytes == null || maxCacheBytes > 0);
+    }
+
+    /**
+     * The templates of a stub's response that can be known without a request. Body files are left out
+     * as their contents are only available through the file source passed to transform().
+     */
+    private static Map<TemplateCacheKey, String> templateSourcesOf(ResponseDefinition responseDefinition) {
+        Map<TemplateCacheKey, String> sources = new LinkedHashMap<>();
+        if (responseDefinition.specifiesTextBodyContent()) {
+            sources.put(TemplateCacheKey.forInlineBody(responseDefinition), responseDefinition.getTextBody());
+        } else if (responseDefinition.specifiesBodyFile()) {
+            sources.put(TemplateCacheKey.forBodyFilePath(responseDefinition), responseDefinition.getBodyFileName());
+        }
+
+        if (responseDefinition.getHeaders() != null) {
+            for (HttpHeader header: responseDefinition.getHeaders().all()) {
+                int index = 0;
+                for (String headerValue: header.values()) {
+                    sources.put(TemplateCacheKey.forHeader(responseDefinition, header.key(), index++), headerValue);
+                }
+            }
+        }
+
+        if (responseDefinition.getProxyBaseUrl() != null) {
+            sources.put(TemplateCacheKey.forProxyUrl(responseDefinition), responseDefinition.getProxyBaseUrl());
+
+            if (responseDefinition.getAdditionalProxyRequestHeaders() != null) {
+                for (HttpHeader header: responseDefinition.getAdditionalProxyRequestHeaders().all()) {
+                    int index = 0;
+                    for (String headerValue: header.values()) {
+                        sources.put(TemplateCacheKey.forProxyRequestHeader(responseDefinition, header.key(), index++), headerValue);
+                    }
+                }
+            }
+        }
+
+        return sources;
+    }
+
+    private static StubMapping servedStub() {
+        return RequestCache.current().get(StubMapping.class);
+    }
+
+    /**
+     * Whether rendering the response could change it. Each stub's response is checked once, normally when the
+     * stub is added, and any without template syntax are then returned from transform() untouched. Responses
+     * rendered outside of serving a stub are checked every time.
+     */
+    private boolean isStatic(StubMapping stub, ResponseDefinition responseDefinition, Parameters parameters) {
+        if (stub == null || stub.getId() == null) {
+            return containsNoTemplates(responseDefinition, parameters);
+        }
+
+        Boolean isStatic = staticStubs.get(stub.getId());
+        if (isStatic == null) {
+            isStatic = containsNoTemplates(responseDefinition, parameters);
+            staticStubs.put(stub.getId(), isStatic);
+        }
+
+        return isStatic;
+    }
+
+    private static boolean containsNoTemplates(ResponseDefinition responseDefinition, Parameters parameters) {
+        // A body file's contents can't be checked until a request has picked the file
+        if (responseDefinition.specifiesBodyFile() &&
+                (parameters == null || !parameters.getBoolean("disableBodyFileTemplating", false))) {
+            return false;
+        }
+
+        for (String source: templateSourcesOf(responseDefinition).values()) {
+            if (containsTemplateSyntax(source)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void compileTemplates(StubMapping stub) {
+        ResponseDefinition responseDefinition = stub.getResponse();
+        if (responseDefinition == null || !(global || responseDefinition.hasTransformer(this))) {
+            return;
+        }
+
+        Parameters parameters = firstNonNull(responseDefinition.getTransformerParameters(), Parameters.empty());
+        if (isStatic(stub, responseDefinition, parameters) || !cachingEnabled()) {
+            return;
+        }
+
+        for (Map.Entry<TemplateCacheKey, String> source: templateSourcesOf(responseDefinition).entrySet()) {
+            try {
+                getTemplate(source.getKey(), source.getValue());
+            } catch (RuntimeException e) {
+                // The stub is still added, so requests to it fail with this error as they always have
+                notifier().error("Failed to compile response template for stub " + stub.getId(), e);
+            }
+        }
+    }
+
+    private void evictTemplates(StubMapping stub) {
+        if (stub.getId() != null) {
+            staticStubs.remove(stub.getId());
+        }
+
+        ResponseDefinition responseDefinition = stub.getResponse();
+        if (responseDefinition == null) {
+            return;
+        }
+
+        cache.invalidateAll(templateSourcesOf(responseDefinition).keySet());
+        cache.invalidate(TemplateCacheKey.forMemoizationKey(responseDefinition));
+
+        if (responseDefinition.specifiesBodyFile()) {
+            // Body file templates are keyed on the file name the request resolved to, so have to be looked for
+            for (TemplateCacheKey key: cache.asMap().keySet()) {
+                if (key.isFor(responseDefinition)) {
+                    cache.invalidate(key);
+                }
+            }
+        }
+    }
+
     @Override
     public void beforeStubCreated(StubMapping stub) {}
 
     @Override
-    public void afterStubCreated(StubMapping stub) {}
+    public void afterStubCreated(StubMapping stub) {
+        compileTemplates(stub);
+    }
 
     @Override
     public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {}
 
     @Override
-    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {}
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+        evictTemplates(oldStub);
+        compileTemplates(newStub);
+    }
 
     @Override
     public void beforeStubRemoved(StubMapping stub) {}
 
     @Override
     public void afterStubRemoved(StubMapping stub) {
-        cache.invalidateAll();
+        evictTemplates(stub);
     }
 
     @Override
@@ -276,22 +660,58 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
     @Override
     public void afterStubsReset() {
         cache.invalidateAll();
+        staticStubs.clear();
     }
 
     public long getCacheSize() {
         return cache.size();
     }
 
+    public TemplateCacheStats getCacheStats() {
+        CacheStats stats = cache.stats();
+        return new TemplateCacheStats(
+                cache.size(),
+                stats.hitCount(),
+                stats.missCount(),
+                evictions.get(),
+                cachedBytes.get(),
+                rejections.get(),
+                compilations.get(),
+                compilationFailures.get(),
+                totalCompileTimeNanos.get()
+        );
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/response-templates/cache", new AdminTask() {
+            @Override
+            public ResponseDefinition execute(Admin admin, Request request, PathParams pathParams) {
+                return ResponseDefinition.okForJson(getCacheStats());
+            }
+        });
+    }
+
     public Long getMaxCacheEntries() {
         return maxCacheEntries;
     }
 
+    public Long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    public long getBodyFileRevalidationInterval() {
+        return bodyFileRevalidationInterval;
+    }
+
     public static class Builder {
         private boolean global = true;
-        private Handlebars handlebars = new Handlebars();
+        private Handlebars handlebars = null;
         private Map<String, Helper> helpers = new HashMap<>();
         private Long maxCacheEntries = null;
+        private Long maxCacheBytes = null;
         private Set<String> permittedSystemKeys = null;
+        private long bodyFileRevalidationInterval = DEFAULT_BODY_FILE_REVALIDATION_INTERVAL;
 
         public Builder global(boolean global) {
             this.global = global;
@@ -318,6 +738,14 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
             return this;
         }
 
+        /**
+         * Limits the cache by the estimated memory its templates use rather than by their number
+         */
+        public Builder maxCacheBytes(Long maxCacheBytes) {
+            this.maxCacheBytes = maxCacheBytes;
+            return this;
+        }
+
         public Builder permittedSystemKeys(Set<String> keys) {
             this.permittedSystemKeys = keys;
             return this;
@@ -328,8 +756,25 @@ public class ResponseTemplateTransformer extends ResponseDefinitionTransformer i
             return this;
         }
 
+        /**
+         * How often, in milliseconds, a cached body file template checks whether its file has changed. 0 checks on every request.
+         */
+        public Builder bodyFileRevalidationInterval(long bodyFileRevalidationInterval) {
+            this.bodyFileRevalidationInterval = bodyFileRevalidationInterval;
+            return this;
+        }
+
         public ResponseTemplateTransformer build() {
-            return new ResponseTemplateTransformer(global, handlebars, helpers, maxCacheEntries, permittedSystemKeys);
+            return new ResponseTemplateTransformer(
+                    global,
+                    handlebars != null ? handlebars : new Handlebars(),
+                    handlebars == null,
+                    helpers,
+                    maxCacheEntries,
+                    maxCacheBytes,
+                    permittedSystemKeys,
+                    bodyFileRevalidationInterval
+            );
         }
     }
 }
@@ -21,12 +21,13 @@ import java.util.Objects;
 
 public class TemplateCacheKey {
 
-    public enum ResponseElement { BODY, PROXY_URL, HEADER }
+    public enum ResponseElement { BODY, BODY_FILE_PATH, PROXY_URL, HEADER, PROXY_REQUEST_HEADER, MEMOIZATION_KEY }
 
     private final ResponseDefinition responseDefinition;
     private final ResponseElement element;
     private final String name;
     private final Integer index;
+    private int hash;
 
     public static TemplateCacheKey forInlineBody(ResponseDefinition responseDefinition) {
         return new TemplateCacheKey(responseDefinition, ResponseElement.BODY, "[inlineBody]", null);
@@ -36,14 +37,26 @@ public class TemplateCacheKey {
         return new TemplateCacheKey(responseDefinition, ResponseElement.BODY, filename, null);
     }
 
+    public static TemplateCacheKey forBodyFilePath(ResponseDefinition responseDefinition) {
+        return new TemplateCacheKey(responseDefinition, ResponseElement.BODY_FILE_PATH, "[bodyFileName]", null);
+    }
+
     public static TemplateCacheKey forHeader(ResponseDefinition responseDefinition, String headerName, int valueIndex) {
         return new TemplateCacheKey(responseDefinition, ResponseElement.HEADER, headerName, valueIndex);
     }
 
+    public static TemplateCacheKey forProxyRequestHeader(ResponseDefinition responseDefinition, String headerName, int valueIndex) {
+        return new TemplateCacheKey(responseDefinition, ResponseElement.PROXY_REQUEST_HEADER, headerName, valueIndex);
+    }
+
     public static TemplateCacheKey forProxyUrl(ResponseDefinition responseDefinition) {
         return new TemplateCacheKey(responseDefinition, ResponseElement.PROXY_URL, "[proxyUrl]", null);
     }
 
+    public static TemplateCacheKey forMemoizationKey(ResponseDefinition responseDefinition) {
+        return new TemplateCacheKey(responseDefinition, ResponseElement.MEMOIZATION_KEY, "[memoizationKey]", null);
+    }
+
     private TemplateCacheKey(ResponseDefinition responseDefinition, ResponseElement element, String name, Integer index) {
         this.responseDefinition = responseDefinition;
         this.element = element;
@@ -51,6 +64,10 @@ public class TemplateCacheKey {
         this.index = index;
     }
 
+    boolean isFor(ResponseDefinition responseDefinition) {
+        return this.responseDefinition.equals(responseDefinition);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -64,7 +81,11 @@ public class TemplateCacheKey {
 
     @Override
     public int hashCode() {
-        return Objects.hash(responseDefinition, element, name, index);
+        // Hashing the response definition is the expensive part, and the cache and its admission policy both need it
+        if (hash == 0) {
+            hash = Objects.hash(responseDefinition, element, name, index);
+        }
+        return hash;
     }
 
     @Override
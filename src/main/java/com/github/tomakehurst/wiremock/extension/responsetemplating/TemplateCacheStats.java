@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class TemplateCacheStats {
+
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long estimatedBytes;
+    private final long rejections;
+    private final long compilations;
+    private final long compilationFailures;
+    private final long totalCompileTimeNanos;
+
+    @JsonCreator
+    public TemplateCacheStats(@JsonProperty("size") long size,
+                              @JsonProperty("hits") long hits,
+                              @JsonProperty("misses") long misses,
+                              @JsonProperty("evictions") long evictions,
+                              @JsonProperty("estimatedBytes") long estimatedBytes,
+                              @JsonProperty("rejections") long rejections,
+                              @JsonProperty("compilations") long compilations,
+                              @JsonProperty("compilationFailures") long compilationFailures,
+                              @JsonProperty("totalCompileTimeNanos") long totalCompileTimeNanos) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.estimatedBytes = estimatedBytes;
+        this.rejections = rejections;
+        this.compilations = compilations;
+        this.compilationFailures = compilationFailures;
+        this.totalCompileTimeNanos = totalCompileTimeNanos;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * The approximate memory used by the cached templates
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * The number of templates compiled but not cached, because the cache was full and they hadn't been used before
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getCompilations() {
+        return compilations;
+    }
+
+    public long getCompilationFailures() {
+        return compilationFailures;
+    }
+
+    public long getTotalCompileTimeNanos() {
+        return totalCompileTimeNanos;
+    }
+
+    @JsonIgnore
+    public long getAverageCompileTimeNanos() {
+        return compilations == 0 ? 0 : totalCompileTimeNanos / compilations;
+    }
+}
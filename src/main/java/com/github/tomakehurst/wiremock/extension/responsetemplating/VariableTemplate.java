@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import com.github.jknack.handlebars.EscapingStrategy;
+import com.github.jknack.handlebars.Formatter;
+import com.github.jknack.handlebars.Handlebars;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Renders templates that only substitute variables, e.g. {{request.path.[0]}} or {{{request.body}}},
+ * from text and property paths worked out when the template is compiled, rather than by walking the
+ * Handlebars AST and its value resolvers.
+ *
+ * A template using anything else (helpers, blocks, partials, comments, whitespace control, literals or
+ * paths like ../ and this) isn't compiled. Values are only looked up in maps, lists and by public getters,
+ * and a render that finds a missing or null value leaves it to Handlebars, so the output never differs.
+ */
+class VariableTemplate {
+
+	private static final Pattern INDEX = Pattern.compile("\\d+");
+	private static final String ID_EXCLUDED_CHARS = "!\"#%&'()*+,./;<=>@[\\]^`{|}~";
+	private static final Set<EscapingStrategy> HTML_ESCAPING_STRATEGIES = ImmutableSet.of(
+			EscapingStrategy.HTML_ENTITY, EscapingStrategy.HBS3, EscapingStrategy.HBS4, EscapingStrategy.DEF, EscapingStrategy.XML
+	);
+	private static final ConcurrentMap<Class<?>, ConcurrentMap<String, Optional<Method>>> getters = new ConcurrentHashMap<>();
+
+	private final String[] text;
+	private final Variable[] variables;
+	private final Formatter.Chain formatter;
+	private final EscapingStrategy escapingStrategy;
+	private final boolean htmlEscaping;
+
+	private VariableTemplate(String[] text, Variable[] variables, Formatter.Chain formatter, EscapingStrategy escapingStrategy) {
+		this.text = text;
+		this.variables = variables;
+		this.formatter = formatter;
+		this.escapingStrategy = escapingStrategy;
+		this.htmlEscaping = HTML_ESCAPING_STRATEGIES.contains(escapingStrategy);
+	}
+
+	/**
+	 * @param handlebars must use the default delimiters
+	 * @return null if the template uses anything but variables
+	 */
+	static VariableTemplate compile(Handlebars handlebars, String content) {
+		List<String> text = new ArrayList<>();
+		List<Variable> variables = new ArrayList<>();
+		int position = 0;
+		while (true) {
+			int start = content.indexOf("{{", position);
+			if (start == -1) {
+				text.add(content.substring(position));
+				break;
+			}
+			if (start > 0 && content.charAt(start - 1) == '\\') {
+				return null;
+			}
+
+			boolean escaped = !content.startsWith("{{{", start);
+			String endDelimiter = escaped ? "}}" : "}}}";
+			int nameStart = start + (escaped ? 2 : 3);
+			int end = content.indexOf(endDelimiter, nameStart);
+			if (end == -1) {
+				return null;
+			}
+
+			String name = content.substring(nameStart, end).trim();
+			Variable variable = Variable.parse(name, escaped);
+			if (variable == null || handlebars.helper(name) != null || handlebars.helper(variable.path[0]) != null) {
+				return null;
+			}
+
+			text.add(content.substring(position, start));
+			variables.add(variable);
+			position = end + endDelimiter.length();
+		}
+
+		return new VariableTemplate(
+				text.toArray(new String[0]),
+				variables.toArray(new Variable[0]),
+				handlebars.getFormatter(),
+				handlebars.getEscapingStrategy()
+		);
+	}
+
+	/**
+	 * @return false, having written nothing, if a value couldn't be found and the template has to be
+	 *         rendered by Handlebars instead
+	 */
+	boolean apply(Object contextData, Writer writer) throws IOException {
+		CharSequence[] values = new CharSequence[variables.length];
+		for (int i = 0; i < variables.length; i++) {
+			Object value = variables[i].resolve(contextData);
+			if (value == null) {
+				return false;
+			}
+			values[i] = formatAndEscape(value, variables[i].escaped);
+		}
+
+		for (int i = 0; i < values.length; i++) {
+			writer.write(text[i]);
+			writer.append(values[i]);
+		}
+		writer.write(text[values.length]);
+		return true;
+	}
+
+	private CharSequence formatAndEscape(Object value, boolean escaped) {
+		CharSequence formatted = formatter.format(value).toString();
+		if (!escaped || value instanceof Handlebars.SafeString || (htmlEscaping && !needsHtmlEscaping(formatted))) {
+			return formatted;
+		}
+		return escapingStrategy.escape(formatted);
+	}
+
+	/**
+	 * Most values are plain ASCII words and numbers, which the HTML escaping strategies would return unchanged
+	 * after a much slower pass over them
+	 */
+	private static boolean needsHtmlEscaping(CharSequence value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c > '~' || c == '&' || c == '<' || c == '>' || c == '"' || c == '\'' || c == '`' || c == '=') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class Variable {
+
+		private final String[] path;
+		private final boolean[] index;
+		private final boolean escaped;
+		// The getter last used for each part of the path, as a path is nearly always resolved against the same types
+		private final Getter[] lastGetters;
+
+		private Variable(String[] path, boolean[] index, boolean escaped) {
+			this.path = path;
+			this.index = index;
+			this.escaped = escaped;
+			this.lastGetters = new Getter[path.length];
+		}
+
+		static Variable parse(String name, boolean escaped) {
+			List<String> path = new ArrayList<>();
+			List<Boolean> index = new ArrayList<>();
+			int position = 0;
+			while (position < name.length()) {
+				String segment;
+				if (name.charAt(position) == '[') {
+					int end = name.indexOf(']', position);
+					if (end == -1 || position == 0) {
+						return null;
+					}
+					segment = name.substring(position + 1, end);
+					position = end + 1;
+					index.add(INDEX.matcher(segment).matches());
+				} else {
+					int end = name.indexOf('.', position);
+					end = end == -1 ? name.length() : end;
+					segment = name.substring(position, end);
+					position = end;
+					if (!isId(segment) || (path.isEmpty() && isLiteral(segment))) {
+						return null;
+					}
+					index.add(false);
+				}
+				path.add(segment);
+
+				if (position < name.length()) {
+					if (name.charAt(position) != '.' || position == name.length() - 1) {
+						return null;
+					}
+					position++;
+				}
+			}
+
+			if (path.isEmpty()) {
+				return null;
+			}
+
+			boolean[] indexes = new boolean[index.size()];
+			for (int i = 0; i < indexes.length; i++) {
+				indexes[i] = index.get(i);
+			}
+			return new Variable(path.toArray(new String[0]), indexes, escaped);
+		}
+
+		private static boolean isId(String segment) {
+			if (segment.isEmpty() || segment.equals("this") || segment.equals("else")) {
+				return false;
+			}
+			for (int i = 0; i < segment.length(); i++) {
+				char c = segment.charAt(i);
+				if (Character.isWhitespace(c) || ID_EXCLUDED_CHARS.indexOf(c) != -1) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean isLiteral(String segment) {
+			return INDEX.matcher(segment).matches() || segment.equals("true") || segment.equals("false") ||
+					segment.equals("null") || segment.equals("undefined");
+		}
+
+		/**
+		 * @return null if any part of the path is missing or null
+		 */
+		Object resolve(Object contextData) {
+			Object value = contextData;
+			for (int i = 0; i < path.length && value != null; i++) {
+				value = resolve(value, i);
+			}
+			return value;
+		}
+
+		private Object resolve(Object value, int pathIndex) {
+			String name = path[pathIndex];
+			if (value instanceof Map) {
+				return ((Map<?, ?>) value).get(name);
+			}
+
+			if (index[pathIndex] && value instanceof List) {
+				List<?> list = (List<?>) value;
+				int i = Integer.parseInt(name);
+				return i < list.size() ? list.get(i) : null;
+			}
+
+			Getter getter = lastGetters[pathIndex];
+			if (getter == null || getter.type != value.getClass()) {
+				getter = new Getter(value.getClass(), getterFor(value.getClass(), name));
+				lastGetters[pathIndex] = getter;
+			}
+			if (getter.method == null) {
+				return null;
+			}
+			try {
+				return getter.method.invoke(value);
+			} catch (Exception e) {
+				return null;
+			}
+		}
+	}
+
+	private static class Getter {
+
+		private final Class<?> type;
+		private final Method method;
+
+		private Getter(Class<?> type, Method method) {
+			this.type = type;
+			this.method = method;
+		}
+	}
+
+	private static Method getterFor(Class<?> type, String name) {
+		ConcurrentMap<String, Optional<Method>> typeGetters = getters.get(type);
+		if (typeGetters == null) {
+			getters.putIfAbsent(type, new ConcurrentHashMap<String, Optional<Method>>());
+			typeGetters = getters.get(type);
+		}
+
+		Optional<Method> getter = typeGetters.get(name);
+		if (getter == null) {
+			getter = Optional.fromNullable(findGetter(type, name));
+			typeGetters.put(name, getter);
+		}
+		return getter.orNull();
+	}
+
+	private static Method findGetter(Class<?> type, String name) {
+		if (!Modifier.isPublic(type.getModifiers()) || name.isEmpty()) {
+			return null;
+		}
+
+		String capitalised = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		for (String prefix: new String[] { "get", "is" }) {
+			try {
+				Method method = type.getMethod(prefix + capitalised);
+				if (!Modifier.isStatic(method.getModifiers())) {
+					return method;
+				}
+			} catch (NoSuchMethodException e) {
+				// Try the next prefix
+			}
+		}
+		return null;
+	}
+}
@@ -77,6 +77,8 @@ public abstract class HandlebarsHelper<T> implements Helper<T> {
     }
 
     protected static RenderCache getRenderCache(Options options) {
-        return options.get("renderCache", new RenderCache());
+        return options.context != null ?
+            options.get("renderCache", new RenderCache()) :
+            new RenderCache();
     }
 }
@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.extension.responsetemplating.helpers;
 
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.RequestCache;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.RenderCache;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.InvalidJsonException;
@@ -74,8 +75,9 @@ public class HandlebarsJsonPathHelper extends HandlebarsHelper<Object> {
         RenderCache.Key cacheKey = RenderCache.Key.keyFor(DocumentContext.class, json);
         DocumentContext document = renderCache.get(cacheKey);
         if (document == null) {
+            // A string is likely to be the request body, which stub matching may already have parsed
             document = json instanceof String ?
-                    JsonPath.parse((String) json) :
+                    RequestCache.current().getJsonDocument((String) json) :
                     JsonPath.parse(json);
             renderCache.put(cacheKey, document);
         }
@@ -16,10 +16,11 @@
 package com.github.tomakehurst.wiremock.extension.responsetemplating.helpers;
 
 import com.github.jknack.handlebars.Options;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import org.apache.commons.lang3.RandomStringUtils;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class HandlebarsRandomValuesHelper extends HandlebarsHelper<Void> {
 
@@ -33,22 +34,22 @@ public class HandlebarsRandomValuesHelper extends HandlebarsHelper<Void> {
 
         switch (type) {
             case "ALPHANUMERIC":
-                rawValue = RandomStringUtils.randomAlphanumeric(length);
+                rawValue = random(length, 0, 0, true, true);
                 break;
             case "ALPHABETIC":
-                rawValue = RandomStringUtils.randomAlphabetic(length);
+                rawValue = random(length, 0, 0, true, false);
                 break;
             case "NUMERIC":
-                rawValue = RandomStringUtils.randomNumeric(length);
+                rawValue = random(length, 0, 0, false, true);
                 break;
             case "ALPHANUMERIC_AND_SYMBOLS":
-                rawValue = RandomStringUtils.random(length);
+                rawValue = random(length, 0, 0, false, false);
                 break;
             case "UUID":
-                rawValue = UUID.randomUUID().toString();
+                rawValue = Uuids.random().toString();
                 break;
             default:
-                rawValue = RandomStringUtils.randomAscii(length);
+                rawValue = random(length, 32, 127, false, false);
                 break;
 
         }
@@ -56,4 +57,9 @@ public class HandlebarsRandomValuesHelper extends HandlebarsHelper<Void> {
             rawValue.toUpperCase() :
             rawValue.toLowerCase();
     }
+
+    // The RandomStringUtils shortcuts all share one Random, which the threads serving requests would contend for
+    private static String random(int length, int start, int end, boolean letters, boolean numbers) {
+        return RandomStringUtils.random(length, start, end, letters, numbers, null, ThreadLocalRandom.current());
+    }
 }
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.util.ISO8601DateFormat;
 import com.fasterxml.jackson.databind.util.ISO8601Utils;
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.common.Exceptions;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.RenderCache;
 
 import java.io.IOException;
 import java.text.ParseException;
@@ -31,12 +32,25 @@ public class ParseDateHelper extends HandlebarsHelper<String> {
     public Object apply(String context, Options options) throws IOException {
         String format = options.hash("format", null);
 
+        RenderCache renderCache = getRenderCache(options);
+        RenderCache.Key cacheKey = RenderCache.Key.keyFor(Date.class, context, format);
+        Date date = renderCache.get(cacheKey);
+        if (date == null) {
+            date = parse(context, format);
+            renderCache.put(cacheKey, date);
+        }
+
+        // Dates are mutable, so each use gets its own
+        return new Date(date.getTime());
+    }
+
+    private static Date parse(String context, String format) {
         try {
             return format == null ?
                 new ISO8601DateFormat().parse(context) :
                 new SimpleDateFormat(format).parse(context);
         } catch (ParseException e) {
-            return Exceptions.throwUnchecked(e, Object.class);
+            return Exceptions.throwUnchecked(e, Date.class);
         }
     }
 }
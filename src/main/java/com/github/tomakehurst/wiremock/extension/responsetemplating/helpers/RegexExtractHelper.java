@@ -17,6 +17,7 @@ package com.github.tomakehurst.wiremock.extension.responsetemplating.helpers;
 
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.common.ListOrSingle;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.RenderCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +29,7 @@ public class RegexExtractHelper extends HandlebarsHelper<Object> {
     @Override
     public Object apply(Object context, Options options) {
         String regexString = options.param(0);
-        Pattern regex = Pattern.compile(regexString);
+        Pattern regex = getPattern(regexString, options);
         Matcher matcher = regex.matcher(context.toString());
         if (!matcher.find()) {
             return handleError("Nothing matched " + regexString);
@@ -49,4 +50,16 @@ public class RegexExtractHelper extends HandlebarsHelper<Object> {
         return null;
 
     }
+
+    private static Pattern getPattern(String regexString, Options options) {
+        RenderCache renderCache = getRenderCache(options);
+        RenderCache.Key cacheKey = RenderCache.Key.keyFor(Pattern.class, regexString);
+        Pattern pattern = renderCache.get(cacheKey);
+        if (pattern == null) {
+            pattern = Pattern.compile(regexString);
+            renderCache.put(cacheKey, pattern);
+        }
+
+        return pattern;
+    }
 }
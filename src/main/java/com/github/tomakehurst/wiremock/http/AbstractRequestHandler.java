@@ -15,16 +15,26 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.DataTruncationSettings;
 import com.github.tomakehurst.wiremock.extension.requestfilter.*;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Stopwatch;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.extension.requestfilter.FilterProcessor.processFilters;
 import static com.google.common.collect.Lists.newArrayList;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public abstract class AbstractRequestHandler implements RequestHandler, RequestEventSource {
@@ -32,10 +42,16 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 	protected List<RequestListener> listeners = newArrayList();
 	protected final ResponseRenderer responseRenderer;
 	protected final List<RequestFilter> requestFilters;
+	protected final DataTruncationSettings dataTruncationSettings;
 
 	public AbstractRequestHandler(ResponseRenderer responseRenderer, List<RequestFilter> requestFilters) {
+		this(responseRenderer, requestFilters, DataTruncationSettings.NO_TRUNCATION);
+	}
+
+	public AbstractRequestHandler(ResponseRenderer responseRenderer, List<RequestFilter> requestFilters, DataTruncationSettings dataTruncationSettings) {
 		this.responseRenderer = responseRenderer;
 		this.requestFilters = requestFilters;
+		this.dataTruncationSettings = dataTruncationSettings;
 	}
 
 	@Override
@@ -47,8 +63,8 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
     protected void afterResponseSent(ServeEvent serveEvent, Response response) {}
 
 	@Override
-	public void handle(Request request, HttpResponder httpResponder) {
-        Stopwatch stopwatch = Stopwatch.createStarted();
+	public void handle(Request request, final HttpResponder httpResponder) {
+        final Stopwatch stopwatch = Stopwatch.createStarted();
 
 		ServeEvent serveEvent;
 		Request processedRequest = request;
@@ -66,8 +82,65 @@ public abstract class AbstractRequestHandler implements RequestHandler, RequestE
 
 		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
 		responseDefinition.setOriginalRequest(processedRequest);
+
+		if (canRespondAsync(serveEvent, httpResponder)) {
+			respondAsync(serveEvent, processedRequest, (AsyncHttpResponder) httpResponder, stopwatch);
+			return;
+		}
+
 		Response response = responseRenderer.render(serveEvent);
-		ServeEvent completedServeEvent = serveEvent.complete(response, (int) stopwatch.elapsed(MILLISECONDS));
+		completeAndRespond(serveEvent, processedRequest, response, httpResponder, stopwatch);
+	}
+
+	private static Response bufferBody(Response response) {
+		try (InputStream stream = response.getBodyStream()) {
+			return Response.Builder.like(response)
+					.body(ByteStreams.toByteArray(stream))
+					.build();
+		} catch (IOException e) {
+			return throwUnchecked(e, Response.class);
+		}
+	}
+
+	private boolean canRespondAsync(ServeEvent serveEvent, HttpResponder httpResponder) {
+		return responseRenderer instanceof AsyncResponseRenderer &&
+				httpResponder instanceof AsyncHttpResponder &&
+				((AsyncHttpResponder) httpResponder).isAsyncSupported() &&
+				((AsyncResponseRenderer) responseRenderer).canRenderAsync(serveEvent);
+	}
+
+	private void respondAsync(final ServeEvent serveEvent,
+							  final Request processedRequest,
+							  final AsyncHttpResponder httpResponder,
+							  final Stopwatch stopwatch) {
+		Executor executor = httpResponder.startAsync();
+		ListenableFuture<Response> futureResponse = ((AsyncResponseRenderer) responseRenderer).renderAsync(serveEvent, executor);
+		Futures.addCallback(futureResponse, new FutureCallback<Response>() {
+			@Override
+			public void onSuccess(Response response) {
+				completeAndRespond(serveEvent, processedRequest, response, httpResponder, stopwatch);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				notifier().error("Failed to render response for " + processedRequest.getUrl(), t);
+				Response errorResponse = Response.response()
+						.status(HTTP_INTERNAL_ERROR)
+						.body(String.valueOf(t.getMessage()))
+						.build();
+				completeAndRespond(serveEvent, processedRequest, errorResponse, httpResponder, stopwatch);
+			}
+		}, executor);
+	}
+
+	private void completeAndRespond(ServeEvent serveEvent, Request processedRequest, Response response, HttpResponder httpResponder, Stopwatch stopwatch) {
+		if (!listeners.isEmpty() && response.isBodyStreamed()) {
+			// Listeners such as the mappings recorder read the whole body before it is sent
+			response = bufferBody(response);
+		}
+
+		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+		ServeEvent completedServeEvent = serveEvent.complete(response, (int) stopwatch.elapsed(MILLISECONDS), dataTruncationSettings);
 
 		if (logRequests()) {
 			notifier().info("Request received:\n" +
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class AdmissionControlStats {
+
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final int active;
+    private final int queued;
+    private final long admitted;
+    private final long shedQueueFull;
+    private final long shedQueueTimeout;
+
+    @JsonCreator
+    public AdmissionControlStats(@JsonProperty("maxConcurrentRequests") int maxConcurrentRequests,
+                                 @JsonProperty("maxQueuedRequests") int maxQueuedRequests,
+                                 @JsonProperty("active") int active,
+                                 @JsonProperty("queued") int queued,
+                                 @JsonProperty("admitted") long admitted,
+                                 @JsonProperty("shedQueueFull") long shedQueueFull,
+                                 @JsonProperty("shedQueueTimeout") long shedQueueTimeout) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.active = active;
+        this.queued = queued;
+        this.admitted = admitted;
+        this.shedQueueFull = shedQueueFull;
+        this.shedQueueTimeout = shedQueueTimeout;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getShedQueueFull() {
+        return shedQueueFull;
+    }
+
+    public long getShedQueueTimeout() {
+        return shedQueueTimeout;
+    }
+
+    @JsonIgnore
+    public long getShed() {
+        return shedQueueFull + shedQueueTimeout;
+    }
+}
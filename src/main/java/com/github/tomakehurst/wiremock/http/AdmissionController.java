@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.AdmissionControlSettings;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Decides whether a stub request may be handled now, may wait for a bounded time
+ * in a bounded queue, or must be shed so that an overloaded server fails fast
+ * rather than letting latency grow. See {@link AdmissionControlSettings}.
+ */
+public class AdmissionController {
+
+    public static final String KEY = AdmissionController.class.getName();
+
+    private final AdmissionControlSettings settings;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong shedQueueFull = new AtomicLong();
+    private final AtomicLong shedQueueTimeout = new AtomicLong();
+
+    public AdmissionController(AdmissionControlSettings settings) {
+        this.settings = settings;
+        this.permits = settings.enabled() ? new Semaphore(settings.maxConcurrentRequests()) : null;
+    }
+
+    public AdmissionControlSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return true if the request may be handled, in which case {@link #release()}
+     *         must be called once it has been responded to
+     */
+    public boolean tryAdmit() {
+        if (permits == null || permits.tryAcquire()) {
+            admitted.incrementAndGet();
+            return true;
+        }
+
+        if (queued.incrementAndGet() > settings.maxQueuedRequests()) {
+            queued.decrementAndGet();
+            shedQueueFull.incrementAndGet();
+            return false;
+        }
+
+        try {
+            if (permits.tryAcquire(settings.queueTimeout(), MILLISECONDS)) {
+                admitted.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+        }
+
+        shedQueueTimeout.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public AdmissionControlStats getStats() {
+        int max = settings.maxConcurrentRequests();
+        return new AdmissionControlStats(
+            max,
+            settings.enabled() ? settings.maxQueuedRequests() : 0,
+            permits != null ? max - permits.availablePermits() : 0,
+            queued.get(),
+            admitted.get(),
+            shedQueueFull.get(),
+            shedQueueTimeout.get()
+        );
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A responder that can release the thread that received the request and send the response later from another.
+ */
+public interface AsyncHttpResponder extends HttpResponder {
+
+    boolean isAsyncSupported();
+
+    /**
+     * Detaches the exchange from the current thread. The response must then be sent by calling
+     * {@link #respond(Request, Response)} from a task run by the returned executor.
+     */
+    Executor startAsync();
+}
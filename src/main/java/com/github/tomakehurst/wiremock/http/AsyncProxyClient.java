@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpProxy;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.util.HttpCookieStore;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.http.Response.response;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A non-blocking client for proxied requests. Requests are sent and their responses read by the client's selector
+ * rather than by the thread serving the stub, and response bodies are buffered in full before the returned future
+ * completes.
+ */
+public class AsyncProxyClient {
+
+    private final HttpClient client;
+    private final int timeoutMilliseconds;
+    private volatile boolean started;
+
+    public AsyncProxyClient(ProxySettings proxySettings,
+                            KeyStoreSettings trustStoreSettings,
+                            ProxyConnectionPoolSettings poolSettings,
+                            int timeoutMilliseconds) {
+        this.timeoutMilliseconds = timeoutMilliseconds;
+
+        SslContextFactory sslContextFactory = newClientSslContextFactory();
+        sslContextFactory.setSslContext(HttpClientFactory.buildSslContext(trustStoreSettings, true, Collections.<String>emptyList()));
+        sslContextFactory.setEndpointIdentificationAlgorithm(null);
+
+        client = new HttpClient(sslContextFactory);
+
+        QueuedThreadPool threadPool = new QueuedThreadPool();
+        threadPool.setName("wiremock-async-proxy");
+        threadPool.setDaemon(true);
+        client.setExecutor(threadPool);
+        client.setScheduler(new ScheduledExecutorScheduler("wiremock-async-proxy-scheduler", true));
+
+        client.setFollowRedirects(false);
+        client.setMaxConnectionsPerDestination(poolSettings.maxConnectionsPerRoute());
+        client.setIdleTimeout(poolSettings.idleConnectionTimeout());
+        client.setCookieStore(new HttpCookieStore.Empty());
+        client.setUserAgentField(null);
+
+        if (proxySettings != ProxySettings.NO_PROXY) {
+            client.getProxyConfiguration().getProxies().add(new HttpProxy(proxySettings.host(), proxySettings.port()));
+        }
+    }
+
+    // The constructor is only deprecated from Jetty 9.4, where the client subclass is found instead
+    @SuppressWarnings("deprecation")
+    private static SslContextFactory newClientSslContextFactory() {
+        try {
+            return (SslContextFactory) Class.forName("org.eclipse.jetty.util.ssl.SslContextFactory$Client")
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ClassNotFoundException e) {
+            return new SslContextFactory();
+        } catch (Exception e) {
+            return throwUnchecked(e, SslContextFactory.class);
+        }
+    }
+
+    private void startIfStopped() {
+        if (started) {
+            return;
+        }
+
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+
+            try {
+                client.start();
+            } catch (Exception e) {
+                throwUnchecked(e);
+            }
+
+            // Starting the client registers its default decoders, which would decompress bodies whose
+            // Content-Encoding header is passed on unchanged
+            client.getContentDecoderFactories().clear();
+            started = true;
+        }
+    }
+
+    /**
+     * Stops the client along with its thread pool and scheduler. The client is started again by the next request
+     * sent through it, so a server that is restarted can carry on proxying.
+     */
+    public synchronized void stop() {
+        started = false;
+        try {
+            client.stop();
+        } catch (Exception e) {
+            throwUnchecked(e);
+        }
+    }
+
+    /**
+     * @return a future completed with the target's response, including all of its headers, or failed with the
+     * exception that prevented one being received
+     */
+    public ListenableFuture<Response> execute(RequestMethod method, String url, List<HttpHeader> headers, byte[] body) {
+        startIfStopped();
+
+        org.eclipse.jetty.client.api.Request request = client.newRequest(url)
+            .method(method.getName())
+            .idleTimeout(timeoutMilliseconds, MILLISECONDS)
+            .timeout(timeoutMilliseconds, MILLISECONDS);
+
+        for (HttpHeader header: headers) {
+            for (String value: header.values()) {
+                request.header(header.key(), value);
+            }
+        }
+
+        if (body != null) {
+            request.content(new BytesContentProvider(body));
+        }
+
+        final SettableFuture<Response> futureResponse = SettableFuture.create();
+        request.send(new BufferingResponseListener(Integer.MAX_VALUE) {
+            @Override
+            public void onComplete(Result result) {
+                if (result.isFailed()) {
+                    futureResponse.setException(result.getFailure());
+                    return;
+                }
+
+                List<HttpHeader> responseHeaders = new LinkedList<>();
+                for (HttpField field: result.getResponse().getHeaders()) {
+                    responseHeaders.add(new HttpHeader(field.getName(), field.getValue()));
+                }
+
+                futureResponse.set(response()
+                    .status(result.getResponse().getStatus())
+                    .headers(new HttpHeaders(responseHeaders))
+                    .body(getContent())
+                    .build());
+            }
+        });
+
+        return futureResponse;
+    }
+}
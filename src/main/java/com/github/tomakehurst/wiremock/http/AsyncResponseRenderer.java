@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A renderer that can produce some responses without holding the calling thread, e.g. while waiting on a proxy target.
+ */
+public interface AsyncResponseRenderer extends ResponseRenderer {
+
+    boolean canRenderAsync(ServeEvent serveEvent);
+
+    /**
+     * @param executor runs any work needed once the response has arrived, such as applying transformers
+     */
+    ListenableFuture<Response> renderAsync(ServeEvent serveEvent, Executor executor);
+}
@@ -33,6 +33,7 @@ public class Body {
     private final byte[] content;
     private final boolean binary;
     private final boolean json;
+    private int hash;
 
     public Body(byte[] content) {
         this(content, true);
@@ -116,13 +117,25 @@ public class Body {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Body body = (Body) o;
+        if (hash != 0 && body.hash != 0 && hash != body.hash) {
+            return false;
+        }
         return Objects.equals(binary, body.binary) &&
                 Arrays.equals(content, body.content);
     }
 
+    /**
+     * Remembered like {@link String#hashCode()}, as response definitions are hashed on every
+     * templated request and hashing a large body each time would cost more than rendering it.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(content, binary);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(Arrays.hashCode(content), binary);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
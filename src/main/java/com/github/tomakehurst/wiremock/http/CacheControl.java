@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The directives of a Cache-Control header, or of several combined.
+ */
+class CacheControl {
+
+    private final Map<String, String> directives;
+
+    private CacheControl(Map<String, String> directives) {
+        this.directives = directives;
+    }
+
+    static CacheControl from(HttpHeader header) {
+        Map<String, String> directives = new HashMap<>();
+        if (header.isPresent()) {
+            for (String value: header.values()) {
+                for (String directive: value.split(",")) {
+                    String[] parts = directive.trim().split("=", 2);
+                    if (!parts[0].isEmpty()) {
+                        directives.put(parts[0].toLowerCase(), parts.length > 1 ? unquote(parts[1].trim()) : null);
+                    }
+                }
+            }
+        }
+
+        return new CacheControl(directives);
+    }
+
+    boolean has(String directive) {
+        return directives.containsKey(directive);
+    }
+
+    /**
+     * @return the directive's value in seconds, or null if it's absent or not a number
+     */
+    Long seconds(String directive) {
+        String value = directives.get(directive);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String unquote(String value) {
+        return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"") ?
+            value.substring(1, value.length() - 1) :
+            value;
+    }
+}
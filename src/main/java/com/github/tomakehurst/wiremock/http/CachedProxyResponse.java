@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A proxied response held by the {@link ProxyResponseCache}, with the times needed to work out its age and
+ * freshness.
+ */
+public class CachedProxyResponse {
+
+    private final String key;
+    private final int status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long responseTime;
+    private final long initialAgeMillis;
+    private final long freshnessLifetimeMillis;
+
+    @JsonCreator
+    public CachedProxyResponse(@JsonProperty("key") String key,
+                               @JsonProperty("status") int status,
+                               @JsonProperty("headers") HttpHeaders headers,
+                               @JsonProperty("body") byte[] body,
+                               @JsonProperty("responseTime") long responseTime,
+                               @JsonProperty("initialAgeMillis") long initialAgeMillis,
+                               @JsonProperty("freshnessLifetimeMillis") long freshnessLifetimeMillis) {
+        this.key = key;
+        this.status = status;
+        this.headers = headers != null ? headers : new HttpHeaders();
+        this.body = body != null ? body : new byte[0];
+        this.responseTime = responseTime;
+        this.initialAgeMillis = initialAgeMillis;
+        this.freshnessLifetimeMillis = freshnessLifetimeMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public long getResponseTime() {
+        return responseTime;
+    }
+
+    public long getInitialAgeMillis() {
+        return initialAgeMillis;
+    }
+
+    public long getFreshnessLifetimeMillis() {
+        return freshnessLifetimeMillis;
+    }
+
+    public long currentAgeMillis(long now) {
+        return initialAgeMillis + Math.max(0, now - responseTime);
+    }
+
+    public boolean isFreshAt(long now) {
+        return currentAgeMillis(now) < freshnessLifetimeMillis;
+    }
+
+    @JsonIgnore
+    public boolean hasValidators() {
+        return headers.getHeader("ETag").isPresent() || headers.getHeader("Last-Modified").isPresent();
+    }
+
+    @JsonIgnore
+    public int getWeight() {
+        long weight = body.length + key.length() * 2L;
+        for (HttpHeader header: headers.all()) {
+            weight += header.key().length() * 2L;
+            for (String value: header.values()) {
+                weight += value.length() * 2L;
+            }
+        }
+
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    CachedProxyResponse withKey(String key) {
+        return new CachedProxyResponse(key, status, headers, body, responseTime, initialAgeMillis, freshnessLifetimeMillis);
+    }
+
+    /**
+     * @return this response's headers with those sent in a 304 Not Modified replacing their namesakes
+     */
+    HttpHeaders headersUpdatedBy(HttpHeaders notModifiedHeaders) {
+        List<HttpHeader> updatedHeaders = new ArrayList<>();
+        for (HttpHeader header: headers.all()) {
+            if (!notModifiedHeaders.getHeader(header.key()).isPresent()) {
+                updatedHeaders.add(header);
+            }
+        }
+        updatedHeaders.addAll(notModifiedHeaders.all());
+
+        return new HttpHeaders(updatedHeaders);
+    }
+}
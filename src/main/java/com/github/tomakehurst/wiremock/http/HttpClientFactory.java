@@ -16,6 +16,7 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.http.ssl.HostVerifyingSSLSocketFactory;
 import com.github.tomakehurst.wiremock.http.ssl.SSLContextBuilder;
@@ -23,21 +24,33 @@ import com.github.tomakehurst.wiremock.http.ssl.TrustEverythingStrategy;
 import com.github.tomakehurst.wiremock.http.ssl.TrustSelfSignedStrategy;
 import com.github.tomakehurst.wiremock.http.ssl.TrustSpecificHostsStrategy;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.*;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
 import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.ProxyAuthenticationStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.TextUtils;
 
 import javax.net.ssl.SSLContext;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -46,12 +59,14 @@ import java.security.UnrecoverableEntryException;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings.NO_STORE;
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 public class HttpClientFactory {
@@ -67,15 +82,98 @@ public class HttpClientFactory {
             boolean trustSelfSignedCertificates,
             final List<String> trustedHosts) {
 
+        HttpClientBuilder builder = createBuilder(proxySettings)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeoutMilliseconds).build());
+
+        final SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
+        LayeredConnectionSocketFactory sslSocketFactory = buildSslConnectionSocketFactory(sslContext);
+        builder.setSSLSocketFactory(sslSocketFactory);
+
+        return builder.build();
+	}
+
+    /**
+     * Creates a client that takes its connections from the given manager, e.g. one from
+     * {@link #createConnectionManager}, so that the pool can be inspected and shared.
+     */
+    public static CloseableHttpClient createClient(
+            HttpClientConnectionManager connectionManager,
+            ProxyConnectionPoolSettings poolSettings,
+            ProxySettings proxySettings) {
+        return createBuilder(proxySettings)
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy(poolSettings.keepAliveDuration()))
+                .build();
+    }
+
+    public static PoolingHttpClientConnectionManager createConnectionManager(
+            ProxyConnectionPoolSettings poolSettings,
+            int timeoutMilliseconds,
+            ProxySettings proxySettings,
+            KeyStoreSettings trustStoreSettings,
+            boolean trustSelfSignedCertificates,
+            List<String> trustedHosts) {
+
+        final SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", buildSslConnectionSocketFactory(sslContext))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                socketFactoryRegistry,
+                null,
+                null,
+                null,
+                poolSettings.connectionTimeToLive(),
+                MILLISECONDS
+        );
+        connectionManager.setMaxTotal(poolSettings.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(poolSettings.maxConnectionsPerRoute());
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeoutMilliseconds).build());
+
+        for (Map.Entry<String, Integer> routeMax: poolSettings.maxConnectionsPerBaseUrl().entrySet()) {
+            connectionManager.setMaxPerRoute(routeFor(routeMax.getKey(), proxySettings), routeMax.getValue());
+        }
+
+        return connectionManager;
+    }
+
+    /**
+     * Builds the route that requests to the base URL will take, in the same form as HttpClient's own route planner
+     * so that it can be used as a key into the connection pool.
+     */
+    static HttpRoute routeFor(String baseUrl, ProxySettings proxySettings) {
+        URI uri = URI.create(baseUrl);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        HttpHost target = new HttpHost(uri.getHost(), port, uri.getScheme());
+
+        return proxySettings == NO_PROXY ?
+                new HttpRoute(target, null, secure) :
+                new HttpRoute(target, null, new HttpHost(proxySettings.host(), proxySettings.port()), secure);
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(final int defaultKeepAliveDuration) {
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                return duration > 0 ? duration : defaultKeepAliveDuration;
+            }
+        };
+    }
+
+    private static HttpClientBuilder createBuilder(ProxySettings proxySettings) {
         HttpClientBuilder builder = HttpClientBuilder.create()
                 .disableAuthCaching()
                 .disableAutomaticRetries()
                 .disableCookieManagement()
                 .disableRedirectHandling()
                 .disableContentCompression()
-                .setMaxConnTotal(maxConnections)
                 .setDefaultRequestConfig(RequestConfig.custom().setStaleConnectionCheckEnabled(true).build())
-                .setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(timeoutMilliseconds).build())
                 .useSystemProperties();
 
         if (proxySettings != NO_PROXY) {
@@ -91,12 +189,8 @@ public class HttpClientFactory {
             }
         }
 
-        final SSLContext sslContext = buildSslContext(trustStoreSettings, trustSelfSignedCertificates, trustedHosts);
-        LayeredConnectionSocketFactory sslSocketFactory = buildSslConnectionSocketFactory(sslContext);
-        builder.setSSLSocketFactory(sslSocketFactory);
-
-        return builder.build();
-	}
+        return builder;
+    }
 
     private static LayeredConnectionSocketFactory buildSslConnectionSocketFactory(final SSLContext sslContext) {
         final String[] supportedProtocols = split(System.getProperty("https.protocols"));
@@ -121,7 +215,7 @@ public class HttpClientFactory {
         return s.split(" *, *");
     }
 
-    private static SSLContext buildSslContext(
+    static SSLContext buildSslContext(
         KeyStoreSettings trustStoreSettings,
         boolean trustSelfSignedCertificates,
         List<String> trustedHosts
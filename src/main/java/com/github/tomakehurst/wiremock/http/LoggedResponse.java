@@ -18,7 +18,10 @@ package com.github.tomakehurst.wiremock.http;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.common.Encoding;
+import com.github.tomakehurst.wiremock.common.Limit;
 import com.github.tomakehurst.wiremock.common.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.net.MediaType;
 
 import java.nio.charset.Charset;
@@ -29,7 +32,7 @@ public class LoggedResponse {
 
     private final int status;
     private final HttpHeaders headers;
-    private final byte[] body;
+    private final Supplier<byte[]> body;
     private final Fault fault;
 
     public LoggedResponse(@JsonProperty("status") int status,
@@ -37,10 +40,10 @@ public class LoggedResponse {
                           @JsonProperty("bodyAsBase64") String bodyAsBase64,
                           @JsonProperty("fault") Fault fault,
                           @JsonProperty("body") String ignoredBodyOnlyUsedForBinding) {
-        this(status, headers, Encoding.decodeBase64(bodyAsBase64), fault);
+        this(status, headers, Suppliers.ofInstance(Encoding.decodeBase64(bodyAsBase64)), fault);
     }
 
-    private LoggedResponse(int status, HttpHeaders headers, byte[] body, Fault fault) {
+    private LoggedResponse(int status, HttpHeaders headers, Supplier<byte[]> body, Fault fault) {
         this.status = status;
         this.headers = headers;
         this.body = body;
@@ -48,10 +51,25 @@ public class LoggedResponse {
     }
 
     public static LoggedResponse from(Response response) {
+        return from(response, Limit.UNLIMITED);
+    }
+
+    /**
+     * The body of a response being streamed through from a proxy target is only captured when it is first
+     * asked for, so that logging the response doesn't hold it up on its way to the client.
+     */
+    public static LoggedResponse from(final Response response, final Limit responseBodySizeLimit) {
+        Supplier<byte[]> body = new Supplier<byte[]>() {
+            @Override
+            public byte[] get() {
+                return response.getBody(responseBodySizeLimit);
+            }
+        };
+
         return new LoggedResponse(
             response.getStatus(),
             response.getHeaders() == null || response.getHeaders().all().isEmpty() ? null : response.getHeaders(),
-            response.getBody(),
+            response.isBodyStreamed() ? Suppliers.memoize(body) : Suppliers.ofInstance(body.get()),
             response.getFault()
         );
     }
@@ -72,6 +90,7 @@ public class LoggedResponse {
      */
     @JsonProperty("body")
     public String getBodyAsString() {
+        byte[] body = getBody();
         if (body == null) {
             return "";
         }
@@ -93,12 +112,12 @@ public class LoggedResponse {
 
     @JsonIgnore
     public byte[] getBody() {
-        return body;
+        return body.get();
     }
 
     @JsonProperty("bodyAsBase64")
     public String getBodyAsBase64() {
-        return Encoding.encodeBase64(body);
+        return Encoding.encodeBase64(getBody());
     }
 
     public Fault getFault() {
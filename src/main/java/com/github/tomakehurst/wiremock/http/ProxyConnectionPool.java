@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A pool of connections to proxy targets. Expired and idle connections are evicted by the requests that use the
+ * pool rather than by a background thread, as the proxy has no lifecycle from which to stop one.
+ */
+public class ProxyConnectionPool {
+
+    private static final long EVICTION_INTERVAL_MILLISECONDS = 5000;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final int idleConnectionTimeout;
+    private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+
+    public ProxyConnectionPool(PoolingHttpClientConnectionManager connectionManager, ProxyConnectionPoolSettings settings) {
+        this.connectionManager = connectionManager;
+        this.idleConnectionTimeout = settings.idleConnectionTimeout();
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    public void evictConnectionsIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastEviction.get();
+        if (now - last < EVICTION_INTERVAL_MILLISECONDS || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+
+        connectionManager.closeExpiredConnections();
+        if (idleConnectionTimeout > 0) {
+            connectionManager.closeIdleConnections(idleConnectionTimeout, MILLISECONDS);
+        }
+    }
+
+    public ConnectionPoolStats getTotalStats() {
+        return ConnectionPoolStats.from(null, connectionManager.getTotalStats());
+    }
+
+    /**
+     * @return stats for each route with pooled connections, keyed by the target's base URL
+     */
+    public Map<String, ConnectionPoolStats> getStatsByRoute() {
+        Map<String, ConnectionPoolStats> stats = new LinkedHashMap<>();
+        for (HttpRoute route: connectionManager.getRoutes()) {
+            String target = route.getTargetHost().toURI();
+            ConnectionPoolStats routeStats = ConnectionPoolStats.from(target, connectionManager.getStats(route));
+            stats.put(target, stats.containsKey(target) ? stats.get(target).plus(routeStats) : routeStats);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+/**
+ * Shares in-flight proxied calls between concurrent requests with the same key. The first request for a key makes
+ * the call and later ones wait for its response until it completes, after which the key is free again.
+ */
+public class ProxyRequestCoalescer {
+
+    private final ConcurrentMap<String, ListenableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param call makes the upstream call. Only invoked, on the calling thread, if no call for the key is in flight.
+     */
+    public ListenableFuture<Response> execute(final String key, Supplier<ListenableFuture<Response>> call) {
+        final SettableFuture<Response> response = SettableFuture.create();
+        ListenableFuture<Response> existing = inFlight.putIfAbsent(key, response);
+        if (existing != null) {
+            return existing;
+        }
+
+        response.addListener(new Runnable() {
+            @Override
+            public void run() {
+                inFlight.remove(key, response);
+            }
+        }, directExecutor());
+
+        try {
+            response.setFuture(call.get());
+        } catch (RuntimeException | Error e) {
+            response.setException(e);
+        }
+
+        return response;
+    }
+}
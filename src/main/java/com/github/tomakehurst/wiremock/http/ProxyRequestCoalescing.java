@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
+
+/**
+ * Opts a proxy stub into sharing one upstream call between concurrent GET and HEAD requests with the same URL and
+ * values for the listed headers.
+ */
+public class ProxyRequestCoalescing {
+
+    private final List<String> headers;
+
+    @JsonCreator
+    public ProxyRequestCoalescing(@JsonProperty("headers") List<String> headers) {
+        this.headers = headers != null ? headers : Collections.<String>emptyList();
+    }
+
+    @JsonInclude(NON_EMPTY)
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public boolean includesHeader(String key) {
+        for (String header: headers) {
+            if (header.equalsIgnoreCase(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProxyRequestCoalescing that = (ProxyRequestCoalescing) o;
+        return Objects.equals(headers, that.headers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(headers);
+    }
+}
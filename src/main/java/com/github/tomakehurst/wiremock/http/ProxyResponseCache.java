@@ -0,0 +1,409 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyResponseCacheSettings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.apache.http.client.utils.DateUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.Response.response;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A cache of proxied GET responses that follows HTTP caching semantics: responses are stored and reused according to
+ * their Cache-Control, Expires and Vary headers, and stale ones with an ETag or Last-Modified are revalidated with a
+ * conditional request. Responses are held in memory up to a maximum total size, and those evicted can optionally be
+ * kept in a disk tier.
+ *
+ * <p>Conditional requests from clients are answered by the cache rather than passed to the target.</p>
+ */
+public class ProxyResponseCache {
+
+    private static final Set<Integer> CACHEABLE_STATUSES = ImmutableSet.of(200, 203, 204, 300, 301, 308, 404, 405, 410, 414, 501);
+    private static final int NOT_MODIFIED = 304;
+    private static final int MAX_VARY_ENTRIES = 10000;
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    private final Cache<String, CachedProxyResponse> memoryTier;
+    private final ProxyResponseDiskStore diskTier;
+    private final Cache<String, List<String>> varyHeaderNames;
+
+    public ProxyResponseCache(ProxyResponseCacheSettings settings) {
+        diskTier = settings.getDiskDirectory() != null ?
+            new ProxyResponseDiskStore(new File(settings.getDiskDirectory()), settings.getMaxDiskSize()) :
+            null;
+
+        CacheBuilder<String, CachedProxyResponse> memoryTierBuilder = CacheBuilder.newBuilder()
+            .maximumWeight(settings.getMaxMemorySize())
+            .weigher(new Weigher<String, CachedProxyResponse>() {
+                @Override
+                public int weigh(String key, CachedProxyResponse response) {
+                    return response.getWeight();
+                }
+            });
+        if (diskTier != null) {
+            memoryTierBuilder.removalListener(new RemovalListener<String, CachedProxyResponse>() {
+                @Override
+                public void onRemoval(RemovalNotification<String, CachedProxyResponse> notification) {
+                    if (notification.wasEvicted()) {
+                        diskTier.put(notification.getValue());
+                    }
+                }
+            });
+        }
+        memoryTier = memoryTierBuilder.build();
+
+        varyHeaderNames = CacheBuilder.newBuilder()
+            .maximumSize(MAX_VARY_ENTRIES)
+            .build();
+    }
+
+    /**
+     * @return true if the response to this proxied request can come from, or be stored in, the cache
+     */
+    public boolean appliesTo(ResponseDefinition responseDefinition) {
+        Request request = responseDefinition.getOriginalRequest();
+        ProxyResponseCaching caching = responseDefinition.getProxyResponseCaching();
+        return request.getMethod().equals(GET) &&
+            (caching == null || caching.isEnabled()) &&
+            !CacheControl.from(request.header("Cache-Control")).has("no-store");
+    }
+
+    public Lookup lookup(ResponseDefinition responseDefinition) {
+        Request request = responseDefinition.getOriginalRequest();
+        String primaryKey = primaryKeyFor(responseDefinition);
+        List<String> vary = varyHeaderNames.getIfPresent(primaryKey);
+        CachedProxyResponse cached = get(variantKeyFor(primaryKey, vary, request));
+        if (cached == null) {
+            return new Lookup(primaryKey, null, false);
+        }
+
+        return new Lookup(primaryKey, cached, cached.isFreshAt(System.currentTimeMillis()) && !requiresRevalidation(request));
+    }
+
+    /**
+     * @return the response to send for a fresh cached response, which is 304 Not Modified if it satisfies the
+     * client's conditional headers
+     */
+    public Response respond(Lookup lookup, Request request) {
+        return responseFor(lookup.cached, request);
+    }
+
+    /**
+     * Stores the target's response if it can be cached, or refreshes the looked up response if the target says it's
+     * not modified.
+     *
+     * @return the response to send to the client
+     */
+    public Response complete(Lookup lookup, ResponseDefinition responseDefinition, Response targetResponse) {
+        if (!targetResponse.isFromProxy()) {
+            return targetResponse;
+        }
+
+        Request request = responseDefinition.getOriginalRequest();
+        long now = System.currentTimeMillis();
+        ProxyResponseCaching caching = responseDefinition.getProxyResponseCaching();
+
+        if (targetResponse.getStatus() == NOT_MODIFIED && lookup.cached != null) {
+            HttpHeaders headers = lookup.cached.headersUpdatedBy(targetResponse.getHeaders());
+            CachedProxyResponse revalidated = new CachedProxyResponse(
+                null,
+                lookup.cached.getStatus(),
+                headers,
+                lookup.cached.getBody(),
+                now,
+                initialAgeMillisOf(targetResponse.getHeaders()),
+                freshnessLifetimeMillisOf(headers, now, caching)
+            );
+            store(lookup.primaryKey, request, revalidated);
+            return responseFor(revalidated, request);
+        }
+
+        if (!isStorable(targetResponse, request, caching)) {
+            return targetResponse;
+        }
+
+        CachedProxyResponse cached = new CachedProxyResponse(
+            null,
+            targetResponse.getStatus(),
+            targetResponse.getHeaders(),
+            targetResponse.getBody(),
+            now,
+            initialAgeMillisOf(targetResponse.getHeaders()),
+            freshnessLifetimeMillisOf(targetResponse.getHeaders(), now, caching)
+        );
+        store(lookup.primaryKey, request, cached);
+        return responseFor(cached, request);
+    }
+
+    public void clear() {
+        memoryTier.invalidateAll();
+        varyHeaderNames.invalidateAll();
+        if (diskTier != null) {
+            diskTier.clear();
+        }
+    }
+
+    private CachedProxyResponse get(String key) {
+        CachedProxyResponse cached = memoryTier.getIfPresent(key);
+        if (cached == null && diskTier != null) {
+            cached = diskTier.get(key);
+            if (cached != null) {
+                diskTier.remove(key);
+                memoryTier.put(key, cached);
+            }
+        }
+
+        return cached;
+    }
+
+    private void store(String primaryKey, Request request, CachedProxyResponse response) {
+        List<String> vary = varyHeaderNamesOf(response.getHeaders());
+        varyHeaderNames.put(primaryKey, vary);
+        String key = variantKeyFor(primaryKey, vary, request);
+        if (diskTier != null) {
+            diskTier.remove(key);
+        }
+        memoryTier.put(key, response.withKey(key));
+    }
+
+    private static boolean isStorable(Response response, Request request, ProxyResponseCaching caching) {
+        if (!CACHEABLE_STATUSES.contains(response.getStatus())) {
+            return false;
+        }
+
+        List<String> vary = varyHeaderNamesOf(response.getHeaders());
+        if (vary.contains("*")) {
+            return false;
+        }
+
+        if (caching != null && caching.hasTtl()) {
+            return true;
+        }
+
+        CacheControl cacheControl = CacheControl.from(response.getHeaders().getHeader("Cache-Control"));
+        if (cacheControl.has("no-store") || cacheControl.has("private")) {
+            return false;
+        }
+
+        if (request.containsHeader("Authorization") &&
+            !cacheControl.has("public") && !cacheControl.has("s-maxage") && !cacheControl.has("must-revalidate")) {
+            return false;
+        }
+
+        return cacheControl.seconds("s-maxage") != null ||
+            cacheControl.seconds("max-age") != null ||
+            response.getHeaders().getHeader("Expires").isPresent() ||
+            response.getHeaders().getHeader("ETag").isPresent() ||
+            response.getHeaders().getHeader("Last-Modified").isPresent();
+    }
+
+    private static long freshnessLifetimeMillisOf(HttpHeaders headers, long responseTime, ProxyResponseCaching caching) {
+        if (caching != null && caching.hasTtl()) {
+            return SECONDS.toMillis(caching.getTtlSeconds());
+        }
+
+        CacheControl cacheControl = CacheControl.from(headers.getHeader("Cache-Control"));
+        if (cacheControl.has("no-cache")) {
+            return 0;
+        }
+
+        Long maxAge = cacheControl.seconds("s-maxage") != null ? cacheControl.seconds("s-maxage") : cacheControl.seconds("max-age");
+        if (maxAge != null) {
+            return SECONDS.toMillis(maxAge);
+        }
+
+        Date expires = dateHeader(headers, "Expires");
+        if (expires != null) {
+            Date date = dateHeader(headers, "Date");
+            long from = date != null ? date.getTime() : responseTime;
+            return Math.max(0, expires.getTime() - from);
+        }
+
+        return 0;
+    }
+
+    private static long initialAgeMillisOf(HttpHeaders headers) {
+        HttpHeader age = headers.getHeader("Age");
+        if (!age.isPresent()) {
+            return 0;
+        }
+
+        try {
+            return SECONDS.toMillis(Math.max(0, Long.parseLong(age.firstValue().trim())));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean requiresRevalidation(Request request) {
+        CacheControl cacheControl = CacheControl.from(request.header("Cache-Control"));
+        Long maxAge = cacheControl.seconds("max-age");
+        return cacheControl.has("no-cache") ||
+            (maxAge != null && maxAge == 0) ||
+            request.header("Pragma").containsValue("no-cache");
+    }
+
+    private static Response responseFor(CachedProxyResponse cached, Request request) {
+        List<HttpHeader> headers = new ArrayList<>();
+        for (HttpHeader header: cached.getHeaders().all()) {
+            if (!header.key().equalsIgnoreCase("Age")) {
+                headers.add(header);
+            }
+        }
+        headers.add(new HttpHeader("Age", String.valueOf(MILLISECONDS.toSeconds(cached.currentAgeMillis(System.currentTimeMillis())))));
+
+        Response.Builder responseBuilder = response().headers(new HttpHeaders(headers)).fromProxy(true);
+        if (cached.getStatus() == 200 && isNotModifiedFor(request, cached.getHeaders())) {
+            return responseBuilder.status(NOT_MODIFIED).build();
+        }
+
+        return responseBuilder
+            .status(cached.getStatus())
+            .body(cached.getBody())
+            .build();
+    }
+
+    private static boolean isNotModifiedFor(Request request, HttpHeaders headers) {
+        HttpHeader ifNoneMatch = request.header(IF_NONE_MATCH);
+        if (ifNoneMatch.isPresent()) {
+            HttpHeader etag = headers.getHeader("ETag");
+            if (!etag.isPresent()) {
+                return false;
+            }
+
+            for (String value: ifNoneMatch.values()) {
+                for (String candidate: value.split(",")) {
+                    String tag = candidate.trim();
+                    if (tag.equals("*") || weakTag(tag).equals(weakTag(etag.firstValue()))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        Date ifModifiedSince = dateHeader(request.getHeaders(), IF_MODIFIED_SINCE);
+        Date lastModified = dateHeader(headers, "Last-Modified");
+        return ifModifiedSince != null && lastModified != null && !lastModified.after(ifModifiedSince);
+    }
+
+    /**
+     * @return the conditional headers to send to the target when revalidating, which also remove any sent by the
+     * client so the target's response is always about the cached representation
+     */
+    private static List<HttpHeader> revalidationHeadersFor(CachedProxyResponse cached) {
+        List<HttpHeader> headers = new ArrayList<>();
+        headers.add(HttpHeader.absent(IF_NONE_MATCH));
+        headers.add(HttpHeader.absent(IF_MODIFIED_SINCE));
+        if (cached != null) {
+            HttpHeader etag = cached.getHeaders().getHeader("ETag");
+            if (etag.isPresent()) {
+                headers.add(new HttpHeader(IF_NONE_MATCH, etag.firstValue()));
+            }
+            HttpHeader lastModified = cached.getHeaders().getHeader("Last-Modified");
+            if (lastModified.isPresent()) {
+                headers.add(new HttpHeader(IF_MODIFIED_SINCE, lastModified.firstValue()));
+            }
+        }
+
+        return headers;
+    }
+
+    private static String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static Date dateHeader(HttpHeaders headers, String key) {
+        HttpHeader header = headers.getHeader(key);
+        return header.isPresent() ? DateUtils.parseDate(header.firstValue()) : null;
+    }
+
+    private static List<String> varyHeaderNamesOf(HttpHeaders headers) {
+        HttpHeader vary = headers.getHeader("Vary");
+        if (!vary.isPresent()) {
+            return Collections.emptyList();
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String value: vary.values()) {
+            for (String name: value.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    names.add(name.trim().toLowerCase());
+                }
+            }
+        }
+        Collections.sort(names);
+        return ImmutableList.copyOf(names);
+    }
+
+    private static String primaryKeyFor(ResponseDefinition responseDefinition) {
+        return responseDefinition.getOriginalRequest().getMethod() + " " + responseDefinition.getProxyUrl();
+    }
+
+    private static String variantKeyFor(String primaryKey, List<String> vary, Request request) {
+        if (vary == null || vary.isEmpty()) {
+            return primaryKey;
+        }
+
+        StringBuilder key = new StringBuilder(primaryKey);
+        for (String name: vary) {
+            key.append('\n').append(name).append(": ").append(request.header(name).isPresent() ? request.header(name).values() : "");
+        }
+        return key.toString();
+    }
+
+    public static class Lookup {
+
+        private final String primaryKey;
+        private final CachedProxyResponse cached;
+        private final boolean fresh;
+
+        private Lookup(String primaryKey, CachedProxyResponse cached, boolean fresh) {
+            this.primaryKey = primaryKey;
+            this.cached = cached;
+            this.fresh = fresh;
+        }
+
+        public boolean isFresh() {
+            return fresh;
+        }
+
+        /**
+         * @return the headers to add to, or with no values remove from, the request to the target
+         */
+        public List<HttpHeader> getRequestHeaderOverrides() {
+            return revalidationHeadersFor(cached);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+/**
+ * Per-stub settings for the proxy response cache. A TTL caches responses for that long whatever their own
+ * Cache-Control or Expires headers say.
+ */
+public class ProxyResponseCaching {
+
+    public static final ProxyResponseCaching DISABLED = new ProxyResponseCaching(false, null);
+
+    private final Boolean enabled;
+    private final Integer ttlSeconds;
+
+    @JsonCreator
+    public ProxyResponseCaching(@JsonProperty("enabled") Boolean enabled,
+                                @JsonProperty("ttlSeconds") Integer ttlSeconds) {
+        this.enabled = enabled;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public static ProxyResponseCaching withTtl(int ttlSeconds) {
+        return new ProxyResponseCaching(null, ttlSeconds);
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    @JsonIgnore
+    public boolean isEnabled() {
+        return enabled == null || enabled;
+    }
+
+    @JsonIgnore
+    public boolean hasTtl() {
+        return ttlSeconds != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProxyResponseCaching that = (ProxyResponseCaching) o;
+        return Objects.equals(enabled, that.enabled) &&
+            Objects.equals(ttlSeconds, that.ttlSeconds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(enabled, ttlSeconds);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.hash.Hashing.sha256;
+
+/**
+ * The disk tier of the {@link ProxyResponseCache}. Holds responses evicted from memory, one file per response, and
+ * removes the least recently used files once the total size goes over its maximum. Files left by a previous run are
+ * picked up again on startup.
+ */
+class ProxyResponseDiskStore {
+
+    private static final String SUFFIX = ".json";
+
+    private final File directory;
+    private final long maxSize;
+    private final LinkedHashMap<String, Long> fileSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    ProxyResponseDiskStore(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create proxy response cache directory " + directory);
+        }
+
+        File[] existingFiles = directory.listFiles();
+        if (existingFiles != null) {
+            Arrays.sort(existingFiles, new Comparator<File>() {
+                @Override
+                public int compare(File one, File two) {
+                    return Long.compare(one.lastModified(), two.lastModified());
+                }
+            });
+            for (File file: existingFiles) {
+                if (file.getName().endsWith(SUFFIX)) {
+                    fileSizes.put(file.getName(), file.length());
+                    size += file.length();
+                }
+            }
+        }
+        evictIfRequired();
+    }
+
+    synchronized void put(CachedProxyResponse response) {
+        byte[] content = Json.toByteArray(response);
+        if (content.length > maxSize) {
+            return;
+        }
+
+        String fileName = fileNameFor(response.getKey());
+        try {
+            Files.write(new File(directory, fileName).toPath(), content);
+        } catch (IOException e) {
+            notifier().error("Failed to write cached proxy response to " + directory, e);
+            return;
+        }
+
+        Long previousSize = fileSizes.put(fileName, (long) content.length);
+        size += content.length - (previousSize != null ? previousSize : 0);
+        evictIfRequired();
+    }
+
+    synchronized CachedProxyResponse get(String key) {
+        String fileName = fileNameFor(key);
+        if (!fileSizes.containsKey(fileName)) {
+            return null;
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(new File(directory, fileName).toPath());
+            CachedProxyResponse response = Json.read(new String(content, UTF_8), CachedProxyResponse.class);
+            return key.equals(response.getKey()) ? response : null;
+        } catch (IOException | RuntimeException e) {
+            notifier().error("Failed to read cached proxy response from " + directory, e);
+            remove(key);
+            return null;
+        }
+    }
+
+    synchronized void remove(String key) {
+        removeFile(fileNameFor(key));
+    }
+
+    synchronized void clear() {
+        for (String fileName: fileSizes.keySet().toArray(new String[0])) {
+            removeFile(fileName);
+        }
+    }
+
+    private void evictIfRequired() {
+        Iterator<Map.Entry<String, Long>> leastRecentlyUsed = fileSizes.entrySet().iterator();
+        while (size > maxSize && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Long> entry = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            size -= entry.getValue();
+            new File(directory, entry.getKey()).delete();
+        }
+    }
+
+    private void removeFile(String fileName) {
+        Long fileSize = fileSizes.remove(fileName);
+        if (fileSize != null) {
+            size -= fileSize;
+            new File(directory, fileName).delete();
+        }
+    }
+
+    private static String fileNameFor(String key) {
+        return sha256().hashString(key, UTF_8).toString() + SUFFIX;
+    }
+}
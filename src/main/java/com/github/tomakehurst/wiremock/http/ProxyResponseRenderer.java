@@ -15,11 +15,20 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.CapturingStreamSource;
+import com.github.tomakehurst.wiremock.common.Gzip;
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ProxyResponseCacheSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
+import com.github.tomakehurst.wiremock.common.ProxyStreamingSettings;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.entity.GzipCompressingEntity;
@@ -30,17 +39,27 @@ import org.apache.http.entity.ByteArrayEntity;
 
 import javax.net.ssl.SSLException;
 import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static com.github.tomakehurst.wiremock.common.HttpClientUtils.getEntityAsByteArrayAndCloseStream;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
+import static com.github.tomakehurst.wiremock.http.RequestMethod.HEAD;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.POST;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.PUT;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.PATCH;
 import static com.github.tomakehurst.wiremock.http.Response.response;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 
 public class ProxyResponseRenderer implements ResponseRenderer {
@@ -50,18 +69,25 @@ public class ProxyResponseRenderer implements ResponseRenderer {
     private static final String CONTENT_ENCODING = "content-encoding";
     private static final String CONTENT_LENGTH = "content-length";
     private static final String HOST_HEADER = "host";
+    private static final List<HttpHeader> NO_HEADER_OVERRIDES = Collections.emptyList();
     public static final ImmutableList<String> FORBIDDEN_HEADERS = ImmutableList.of(
             CONTENT_LENGTH,
             TRANSFER_ENCODING,
             "connection"
     );
 
+    private final ProxyConnectionPool connectionPool;
+    private final ProxyConnectionPool scepticalConnectionPool;
     private final HttpClient client;
     private final HttpClient scepticalClient;
     private final boolean preserveHostHeader;
     private final String hostHeaderValue;
     private final GlobalSettingsHolder globalSettingsHolder;
     private final boolean trustAllProxyTargets;
+    private final ProxyStreamingSettings streamingSettings;
+    private final AsyncProxyClient asyncClient;
+    private final ProxyRequestCoalescer coalescer = new ProxyRequestCoalescer();
+    private final ProxyResponseCache responseCache;
 
     public ProxyResponseRenderer(
         ProxySettings proxySettings,
@@ -71,11 +97,124 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         GlobalSettingsHolder globalSettingsHolder,
         boolean trustAllProxyTargets,
         List<String> trustedProxyTargets
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            ProxyStreamingSettings.DISABLED
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            streamingSettings,
+            ProxyConnectionPoolSettings.DEFAULTS
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings,
+        ProxyConnectionPoolSettings poolSettings
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            streamingSettings,
+            poolSettings,
+            false
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings,
+        ProxyConnectionPoolSettings poolSettings,
+        boolean asynchronousProxyingEnabled
+    ) {
+        this(
+            proxySettings,
+            trustStoreSettings,
+            preserveHostHeader,
+            hostHeaderValue,
+            globalSettingsHolder,
+            trustAllProxyTargets,
+            trustedProxyTargets,
+            streamingSettings,
+            poolSettings,
+            asynchronousProxyingEnabled,
+            ProxyResponseCacheSettings.DISABLED
+        );
+    }
+
+    public ProxyResponseRenderer(
+        ProxySettings proxySettings,
+        KeyStoreSettings trustStoreSettings,
+        boolean preserveHostHeader,
+        String hostHeaderValue,
+        GlobalSettingsHolder globalSettingsHolder,
+        boolean trustAllProxyTargets,
+        List<String> trustedProxyTargets,
+        ProxyStreamingSettings streamingSettings,
+        ProxyConnectionPoolSettings poolSettings,
+        boolean asynchronousProxyingEnabled,
+        ProxyResponseCacheSettings responseCacheSettings
     ) {
         this.globalSettingsHolder = globalSettingsHolder;
         this.trustAllProxyTargets = trustAllProxyTargets;
-        client = HttpClientFactory.createClient(1000, 5 * MINUTES, proxySettings, trustStoreSettings, true, Collections.<String>emptyList());
-        scepticalClient = HttpClientFactory.createClient(1000, 5 * MINUTES, proxySettings, trustStoreSettings, false, trustedProxyTargets);
+        this.streamingSettings = streamingSettings;
+        connectionPool = new ProxyConnectionPool(
+            HttpClientFactory.createConnectionManager(poolSettings, 5 * MINUTES, proxySettings, trustStoreSettings, true, Collections.<String>emptyList()),
+            poolSettings
+        );
+        scepticalConnectionPool = new ProxyConnectionPool(
+            HttpClientFactory.createConnectionManager(poolSettings, 5 * MINUTES, proxySettings, trustStoreSettings, false, trustedProxyTargets),
+            poolSettings
+        );
+        client = HttpClientFactory.createClient(connectionPool.getConnectionManager(), poolSettings, proxySettings);
+        scepticalClient = HttpClientFactory.createClient(scepticalConnectionPool.getConnectionManager(), poolSettings, proxySettings);
+        asyncClient = asynchronousProxyingEnabled && canProxyAsynchronouslyVia(proxySettings) ?
+            new AsyncProxyClient(proxySettings, trustStoreSettings, poolSettings, 5 * MINUTES) :
+            null;
+        responseCache = responseCacheSettings.isEnabled() ? new ProxyResponseCache(responseCacheSettings) : null;
 
         this.preserveHostHeader = preserveHostHeader;
         this.hostHeaderValue = hostHeaderValue;
@@ -83,43 +222,217 @@ public class ProxyResponseRenderer implements ResponseRenderer {
 
 	@Override
 	public Response render(ServeEvent serveEvent) {
+        return render(serveEvent, true);
+    }
+
+    /**
+     * @param allowStreaming false if the response body will be read in full after rendering, e.g. by a
+     *                       response transformer, in which case it is buffered even when streaming is enabled
+     */
+    public Response render(ServeEvent serveEvent, boolean allowStreaming) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        if (responseCache != null && responseCache.appliesTo(responseDefinition)) {
+            ProxyResponseCache.Lookup lookup = responseCache.lookup(responseDefinition);
+            Response response = lookup.isFresh() ?
+                responseCache.respond(lookup, responseDefinition.getOriginalRequest()) :
+                responseCache.complete(lookup, responseDefinition, fetchShared(serveEvent, false, lookup.getRequestHeaderOverrides()));
+            return withDelays(response, responseDefinition);
+        }
+
+        return withDelays(fetchShared(serveEvent, allowStreaming, NO_HEADER_OVERRIDES), responseDefinition);
+    }
+
+    private Response fetchShared(final ServeEvent serveEvent, boolean allowStreaming, final List<HttpHeader> headerOverrides) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        if (shouldCoalesce(responseDefinition)) {
+            ListenableFuture<Response> sharedResponse = coalescer.execute(coalescingKeyFor(responseDefinition), new Supplier<ListenableFuture<Response>>() {
+                @Override
+                public ListenableFuture<Response> get() {
+                    return Futures.immediateFuture(fetch(serveEvent, false, headerOverrides));
+                }
+            });
+            return Futures.getUnchecked(sharedResponse);
+        }
+
+        return fetch(serveEvent, allowStreaming, headerOverrides);
+    }
+
+    private Response fetch(ServeEvent serveEvent, boolean allowStreaming, List<HttpHeader> headerOverrides) {
         ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
         HttpUriRequest httpRequest = getHttpRequestFor(responseDefinition);
-        addRequestHeaders(httpRequest, responseDefinition);
+        addRequestHeaders(httpRequest, responseDefinition, headerOverrides);
 
         addBodyIfPostPutOrPatch(httpRequest, responseDefinition);
-        HttpClient client = buildClient(serveEvent.getRequest().isBrowserProxyRequest());
+        boolean browserProxyRequest = serveEvent.getRequest().isBrowserProxyRequest();
+        poolFor(browserProxyRequest).evictConnectionsIfDue();
+        HttpClient client = buildClient(browserProxyRequest);
         try {
             HttpResponse httpResponse = client.execute(httpRequest);
 
-            return response()
+            Response.Builder responseBuilder = response()
                     .status(httpResponse.getStatusLine().getStatusCode())
-                    .headers(headersFrom(httpResponse, responseDefinition))
-                    .body(getEntityAsByteArrayAndCloseStream(httpResponse))
-                    .fromProxy(true)
-                    .configureDelay(
-                        globalSettingsHolder.get().getFixedDelay(),
-                        globalSettingsHolder.get().getDelayDistribution(),
-                        responseDefinition.getFixedDelayMilliseconds(),
-                        responseDefinition.getDelayDistribution()
-                    )
-                    .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
-                    .build();
+                    .headers(headersFrom(httpResponse.getAllHeaders(), responseDefinition));
+
+            HttpEntity entity = httpResponse.getEntity();
+            if (allowStreaming && streamingSettings.isEnabled() && entity != null) {
+                responseBuilder.body(new CapturingStreamSource(
+                    entity.getContent(),
+                    entity.getContentLength(),
+                    streamingSettings.getCaptureLimit(),
+                    httpResponse instanceof Closeable ? (Closeable) httpResponse : null
+                ));
+            } else {
+                responseBuilder.body(getEntityAsByteArrayAndCloseStream(httpResponse));
+            }
+
+            return responseBuilder.fromProxy(true).build();
         } catch (SSLException e) {
-            return proxyResponseError("SSL", httpRequest, e);
+            return proxyResponseError("SSL", httpRequest.getURI().toString(), e);
         } catch (IOException e) {
-            return proxyResponseError("Network", httpRequest, e);
+            return proxyResponseError("Network", httpRequest.getURI().toString(), e);
         }
 	}
 
+    /**
+     * @return true if the proxied request can be made by the non-blocking client. Browser proxy requests, which may
+     * need the sceptical client's trust checks, and streamed responses are always made by the blocking client.
+     */
+    public boolean canRenderAsync(ServeEvent serveEvent) {
+        return asyncClient != null &&
+            !streamingSettings.isEnabled() &&
+            !serveEvent.getRequest().isBrowserProxyRequest();
+    }
+
+    /**
+     * Makes the proxied request without blocking the calling thread. Failures to reach the target complete the
+     * future with the same 500 response the blocking client would produce.
+     */
+    public ListenableFuture<Response> renderAsync(ServeEvent serveEvent) {
+        final ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        ListenableFuture<Response> proxyResponse;
+        if (responseCache != null && responseCache.appliesTo(responseDefinition)) {
+            final ProxyResponseCache.Lookup lookup = responseCache.lookup(responseDefinition);
+            proxyResponse = lookup.isFresh() ?
+                Futures.immediateFuture(responseCache.respond(lookup, responseDefinition.getOriginalRequest())) :
+                Futures.transform(fetchSharedAsync(serveEvent, lookup.getRequestHeaderOverrides()), new Function<Response, Response>() {
+                    @Override
+                    public Response apply(Response targetResponse) {
+                        return responseCache.complete(lookup, responseDefinition, targetResponse);
+                    }
+                }, directExecutor());
+        } else {
+            proxyResponse = fetchSharedAsync(serveEvent, NO_HEADER_OVERRIDES);
+        }
+
+        return Futures.transform(proxyResponse, new Function<Response, Response>() {
+            @Override
+            public Response apply(Response response) {
+                return withDelays(response, responseDefinition);
+            }
+        }, directExecutor());
+    }
+
+    private ListenableFuture<Response> fetchSharedAsync(final ServeEvent serveEvent, final List<HttpHeader> headerOverrides) {
+        ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        if (shouldCoalesce(responseDefinition)) {
+            return coalescer.execute(coalescingKeyFor(responseDefinition), new Supplier<ListenableFuture<Response>>() {
+                @Override
+                public ListenableFuture<Response> get() {
+                    return fetchAsync(serveEvent, headerOverrides);
+                }
+            });
+        }
+
+        return fetchAsync(serveEvent, headerOverrides);
+    }
+
+    private ListenableFuture<Response> fetchAsync(ServeEvent serveEvent, List<HttpHeader> headerOverrides) {
+        final ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+        Request originalRequest = responseDefinition.getOriginalRequest();
+        final String url = responseDefinition.getProxyUrl();
+
+        byte[] body = null;
+        if (originalRequest.getMethod().isOneOf(PUT, POST, PATCH)) {
+            body = isGzipEncoded(originalRequest) ? Gzip.gzip(originalRequest.getBody()) : originalRequest.getBody();
+        }
+
+        ListenableFuture<Response> targetResponse = asyncClient.execute(
+            originalRequest.getMethod(),
+            url,
+            requestHeadersFor(responseDefinition, headerOverrides),
+            body
+        );
+
+        ListenableFuture<Response> proxyResponse = Futures.transform(targetResponse, new Function<Response, Response>() {
+            @Override
+            public Response apply(Response targetResponse) {
+                Response.Builder responseBuilder = response()
+                    .status(targetResponse.getStatus())
+                    .headers(headersFrom(targetResponse.getHeaders().all(), responseDefinition))
+                    .body(targetResponse.getBody());
+                return responseBuilder.fromProxy(true).build();
+            }
+        }, directExecutor());
+
+        return Futures.catching(proxyResponse, Exception.class, new Function<Exception, Response>() {
+            @Override
+            public Response apply(Exception e) {
+                return proxyResponseError(e instanceof SSLException ? "SSL" : "Network", url, e);
+            }
+        }, directExecutor());
+    }
+
+    private boolean shouldCoalesce(ResponseDefinition responseDefinition) {
+        return responseDefinition.getProxyRequestCoalescing() != null &&
+            responseDefinition.getOriginalRequest().getMethod().isOneOf(GET, HEAD);
+    }
 
-    private Response proxyResponseError(String type, HttpUriRequest request, Exception e) {
+    private String coalescingKeyFor(ResponseDefinition responseDefinition) {
+        ProxyRequestCoalescing coalescing = responseDefinition.getProxyRequestCoalescing();
+        StringBuilder key = new StringBuilder()
+            .append(responseDefinition.getOriginalRequest().getMethod())
+            .append(' ')
+            .append(responseDefinition.getProxyUrl());
+        for (HttpHeader header: requestHeadersFor(responseDefinition, NO_HEADER_OVERRIDES)) {
+            if (coalescing.includesHeader(header.key())) {
+                key.append('\n').append(header.key().toLowerCase()).append(": ").append(header.values());
+            }
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Delays are added to each proxied response rather than to the shared upstream one, so that coalesced requests
+     * sample their random delays independently. Error responses aren't delayed.
+     */
+    private Response withDelays(Response response, ResponseDefinition responseDefinition) {
+        if (!response.isFromProxy()) {
+            return response;
+        }
+
+        return Response.Builder.like(response)
+                .configureDelay(
+                    globalSettingsHolder.get().getFixedDelay(),
+                    globalSettingsHolder.get().getDelayDistribution(),
+                    responseDefinition.getFixedDelayMilliseconds(),
+                    responseDefinition.getDelayDistribution()
+                )
+                .chunkedDribbleDelay(responseDefinition.getChunkedDribbleDelay())
+                .build();
+    }
+
+    private Response proxyResponseError(String type, String url, Exception e) {
         return response()
                 .status(HTTP_INTERNAL_ERROR)
-                .body((type + " failure trying to make a proxied request from WireMock to " + request.getURI()) + "\r\n" + e.getMessage())
+                .body((type + " failure trying to make a proxied request from WireMock to " + url) + "\r\n" + e.getMessage())
                 .build();
     }
 
+    private static boolean canProxyAsynchronouslyVia(ProxySettings proxySettings) {
+        return proxySettings == ProxySettings.NO_PROXY || isNullOrEmpty(proxySettings.getUsername());
+    }
+
     private HttpClient buildClient(boolean browserProxyRequest) {
 	    if (browserProxyRequest && !trustAllProxyTargets) {
             return scepticalClient;
@@ -128,11 +441,52 @@ public class ProxyResponseRenderer implements ResponseRenderer {
         }
     }
 
-    private HttpHeaders headersFrom(HttpResponse httpResponse, ResponseDefinition responseDefinition) {
+    private ProxyConnectionPool poolFor(boolean browserProxyRequest) {
+        return browserProxyRequest && !trustAllProxyTargets ? scepticalConnectionPool : connectionPool;
+    }
+
+    public void clearResponseCache() {
+        if (responseCache != null) {
+            responseCache.clear();
+        }
+    }
+
+    /**
+     * Stops the asynchronous client's threads, if one is in use. It starts again when next needed.
+     */
+    public void stop() {
+        if (asyncClient != null) {
+            asyncClient.stop();
+        }
+    }
+
+    public ConnectionPoolStats getTotalConnectionPoolStats() {
+        return connectionPool.getTotalStats().plus(scepticalConnectionPool.getTotalStats());
+    }
+
+    public List<ConnectionPoolStats> getConnectionPoolStatsByRoute() {
+        Map<String, ConnectionPoolStats> stats = new TreeMap<>(connectionPool.getStatsByRoute());
+        for (Map.Entry<String, ConnectionPoolStats> routeStats: scepticalConnectionPool.getStatsByRoute().entrySet()) {
+            ConnectionPoolStats existing = stats.get(routeStats.getKey());
+            stats.put(routeStats.getKey(), existing != null ? existing.plus(routeStats.getValue()) : routeStats.getValue());
+        }
+        return new ArrayList<>(stats.values());
+    }
+
+    private HttpHeaders headersFrom(Header[] headers, ResponseDefinition responseDefinition) {
+	    List<HttpHeader> httpHeaders = new LinkedList<>();
+	    for (Header header : headers) {
+	        httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
+	    }
+
+	    return headersFrom(httpHeaders, responseDefinition);
+    }
+
+    private HttpHeaders headersFrom(Collection<HttpHeader> headers, ResponseDefinition responseDefinition) {
 	    List<HttpHeader> httpHeaders = new LinkedList<>();
-	    for (Header header : httpResponse.getAllHeaders()) {
-	        if (responseHeaderShouldBeTransferred(header.getName())) {
-                httpHeaders.add(new HttpHeader(header.getName(), header.getValue()));
+	    for (HttpHeader header : headers) {
+	        if (responseHeaderShouldBeTransferred(header.key())) {
+                httpHeaders.add(header);
             }
 	    }
 
@@ -149,29 +503,59 @@ public class ProxyResponseRenderer implements ResponseRenderer {
 		return HttpClientFactory.getHttpRequestFor(method, url);
 	}
 	
-	private void addRequestHeaders(HttpRequest httpRequest, ResponseDefinition response) {
-		Request originalRequest = response.getOriginalRequest(); 
+	private void addRequestHeaders(HttpRequest httpRequest, ResponseDefinition response, List<HttpHeader> headerOverrides) {
+		for (HttpHeader header: requestHeadersFor(response, headerOverrides)) {
+			for (String value: header.values()) {
+				httpRequest.addHeader(header.key(), value);
+			}
+		}
+	}
+
+	/**
+	 * @param headerOverrides headers that replace any sent by the client, or remove them if they have no values
+	 */
+	private List<HttpHeader> requestHeadersFor(ResponseDefinition response, List<HttpHeader> headerOverrides) {
+		List<HttpHeader> headers = new LinkedList<>();
+		Request originalRequest = response.getOriginalRequest();
 		for (String key: originalRequest.getAllHeaderKeys()) {
 			if (requestHeaderShouldBeTransferred(key)) {
                 if (!HOST_HEADER.equalsIgnoreCase(key) || preserveHostHeader) {
-					List<String> values = originalRequest.header(key).values();
-					for (String value: values) {
-						httpRequest.addHeader(key, value);
-					}
+					headers.add(new HttpHeader(key, originalRequest.header(key).values()));
                 } else {
                     if (hostHeaderValue != null) {
-                        httpRequest.addHeader(key, hostHeaderValue);
+                        headers.add(new HttpHeader(key, hostHeaderValue));
                     } else if (response.getProxyBaseUrl() != null) {
-                        httpRequest.addHeader(key, URI.create(response.getProxyBaseUrl()).getAuthority());
+                        headers.add(new HttpHeader(key, URI.create(response.getProxyBaseUrl()).getAuthority()));
                     }
                 }
 			}
 		}
-				
+
 		if (response.getAdditionalProxyRequestHeaders() != null) {
 			for (String key: response.getAdditionalProxyRequestHeaders().keys()) {
-				httpRequest.setHeader(key, response.getAdditionalProxyRequestHeaders().getHeader(key).firstValue());
-			}			
+				removeHeader(headers, key);
+				headers.add(new HttpHeader(key, response.getAdditionalProxyRequestHeaders().getHeader(key).firstValue()));
+			}
+		}
+
+		for (HttpHeader override: headerOverrides) {
+			removeHeader(headers, override.key());
+		}
+		for (HttpHeader override: headerOverrides) {
+			if (override.isPresent()) {
+				headers.add(override);
+			}
+		}
+
+		return headers;
+	}
+
+	private static void removeHeader(List<HttpHeader> headers, String key) {
+		Iterator<HttpHeader> iterator = headers.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().key().equalsIgnoreCase(key)) {
+				iterator.remove();
+			}
 		}
 	}
 
@@ -211,12 +595,16 @@ public class ProxyResponseRenderer implements ResponseRenderer {
     }
 
     private static HttpEntity applyGzipWrapperIfRequired(Request originalRequest, HttpEntity content) {
-        if (originalRequest.containsHeader(CONTENT_ENCODING) &&
-            originalRequest.header(CONTENT_ENCODING).firstValue().contains("gzip")) {
+        if (isGzipEncoded(originalRequest)) {
             return new GzipCompressingEntity(content);
         }
 
         return content;
     }
 
+    private static boolean isGzipEncoded(Request originalRequest) {
+        return originalRequest.containsHeader(CONTENT_ENCODING) &&
+            originalRequest.header(CONTENT_ENCODING).firstValue().contains("gzip");
+    }
+
 }
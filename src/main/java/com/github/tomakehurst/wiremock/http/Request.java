@@ -50,6 +50,7 @@ public interface Request {
     QueryParameter queryParameter(String key);
 
     byte[] getBody();
+
     String getBodyAsString();
     String getBodyAsBase64();
 
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+public class RequestBodies {
+
+    /**
+     * @return the body of the request as a stream, which callers must close, without loading it into
+     *         memory if the request is a {@link StreamableRequest}, or null if it has no body
+     */
+    public static InputStream streamOf(Request request) {
+        if (request instanceof StreamableRequest) {
+            return ((StreamableRequest) request).getBodyStream();
+        }
+
+        byte[] body = request.getBody();
+        return body != null ? new ByteArrayInputStream(body) : null;
+    }
+
+    /**
+     * @return true unless the request is a {@link StreamableRequest} whose body has been spooled to disk
+     */
+    public static boolean isInMemory(Request request) {
+        return !(request instanceof StreamableRequest) || ((StreamableRequest) request).isBodyInMemory();
+    }
+}
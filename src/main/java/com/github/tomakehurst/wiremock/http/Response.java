@@ -16,7 +16,10 @@
 package com.github.tomakehurst.wiremock.http;
 
 import com.github.tomakehurst.wiremock.common.BinaryFile;
+import com.github.tomakehurst.wiremock.common.CapturingStreamSource;
 import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import com.github.tomakehurst.wiremock.common.Limit;
+import com.github.tomakehurst.wiremock.common.SizedInputStreamSource;
 import com.github.tomakehurst.wiremock.common.StreamSources;
 import com.github.tomakehurst.wiremock.common.Strings;
 import com.google.common.base.Optional;
@@ -106,13 +109,43 @@ public class Response {
     }
 
     public byte[] getBody() {
+        return getBody(Limit.UNLIMITED);
+    }
+
+    /**
+     * For bodies being streamed through from a proxy target this returns only the captured prefix,
+     * leaving the rest of the body to be streamed to the client.
+     */
+    public byte[] getBody(Limit sizeLimit) {
+        if (bodyStreamSource instanceof CapturingStreamSource) {
+            return ((CapturingStreamSource) bodyStreamSource).getCaptured(sizeLimit);
+        }
+
         try (InputStream stream = bodyStreamSource == null ? null : getBodyStream()) {
-            return stream == null ? null : ByteStreams.toByteArray(stream);
+            if (stream == null) {
+                return null;
+            }
+
+            return sizeLimit.isUnlimited() ?
+                ByteStreams.toByteArray(stream) :
+                ByteStreams.toByteArray(ByteStreams.limit(stream, sizeLimit.getValue()));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * @return the body length in bytes if it is known without reading the body,
+     * otherwise {@link SizedInputStreamSource#UNKNOWN_LENGTH}
+     */
+    public long getBodyLength() {
+        if (bodyStreamSource instanceof SizedInputStreamSource) {
+            return ((SizedInputStreamSource) bodyStreamSource).getLength();
+        }
+
+        return bodyStreamSource == null ? 0 : SizedInputStreamSource.UNKNOWN_LENGTH;
+    }
+
 	public String getBodyAsString() {
         return Strings.stringFromBytes(getBody(), headers.getContentTypeHeader().charset());
 	}
@@ -149,6 +182,14 @@ public class Response {
 		return configured;
 	}
 
+    /**
+     * @return true if the body is passed on from a proxy target as it arrives, so reading it before the
+     * response is sent would hold the client up
+     */
+    public boolean isBodyStreamed() {
+        return bodyStreamSource instanceof CapturingStreamSource;
+    }
+
     public boolean isFromProxy() {
         return fromProxy;
     }
@@ -50,6 +50,8 @@ public class ResponseDefinition {
     private final Fault fault;
     private final List<String> transformers;
     private final Parameters transformerParameters;
+    private final ProxyRequestCoalescing proxyRequestCoalescing;
+    private final ProxyResponseCaching proxyResponseCaching;
 
     private String browserProxyUrl;
     private Boolean wasConfigured = true;
@@ -68,11 +70,32 @@ public class ResponseDefinition {
                               @JsonProperty("delayDistribution") DelayDistribution delayDistribution,
                               @JsonProperty("chunkedDribbleDelay") ChunkedDribbleDelay chunkedDribbleDelay,
                               @JsonProperty("proxyBaseUrl") String proxyBaseUrl,
+                              @JsonProperty("proxyRequestCoalescing") ProxyRequestCoalescing proxyRequestCoalescing,
+                              @JsonProperty("proxyResponseCaching") ProxyResponseCaching proxyResponseCaching,
                               @JsonProperty("fault") Fault fault,
                               @JsonProperty("transformers") List<String> transformers,
                               @JsonProperty("transformerParameters") Parameters transformerParameters,
                               @JsonProperty("fromConfiguredStub") Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyRequestCoalescing, proxyResponseCaching, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              String body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, Body.fromOneOf(null, body, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, null, null, fault, transformers, transformerParameters, wasConfigured);
     }
 
     public ResponseDefinition(int status,
@@ -91,7 +114,28 @@ public class ResponseDefinition {
                               List<String> transformers,
                               Parameters transformerParameters,
                               Boolean wasConfigured) {
-        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, wasConfigured);
+        this(status, statusMessage, body, jsonBody, base64Body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, null, null, fault, transformers, transformerParameters, wasConfigured);
+    }
+
+    public ResponseDefinition(int status,
+                              String statusMessage,
+                              byte[] body,
+                              JsonNode jsonBody,
+                              String base64Body,
+                              String bodyFileName,
+                              HttpHeaders headers,
+                              HttpHeaders additionalProxyRequestHeaders,
+                              Integer fixedDelayMilliseconds,
+                              DelayDistribution delayDistribution,
+                              ChunkedDribbleDelay chunkedDribbleDelay,
+                              String proxyBaseUrl,
+                              ProxyRequestCoalescing proxyRequestCoalescing,
+                              ProxyResponseCaching proxyResponseCaching,
+                              Fault fault,
+                              List<String> transformers,
+                              Parameters transformerParameters,
+                              Boolean wasConfigured) {
+        this(status, statusMessage, Body.fromOneOf(body, null, jsonBody, base64Body), bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyRequestCoalescing, proxyResponseCaching, fault, transformers, transformerParameters, wasConfigured);
     }
 
     private ResponseDefinition(int status,
@@ -104,6 +148,8 @@ public class ResponseDefinition {
                                DelayDistribution delayDistribution,
                                ChunkedDribbleDelay chunkedDribbleDelay,
                                String proxyBaseUrl,
+                               ProxyRequestCoalescing proxyRequestCoalescing,
+                               ProxyResponseCaching proxyResponseCaching,
                                Fault fault,
                                List<String> transformers,
                                Parameters transformerParameters,
@@ -120,6 +166,8 @@ public class ResponseDefinition {
         this.delayDistribution = delayDistribution;
         this.chunkedDribbleDelay = chunkedDribbleDelay;
         this.proxyBaseUrl = proxyBaseUrl;
+        this.proxyRequestCoalescing = proxyRequestCoalescing;
+        this.proxyResponseCaching = proxyResponseCaching;
         this.fault = fault;
         this.transformers = transformers;
         this.transformerParameters = transformerParameters;
@@ -127,15 +175,15 @@ public class ResponseDefinition {
     }
 
     public ResponseDefinition(final int statusCode, final String bodyContent) {
-        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromString(bodyContent), null, null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition(final int statusCode, final byte[] bodyContent) {
-        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(statusCode, null, Body.fromBytes(bodyContent), null, null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public ResponseDefinition() {
-        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
+        this(HTTP_OK, null, Body.none(), null, null, null, null, null, null, null, null, null, null, Collections.<String>emptyList(), Parameters.empty(), true);
     }
 
     public static ResponseDefinition notFound() {
@@ -218,6 +266,8 @@ public class ResponseDefinition {
             this.delayDistribution,
             this.chunkedDribbleDelay,
             this.proxyBaseUrl,
+            this.proxyRequestCoalescing,
+            this.proxyResponseCaching,
             this.fault,
             this.transformers,
             this.transformerParameters,
@@ -307,6 +357,14 @@ public class ResponseDefinition {
         return proxyBaseUrl;
     }
 
+    public ProxyRequestCoalescing getProxyRequestCoalescing() {
+        return proxyRequestCoalescing;
+    }
+
+    public ProxyResponseCaching getProxyResponseCaching() {
+        return proxyResponseCaching;
+    }
+
     @JsonIgnore
     public boolean specifiesBodyFile() {
         return bodyFileName != null && body.isAbsent();
@@ -374,6 +432,8 @@ public class ResponseDefinition {
             Objects.equals(delayDistribution, that.delayDistribution) &&
             Objects.equals(chunkedDribbleDelay, that.chunkedDribbleDelay) &&
             Objects.equals(proxyBaseUrl, that.proxyBaseUrl) &&
+            Objects.equals(proxyRequestCoalescing, that.proxyRequestCoalescing) &&
+            Objects.equals(proxyResponseCaching, that.proxyResponseCaching) &&
             fault == that.fault &&
             Objects.equals(transformers, that.transformers) &&
             Objects.equals(transformerParameters, that.transformerParameters) &&
@@ -383,7 +443,7 @@ public class ResponseDefinition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
+        return Objects.hash(status, statusMessage, body, bodyFileName, headers, additionalProxyRequestHeaders, fixedDelayMilliseconds, delayDistribution, chunkedDribbleDelay, proxyBaseUrl, proxyRequestCoalescing, proxyResponseCaching, fault, transformers, transformerParameters, browserProxyUrl, wasConfigured);
     }
 
     @Override
@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import java.io.InputStream;
+
+/**
+ * Optionally implemented by a {@link Request} that can stream its body without requiring it to be held
+ * in memory, e.g. when it has been spooled to disk. Use {@link RequestBodies#streamOf(Request)} to read
+ * the body of any request as a stream.
+ */
+public interface StreamableRequest {
+
+    /**
+     * Callers must close the stream. Returns null if {@link Request#getBody()} would.
+     */
+    InputStream getBodyStream();
+
+    /**
+     * @return false if the body has been spooled to disk, in which case it is cheaper to stream than to read whole
+     */
+    boolean isBodyInMemory();
+}
@@ -15,6 +15,7 @@
  */
 package com.github.tomakehurst.wiremock.http;
 
+import com.github.tomakehurst.wiremock.common.DataTruncationSettings;
 import com.github.tomakehurst.wiremock.core.Admin;
 import com.github.tomakehurst.wiremock.core.StubServer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
@@ -35,6 +36,7 @@ public class StubRequestHandler extends AbstractRequestHandler {
     private final Map<String, PostServeAction> postServeActions;
     private final RequestJournal requestJournal;
     private final boolean loggingDisabled;
+    private final AdmissionController admissionController;
 
 	public StubRequestHandler(StubServer stubServer,
                               ResponseRenderer responseRenderer,
@@ -43,12 +45,43 @@ public class StubRequestHandler extends AbstractRequestHandler {
                               RequestJournal requestJournal,
                               List<RequestFilter> requestFilters,
                               boolean loggingDisabled) {
-		super(responseRenderer, requestFilters);
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, requestFilters, loggingDisabled, DataTruncationSettings.NO_TRUNCATION);
+	}
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              List<RequestFilter> requestFilters,
+                              boolean loggingDisabled,
+                              DataTruncationSettings dataTruncationSettings) {
+		this(stubServer, responseRenderer, admin, postServeActions, requestJournal, requestFilters, loggingDisabled, dataTruncationSettings, null);
+	}
+
+	public StubRequestHandler(StubServer stubServer,
+                              ResponseRenderer responseRenderer,
+                              Admin admin,
+                              Map<String, PostServeAction> postServeActions,
+                              RequestJournal requestJournal,
+                              List<RequestFilter> requestFilters,
+                              boolean loggingDisabled,
+                              DataTruncationSettings dataTruncationSettings,
+                              AdmissionController admissionController) {
+		super(responseRenderer, requestFilters, dataTruncationSettings);
 		this.stubServer = stubServer;
         this.admin = admin;
         this.postServeActions = postServeActions;
         this.requestJournal = requestJournal;
         this.loggingDisabled = loggingDisabled;
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * @return the admission controller requests must pass before being handled, or null if there are no limits
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
     }
 
 	@Override
@@ -19,31 +19,46 @@ import com.github.tomakehurst.wiremock.common.BinaryFile;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
 import com.github.tomakehurst.wiremock.global.GlobalSettingsHolder;
+import com.github.tomakehurst.wiremock.recording.Recorder;
+import com.github.tomakehurst.wiremock.recording.RecordingStatus;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.github.tomakehurst.wiremock.stubbing.StubMapping;
-import com.google.common.base.MoreObjects;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static com.github.tomakehurst.wiremock.core.WireMockApp.FILES_ROOT;
 import static com.github.tomakehurst.wiremock.http.Response.response;
 import static com.google.common.base.MoreObjects.firstNonNull;
 
-public class StubResponseRenderer implements ResponseRenderer {
+public class StubResponseRenderer implements AsyncResponseRenderer {
 
 	private final FileSource fileSource;
 	private final GlobalSettingsHolder globalSettingsHolder;
 	private final ProxyResponseRenderer proxyResponseRenderer;
 	private final List<ResponseTransformer> responseTransformers;
+	private final Recorder recorder;
 
     public StubResponseRenderer(FileSource fileSource,
 								GlobalSettingsHolder globalSettingsHolder,
 								ProxyResponseRenderer proxyResponseRenderer,
 								List<ResponseTransformer> responseTransformers) {
+		this(fileSource, globalSettingsHolder, proxyResponseRenderer, responseTransformers, null);
+	}
+
+    public StubResponseRenderer(FileSource fileSource,
+								GlobalSettingsHolder globalSettingsHolder,
+								ProxyResponseRenderer proxyResponseRenderer,
+								List<ResponseTransformer> responseTransformers,
+								Recorder recorder) {
         this.fileSource = fileSource;
         this.globalSettingsHolder = globalSettingsHolder;
         this.proxyResponseRenderer = proxyResponseRenderer;
 		this.responseTransformers = responseTransformers;
+		this.recorder = recorder;
 	}
 
 	@Override
@@ -57,15 +72,50 @@ public class StubResponseRenderer implements ResponseRenderer {
 		return applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
 	}
 
+	@Override
+	public boolean canRenderAsync(ServeEvent serveEvent) {
+		ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+		return responseDefinition.wasConfigured() &&
+				responseDefinition.isProxyResponse() &&
+				proxyResponseRenderer.canRenderAsync(serveEvent);
+	}
+
+	@Override
+	public ListenableFuture<Response> renderAsync(ServeEvent serveEvent, Executor executor) {
+		final ResponseDefinition responseDefinition = serveEvent.getResponseDefinition();
+		return Futures.transform(proxyResponseRenderer.renderAsync(serveEvent), new Function<Response, Response>() {
+			@Override
+			public Response apply(Response response) {
+				return applyTransformations(responseDefinition.getOriginalRequest(), responseDefinition, response, responseTransformers);
+			}
+		}, executor);
+	}
+
 	private Response buildResponse(ServeEvent serveEvent) {
 		if (serveEvent.getResponseDefinition().isProxyResponse()) {
-			return proxyResponseRenderer.render(serveEvent);
+			// Transformers and the recorder need the whole body, so it can't be streamed past them
+			boolean allowStreaming = !anyTransformerAppliesTo(serveEvent.getResponseDefinition()) && !isRecording();
+			return proxyResponseRenderer.render(serveEvent, allowStreaming);
 		} else {
 			Response.Builder responseBuilder = renderDirectly(serveEvent);
 			return responseBuilder.build();
 		}
 	}
 
+	private boolean isRecording() {
+		return recorder != null && recorder.getStatus() == RecordingStatus.Recording;
+	}
+
+	private boolean anyTransformerAppliesTo(ResponseDefinition responseDefinition) {
+		for (ResponseTransformer transformer: responseTransformers) {
+			if (transformer.applyGlobally() || responseDefinition.hasTransformer(transformer)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	private Response applyTransformations(Request request,
 										  ResponseDefinition responseDefinition,
 										  Response response,
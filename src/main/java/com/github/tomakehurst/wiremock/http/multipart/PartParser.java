@@ -4,6 +4,7 @@ import com.github.tomakehurst.wiremock.common.Exceptions;
 import com.github.tomakehurst.wiremock.http.HttpHeader;
 import com.github.tomakehurst.wiremock.http.HttpHeaders;
 import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestBodies;
 import com.google.common.collect.Lists;
 import org.apache.commons.fileupload.*;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
@@ -28,18 +29,17 @@ public class PartParser {
         );
 
         HttpHeaders headers = request.getHeaders();
-        ByteArrayUploadContext uploadContext = new ByteArrayUploadContext(
-                request.getBody(),
-                headerValueOrNull("Content-Encoding", headers),
-                headers.getContentTypeHeader().firstValue()
-        );
-
         FileUpload upload = new FileUpload(fileItemFactory);
 
-        try {
+        try (InputStream body = RequestBodies.streamOf(request)) {
+            InputStreamUploadContext uploadContext = new InputStreamUploadContext(
+                    body,
+                    headerValueOrNull("Content-Encoding", headers),
+                    headers.getContentTypeHeader().firstValue()
+            );
             List<FileItem> items = upload.parseRequest(uploadContext);
             return Lists.transform(items, TO_PARTS);
-        } catch (FileUploadException e) {
+        } catch (FileUploadException | IOException e) {
             return throwUnchecked(e, Collection.class);
         }
     }
@@ -49,6 +49,50 @@ public class PartParser {
         return header.isPresent() ? header.firstValue() : null;
     }
 
+    /**
+     * Parses parts straight from the request body stream, so that bodies spooled to disk don't have to be
+     * loaded into memory as a whole before being split up.
+     */
+    public static class InputStreamUploadContext implements UploadContext {
+
+        private final InputStream content;
+        private final String encoding;
+        private final String contentType;
+
+        public InputStreamUploadContext(InputStream content, String encoding, String contentType) {
+            this.content = content;
+            this.encoding = encoding;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        // Still required by RequestContext, though FileUpload only calls contentLength()
+        @Override
+        @SuppressWarnings("deprecation")
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return content;
+        }
+    }
+
     public static class ByteArrayUploadContext implements UploadContext {
 
         private final byte[] content;
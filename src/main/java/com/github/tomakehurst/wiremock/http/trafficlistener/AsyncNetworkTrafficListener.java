@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http.trafficlistener;
+
+import com.github.tomakehurst.wiremock.common.Notifier;
+import com.github.tomakehurst.wiremock.common.Slf4jNotifier;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Hands network traffic to another listener on a background thread, so that a slow
+ * listener (decoding, printing, writing to disk) doesn't hold up Jetty's I/O threads.
+ * On the I/O thread the bytes are only copied into a lock-free ring buffer; if the
+ * buffer is full the event is dropped, and counted, rather than waiting for space.
+ *
+ * The delegate is called from a single thread, in the order the events happened, and
+ * is flushed whenever the buffer has been drained if it implements {@link Flushable}.
+ *
+ * Closing it, as the server does when it stops, stops the background thread once it has
+ * handed over the events already buffered, and closes the delegate if it is {@link Closeable}.
+ * A listener that's used again after being closed starts a new thread.
+ */
+public class AsyncNetworkTrafficListener implements WiremockNetworkTrafficListener, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long MAX_IDLE_NANOS = MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final WiremockNetworkTrafficListener delegate;
+    private final NetworkTrafficRingBuffer<Event> events;
+    private final Notifier notifier;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile Thread consumer;
+    private volatile boolean consumerWaiting;
+    private volatile boolean closing;
+    private long reportedDroppedEvents;
+
+    public AsyncNetworkTrafficListener(WiremockNetworkTrafficListener delegate) {
+        this(delegate, DEFAULT_CAPACITY, new Slf4jNotifier(true));
+    }
+
+    public AsyncNetworkTrafficListener(WiremockNetworkTrafficListener delegate, int capacity, Notifier notifier) {
+        this.delegate = delegate;
+        this.events = new NetworkTrafficRingBuffer<>(capacity);
+        this.notifier = notifier;
+    }
+
+    @Override
+    public void opened(Socket socket) {
+        publish(new Event(EventType.OPENED, socket, null));
+    }
+
+    @Override
+    public void incoming(Socket socket, ByteBuffer bytes) {
+        publish(new Event(EventType.INCOMING, socket, copyOf(bytes)));
+    }
+
+    @Override
+    public void outgoing(Socket socket, ByteBuffer bytes) {
+        publish(new Event(EventType.OUTGOING, socket, copyOf(bytes)));
+    }
+
+    @Override
+    public void closed(Socket socket) {
+        publish(new Event(EventType.CLOSED, socket, null));
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        Thread thread = consumer;
+        if (started.get() && thread != null) {
+            closing = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (thread.isAlive()) {
+                // The delegate is still in use, so it can't be closed from this thread
+                notifier.error("Network traffic listener did not stop within " + CLOSE_TIMEOUT_MILLIS + "ms");
+                return;
+            }
+
+            consumer = null;
+            closing = false;
+            started.set(false);
+        }
+
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    private static byte[] copyOf(ByteBuffer bytes) {
+        // Jetty reuses the buffer once we return, and the position mustn't be moved
+        ByteBuffer view = bytes.duplicate();
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        return copy;
+    }
+
+    private void publish(Event event) {
+        startConsumerIfNecessary();
+        if (!events.offer(event)) {
+            droppedEvents.incrementAndGet();
+        } else if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void startConsumerIfNecessary() {
+        if (!started.get() && started.compareAndSet(false, true)) {
+            Thread thread = new Thread(new Consumer(), "wiremock-network-traffic-listener");
+            thread.setDaemon(true);
+            consumer = thread;
+            thread.start();
+        }
+    }
+
+    private class Consumer implements Runnable {
+
+        @Override
+        public void run() {
+            boolean dispatchedSinceDrained = false;
+            while (true) {
+                Event event = events.poll();
+                if (event == null) {
+                    if (dispatchedSinceDrained || droppedEvents.get() > reportedDroppedEvents) {
+                        drained();
+                        dispatchedSinceDrained = false;
+                    }
+                    if (closing) {
+                        return;
+                    }
+                    event = awaitEvent();
+                }
+                if (event != null) {
+                    dispatch(event);
+                    dispatchedSinceDrained = true;
+                }
+            }
+        }
+
+        private Event awaitEvent() {
+            // Publishers check this flag after publishing, so either the poll below sees the event or they unpark us
+            consumerWaiting = true;
+            Event event = events.poll();
+            if (event == null) {
+                LockSupport.parkNanos(this, MAX_IDLE_NANOS);
+            }
+            consumerWaiting = false;
+            return event;
+        }
+
+        private void dispatch(Event event) {
+            try {
+                switch (event.type) {
+                    case OPENED:
+                        delegate.opened(event.socket);
+                        break;
+                    case INCOMING:
+                        delegate.incoming(event.socket, ByteBuffer.wrap(event.bytes));
+                        break;
+                    case OUTGOING:
+                        delegate.outgoing(event.socket, ByteBuffer.wrap(event.bytes));
+                        break;
+                    case CLOSED:
+                        delegate.closed(event.socket);
+                        break;
+                }
+            } catch (Exception e) {
+                notifier.error("Network traffic listener failed to handle " + event.type + " event", e);
+            }
+        }
+
+        private void drained() {
+            long dropped = droppedEvents.get();
+            if (dropped > reportedDroppedEvents) {
+                notifier.error("Network traffic listener dropped " + (dropped - reportedDroppedEvents) +
+                        " events because it could not keep up; the buffer holds " + events.capacity() + " events");
+                reportedDroppedEvents = dropped;
+            }
+
+            if (delegate instanceof Flushable) {
+                try {
+                    ((Flushable) delegate).flush();
+                } catch (Exception e) {
+                    notifier.error("Network traffic listener failed to flush", e);
+                }
+            }
+        }
+    }
+
+    private enum EventType { OPENED, INCOMING, OUTGOING, CLOSED }
+
+    private static class Event {
+
+        private final EventType type;
+        private final Socket socket;
+        private final byte[] bytes;
+
+        private Event(EventType type, Socket socket, byte[] bytes) {
+            this.type = type;
+            this.socket = socket;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -17,43 +17,83 @@ package com.github.tomakehurst.wiremock.http.trafficlistener;
 
 import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 
-public class ConsoleNotifyingWiremockNetworkTrafficListener implements WiremockNetworkTrafficListener {
+/**
+ * Prints all network traffic to the console. Decoding and printing happen on a background
+ * thread, via an {@link AsyncNetworkTrafficListener}, rather than on Jetty's I/O threads.
+ */
+public class ConsoleNotifyingWiremockNetworkTrafficListener implements WiremockNetworkTrafficListener, Closeable {
     private static final ConsoleNotifier CONSOLE_NOTIFIER = new ConsoleNotifier(true);
 
-    private final Charset charset = Charset.forName("UTF-8");
-    private final CharsetDecoder decoder = charset.newDecoder();
+    private final AsyncNetworkTrafficListener printer = new AsyncNetworkTrafficListener(
+            new ConsolePrinter(),
+            AsyncNetworkTrafficListener.DEFAULT_CAPACITY,
+            CONSOLE_NOTIFIER
+    );
 
     @Override
     public void opened(Socket socket) {
-        CONSOLE_NOTIFIER.info("Opened " + socket);
+        printer.opened(socket);
     }
 
     @Override
     public void incoming(Socket socket, ByteBuffer bytes) {
-        try {
-            CONSOLE_NOTIFIER.info("Incoming bytes: " + decoder.decode(bytes));
-        } catch (CharacterCodingException e) {
-            CONSOLE_NOTIFIER.error("Problem decoding network traffic", e);
-        }
+        printer.incoming(socket, bytes);
     }
 
     @Override
     public void outgoing(Socket socket, ByteBuffer bytes) {
-        try {
-            CONSOLE_NOTIFIER.info("Outgoing bytes: " + decoder.decode(bytes));
-        } catch (CharacterCodingException e) {
-            CONSOLE_NOTIFIER.error("Problem decoding network traffic", e);
-        }
+        printer.outgoing(socket, bytes);
     }
 
     @Override
     public void closed(Socket socket) {
-        CONSOLE_NOTIFIER.info("Closed " + socket);
+        printer.closed(socket);
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+    }
+
+    private static class ConsolePrinter implements WiremockNetworkTrafficListener {
+
+        private final Charset charset = Charset.forName("UTF-8");
+        private final CharsetDecoder decoder = charset.newDecoder();
+
+        @Override
+        public void opened(Socket socket) {
+            CONSOLE_NOTIFIER.info("Opened " + socket);
+        }
+
+        @Override
+        public void incoming(Socket socket, ByteBuffer bytes) {
+            try {
+                CONSOLE_NOTIFIER.info("Incoming bytes: " + decoder.decode(bytes));
+            } catch (CharacterCodingException e) {
+                CONSOLE_NOTIFIER.error("Problem decoding network traffic", e);
+            }
+        }
+
+        @Override
+        public void outgoing(Socket socket, ByteBuffer bytes) {
+            try {
+                CONSOLE_NOTIFIER.info("Outgoing bytes: " + decoder.decode(bytes));
+            } catch (CharacterCodingException e) {
+                CONSOLE_NOTIFIER.error("Problem decoding network traffic", e);
+            }
+        }
+
+        @Override
+        public void closed(Socket socket) {
+            CONSOLE_NOTIFIER.info("Closed " + socket);
+        }
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http.trafficlistener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Writes network traffic to <code>network-traffic.log</code> in a directory, rolling it over
+ * to <code>network-traffic.1.log</code>, <code>network-traffic.2.log</code> etc. once it reaches
+ * a maximum size and keeping a limited number of files.
+ *
+ * Traffic from all connections is interleaved; each connection is identified by a number.
+ * Every event is a header line, and the bytes received or sent follow their header verbatim
+ * and are themselves followed by a line break:
+ * <pre>
+ * &lt;epoch millis&gt; &lt;connection&gt; OPENED &lt;local address&gt; &lt;remote address&gt;
+ * &lt;epoch millis&gt; &lt;connection&gt; IN &lt;byte count&gt;
+ * &lt;epoch millis&gt; &lt;connection&gt; OUT &lt;byte count&gt;
+ * &lt;epoch millis&gt; &lt;connection&gt; CLOSED
+ * </pre>
+ *
+ * This isn't thread safe, and writing to disk is slow, so it is intended to be wrapped in
+ * an {@link AsyncNetworkTrafficListener}.
+ */
+public class RollingFileNetworkTrafficListener implements WiremockNetworkTrafficListener, Flushable, Closeable {
+
+    public static final long DEFAULT_MAX_FILE_SIZE = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 10;
+
+    private static final String FILE_PREFIX = "network-traffic";
+    private static final String FILE_SUFFIX = ".log";
+
+    private final File directory;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Map<Socket, Long> connectionIds = new IdentityHashMap<>();
+    private long nextConnectionId = 1;
+
+    private OutputStream out;
+    private WritableByteChannel channel;
+    private long currentFileSize;
+
+    public RollingFileNetworkTrafficListener(File directory) {
+        this(directory, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+    }
+
+    public RollingFileNetworkTrafficListener(File directory, long maxFileSize, int maxFiles) {
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("At least one network traffic file must be kept");
+        }
+        this.directory = directory;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public void opened(Socket socket) {
+        long connectionId = nextConnectionId++;
+        connectionIds.put(socket, connectionId);
+        writeHeader(connectionId, "OPENED " + socket.getLocalSocketAddress() + " " + socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void incoming(Socket socket, ByteBuffer bytes) {
+        writeData(socket, "IN", bytes);
+    }
+
+    @Override
+    public void outgoing(Socket socket, ByteBuffer bytes) {
+        writeData(socket, "OUT", bytes);
+    }
+
+    @Override
+    public void closed(Socket socket) {
+        writeHeader(connectionIdFor(socket), "CLOSED");
+        connectionIds.remove(socket);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+            channel = null;
+        }
+    }
+
+    private long connectionIdFor(Socket socket) {
+        Long connectionId = connectionIds.get(socket);
+        if (connectionId == null) {
+            // its OPENED event was missed, e.g. dropped by an AsyncNetworkTrafficListener that couldn't keep up
+            connectionId = nextConnectionId++;
+            connectionIds.put(socket, connectionId);
+        }
+        return connectionId;
+    }
+
+    private void writeData(Socket socket, String direction, ByteBuffer bytes) {
+        ByteBuffer data = bytes.duplicate();
+        writeHeader(connectionIdFor(socket), direction + " " + data.remaining());
+        try {
+            currentFileSize += data.remaining() + 1;
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throwUnchecked(e);
+        }
+    }
+
+    private void writeHeader(long connectionId, String event) {
+        byte[] header = (System.currentTimeMillis() + " " + connectionId + " " + event + "\n").getBytes(US_ASCII);
+        try {
+            rollOverIfNecessary();
+            out.write(header);
+            currentFileSize += header.length;
+        } catch (IOException e) {
+            throwUnchecked(e);
+        }
+    }
+
+    private void rollOverIfNecessary() throws IOException {
+        if (out != null && currentFileSize < maxFileSize) {
+            return;
+        }
+
+        close();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create network traffic directory " + directory);
+        }
+
+        File current = file(0);
+        if (current.exists()) {
+            File oldest = file(maxFiles - 1);
+            if (oldest.exists() && !oldest.delete()) {
+                throw new IOException("Unable to delete " + oldest);
+            }
+            for (int i = maxFiles - 2; i >= 0; i--) {
+                File file = file(i);
+                if (file.exists() && !file.renameTo(file(i + 1))) {
+                    throw new IOException("Unable to rename " + file);
+                }
+            }
+        }
+
+        out = new BufferedOutputStream(new FileOutputStream(current));
+        channel = Channels.newChannel(out);
+        currentFileSize = 0;
+    }
+
+    private File file(int index) {
+        return new File(directory, index == 0 ? FILE_PREFIX + FILE_SUFFIX : FILE_PREFIX + "." + index + FILE_SUFFIX);
+    }
+}
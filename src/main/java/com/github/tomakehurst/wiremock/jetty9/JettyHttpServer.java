@@ -18,7 +18,9 @@ package com.github.tomakehurst.wiremock.jetty9;
 import com.github.tomakehurst.wiremock.common.*;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
+import com.github.tomakehurst.wiremock.http.AdminPortHttpServer;
 import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.AdmissionController;
 import com.github.tomakehurst.wiremock.http.HttpServer;
 import com.github.tomakehurst.wiremock.http.RequestHandler;
 import com.github.tomakehurst.wiremock.http.StubRequestHandler;
@@ -39,8 +41,10 @@ import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.servlets.CrossOriginFilter;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
 import javax.servlet.DispatcherType;
+import java.io.Closeable;
 import java.lang.reflect.Method;
 import java.net.Socket;
 import java.nio.ByteBuffer;
@@ -51,18 +55,26 @@ import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
 import static com.github.tomakehurst.wiremock.core.WireMockApp.ADMIN_CONTEXT_ROOT;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 
-public class JettyHttpServer implements HttpServer {
+public class JettyHttpServer implements HttpServer, AdminPortHttpServer {
     private static final String FILES_URL_MATCH = String.format("/%s/*", WireMockApp.FILES_ROOT);
     private static final String[] GZIPPABLE_METHODS = new String[] { "POST", "PUT", "PATCH", "DELETE" };
     private static final int DEFAULT_ACCEPTORS = 3;
+    private static final int ADMIN_ACCEPTORS = 1;
+    private static final int ADMIN_SELECTORS = 1;
+    private static final String STUB_CONNECTOR_NAME = "stub";
+    private static final String ADMIN_CONNECTOR_NAME = "admin";
 
     static {
         System.setProperty("org.eclipse.jetty.server.HttpChannelState.DEFAULT_TIMEOUT", "300000");
     }
 
+    protected final Options options;
+
     private final Server jettyServer;
     private final ServerConnector httpConnector;
     private final ServerConnector httpsConnector;
+    private final ServerConnector adminConnector;
+    private final WiremockNetworkTrafficListener networkTrafficListener;
 
     private ScheduledExecutorService scheduledExecutorService;
 
@@ -71,9 +83,11 @@ public class JettyHttpServer implements HttpServer {
             AdminRequestHandler adminRequestHandler,
             StubRequestHandler stubRequestHandler
     ) {
+        this.options = options;
         jettyServer = createServer(options);
 
-        NetworkTrafficListenerAdapter networkTrafficListenerAdapter = new NetworkTrafficListenerAdapter(options.networkTrafficListener());
+        networkTrafficListener = options.networkTrafficListener();
+        NetworkTrafficListenerAdapter networkTrafficListenerAdapter = new NetworkTrafficListenerAdapter(networkTrafficListener);
 
         if (options.getHttpDisabled()) {
             httpConnector = null;
@@ -99,6 +113,20 @@ public class JettyHttpServer implements HttpServer {
             httpsConnector = null;
         }
 
+        AdminConnectorSettings adminConnectorSettings = options.getAdminConnectorSettings();
+        if (adminConnectorSettings.enabled()) {
+            adminConnector = createAdminConnector(
+                    options.bindAddress(),
+                    adminConnectorSettings,
+                    options.jettySettings(),
+                    networkTrafficListenerAdapter
+            );
+            jettyServer.addConnector(adminConnector);
+            nameStubConnectors();
+        } else {
+            adminConnector = null;
+        }
+
         jettyServer.setHandler(createHandler(options, adminRequestHandler, stubRequestHandler));
 
         finalizeSetup(options);
@@ -111,14 +139,22 @@ public class JettyHttpServer implements HttpServer {
                 notifier
         );
         ServletContextHandler mockServiceContext = addMockServiceContext(
+                adminContext,
                 stubRequestHandler,
                 options.filesRoot(),
                 options.getAsynchronousResponseSettings(),
                 options.getChunkedEncodingPolicy(),
                 options.getStubCorsEnabled(),
+                options.getRequestBodySpoolThreshold(),
                 notifier
         );
 
+        // With a separate admin connector each context only serves requests arriving on its own connectors
+        if (adminConnector != null) {
+            adminContext.setVirtualHosts(new String[] { "@" + ADMIN_CONNECTOR_NAME });
+            mockServiceContext.setVirtualHosts(new String[] { "@" + STUB_CONNECTOR_NAME });
+        }
+
         HandlerCollection handlers = new HandlerCollection();
         handlers.setHandlers(ArrayUtils.addAll(extensionHandlers(), adminContext));
 
@@ -213,6 +249,11 @@ public class JettyHttpServer implements HttpServer {
 
             jettyServer.stop();
             jettyServer.join();
+
+            // Stops any background thread it uses and closes the files it writes to
+            if (networkTrafficListener instanceof Closeable) {
+                ((Closeable) networkTrafficListener).close();
+            }
         } catch (Exception e) {
             throwUnchecked(e);
         }
@@ -233,6 +274,11 @@ public class JettyHttpServer implements HttpServer {
         return httpsConnector.getLocalPort();
     }
 
+    @Override
+    public int adminPort() {
+        return adminConnector.getLocalPort();
+    }
+
     public long stopTimeout() {
         return jettyServer.getStopTimeout();
     }
@@ -300,6 +346,49 @@ public class JettyHttpServer implements HttpServer {
         );
     }
 
+    /**
+     * The admin connector has its own small thread pool, so admin calls are still served
+     * when the stub threads are saturated and can't take threads away from stub serving.
+     */
+    protected ServerConnector createAdminConnector(
+            String bindAddress,
+            AdminConnectorSettings adminConnectorSettings,
+            JettySettings jettySettings,
+            NetworkTrafficListener listener) {
+
+        QueuedThreadPool threadPool = new QueuedThreadPool(
+                adminConnectorSettings.threads() + ADMIN_ACCEPTORS + ADMIN_SELECTORS,
+                ADMIN_ACCEPTORS + ADMIN_SELECTORS
+        );
+        threadPool.setName("wiremock-admin");
+
+        NetworkTrafficServerConnector connector = new NetworkTrafficServerConnector(
+                jettyServer,
+                threadPool,
+                null,
+                null,
+                ADMIN_ACCEPTORS,
+                ADMIN_SELECTORS,
+                new HttpConnectionFactory(createHttpConfig(jettySettings))
+        );
+
+        connector.setName(ADMIN_CONNECTOR_NAME);
+        connector.setPort(adminConnectorSettings.port());
+        connector.addNetworkTrafficListener(listener);
+        setJettySettings(jettySettings, connector);
+        connector.setHost(bindAddress);
+        return connector;
+    }
+
+    private void nameStubConnectors() {
+        if (httpConnector != null) {
+            httpConnector.setName(STUB_CONNECTOR_NAME);
+        }
+        if (httpsConnector != null) {
+            httpsConnector.setName(STUB_CONNECTOR_NAME);
+        }
+    }
+
     protected ConnectionFactory[] buildAdditionalConnectionFactories(
             HttpsSettings httpsSettings,
             HttpConnectionFactory httpConnectionFactory,
@@ -353,11 +442,13 @@ public class JettyHttpServer implements HttpServer {
 
     @SuppressWarnings({"rawtypes", "unchecked"})
     private ServletContextHandler addMockServiceContext(
+            ServletContextHandler adminContext,
             StubRequestHandler stubRequestHandler,
             FileSource fileSource,
             AsynchronousResponseSettings asynchronousResponseSettings,
             Options.ChunkedEncodingPolicy chunkedEncodingPolicy,
             boolean stubCorsEnabled,
+            Limit requestBodySpoolThreshold,
             Notifier notifier
     ) {
         ServletContextHandler mockServiceContext = new ServletContextHandler(jettyServer, "/");
@@ -372,6 +463,10 @@ public class JettyHttpServer implements HttpServer {
         mockServiceContext.setAttribute(StubRequestHandler.class.getName(), stubRequestHandler);
         mockServiceContext.setAttribute(Notifier.KEY, notifier);
         mockServiceContext.setAttribute(Options.ChunkedEncodingPolicy.class.getName(), chunkedEncodingPolicy);
+        mockServiceContext.setAttribute(WireMockHandlerDispatchingServlet.REQUEST_BODY_SPOOL_THRESHOLD, requestBodySpoolThreshold);
+        if (stubRequestHandler.getAdmissionController() != null) {
+            mockServiceContext.setAttribute(AdmissionController.KEY, stubRequestHandler.getAdmissionController());
+        }
         ServletHolder servletHolder = mockServiceContext.addServlet(WireMockHandlerDispatchingServlet.class, "/");
         servletHolder.setInitParameter(RequestHandler.HANDLER_CLASS_KEY, StubRequestHandler.class.getName());
         servletHolder.setInitParameter(FaultInjectorFactory.INJECTOR_CLASS_KEY, JettyFaultInjectorFactory.class.getName());
@@ -392,7 +487,7 @@ public class JettyHttpServer implements HttpServer {
         mockServiceContext.setMimeTypes(mimeTypes);
         mockServiceContext.setWelcomeFiles(new String[]{"index.json", "index.html", "index.xml", "index.txt"});
 
-        NotFoundHandler errorHandler = new NotFoundHandler(mockServiceContext);
+        NotFoundHandler errorHandler = new NotFoundHandler(mockServiceContext, adminContext);
         mockServiceContext.setErrorHandler(errorHandler);
 
         mockServiceContext.addFilter(ContentTypeSettingFilter.class, FILES_URL_MATCH, EnumSet.of(DispatcherType.FORWARD));
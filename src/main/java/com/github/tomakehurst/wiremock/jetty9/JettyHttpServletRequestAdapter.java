@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.jetty9;
+
+import com.github.tomakehurst.wiremock.common.Limit;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.servlet.MultipartRequestConfigurer;
+import com.github.tomakehurst.wiremock.servlet.WireMockHttpServletRequestAdapter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedListMultimap;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.server.Request;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.tomakehurst.wiremock.common.Urls.splitQuery;
+import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * A {@link com.github.tomakehurst.wiremock.http.Request} that reads directly from Jetty's own request and
+ * header fields. Headers, query parameters, cookies and the method are each parsed once on first use and
+ * then served from case-insensitive indexed structures, rather than re-scanning the servlet request on every
+ * lookup as request matching tends to do.
+ */
+public class JettyHttpServletRequestAdapter extends WireMockHttpServletRequestAdapter {
+
+    private final Request jettyRequest;
+
+    private RequestMethod cachedMethod;
+    private HttpHeaders cachedHeaders;
+    private Map<String, QueryParameter> cachedQueryParameters;
+    private Map<String, Cookie> cachedCookies;
+
+    public JettyHttpServletRequestAdapter(Request jettyRequest,
+                                          MultipartRequestConfigurer multipartRequestConfigurer,
+                                          String urlPrefixToRemove,
+                                          Limit bodySpoolThreshold) {
+        super(jettyRequest, multipartRequestConfigurer, urlPrefixToRemove, bodySpoolThreshold);
+        this.jettyRequest = jettyRequest;
+    }
+
+    @Override
+    public RequestMethod getMethod() {
+        if (cachedMethod == null) {
+            cachedMethod = super.getMethod();
+        }
+
+        return cachedMethod;
+    }
+
+    @Override
+    public String getHeader(String key) {
+        HttpHeader header = header(key);
+        return header.isPresent() ? header.firstValue() : null;
+    }
+
+    @Override
+    public HttpHeader header(String key) {
+        return getHeaders().getHeader(key);
+    }
+
+    @Override
+    public ContentTypeHeader contentTypeHeader() {
+        return getHeaders().getContentTypeHeader();
+    }
+
+    @Override
+    public boolean containsHeader(String key) {
+        return header(key).isPresent();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        if (cachedHeaders == null) {
+            List<HttpHeader> headerList = newArrayList();
+            for (HttpField field: jettyRequest.getHttpFields()) {
+                headerList.add(new HttpHeader(field.getName(), firstNonNull(field.getValue(), "")));
+            }
+
+            cachedHeaders = new HttpHeaders(headerList);
+        }
+
+        return cachedHeaders;
+    }
+
+    @Override
+    public Set<String> getAllHeaderKeys() {
+        Set<String> headerKeys = new LinkedHashSet<>();
+        for (HttpHeader header: getHeaders().all()) {
+            headerKeys.add(header.key());
+        }
+
+        return headerKeys;
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        if (cachedCookies == null) {
+            LinkedListMultimap<String, String> cookieValues = LinkedListMultimap.create();
+            javax.servlet.http.Cookie[] cookies = firstNonNull(jettyRequest.getCookies(), new javax.servlet.http.Cookie[0]);
+            for (javax.servlet.http.Cookie cookie: cookies) {
+                cookieValues.put(cookie.getName(), cookie.getValue());
+            }
+
+            ImmutableMap.Builder<String, Cookie> builder = ImmutableMap.builder();
+            for (Map.Entry<String, Collection<String>> entry: cookieValues.asMap().entrySet()) {
+                builder.put(entry.getKey(), new Cookie(null, ImmutableList.copyOf(entry.getValue())));
+            }
+
+            cachedCookies = builder.build();
+        }
+
+        return cachedCookies;
+    }
+
+    @Override
+    public QueryParameter queryParameter(String key) {
+        if (cachedQueryParameters == null) {
+            cachedQueryParameters = ImmutableMap.copyOf(splitQuery(jettyRequest.getQueryString()));
+        }
+
+        return firstNonNull(cachedQueryParameters.get(key), QueryParameter.absent(key));
+    }
+}
@@ -33,16 +33,28 @@ public class NotFoundHandler extends ErrorHandler {
     private final ErrorHandler DEFAULT_HANDLER = new ErrorHandler();
 
     private final ContextHandler mockServiceHandler;
+    private final ContextHandler adminHandler;
 
     public NotFoundHandler(ContextHandler mockServiceHandler) {
+        this(mockServiceHandler, null);
+    }
+
+    /**
+     * @param adminHandler nullable, otherwise looked up from the mock service context, which
+     *                     isn't possible when the two are on different virtual hosts
+     */
+    public NotFoundHandler(ContextHandler mockServiceHandler, ContextHandler adminHandler) {
         this.mockServiceHandler = mockServiceHandler;
+        this.adminHandler = adminHandler;
     }
 
     @Override
     public void handle(String target, final Request baseRequest, final HttpServletRequest request, HttpServletResponse response) throws IOException {
         if (response.getStatus() == 404) {
 
-            ServletContext adminContext = mockServiceHandler.getServletContext().getContext("/__admin");
+            ServletContext adminContext = adminHandler != null ?
+                    adminHandler.getServletContext() :
+                    mockServiceHandler.getServletContext().getContext("/__admin");
             Dispatcher requestDispatcher = (Dispatcher) adminContext.getRequestDispatcher("/not-matched");
 
             try {
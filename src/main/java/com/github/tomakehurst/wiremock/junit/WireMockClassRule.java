@@ -64,7 +64,9 @@ public class WireMockClassRule extends WireMockServer implements MethodRule, Tes
                     }
                 } else {
                     start();
-                    if (options.getHttpDisabled()) {
+                    if (options.getAdminConnectorSettings().enabled()) {
+                        WireMock.configureFor("http", "localhost", adminPort());
+                    } else if (options.getHttpDisabled()) {
                         WireMock.configureFor("https", "localhost", httpsPort());
                     } else {
                         WireMock.configureFor("http", "localhost", port());
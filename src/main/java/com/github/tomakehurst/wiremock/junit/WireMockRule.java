@@ -68,7 +68,9 @@ public class WireMockRule extends WireMockServer implements MethodRule, TestRule
 			public void evaluate() throws Throwable {
 				start();
 
-				if (options.getHttpDisabled()) {
+				if (options.getAdminConnectorSettings().enabled()) {
+                    WireMock.configureFor("localhost", adminPort());
+                } else if (options.getHttpDisabled()) {
                     WireMock.configureFor("https", "localhost", httpsPort());
                 } else {
                     WireMock.configureFor("localhost", port());
@@ -20,9 +20,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.io.BaseEncoding;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 
-public class BinaryEqualToPattern extends ContentPattern<byte[]> {
+import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+
+public class BinaryEqualToPattern extends ContentPattern<byte[]> implements StreamableContentPattern {
+
+    private static final int BUFFER_SIZE = 8192;
 
     public BinaryEqualToPattern(byte[] expected) {
         super(expected);
@@ -40,6 +47,37 @@ public class BinaryEqualToPattern extends ContentPattern<byte[]> {
         );
     }
 
+    @Override
+    public boolean canMatchStream() {
+        return true;
+    }
+
+    @Override
+    public MatchResult matchStream(InputStream body, Charset charset) {
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int position = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (position + read > expectedValue.length) {
+                    return MatchResult.noMatch();
+                }
+
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != expectedValue[position + i]) {
+                        return MatchResult.noMatch();
+                    }
+                }
+
+                position += read;
+            }
+
+            return MatchResult.of(position == expectedValue.length);
+        } catch (IOException e) {
+            return throwUnchecked(e, MatchResult.class);
+        }
+    }
+
     @Override
     @JsonIgnore
     public String getName() {
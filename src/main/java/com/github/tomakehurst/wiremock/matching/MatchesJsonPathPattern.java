@@ -18,16 +18,20 @@ package com.github.tomakehurst.wiremock.matching;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.RequestCache;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.common.LocalNotifier.notifier;
 
 @JsonSerialize(using = JsonPathPatternJsonSerializer.class)
-public class MatchesJsonPathPattern extends PathPattern {
+public class MatchesJsonPathPattern extends PathPattern implements StreamableContentPattern {
 
     public MatchesJsonPathPattern(@JsonProperty("matchesJsonPath") String expectedJsonPath,
                                   StringValuePattern valuePattern) {
@@ -51,18 +55,8 @@ public class MatchesJsonPathPattern extends PathPattern {
             return MatchResult.noMatch();
         }
         try {
-            Object obj = JsonPath.read(value, expectedValue);
-
-            boolean result;
-            if (obj instanceof Collection) {
-                result = !((Collection) obj).isEmpty();
-            } else if (obj instanceof Map) {
-                result = !((Map) obj).isEmpty();
-            } else {
-                result = obj != null;
-            }
-
-            return MatchResult.of(result);
+            Object obj = RequestCache.current().getJsonDocument(value).read(expectedValue);
+            return MatchResult.of(isNonEmpty(obj));
         } catch (Exception e) {
             String error;
             if (e.getMessage().equalsIgnoreCase("invalid path")) {
@@ -82,6 +76,38 @@ public class MatchesJsonPathPattern extends PathPattern {
         }
     }
 
+    @Override
+    public boolean canMatchStream() {
+        return isSimple();
+    }
+
+    @Override
+    public MatchResult matchStream(InputStream body, Charset charset) {
+        try {
+            Object obj = JsonPath.using(Configuration.defaultConfiguration())
+                .parse(body, charset.name())
+                .read(expectedValue);
+            return MatchResult.of(isNonEmpty(obj));
+        } catch (Exception e) {
+            String message = String.format(
+                "Warning: JSON path expression '%s' failed to match the streamed request body because of error '%s'",
+                expectedValue, e.getMessage());
+            notifier().info(message);
+
+            return MatchResult.noMatch();
+        }
+    }
+
+    private static boolean isNonEmpty(Object obj) {
+        if (obj instanceof Collection) {
+            return !((Collection) obj).isEmpty();
+        } else if (obj instanceof Map) {
+            return !((Map) obj).isEmpty();
+        }
+
+        return obj != null;
+    }
+
     protected MatchResult isAdvancedMatch(String value) {
         try {
             String expressionResult = getExpressionResult(value);
@@ -105,7 +131,7 @@ public class MatchesJsonPathPattern extends PathPattern {
 
         Object obj = null;
         try {
-            obj = JsonPath.read(value, expectedValue);
+            obj = RequestCache.current().getJsonDocument(value).read(expectedValue);
         } catch (PathNotFoundException pnfe) {
         } catch (Exception e) {
             String error;
@@ -21,21 +21,28 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
 import com.github.tomakehurst.wiremock.http.Cookie;
 import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestBodies;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
 import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Closeables;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
 import java.util.*;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
 import static com.github.tomakehurst.wiremock.matching.RequestMatcherExtension.NEVER;
 import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
 import static com.github.tomakehurst.wiremock.matching.WeightedMatchResult.weight;
+import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.FluentIterable.from;
 import static com.google.common.net.HttpHeaders.AUTHORIZATION;
@@ -297,11 +304,22 @@ public class RequestPattern implements NamedValueMatcher<Request> {
 
     @SuppressWarnings("unchecked")
     private MatchResult allBodyPatternsMatch(final Request request) {
-        if (bodyPatterns != null && !bodyPatterns.isEmpty() && request.getBody() != null) {
+        if (bodyPatterns != null && !bodyPatterns.isEmpty()) {
             return MatchResult.aggregate(
                 from(bodyPatterns).transform(new Function<ContentPattern, MatchResult>() {
                     @Override
                     public MatchResult apply(ContentPattern pattern) {
+                        // Bodies held in memory go through the usual path, where e.g. parsed JSON is shared via the request cache
+                        if (pattern instanceof StreamableContentPattern &&
+                            ((StreamableContentPattern) pattern).canMatchStream() &&
+                            !RequestBodies.isInMemory(request)) {
+                            return matchBodyStream((StreamableContentPattern) pattern, request);
+                        }
+
+                        if (request.getBody() == null) {
+                            return MatchResult.exactMatch();
+                        }
+
                         if (StringValuePattern.class.isAssignableFrom(pattern.getClass())) {
                             String body = StringUtils.isEmpty(request.getBodyAsString()) ?
                                     null :
@@ -320,6 +338,24 @@ public class RequestPattern implements NamedValueMatcher<Request> {
         return MatchResult.exactMatch();
     }
 
+    private static MatchResult matchBodyStream(StreamableContentPattern pattern, Request request) {
+        InputStream body = RequestBodies.streamOf(request);
+        if (body == null) {
+            return MatchResult.exactMatch();
+        }
+
+        try {
+            return pattern.matchStream(body, charsetOf(request));
+        } finally {
+            Closeables.closeQuietly(body);
+        }
+    }
+
+    private static Charset charsetOf(Request request) {
+        ContentTypeHeader contentTypeHeader = request.contentTypeHeader();
+        return contentTypeHeader != null ? contentTypeHeader.charset() : UTF_8;
+    }
+
     @SuppressWarnings("unchecked")
     private MatchResult allMultipartPatternsMatch(final Request request) {
         if (multipartPatterns != null && !multipartPatterns.isEmpty()) {
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.matching;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Implemented by body patterns that can be evaluated by reading the body as a stream, so that bodies
+ * spooled to disk don't need to be loaded into memory in order to be matched. Bodies already in memory
+ * are matched as usual.
+ */
+public interface StreamableContentPattern {
+
+    boolean canMatchStream();
+
+    MatchResult matchStream(InputStream body, Charset charset);
+}
@@ -39,7 +39,7 @@ import static com.google.common.collect.Iterables.indexOf;
 public class Recorder {
 
     private final Admin admin;
-    private State state;
+    private volatile State state;
 
     public Recorder(Admin admin) {
         this.admin = admin;
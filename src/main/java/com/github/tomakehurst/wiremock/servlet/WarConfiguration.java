@@ -200,6 +200,51 @@ public class WarConfiguration implements Options {
         return false;
     }
 
+    @Override
+    public DataTruncationSettings getDataTruncationSettings() {
+        return DataTruncationSettings.DEFAULTS;
+    }
+
+    @Override
+    public Limit getRequestBodySpoolThreshold() {
+        return Limit.UNLIMITED;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return ProxyStreamingSettings.DISABLED;
+    }
+
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        return ProxyConnectionPoolSettings.DEFAULTS;
+    }
+
+    @Override
+    public boolean getAsynchronousProxyingEnabled() {
+        return false;
+    }
+
+    @Override
+    public ProxyResponseCacheSettings getProxyResponseCacheSettings() {
+        return ProxyResponseCacheSettings.DISABLED;
+    }
+
+    @Override
+    public Http2Settings getHttp2Settings() {
+        return Http2Settings.DEFAULTS;
+    }
+
+    @Override
+    public AdmissionControlSettings getAdmissionControlSettings() {
+        return AdmissionControlSettings.DEFAULTS;
+    }
+
+    @Override
+    public AdminConnectorSettings getAdminConnectorSettings() {
+        return AdminConnectorSettings.DISABLED;
+    }
+
     @Override
     public BrowserProxySettings browserProxySettings() {
         return BrowserProxySettings.DISABLED;
@@ -15,12 +15,15 @@
  */
 package com.github.tomakehurst.wiremock.servlet;
 
+import com.github.tomakehurst.wiremock.common.Limit;
 import com.github.tomakehurst.wiremock.common.LocalNotifier;
 import com.github.tomakehurst.wiremock.common.Notifier;
 import com.github.tomakehurst.wiremock.core.FaultInjector;
 import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.http.*;
+import com.github.tomakehurst.wiremock.jetty9.JettyHttpServletRequestAdapter;
+import com.github.tomakehurst.wiremock.jetty9.JettyUtils;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.io.ByteStreams;
 
@@ -28,17 +31,23 @@ import javax.servlet.*;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.github.tomakehurst.wiremock.common.Exceptions.throwUnchecked;
+import static com.github.tomakehurst.wiremock.common.SizedInputStreamSource.UNKNOWN_LENGTH;
 import static com.github.tomakehurst.wiremock.core.Options.ChunkedEncodingPolicy.BODY_FILE;
 import static com.github.tomakehurst.wiremock.core.Options.ChunkedEncodingPolicy.NEVER;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.GET;
 import static com.github.tomakehurst.wiremock.servlet.WireMockHttpServletRequestAdapter.ORIGINAL_REQUEST_KEY;
 import static com.google.common.base.Charsets.UTF_8;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
 import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
 import static java.net.URLDecoder.decode;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -48,6 +57,7 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
     public static final String SHOULD_FORWARD_TO_FILES_CONTEXT = "shouldForwardToFilesContext";
     public static final String ASYNCHRONOUS_RESPONSE_EXECUTOR = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".asynchronousResponseExecutor";
     public static final String MAPPED_UNDER_KEY = "mappedUnder";
+    public static final String REQUEST_BODY_SPOOL_THRESHOLD = WireMockHandlerDispatchingServlet.class.getSimpleName() + ".requestBodySpoolThreshold";
 
 	private static final long serialVersionUID = -6602042274260495538L;
 
@@ -61,6 +71,8 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	private boolean shouldForwardToFilesContext;
 	private MultipartRequestConfigurer multipartRequestConfigurer;
 	private Options.ChunkedEncodingPolicy chunkedEncodingPolicy;
+	private Limit requestBodySpoolThreshold;
+	private AdmissionController admissionController;
 
 	@Override
 	public void init(ServletConfig config) {
@@ -92,6 +104,13 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 		chunkedEncodingPolicy = chunkedEncodingPolicyAttr != null ?
                 (Options.ChunkedEncodingPolicy) chunkedEncodingPolicyAttr :
                 Options.ChunkedEncodingPolicy.ALWAYS;
+
+		Object requestBodySpoolThresholdAttr = context.getAttribute(REQUEST_BODY_SPOOL_THRESHOLD);
+		requestBodySpoolThreshold = requestBodySpoolThresholdAttr != null ?
+				(Limit) requestBodySpoolThresholdAttr :
+				Limit.UNLIMITED;
+
+		admissionController = (AdmissionController) context.getAttribute(AdmissionController.KEY);
 	}
 
 	private String getNormalizedMappedUnder(ServletConfig config) {
@@ -114,37 +133,174 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	protected void service(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) throws ServletException, IOException {
 		LocalNotifier.set(notifier);
 
-		Request request = new WireMockHttpServletRequestAdapter(httpServletRequest, multipartRequestConfigurer, mappedUnder);
+		boolean admissionRequired = admissionController != null && httpServletRequest.getDispatcherType() == DispatcherType.REQUEST;
+		if (admissionRequired && !admissionController.tryAdmit()) {
+			shed(httpServletRequest, httpServletResponse);
+			return;
+		}
 
-		ServletHttpResponder responder = new ServletHttpResponder(httpServletRequest, httpServletResponse);
-		requestHandler.handle(request, responder);
+		WireMockHttpServletRequestAdapter request = adaptRequest(httpServletRequest);
+
+		ServletHttpResponder responder = new ServletHttpResponder(request, httpServletRequest, httpServletResponse);
+		try {
+			requestHandler.handle(request, responder);
+		} finally {
+			if (!httpServletRequest.isAsyncStarted()) {
+				request.releaseBody();
+				if (admissionRequired) {
+					admissionController.release();
+				}
+			} else if (admissionRequired) {
+				releaseAdmissionOnCompletion(httpServletRequest.getAsyncContext());
+			}
+		}
 	}
 
-	private class ServletHttpResponder implements HttpResponder {
+	private void shed(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
+		Fault fault = admissionController.getSettings().overloadFault();
+		if (fault != null) {
+			fault.apply(buildFaultInjector(httpServletRequest, httpServletResponse));
+			return;
+		}
+
+		httpServletResponse.setStatus(HTTP_UNAVAILABLE);
+		httpServletResponse.setContentLength(0);
+	}
 
+	private void releaseAdmissionOnCompletion(AsyncContext asyncContext) {
+		final AtomicBoolean released = new AtomicBoolean(false);
+		asyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onComplete(AsyncEvent event) {
+				release();
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent event) {
+			}
+
+			@Override
+			public void onError(AsyncEvent event) {
+				release();
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent event) {
+			}
+
+			private void release() {
+				if (released.compareAndSet(false, true)) {
+					admissionController.release();
+				}
+			}
+		});
+	}
+
+	private WireMockHttpServletRequestAdapter adaptRequest(HttpServletRequest httpServletRequest) {
+		if (JettyUtils.isJetty() && httpServletRequest instanceof org.eclipse.jetty.server.Request) {
+			return new JettyHttpServletRequestAdapter((org.eclipse.jetty.server.Request) httpServletRequest, multipartRequestConfigurer, mappedUnder, requestBodySpoolThreshold);
+		}
+
+		return new WireMockHttpServletRequestAdapter(httpServletRequest, multipartRequestConfigurer, mappedUnder, requestBodySpoolThreshold);
+	}
+
+	private class ServletHttpResponder implements AsyncHttpResponder {
+
+		private final WireMockHttpServletRequestAdapter adaptedRequest;
 		private final HttpServletRequest httpServletRequest;
 		private final HttpServletResponse httpServletResponse;
 
-		public ServletHttpResponder(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
+		private volatile AsyncContext asyncContext;
+		private final AtomicBoolean responded = new AtomicBoolean(false);
+
+		public ServletHttpResponder(WireMockHttpServletRequestAdapter adaptedRequest, HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse) {
+			this.adaptedRequest = adaptedRequest;
 			this.httpServletRequest = httpServletRequest;
 			this.httpServletResponse = httpServletResponse;
 		}
 
+		@Override
+		public boolean isAsyncSupported() {
+			return httpServletRequest.isAsyncSupported();
+		}
+
+		@Override
+		public Executor startAsync() {
+			asyncContext = httpServletRequest.startAsync();
+			asyncContext.setTimeout(0);
+			return new Executor() {
+				@Override
+				public void execute(final Runnable task) {
+					asyncContext.start(new Runnable() {
+						@Override
+						public void run() {
+							LocalNotifier.set(notifier);
+							try {
+								task.run();
+							} catch (RuntimeException | Error e) {
+								notifier.error("Asynchronous request handling failed", e);
+								abandonAsync();
+							}
+						}
+					});
+				}
+			};
+		}
+
 		@Override
 		public void respond(final Request request, final Response response) {
+			if (!responded.compareAndSet(false, true)) {
+				return;
+			}
+
 			if (Thread.currentThread().isInterrupted()) {
+				if (asyncContext != null) {
+					completeAsync(asyncContext);
+				}
 				return;
 			}
 
 			httpServletRequest.setAttribute(ORIGINAL_REQUEST_KEY, LoggedRequest.createFrom(request));
 
-            if (isAsyncSupported(response, httpServletRequest)) {
-                respondAsync(request, response);
+            if (asyncContext != null) {
+                respondFromAsyncContext(request, response);
+            } else if (isAsyncSupported(response, httpServletRequest)) {
+                scheduleResponse(request, response, httpServletRequest.startAsync());
             } else {
                 respondSync(request, response);
             }
         }
 
+        private void respondFromAsyncContext(Request request, Response response) {
+            if (scheduledExecutorService != null && response.getInitialDelay() > 0) {
+                scheduleResponse(request, response, asyncContext);
+                return;
+            }
+
+            try {
+                respondSync(request, response);
+            } finally {
+                completeAsync(asyncContext);
+            }
+        }
+
+        private void abandonAsync() {
+            if (responded.compareAndSet(false, true)) {
+                try {
+                    httpServletResponse.sendError(HTTP_INTERNAL_ERROR);
+                } catch (IOException | IllegalStateException e) {
+                    notifier.error("Failed to send error for abandoned asynchronous request", e);
+                } finally {
+                    completeAsync(asyncContext);
+                }
+            }
+        }
+
+        private void completeAsync(AsyncContext asyncContext) {
+            adaptedRequest.releaseBody();
+            asyncContext.complete();
+        }
+
         private void respondSync(Request request, Response response) {
             delayIfRequired(response.getInitialDelay());
             respondTo(request, response);
@@ -163,15 +319,14 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
             return scheduledExecutorService != null && response.getInitialDelay() > 0 && httpServletRequest.isAsyncSupported();
         }
 
-        private void respondAsync(final Request request, final Response response) {
-            final AsyncContext asyncContext = httpServletRequest.startAsync();
+        private void scheduleResponse(final Request request, final Response response, final AsyncContext asyncContext) {
             scheduledExecutorService.schedule(new Runnable() {
                 @Override
                 public void run() {
                     try {
                         respondTo(request, response);
                     } finally {
-                        asyncContext.complete();
+                        completeAsync(asyncContext);
                     }
                 }
             }, response.getInitialDelay(), MILLISECONDS);
@@ -213,14 +368,24 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
             }
         }
 
+        InputStream bodyStream = response.getBodyStream();
+        long contentLength = response.getBodyLength();
         if (chunkedEncodingPolicy == NEVER || (chunkedEncodingPolicy == BODY_FILE && response.hasInlineBody())) {
-            httpServletResponse.setContentLength(response.getBody().length);
+            if (contentLength == UNKNOWN_LENGTH) {
+                // Read the body once here and write what was read, as a streamed body can't be read twice
+                byte[] body = readFully(bodyStream);
+                bodyStream = new ByteArrayInputStream(body);
+                contentLength = body.length;
+            }
+            httpServletResponse.setContentLengthLong(contentLength);
         }
 
-        if (response.shouldAddChunkedDribbleDelay()) {
-			writeAndTranslateExceptionsWithChunkedDribbleDelay(httpServletResponse, response.getBodyStream(), response.getChunkedDribbleDelay());
+        if (response.shouldAddChunkedDribbleDelay() && contentLength != UNKNOWN_LENGTH) {
+            writeAndTranslateExceptionsWithChunkedDribbleDelay(httpServletResponse, bodyStream, contentLength, response.getChunkedDribbleDelay());
+        } else if (response.shouldAddChunkedDribbleDelay()) {
+			writeAndTranslateExceptionsWithChunkedDribbleDelay(httpServletResponse, bodyStream, response.getChunkedDribbleDelay());
 		} else {
-			writeAndTranslateExceptions(httpServletResponse, response.getBodyStream());
+			writeAndTranslateExceptions(httpServletResponse, bodyStream, response.isBodyStreamed());
 		}
     }
 
@@ -228,9 +393,30 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
 	    return faultHandlerFactory.buildFaultInjector(httpServletRequest, httpServletResponse);
 	}
 
-    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, InputStream content) {
+    private static byte[] readFully(InputStream content) {
+        try (InputStream in = content) {
+            return ByteStreams.toByteArray(in);
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        }
+    }
+
+    /**
+     * @param flushAsRead true to send each part of the body on as soon as it's read rather than once the output
+     *                    buffer fills, for bodies that are streamed through from a proxy target as they arrive
+     */
+    private static void writeAndTranslateExceptions(HttpServletResponse httpServletResponse, InputStream content, boolean flushAsRead) {
         try (ServletOutputStream out = httpServletResponse.getOutputStream()) {
-            ByteStreams.copy(content, out);
+            if (flushAsRead) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } else {
+                ByteStreams.copy(content, out);
+            }
             out.flush();
         } catch (IOException e) {
             throwUnchecked(e);
@@ -270,6 +456,33 @@ public class WireMockHandlerDispatchingServlet extends HttpServlet {
         }
 	}
 
+    private void writeAndTranslateExceptionsWithChunkedDribbleDelay(HttpServletResponse httpServletResponse, InputStream bodyStream, long bodyLength, ChunkedDribbleDelay chunkedDribbleDelay) {
+        try (ServletOutputStream out = httpServletResponse.getOutputStream(); InputStream in = bodyStream) {
+            if (bodyLength < 1) {
+                notifier.error("Cannot chunk dribble delay when no body set");
+                out.flush();
+                return;
+            }
+
+            int numberOfChunks = (int) Math.min(Math.max(chunkedDribbleDelay.getNumberOfChunks(), 1), bodyLength);
+            long chunkSize = bodyLength / numberOfChunks;
+            long excessSize = bodyLength % numberOfChunks;
+            int chunkInterval = chunkedDribbleDelay.getTotalDuration() / numberOfChunks;
+
+            for (int chunkIndex = 0; chunkIndex < numberOfChunks; chunkIndex++) {
+                long thisChunkSize = chunkIndex == numberOfChunks - 1 ? chunkSize + excessSize : chunkSize;
+                Thread.sleep(chunkInterval);
+                ByteStreams.copy(ByteStreams.limit(in, thisChunkSize), out);
+                out.flush();
+            }
+
+        } catch (IOException e) {
+            throwUnchecked(e);
+        } catch (InterruptedException ignored) {
+            // Ignore the interrupt quietly since it's probably the client timing out, which is a completely valid outcome
+        }
+    }
+
     private void forwardToFilesContext(HttpServletRequest httpServletRequest,
             HttpServletResponse httpServletResponse, Request request) throws ServletException, IOException {
         String forwardUrl = wiremockFileSourceRoot + WireMockApp.FILES_ROOT + request.getUrl();
@@ -16,6 +16,8 @@
 package com.github.tomakehurst.wiremock.servlet;
 
 import com.github.tomakehurst.wiremock.common.Gzip;
+import com.github.tomakehurst.wiremock.common.Limit;
+import com.github.tomakehurst.wiremock.common.SpooledBody;
 import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
 import com.github.tomakehurst.wiremock.http.Cookie;
 import com.github.tomakehurst.wiremock.http.HttpHeader;
@@ -23,6 +25,7 @@ import com.github.tomakehurst.wiremock.http.HttpHeaders;
 import com.github.tomakehurst.wiremock.http.QueryParameter;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.StreamableRequest;
 import com.github.tomakehurst.wiremock.http.multipart.PartParser;
 import com.github.tomakehurst.wiremock.jetty9.JettyUtils;
 import com.google.common.base.Function;
@@ -32,7 +35,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.nio.charset.Charset;
 import java.util.*;
 import javax.servlet.ServletException;
@@ -47,15 +53,16 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.FluentIterable.from;
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.io.ByteStreams.toByteArray;
 import static java.util.Collections.list;
 
-public class WireMockHttpServletRequestAdapter implements Request {
+public class WireMockHttpServletRequestAdapter implements Request, StreamableRequest {
 
     public static final String ORIGINAL_REQUEST_KEY = "wiremock.ORIGINAL_REQUEST";
 
     private final HttpServletRequest request;
     private final MultipartRequestConfigurer multipartRequestConfigurer;
+    private final Limit bodySpoolThreshold;
+    private SpooledBody spooledBody;
     private byte[] cachedBody;
     private String urlPrefixToRemove;
     private Collection<Part> cachedMultiparts;
@@ -63,9 +70,17 @@ public class WireMockHttpServletRequestAdapter implements Request {
     public WireMockHttpServletRequestAdapter(HttpServletRequest request,
                                              MultipartRequestConfigurer multipartRequestConfigurer,
                                              String urlPrefixToRemove) {
+        this(request, multipartRequestConfigurer, urlPrefixToRemove, Limit.UNLIMITED);
+    }
+
+    public WireMockHttpServletRequestAdapter(HttpServletRequest request,
+                                             MultipartRequestConfigurer multipartRequestConfigurer,
+                                             String urlPrefixToRemove,
+                                             Limit bodySpoolThreshold) {
         this.request = request;
         this.multipartRequestConfigurer = multipartRequestConfigurer;
         this.urlPrefixToRemove = urlPrefixToRemove;
+        this.bodySpoolThreshold = bodySpoolThreshold;
     }
 
     @Override
@@ -126,16 +141,52 @@ public class WireMockHttpServletRequestAdapter implements Request {
     @Override
     public byte[] getBody() {
         if (cachedBody == null) {
+            cachedBody = spooledBody().getBytes();
+        }
+
+        return cachedBody;
+    }
+
+    @Override
+    public InputStream getBodyStream() {
+        if (cachedBody != null) {
+            return new ByteArrayInputStream(cachedBody);
+        }
+
+        return spooledBody().getStream();
+    }
+
+    @Override
+    public boolean isBodyInMemory() {
+        return cachedBody != null || spooledBody().isInMemory();
+    }
+
+    /**
+     * Reads the body from the servlet request the first time it is needed, decompressing it on the way if it is
+     * gzipped. Bodies larger than the spool threshold go to a temp file rather than the heap.
+     */
+    private SpooledBody spooledBody() {
+        if (spooledBody == null) {
             try {
-                byte[] body = toByteArray(request.getInputStream());
-                boolean isGzipped = hasGzipEncoding() || Gzip.isGzipped(body);
-                cachedBody = isGzipped ? Gzip.unGzip(body) : body;
+                PushbackInputStream body = new PushbackInputStream(request.getInputStream(), 2);
+                spooledBody = hasGzipEncoding() || Gzip.isGzipped(body) ?
+                    SpooledBody.spoolUnGzipped(body, bodySpoolThreshold) :
+                    SpooledBody.spool(body, bodySpoolThreshold);
             } catch (IOException ioe) {
                 throw new RuntimeException(ioe);
             }
         }
 
-        return cachedBody;
+        return spooledBody;
+    }
+
+    /**
+     * Removes the temp file the body was spooled to, if any. Called once the request has been responded to.
+     */
+    public void releaseBody() {
+        if (spooledBody != null) {
+            spooledBody.delete();
+        }
     }
 
     private Charset encodingFromContentTypeHeaderOrUtf8() {
@@ -23,13 +23,15 @@ import com.github.tomakehurst.wiremock.core.Options;
 import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.extension.ExtensionLoader;
-import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.http.HttpServerFactory;
 import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.http.trafficlistener.AsyncNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.ConsoleNotifyingWiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.DoNothingWiremockNetworkTrafficListener;
+import com.github.tomakehurst.wiremock.http.trafficlistener.RollingFileNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.WiremockNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
 import com.github.tomakehurst.wiremock.security.Authenticator;
@@ -46,6 +48,7 @@ import com.google.common.io.Resources;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.net.URI;
@@ -90,11 +93,26 @@ public class CommandLineOptions implements Options {
     private static final String MAX_ENTRIES_REQUEST_JOURNAL = "max-request-journal-entries";
     private static final String JETTY_ACCEPTOR_THREAD_COUNT = "jetty-acceptor-threads";
     private static final String PRINT_ALL_NETWORK_TRAFFIC = "print-all-network-traffic";
+    private static final String CAPTURE_NETWORK_TRAFFIC = "capture-network-traffic";
+    private static final String CAPTURE_NETWORK_TRAFFIC_MAX_FILE_SIZE = "capture-network-traffic-max-file-size";
+    private static final String CAPTURE_NETWORK_TRAFFIC_MAX_FILES = "capture-network-traffic-max-files";
     private static final String JETTY_ACCEPT_QUEUE_SIZE = "jetty-accept-queue-size";
     private static final String JETTY_HEADER_BUFFER_SIZE = "jetty-header-buffer-size";
     private static final String JETTY_STOP_TIMEOUT = "jetty-stop-timeout";
+    private static final String DISABLE_HTTP2_PLAIN = "disable-http2-plain";
+    private static final String DISABLE_HTTP2_TLS = "disable-http2-tls";
+    private static final String HTTP2_MAX_CONCURRENT_STREAMS = "http2-max-concurrent-streams";
+    private static final String HTTP2_INITIAL_STREAM_WINDOW = "http2-initial-stream-window";
+    private static final String HTTP2_INITIAL_SESSION_WINDOW = "http2-initial-session-window";
+    private static final String MAX_CONCURRENT_STUB_REQUESTS = "max-concurrent-stub-requests";
+    private static final String MAX_QUEUED_STUB_REQUESTS = "max-queued-stub-requests";
+    private static final String STUB_REQUEST_QUEUE_TIMEOUT = "stub-request-queue-timeout";
+    private static final String OVERLOAD_FAULT = "overload-fault";
     private static final String ROOT_DIR = "root-dir";
     private static final String CONTAINER_THREADS = "container-threads";
+    private static final String THREAD_POOL_FACTORY = "thread-pool-factory";
+    private static final String ADMIN_PORT = "admin-port";
+    private static final String ADMIN_CONTAINER_THREADS = "admin-container-threads";
     private static final String GLOBAL_RESPONSE_TEMPLATING = "global-response-templating";
     private static final String LOCAL_RESPONSE_TEMPLATING = "local-response-templating";
     private static final String ADMIN_API_BASIC_AUTH = "admin-api-basic-auth";
@@ -103,6 +121,7 @@ public class CommandLineOptions implements Options {
     private static final String ASYNCHRONOUS_RESPONSE_THREADS = "async-response-threads";
     private static final String USE_CHUNKED_ENCODING = "use-chunked-encoding";
     private static final String MAX_TEMPLATE_CACHE_ENTRIES = "max-template-cache-entries";
+    private static final String MAX_TEMPLATE_CACHE_BYTES = "max-template-cache-bytes";
     private static final String PERMITTED_SYSTEM_KEYS = "permitted-system-keys";
     private static final String DISABLE_GZIP = "disable-gzip";
     private static final String DISABLE_REQUEST_LOGGING = "disable-request-logging";
@@ -112,6 +131,23 @@ public class CommandLineOptions implements Options {
     private static final String HTTPS_CA_KEYSTORE = "ca-keystore";
     private static final String HTTPS_CA_KEYSTORE_PASSWORD = "ca-keystore-password";
     private static final String HTTPS_CA_KEYSTORE_TYPE = "ca-keystore-type";
+    private static final String GENERATED_CERTIFICATES_KEYSTORE = "generated-certificates-keystore";
+    private static final String LOGGED_REQUEST_BODY_SIZE_LIMIT = "logged-request-body-size-limit";
+    private static final String LOGGED_RESPONSE_BODY_SIZE_LIMIT = "logged-response-body-size-limit";
+    private static final String REQUEST_BODY_SPOOL_THRESHOLD = "request-body-spool-threshold";
+    private static final String PROXY_RESPONSE_STREAMING = "proxy-response-streaming";
+    private static final String PROXY_RESPONSE_CAPTURE_LIMIT = "proxy-response-capture-limit";
+    private static final String PROXY_MAX_CONNECTIONS = "proxy-max-connections";
+    private static final String PROXY_MAX_CONNECTIONS_PER_ROUTE = "proxy-max-connections-per-route";
+    private static final String PROXY_ROUTE_MAX_CONNECTIONS = "proxy-route-max-connections";
+    private static final String PROXY_IDLE_CONNECTION_TIMEOUT = "proxy-idle-connection-timeout";
+    private static final String PROXY_CONNECTION_TTL = "proxy-connection-ttl";
+    private static final String PROXY_KEEP_ALIVE_DURATION = "proxy-keep-alive-duration";
+    private static final String ASYNC_PROXY_ENABLED = "async-proxy-enabled";
+    private static final String PROXY_RESPONSE_CACHE = "proxy-response-cache";
+    private static final String PROXY_RESPONSE_CACHE_SIZE = "proxy-response-cache-size";
+    private static final String PROXY_RESPONSE_CACHE_DIR = "proxy-response-cache-dir";
+    private static final String PROXY_RESPONSE_CACHE_DISK_SIZE = "proxy-response-cache-disk-size";
 
     private final OptionSet optionSet;
     private final FileSource fileSource;
@@ -120,6 +156,8 @@ public class CommandLineOptions implements Options {
     private String helpText;
     private Integer actualHttpPort;
     private Integer actualHttpsPort;
+    private Integer actualAdminPort;
+    private ResponseTemplateTransformer responseTemplateTransformer;
 
     public CommandLineOptions(String... args) {
         OptionParser optionParser = new OptionParser();
@@ -128,6 +166,9 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(HTTPS_PORT, "If this option is present WireMock will enable HTTPS on the specified port").withRequiredArg();
         optionParser.accepts(BIND_ADDRESS, "The IP to listen connections").withRequiredArg();
         optionParser.accepts(CONTAINER_THREADS, "The number of container threads").withRequiredArg();
+        optionParser.accepts(THREAD_POOL_FACTORY, "Class name of the ThreadPoolFactory building the container thread pool, e.g. com.github.tomakehurst.wiremock.jetty94.VirtualThreadPoolFactory on Java 21+").withRequiredArg();
+        optionParser.accepts(ADMIN_PORT, "Serve the admin API only on this port, with its own threads, instead of on the stub ports. 0 for dynamic port selection.").withRequiredArg();
+        optionParser.accepts(ADMIN_CONTAINER_THREADS, "The number of threads handling admin API requests when --admin-port is set. Defaults to 4.").withRequiredArg();
         optionParser.accepts(REQUIRE_CLIENT_CERT, "Make the server require a trusted client certificate to enable a connection");
         optionParser.accepts(HTTPS_TRUSTSTORE_TYPE, "The HTTPS trust store type").withRequiredArg().defaultsTo("JKS");
         optionParser.accepts(HTTPS_TRUSTSTORE_PASSWORD, "Password for the trust store").withRequiredArg();
@@ -152,7 +193,19 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(JETTY_ACCEPT_QUEUE_SIZE, "The size of Jetty's accept queue size").withRequiredArg();
         optionParser.accepts(JETTY_HEADER_BUFFER_SIZE, "The size of Jetty's buffer for request headers").withRequiredArg();
         optionParser.accepts(JETTY_STOP_TIMEOUT, "Timeout in milliseconds for Jetty to stop").withRequiredArg();
+        optionParser.accepts(DISABLE_HTTP2_PLAIN, "Disable cleartext HTTP/2 (h2c) on the HTTP port");
+        optionParser.accepts(DISABLE_HTTP2_TLS, "Disable HTTP/2 over TLS on the HTTPS port and when browser proxying HTTPS");
+        optionParser.accepts(HTTP2_MAX_CONCURRENT_STREAMS, "Maximum number of concurrent streams per HTTP/2 connection. Defaults to 128.").withRequiredArg();
+        optionParser.accepts(HTTP2_INITIAL_STREAM_WINDOW, "Initial HTTP/2 flow-control window in bytes for each stream. Defaults to 524288.").withRequiredArg();
+        optionParser.accepts(HTTP2_INITIAL_SESSION_WINDOW, "Initial HTTP/2 flow-control window in bytes for each connection. Defaults to 1048576.").withRequiredArg();
+        optionParser.accepts(MAX_CONCURRENT_STUB_REQUESTS, "Maximum number of stub requests handled at once, beyond which requests are queued or shed with a 503. Unlimited by default.").withRequiredArg();
+        optionParser.accepts(MAX_QUEUED_STUB_REQUESTS, "Maximum number of stub requests waiting for one of the concurrent slots. Defaults to 0.").withRequiredArg();
+        optionParser.accepts(STUB_REQUEST_QUEUE_TIMEOUT, "Milliseconds a queued stub request waits before being shed. Defaults to 1000.").withRequiredArg();
+        optionParser.accepts(OVERLOAD_FAULT, "Fault to apply to shed stub requests instead of returning a 503, e.g. CONNECTION_RESET_BY_PEER").withRequiredArg();
         optionParser.accepts(PRINT_ALL_NETWORK_TRAFFIC, "Print all raw incoming and outgoing network traffic to console");
+        optionParser.accepts(CAPTURE_NETWORK_TRAFFIC, "Write all raw incoming and outgoing network traffic to rolling files in the specified directory").withRequiredArg();
+        optionParser.accepts(CAPTURE_NETWORK_TRAFFIC_MAX_FILE_SIZE, "Size in bytes at which a network traffic capture file is rolled over. Defaults to 10485760.").withRequiredArg();
+        optionParser.accepts(CAPTURE_NETWORK_TRAFFIC_MAX_FILES, "Number of network traffic capture files to keep. Defaults to 10.").withRequiredArg();
         optionParser.accepts(GLOBAL_RESPONSE_TEMPLATING, "Preprocess all responses with Handlebars templates");
         optionParser.accepts(LOCAL_RESPONSE_TEMPLATING, "Preprocess selected responses with Handlebars templates");
         optionParser.accepts(ADMIN_API_BASIC_AUTH, "Require HTTP Basic authentication for admin API calls with the supplied credentials in username:password format").withRequiredArg();
@@ -161,6 +214,7 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(ASYNCHRONOUS_RESPONSE_THREADS, "Number of asynchronous response threads").withRequiredArg().defaultsTo("10");
         optionParser.accepts(USE_CHUNKED_ENCODING, "Whether to use Transfer-Encoding: chunked in responses. Can be set to always, never or body_file.").withRequiredArg().defaultsTo("always");
         optionParser.accepts(MAX_TEMPLATE_CACHE_ENTRIES, "The maximum number of response template fragments that can be cached. Only has any effect when templating is enabled. Defaults to no limit.").withOptionalArg();
+        optionParser.accepts(MAX_TEMPLATE_CACHE_BYTES, "The maximum estimated memory in bytes used by cached response template fragments, as an alternative to limiting their number. Only has any effect when templating is enabled. Defaults to no limit.").withRequiredArg();
         optionParser.accepts(PERMITTED_SYSTEM_KEYS, "A list of case-insensitive regular expressions for names of permitted system properties and environment vars. Only has any effect when templating is enabled. Defaults to no limit.").withOptionalArg().ofType(String.class).withValuesSeparatedBy(",");
         optionParser.accepts(DISABLE_GZIP, "Disable gzipping of request and response bodies");
         optionParser.accepts(DISABLE_REQUEST_LOGGING, "Disable logging of stub requests and responses to the notifier. Useful when performance testing.");
@@ -170,6 +224,27 @@ public class CommandLineOptions implements Options {
         optionParser.accepts(HTTPS_CA_KEYSTORE, "Path to an alternative keystore containing a Certificate Authority private key & certificate for generating certificates when proxying HTTPS. Password is assumed to be \"password\" if not specified.").availableIf(ENABLE_BROWSER_PROXYING).withRequiredArg().defaultsTo(DEFAULT_CA_KEYSTORE_PATH);
         optionParser.accepts(HTTPS_CA_KEYSTORE_PASSWORD, "Password for the alternative CA keystore.").availableIf(HTTPS_CA_KEYSTORE).withRequiredArg().defaultsTo(DEFAULT_CA_KESTORE_PASSWORD);
         optionParser.accepts(HTTPS_CA_KEYSTORE_TYPE, "Type of the alternative CA keystore (jks or pkcs12).").availableIf(HTTPS_CA_KEYSTORE).withRequiredArg().defaultsTo("jks");
+        optionParser.accepts(GENERATED_CERTIFICATES_KEYSTORE, "Path to a keystore to save the certificates generated when proxying HTTPS to, so they are reused after a restart. Uses the CA keystore's password & type.").availableIf(ENABLE_BROWSER_PROXYING).withRequiredArg();
+
+        optionParser.accepts(LOGGED_REQUEST_BODY_SIZE_LIMIT, "Maximum number of request body bytes to record in the request journal. Larger bodies are still matched in full. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(LOGGED_RESPONSE_BODY_SIZE_LIMIT, "Maximum number of response body bytes to record in the request journal. Larger bodies are still sent in full. Defaults to no limit.").withRequiredArg();
+
+        optionParser.accepts(REQUEST_BODY_SPOOL_THRESHOLD, "Size in bytes above which request bodies are spooled to a temporary file rather than held in memory. Defaults to no limit.").withRequiredArg();
+
+        optionParser.accepts(PROXY_RESPONSE_STREAMING, "Stream proxied response bodies to the client as they arrive rather than reading them into memory first. Responses that a transformer applies to are still read in full.");
+        optionParser.accepts(PROXY_RESPONSE_CAPTURE_LIMIT, "Number of bytes from the start of each streamed proxy response body to keep for the request journal and recorder. Defaults to 1048576.").availableIf(PROXY_RESPONSE_STREAMING).withRequiredArg();
+
+        optionParser.accepts(PROXY_MAX_CONNECTIONS, "Maximum number of pooled connections to proxy targets. Defaults to 1000.").withRequiredArg();
+        optionParser.accepts(PROXY_MAX_CONNECTIONS_PER_ROUTE, "Maximum number of pooled connections to any one proxy target. Defaults to the overall maximum.").withRequiredArg();
+        optionParser.accepts(PROXY_ROUTE_MAX_CONNECTIONS, "Maximum number of pooled connections to a specific proxy target, as <base URL>=<max> e.g. http://backend:8080=20. Can be given more than once.").withRequiredArg();
+        optionParser.accepts(PROXY_IDLE_CONNECTION_TIMEOUT, "Milliseconds after which idle pooled proxy connections are closed, or -1 to keep them. Defaults to 60000.").withRequiredArg();
+        optionParser.accepts(PROXY_CONNECTION_TTL, "Maximum lifetime in milliseconds of pooled proxy connections. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(PROXY_KEEP_ALIVE_DURATION, "Milliseconds to keep proxy connections alive when the target doesn't send a Keep-Alive timeout. Defaults to no limit.").withRequiredArg();
+        optionParser.accepts(PROXY_RESPONSE_CACHE, "Cache proxied GET responses according to their Cache-Control, Expires and Vary headers, revalidating stale ones with the target.");
+        optionParser.accepts(PROXY_RESPONSE_CACHE_SIZE, "Maximum total size in bytes of the proxied responses cached in memory. Defaults to 67108864.").availableIf(PROXY_RESPONSE_CACHE).withRequiredArg();
+        optionParser.accepts(PROXY_RESPONSE_CACHE_DIR, "Directory to keep proxied responses evicted from the memory cache in. By default they're discarded.").availableIf(PROXY_RESPONSE_CACHE).withRequiredArg();
+        optionParser.accepts(PROXY_RESPONSE_CACHE_DISK_SIZE, "Maximum total size in bytes of the proxied responses cached on disk. Defaults to 1073741824.").availableIf(PROXY_RESPONSE_CACHE_DIR).withRequiredArg();
+        optionParser.accepts(ASYNC_PROXY_ENABLED, "Make proxied requests with a non-blocking client, releasing the request thread while the target responds. Doesn't apply to browser proxying or streamed responses.");
 
         optionParser.accepts(HELP, "Print this message").forHelp();
 
@@ -243,7 +318,17 @@ public class CommandLineOptions implements Options {
 
     @Override
     public ThreadPoolFactory threadPoolFactory() {
-        return new QueuedThreadPoolFactory();
+        if (!optionSet.has(THREAD_POOL_FACTORY)) {
+            return new QueuedThreadPoolFactory();
+        }
+
+        try {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Class<?> cls = loader.loadClass((String) optionSet.valueOf(THREAD_POOL_FACTORY));
+            return (ThreadPoolFactory) cls.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            return throwUnchecked(e, null);
+        }
     }
 
     private boolean specifiesPortNumber() {
@@ -272,6 +357,10 @@ public class CommandLineOptions implements Options {
         actualHttpsPort = port;
     }
 
+    public void setActualAdminPort(int port) {
+        actualAdminPort = port;
+    }
+
     @Override
     public String bindAddress(){
 	if (optionSet.has(BIND_ADDRESS)) {
@@ -363,28 +452,38 @@ public class CommandLineOptions implements Options {
             );
         }
 
-        if (optionSet.has(GLOBAL_RESPONSE_TEMPLATING) && ResponseDefinitionTransformer.class.isAssignableFrom(extensionType)) {
-            ResponseTemplateTransformer transformer = ResponseTemplateTransformer.builder()
-                    .global(true)
-                    .maxCacheEntries(getMaxTemplateCacheEntries())
-                    .permittedSystemKeys(getPermittedSystemKeys())
-                    .build();
+        if ((optionSet.has(GLOBAL_RESPONSE_TEMPLATING) || optionSet.has(LOCAL_RESPONSE_TEMPLATING)) &&
+                extensionType.isAssignableFrom(ResponseTemplateTransformer.class)) {
+            ResponseTemplateTransformer transformer = responseTemplateTransformer();
             builder.put(transformer.getName(), (T) transformer);
-        } else if (optionSet.has(LOCAL_RESPONSE_TEMPLATING) && ResponseDefinitionTransformer.class.isAssignableFrom(extensionType)) {
-            ResponseTemplateTransformer transformer = ResponseTemplateTransformer.builder()
-                    .global(false)
+        }
+
+        return builder.build();
+    }
+
+    // One instance, as it's also a stub lifecycle listener and admin API extension and they share its template cache
+    private synchronized ResponseTemplateTransformer responseTemplateTransformer() {
+        if (responseTemplateTransformer == null) {
+            responseTemplateTransformer = ResponseTemplateTransformer.builder()
+                    .global(optionSet.has(GLOBAL_RESPONSE_TEMPLATING))
                     .maxCacheEntries(getMaxTemplateCacheEntries())
+                    .maxCacheBytes(getMaxTemplateCacheBytes())
                     .permittedSystemKeys(getPermittedSystemKeys())
                     .build();
-            builder.put(transformer.getName(), (T) transformer);
         }
 
-        return builder.build();
+        return responseTemplateTransformer;
     }
 
     @Override
     public WiremockNetworkTrafficListener networkTrafficListener() {
-        if (optionSet.has(PRINT_ALL_NETWORK_TRAFFIC)) {
+        if (optionSet.has(CAPTURE_NETWORK_TRAFFIC)) {
+            return new AsyncNetworkTrafficListener(new RollingFileNetworkTrafficListener(
+                    new File((String) optionSet.valueOf(CAPTURE_NETWORK_TRAFFIC)),
+                    optionSet.has(CAPTURE_NETWORK_TRAFFIC_MAX_FILE_SIZE) ? longFromOption(CAPTURE_NETWORK_TRAFFIC_MAX_FILE_SIZE) : RollingFileNetworkTrafficListener.DEFAULT_MAX_FILE_SIZE,
+                    optionSet.has(CAPTURE_NETWORK_TRAFFIC_MAX_FILES) ? intFromOption(CAPTURE_NETWORK_TRAFFIC_MAX_FILES) : RollingFileNetworkTrafficListener.DEFAULT_MAX_FILES
+            ));
+        } else if (optionSet.has(PRINT_ALL_NETWORK_TRAFFIC)) {
             return new ConsoleNotifyingWiremockNetworkTrafficListener();
         } else {
             return new DoNothingWiremockNetworkTrafficListener();
@@ -495,6 +594,10 @@ public class CommandLineOptions implements Options {
             builder.put(HTTPS_PORT, actualHttpsPort);
         }
 
+        if (actualAdminPort != null) {
+            builder.put(ADMIN_PORT, actualAdminPort);
+        }
+
         if (httpsSettings().enabled()) {
             builder.put(HTTPS_KEYSTORE, nullToString(httpsSettings().keyStorePath()));
         }
@@ -519,6 +622,9 @@ public class CommandLineOptions implements Options {
             }
             builder.put(HTTPS_CA_KEYSTORE, keyStoreSettings.path());
             builder.put(HTTPS_CA_KEYSTORE_TYPE, keyStoreSettings.type());
+            if (optionSet.has(GENERATED_CERTIFICATES_KEYSTORE)) {
+                builder.put(GENERATED_CERTIFICATES_KEYSTORE, browserProxySettings.generatedCertificatesKeyStore().path());
+            }
         }
 
         builder.put(DISABLE_BANNER, bannerDisabled());
@@ -531,6 +637,10 @@ public class CommandLineOptions implements Options {
         builder.put(DISABLE_REQUEST_JOURNAL, requestJournalDisabled())
                .put(VERBOSE, verboseLoggingEnabled());
 
+        if (optionSet.has(THREAD_POOL_FACTORY)) {
+            builder.put(THREAD_POOL_FACTORY, optionSet.valueOf(THREAD_POOL_FACTORY));
+        }
+
         if (jettySettings().getAcceptQueueSize().isPresent()) {
             builder.put(JETTY_ACCEPT_QUEUE_SIZE, jettySettings().getAcceptQueueSize().get());
         }
@@ -543,6 +653,12 @@ public class CommandLineOptions implements Options {
             builder.put(JETTY_HEADER_BUFFER_SIZE, jettySettings().getRequestHeaderSize().get());
         }
 
+        AdmissionControlSettings admissionControlSettings = getAdmissionControlSettings();
+        if (admissionControlSettings.enabled()) {
+            builder.put(MAX_CONCURRENT_STUB_REQUESTS, admissionControlSettings.maxConcurrentRequests())
+                   .put(MAX_QUEUED_STUB_REQUESTS, admissionControlSettings.maxQueuedRequests());
+        }
+
         if (!(getAdminAuthenticator() instanceof NoAuthenticator)) {
             builder.put(ADMIN_API_BASIC_AUTH, "enabled");
         }
@@ -599,6 +715,139 @@ public class CommandLineOptions implements Options {
         return optionSet.has(ENABLE_STUB_CORS);
     }
 
+    @Override
+    public DataTruncationSettings getDataTruncationSettings() {
+        return new DataTruncationSettings(
+                limitFromOption(LOGGED_REQUEST_BODY_SIZE_LIMIT),
+                limitFromOption(LOGGED_RESPONSE_BODY_SIZE_LIMIT)
+        );
+    }
+
+    @Override
+    public Limit getRequestBodySpoolThreshold() {
+        return limitFromOption(REQUEST_BODY_SPOOL_THRESHOLD);
+    }
+
+    private Limit limitFromOption(String key) {
+        return optionSet.has(key) ?
+                new Limit(Integer.parseInt((String) optionSet.valueOf(key))) :
+                Limit.UNLIMITED;
+    }
+
+    @Override
+    public ProxyStreamingSettings getProxyStreamingSettings() {
+        return new ProxyStreamingSettings(
+                optionSet.has(PROXY_RESPONSE_STREAMING),
+                optionSet.has(PROXY_RESPONSE_CAPTURE_LIMIT) ?
+                        limitFromOption(PROXY_RESPONSE_CAPTURE_LIMIT) :
+                        ProxyStreamingSettings.DEFAULT_CAPTURE_LIMIT
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ProxyConnectionPoolSettings getProxyConnectionPoolSettings() {
+        ProxyConnectionPoolSettings.Builder builder = ProxyConnectionPoolSettings.builder();
+        if (optionSet.has(PROXY_MAX_CONNECTIONS)) {
+            builder.maxConnections(intFromOption(PROXY_MAX_CONNECTIONS));
+        }
+        if (optionSet.has(PROXY_MAX_CONNECTIONS_PER_ROUTE)) {
+            builder.maxConnectionsPerRoute(intFromOption(PROXY_MAX_CONNECTIONS_PER_ROUTE));
+        }
+        for (String routeMax: (List<String>) optionSet.valuesOf(PROXY_ROUTE_MAX_CONNECTIONS)) {
+            int separator = routeMax.lastIndexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException(PROXY_ROUTE_MAX_CONNECTIONS + " must be of the form <base URL>=<max>, but was " + routeMax);
+            }
+            builder.maxConnectionsPerRoute(routeMax.substring(0, separator), Integer.parseInt(routeMax.substring(separator + 1)));
+        }
+        if (optionSet.has(PROXY_IDLE_CONNECTION_TIMEOUT)) {
+            builder.idleConnectionTimeout(intFromOption(PROXY_IDLE_CONNECTION_TIMEOUT));
+        }
+        if (optionSet.has(PROXY_CONNECTION_TTL)) {
+            builder.connectionTimeToLive(intFromOption(PROXY_CONNECTION_TTL));
+        }
+        if (optionSet.has(PROXY_KEEP_ALIVE_DURATION)) {
+            builder.keepAliveDuration(intFromOption(PROXY_KEEP_ALIVE_DURATION));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean getAsynchronousProxyingEnabled() {
+        return optionSet.has(ASYNC_PROXY_ENABLED);
+    }
+
+    @Override
+    public ProxyResponseCacheSettings getProxyResponseCacheSettings() {
+        return new ProxyResponseCacheSettings(
+                optionSet.has(PROXY_RESPONSE_CACHE),
+                optionSet.has(PROXY_RESPONSE_CACHE_SIZE) ?
+                        longFromOption(PROXY_RESPONSE_CACHE_SIZE) :
+                        ProxyResponseCacheSettings.DEFAULT_MAX_MEMORY_SIZE,
+                (String) optionSet.valueOf(PROXY_RESPONSE_CACHE_DIR),
+                optionSet.has(PROXY_RESPONSE_CACHE_DISK_SIZE) ?
+                        longFromOption(PROXY_RESPONSE_CACHE_DISK_SIZE) :
+                        ProxyResponseCacheSettings.DEFAULT_MAX_DISK_SIZE
+        );
+    }
+
+    @Override
+    public Http2Settings getHttp2Settings() {
+        Http2Settings.Builder builder = Http2Settings.builder()
+                .plainTextEnabled(!optionSet.has(DISABLE_HTTP2_PLAIN))
+                .tlsEnabled(!optionSet.has(DISABLE_HTTP2_TLS));
+        if (optionSet.has(HTTP2_MAX_CONCURRENT_STREAMS)) {
+            builder.maxConcurrentStreams(intFromOption(HTTP2_MAX_CONCURRENT_STREAMS));
+        }
+        if (optionSet.has(HTTP2_INITIAL_STREAM_WINDOW)) {
+            builder.initialStreamRecvWindow(intFromOption(HTTP2_INITIAL_STREAM_WINDOW));
+        }
+        if (optionSet.has(HTTP2_INITIAL_SESSION_WINDOW)) {
+            builder.initialSessionRecvWindow(intFromOption(HTTP2_INITIAL_SESSION_WINDOW));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public AdminConnectorSettings getAdminConnectorSettings() {
+        if (!optionSet.has(ADMIN_PORT)) {
+            return AdminConnectorSettings.DISABLED;
+        }
+
+        return new AdminConnectorSettings(
+                true,
+                intFromOption(ADMIN_PORT),
+                optionSet.has(ADMIN_CONTAINER_THREADS) ? intFromOption(ADMIN_CONTAINER_THREADS) : AdminConnectorSettings.DEFAULT_THREADS
+        );
+    }
+
+    @Override
+    public AdmissionControlSettings getAdmissionControlSettings() {
+        AdmissionControlSettings.Builder builder = AdmissionControlSettings.builder();
+        if (optionSet.has(MAX_CONCURRENT_STUB_REQUESTS)) {
+            builder.maxConcurrentRequests(intFromOption(MAX_CONCURRENT_STUB_REQUESTS));
+        }
+        if (optionSet.has(MAX_QUEUED_STUB_REQUESTS)) {
+            builder.maxQueuedRequests(intFromOption(MAX_QUEUED_STUB_REQUESTS));
+        }
+        if (optionSet.has(STUB_REQUEST_QUEUE_TIMEOUT)) {
+            builder.queueTimeout(intFromOption(STUB_REQUEST_QUEUE_TIMEOUT));
+        }
+        if (optionSet.has(OVERLOAD_FAULT)) {
+            builder.overloadFault(Fault.valueOf((String) optionSet.valueOf(OVERLOAD_FAULT)));
+        }
+        return builder.build();
+    }
+
+    private long longFromOption(String key) {
+        return Long.parseLong((String) optionSet.valueOf(key));
+    }
+
+    private int intFromOption(String key) {
+        return Integer.parseInt((String) optionSet.valueOf(key));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public BrowserProxySettings browserProxySettings() {
@@ -609,12 +858,22 @@ public class CommandLineOptions implements Options {
                         ((String) optionSet.valueOf(HTTPS_CA_KEYSTORE_PASSWORD)).toCharArray()
                 )
         );
+        KeyStoreSettings generatedCertificatesKeyStoreSettings = optionSet.has(GENERATED_CERTIFICATES_KEYSTORE) ?
+                new KeyStoreSettings(
+                        KeyStoreSourceFactory.getAppropriateForJreVersion(
+                                (String) optionSet.valueOf(GENERATED_CERTIFICATES_KEYSTORE),
+                                (String) optionSet.valueOf(HTTPS_CA_KEYSTORE_TYPE),
+                                ((String) optionSet.valueOf(HTTPS_CA_KEYSTORE_PASSWORD)).toCharArray()
+                        )
+                ) :
+                KeyStoreSettings.NO_STORE;
 
         return new BrowserProxySettings.Builder()
                 .enabled(optionSet.has(ENABLE_BROWSER_PROXYING))
                 .trustAllProxyTargets(optionSet.has(TRUST_ALL_PROXY_TARGETS))
                 .trustedProxyTargets((List<String>) optionSet.valuesOf(TRUST_PROXY_TARGET))
                 .caKeyStoreSettings(keyStoreSettings)
+                .generatedCertificatesKeyStoreSettings(generatedCertificatesKeyStoreSettings)
                 .build();
     }
 
@@ -624,6 +883,12 @@ public class CommandLineOptions implements Options {
                 null;
     }
 
+    private Long getMaxTemplateCacheBytes() {
+        return optionSet.has(MAX_TEMPLATE_CACHE_BYTES) ?
+                Long.valueOf(optionSet.valueOf(MAX_TEMPLATE_CACHE_BYTES).toString()) :
+                null;
+    }
+
     @SuppressWarnings("unchecked")
     @VisibleForTesting
     public Set<String> getPermittedSystemKeys() {
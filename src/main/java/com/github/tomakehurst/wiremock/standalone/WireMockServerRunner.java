@@ -84,6 +84,10 @@ public class WireMockServerRunner {
             	options.setActualHttpsPort(wireMockServer.httpsPort());
 			}
 
+            if (options.getAdminConnectorSettings().enabled()) {
+                options.setActualAdminPort(wireMockServer.adminPort());
+            }
+
             if (!options.bannerDisabled()){
                 out.println(BANNER);
                 out.println();
@@ -17,7 +17,9 @@ package com.github.tomakehurst.wiremock.stubbing;
 
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.RequestCache;
 import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.extension.MemoizableTransformer;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
 import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
@@ -28,6 +30,8 @@ import com.github.tomakehurst.wiremock.matching.StringValuePattern;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 
 import java.util.*;
@@ -43,20 +47,30 @@ import static com.google.common.collect.Iterables.tryFind;
 
 
 public class InMemoryStubMappings implements StubMappings {
+
+	public static final long DEFAULT_MAX_MEMOIZED_RESPONSES = 10000;
 	
 	private final SortedConcurrentMappingSet mappings = new SortedConcurrentMappingSet();
 	private final Scenarios scenarios;
 	private final Map<String, RequestMatcherExtension> customMatchers;
-    private final Map<String, ResponseDefinitionTransformer> transformers;
+    private final List<ResponseDefinitionTransformer> transformers;
     private final FileSource rootFileSource;
     private final List<StubLifecycleListener> stubLifecycleListeners;
+    private final Cache<MemoizedResponseKey, ResponseDefinition> memoizedResponses;
 
 	public InMemoryStubMappings(Scenarios scenarios, Map<String, RequestMatcherExtension> customMatchers, Map<String, ResponseDefinitionTransformer> transformers, FileSource rootFileSource, List<StubLifecycleListener> stubLifecycleListeners) {
+		this(scenarios, customMatchers, transformers, rootFileSource, stubLifecycleListeners, DEFAULT_MAX_MEMOIZED_RESPONSES);
+	}
+
+	public InMemoryStubMappings(Scenarios scenarios, Map<String, RequestMatcherExtension> customMatchers, Map<String, ResponseDefinitionTransformer> transformers, FileSource rootFileSource, List<StubLifecycleListener> stubLifecycleListeners, long maxMemoizedResponses) {
 		this.scenarios = scenarios;
 		this.customMatchers = customMatchers;
-        this.transformers = transformers;
+        this.transformers = ImmutableList.copyOf(transformers.values());
         this.rootFileSource = rootFileSource;
 		this.stubLifecycleListeners = stubLifecycleListeners;
+		this.memoizedResponses = CacheBuilder.newBuilder()
+				.maximumSize(maxMemoizedResponses)
+				.build();
 	}
 
 	public InMemoryStubMappings() {
@@ -70,43 +84,110 @@ public class InMemoryStubMappings implements StubMappings {
 
 	@Override
 	public ServeEvent serveFor(Request request) {
-		StubMapping matchingMapping = find(
-				mappings,
-				mappingMatchingAndInCorrectScenarioState(request),
-				StubMapping.NOT_CONFIGURED);
-		
-		scenarios.onStubServed(matchingMapping);
-
-        ResponseDefinition responseDefinition = applyTransformations(request,
-            matchingMapping.getResponse(),
-            ImmutableList.copyOf(transformers.values()));
-
-		return ServeEvent.of(
-            LoggedRequest.createFrom(request),
-            copyOf(responseDefinition),
-            matchingMapping
-        );
+		// Shared by matching and transformation, so e.g. a JSON body is only parsed once
+		RequestCache requestCache = RequestCache.open();
+		try {
+			StubMapping matchingMapping = find(
+					mappings,
+					mappingMatchingAndInCorrectScenarioState(request),
+					StubMapping.NOT_CONFIGURED);
+
+			scenarios.onStubServed(matchingMapping);
+			// Lets transformers tell which stub the response definition they're given came from
+			requestCache.put(StubMapping.class, matchingMapping);
+
+			ResponseDefinition responseDefinition = transform(request, matchingMapping);
+
+			return ServeEvent.of(
+				LoggedRequest.createFrom(request),
+				copyOf(responseDefinition),
+				matchingMapping
+			);
+		} finally {
+			requestCache.close();
+		}
 	}
 
-    private ResponseDefinition applyTransformations(Request request,
-                                                    ResponseDefinition responseDefinition,
-                                                    List<ResponseDefinitionTransformer> transformers) {
+    private ResponseDefinition transform(Request request, StubMapping stub) {
+        MemoizedResponseKey key = memoizedResponseKeyFor(request, stub);
+        if (key == null) {
+            return applyTransformations(request, stub.getResponse());
+        }
+
+        ResponseDefinition responseDefinition = memoizedResponses.getIfPresent(key);
+        if (responseDefinition == null) {
+            responseDefinition = applyTransformations(request, stub.getResponse());
+            // Nothing is saved by keeping a response the transformers left as it was
+            if (responseDefinition != stub.getResponse()) {
+                memoizedResponses.put(key, responseDefinition);
+            }
+        }
+
+        return responseDefinition;
+    }
+
+    /**
+     * @return null unless every transformer applied to the stub's response is memoizable for this request
+     */
+    private MemoizedResponseKey memoizedResponseKeyFor(Request request, StubMapping stub) {
+        ResponseDefinition responseDefinition = stub.getResponse();
+        Parameters parameters = null;
+        List<Object> requestKeys = null;
+        for (ResponseDefinitionTransformer transformer: transformers) {
+            if (!transformer.applyGlobally() && !responseDefinition.hasTransformer(transformer)) {
+                continue;
+            }
+            if (!(transformer instanceof MemoizableTransformer)) {
+                return null;
+            }
+
+            if (parameters == null) {
+                parameters = firstNonNull(responseDefinition.getTransformerParameters(), Parameters.empty());
+                requestKeys = new ArrayList<>();
+            }
+            Object requestKey = ((MemoizableTransformer) transformer).memoizationKeyFor(request, responseDefinition, parameters);
+            if (requestKey == null) {
+                return null;
+            }
+            requestKeys.add(requestKey);
+        }
+
+        return requestKeys != null ? new MemoizedResponseKey(stub, requestKeys) : null;
+    }
+
+    private ResponseDefinition applyTransformations(Request request, ResponseDefinition responseDefinition) {
         if (transformers.isEmpty()) {
             return responseDefinition;
         }
 
-        ResponseDefinitionTransformer transformer = transformers.get(0);
-        ResponseDefinition newResponseDef =
-            transformer.applyGlobally() || responseDefinition.hasTransformer(transformer) ?
-                transformer.transform(
-                		request,
-						responseDefinition,
-						rootFileSource.child(FILES_ROOT),
-						firstNonNull(responseDefinition.getTransformerParameters(), Parameters.empty())
-				) :
-                responseDefinition;
-
-        return applyTransformations(request, newResponseDef, transformers.subList(1, transformers.size()));
+        FileSource files = rootFileSource.child(FILES_ROOT);
+        for (ResponseDefinitionTransformer transformer: transformers) {
+            if (transformer.applyGlobally() || responseDefinition.hasTransformer(transformer)) {
+                responseDefinition = transformer.transform(
+                        request,
+                        responseDefinition,
+                        files,
+                        firstNonNull(responseDefinition.getTransformerParameters(), Parameters.empty())
+                );
+            }
+        }
+
+        return responseDefinition;
+    }
+
+    private void forgetMemoizedResponses(StubMapping stub) {
+        Iterator<MemoizedResponseKey> keys = memoizedResponses.asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            StubMapping memoizedStub = keys.next().stub;
+            // Stubs to remove are often a copy of the one served, found by id
+            if (memoizedStub == stub || (stub.getUuid() != null && stub.getUuid().equals(memoizedStub.getUuid()))) {
+                keys.remove();
+            }
+        }
+    }
+
+    public long getMemoizedResponseCount() {
+        return memoizedResponses.size();
     }
 
 	@Override
@@ -131,6 +212,7 @@ public class InMemoryStubMappings implements StubMappings {
 
 		mappings.remove(mapping);
 		scenarios.onStubMappingRemoved(mapping);
+		forgetMemoizedResponses(mapping);
 
 		for (StubLifecycleListener listener: stubLifecycleListeners) {
 			listener.afterStubRemoved(mapping);
@@ -160,6 +242,7 @@ public class InMemoryStubMappings implements StubMappings {
 
 		mappings.replace(existingMapping, stubMapping);
 		scenarios.onStubMappingUpdated(existingMapping, stubMapping);
+		forgetMemoizedResponses(existingMapping);
 
 		for (StubLifecycleListener listener: stubLifecycleListeners) {
 			listener.afterStubEdited(existingMapping, stubMapping);
@@ -175,6 +258,7 @@ public class InMemoryStubMappings implements StubMappings {
 
 		mappings.clear();
         scenarios.clear();
+        memoizedResponses.invalidateAll();
 
 		for (StubLifecycleListener listener: stubLifecycleListeners) {
 			listener.afterStubsReset();
@@ -238,4 +322,29 @@ public class InMemoryStubMappings implements StubMappings {
 			}
 		};
 	}
+
+	// Compares stubs by identity, as an edited stub keeps its id and equals() would compare every field
+	private static class MemoizedResponseKey {
+
+		private final StubMapping stub;
+		private final List<Object> requestKeys;
+
+		private MemoizedResponseKey(StubMapping stub, List<Object> requestKeys) {
+			this.stub = stub;
+			this.requestKeys = requestKeys;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			MemoizedResponseKey that = (MemoizedResponseKey) o;
+			return stub == that.stub && requestKeys.equals(that.requestKeys);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(stub) + requestKeys.hashCode();
+		}
+	}
 }
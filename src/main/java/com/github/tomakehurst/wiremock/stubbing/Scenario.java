@@ -18,6 +18,7 @@ package com.github.tomakehurst.wiremock.stubbing;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
@@ -51,7 +52,7 @@ public class Scenario {
     }
 	
 	public static Scenario inStartedState(String name) {
-		return new Scenario(UUID.randomUUID(), name, STARTED, ImmutableSet.of(STARTED), Collections.<StubMapping>emptySet());
+		return new Scenario(Uuids.random(), name, STARTED, ImmutableSet.of(STARTED), Collections.<StubMapping>emptySet());
 	}
 
     public UUID getId() {
@@ -18,8 +18,10 @@ package com.github.tomakehurst.wiremock.stubbing;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.tomakehurst.wiremock.common.DataTruncationSettings;
 import com.github.tomakehurst.wiremock.common.Errors;
 import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.LoggedResponse;
 import com.github.tomakehurst.wiremock.http.Response;
@@ -59,7 +61,7 @@ public class ServeEvent {
     }
 
     public ServeEvent(LoggedRequest request, StubMapping stubMapping, ResponseDefinition responseDefinition) {
-        this(UUID.randomUUID(), request, stubMapping, responseDefinition, null, false, null);
+        this(Uuids.timeOrdered(), request, stubMapping, responseDefinition, null, false, null);
     }
 
     public static ServeEvent forUnmatchedRequest(LoggedRequest request) {
@@ -83,11 +85,28 @@ public class ServeEvent {
     }
 
     public ServeEvent complete(Response response, int processTimeMillis) {
-        return new ServeEvent(id, request, stubMapping, responseDefinition, LoggedResponse.from(response), false, new Timing((int) response.getInitialDelay(), processTimeMillis));
+        return complete(response, processTimeMillis, DataTruncationSettings.NO_TRUNCATION);
+    }
+
+    public ServeEvent complete(Response response, int processTimeMillis, DataTruncationSettings dataTruncationSettings) {
+        return new ServeEvent(
+            id,
+            request.detach(dataTruncationSettings.getMaxRequestBodySize()),
+            stubMapping,
+            responseDefinition,
+            LoggedResponse.from(response, dataTruncationSettings.getMaxResponseBodySize()),
+            false,
+            new Timing((int) response.getInitialDelay(), processTimeMillis)
+        );
     }
 
     public void afterSend(int responseSendTimeMillis) {
         timing.set(timing.get().withResponseSendTime(responseSendTimeMillis));
+
+        // A streamed body has gone past by now, so its captured prefix can be filled in without holding anything up
+        if (response != null) {
+            response.getBody();
+        }
     }
 
     @JsonIgnore
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.common.Uuids;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
@@ -37,7 +38,7 @@ public class StubMapping {
 	
 	public static final int DEFAULT_PRIORITY = 5; 
 
-	private UUID uuid = UUID.randomUUID();
+	private UUID uuid = Uuids.random();
 	private String name;
 
 	private boolean persistent;
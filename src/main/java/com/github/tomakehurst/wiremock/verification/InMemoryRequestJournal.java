@@ -23,13 +23,17 @@ import com.github.tomakehurst.wiremock.stubbing.StubMapping;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.thatMatch;
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.withRequstMatching;
@@ -37,7 +41,14 @@ import static com.google.common.collect.Iterables.*;
 
 public class InMemoryRequestJournal implements RequestJournal {
 
-	private final Queue<ServeEvent> serveEvents = new ConcurrentLinkedQueue<ServeEvent>();
+	// The queue holds events in the order they were received, and the index finds them by ID. Entries removed
+	// by ID or pattern are only marked as removed in the queue, and are cleared out once they outnumber the live ones.
+	private final Queue<JournalEntry> entries = new ConcurrentLinkedQueue<>();
+	private final ConcurrentMap<UUID, JournalEntry> entriesById = new ConcurrentHashMap<>();
+	// The queue's own size() has to count every entry
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicInteger removedEntriesInQueue = new AtomicInteger();
+	private final AtomicBoolean purging = new AtomicBoolean();
 
 	private final Optional<Integer> maxEntries;
 
@@ -60,18 +71,37 @@ public class InMemoryRequestJournal implements RequestJournal {
 
 	@Override
 	public void requestReceived(ServeEvent serveEvent) {
-		serveEvents.add(serveEvent);
+		entries.add(index(serveEvent));
+		size.incrementAndGet();
         removeOldEntries();
 	}
 
+	private JournalEntry index(ServeEvent serveEvent) {
+		UUID id = serveEvent.getId();
+		JournalEntry previous;
+		JournalEntry entry;
+		do {
+			previous = entriesById.get(id);
+			entry = new JournalEntry(serveEvent, JournalEntry.firstLive(previous));
+		} while (previous == null ?
+				entriesById.putIfAbsent(id, entry) != null :
+				!entriesById.replace(id, previous, entry));
+
+		return entry;
+	}
+
 	@Override
 	public void removeEvent(final UUID eventId) {
-		removeServeEvents(new Predicate<ServeEvent>() {
-			@Override
-			public boolean apply(ServeEvent input) {
-				return input.getId().equals(eventId);
+		JournalEntry entry = entriesById.remove(eventId);
+		while (entry != null) {
+			if (entry.markRemoved()) {
+				size.decrementAndGet();
+				removedEntriesInQueue.incrementAndGet();
 			}
-		});
+			entry = entry.earlier;
+		}
+
+		purgeRemovedEntries();
 	}
 
 	@Override
@@ -85,39 +115,54 @@ public class InMemoryRequestJournal implements RequestJournal {
 	}
 
 	private List<ServeEvent> removeServeEvents(Predicate<ServeEvent> predicate) {
-		List<ServeEvent> toDelete = FluentIterable.from(serveEvents)
-				.filter(predicate)
-				.toList();
-
-		for (ServeEvent event: toDelete) {
-			serveEvents.remove(event);
+		ImmutableList.Builder<ServeEvent> deleted = ImmutableList.builder();
+		for (JournalEntry entry: entries) {
+			if (!entry.isRemoved() && predicate.apply(entry.serveEvent) && entry.markRemoved()) {
+				size.decrementAndGet();
+				removedEntriesInQueue.incrementAndGet();
+				unindexIfRemoved(entry.serveEvent.getId());
+				deleted.add(entry.serveEvent);
+			}
 		}
 
-		return toDelete;
+		purgeRemovedEntries();
+		return deleted.build();
 	}
 
 	@Override
     public List<ServeEvent> getAllServeEvents() {
-        return ImmutableList.copyOf(serveEvents).reverse();
+        return ImmutableList.copyOf(liveServeEvents()).reverse();
     }
 
 	@Override
 	public Optional<ServeEvent> getServeEvent(final UUID id) {
-		return tryFind(serveEvents, new Predicate<ServeEvent>() {
-			@Override
-			public boolean apply(ServeEvent input) {
-				return input.getId().equals(id);
-			}
-		});
+		JournalEntry entry = JournalEntry.oldestLive(entriesById.get(id));
+		return entry != null ? Optional.of(entry.serveEvent) : Optional.<ServeEvent>absent();
 	}
 
 	@Override
 	public void reset() {
-		serveEvents.clear();
+		// Removed one at a time so that the size stays right if events are added meanwhile
+		JournalEntry entry;
+		while ((entry = entries.poll()) != null) {
+			dequeued(entry);
+		}
+	}
+
+	private Iterable<ServeEvent> liveServeEvents() {
+		return transform(filter(entries, new Predicate<JournalEntry>() {
+			public boolean apply(JournalEntry input) {
+				return !input.isRemoved();
+			}
+		}), new Function<JournalEntry, ServeEvent>() {
+			public ServeEvent apply(JournalEntry input) {
+				return input.serveEvent;
+			}
+		});
 	}
 
 	private Iterable<LoggedRequest> getRequests() {
-		return transform(serveEvents, new Function<ServeEvent, LoggedRequest>() {
+		return transform(liveServeEvents(), new Function<ServeEvent, LoggedRequest>() {
 			public LoggedRequest apply(ServeEvent input) {
 				return input.getRequest();
 			}
@@ -126,9 +171,91 @@ public class InMemoryRequestJournal implements RequestJournal {
 
 	private void removeOldEntries() {
 		if (maxEntries.isPresent()) {
-			while (serveEvents.size() > maxEntries.get()) {
-				serveEvents.poll();
+			while (size.get() > maxEntries.get()) {
+				JournalEntry evicted = entries.poll();
+				if (evicted == null) {
+					return;
+				}
+				dequeued(evicted);
+			}
+		}
+	}
+
+	private void dequeued(JournalEntry entry) {
+		if (entry.markRemoved()) {
+			size.decrementAndGet();
+			unindexIfRemoved(entry.serveEvent.getId());
+		} else {
+			removedEntriesInQueue.decrementAndGet();
+		}
+	}
+
+	private void unindexIfRemoved(UUID id) {
+		JournalEntry latest = entriesById.get(id);
+		if (latest != null && JournalEntry.firstLive(latest) == null) {
+			entriesById.remove(id, latest);
+		}
+	}
+
+	private void purgeRemovedEntries() {
+		if (removedEntriesInQueue.get() <= Math.max(size.get(), MIN_REMOVED_ENTRIES_TO_PURGE) ||
+				!purging.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			Iterator<JournalEntry> iterator = entries.iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().isRemoved()) {
+					iterator.remove();
+					removedEntriesInQueue.decrementAndGet();
+				}
+			}
+		} finally {
+			purging.set(false);
+		}
+	}
+
+	private static final int MIN_REMOVED_ENTRIES_TO_PURGE = 64;
+
+	/**
+	 * One journaling of an event. The same event can be journaled more than once, so each entry also links to
+	 * the entry for the previous time its ID was journaled, if that was still live.
+	 */
+	private static class JournalEntry {
+
+		final ServeEvent serveEvent;
+		final JournalEntry earlier;
+		private final AtomicBoolean removed = new AtomicBoolean();
+
+		JournalEntry(ServeEvent serveEvent, JournalEntry earlier) {
+			this.serveEvent = serveEvent;
+			this.earlier = earlier;
+		}
+
+		boolean markRemoved() {
+			return removed.compareAndSet(false, true);
+		}
+
+		boolean isRemoved() {
+			return removed.get();
+		}
+
+		static JournalEntry firstLive(JournalEntry entry) {
+			while (entry != null && entry.isRemoved()) {
+				entry = entry.earlier;
+			}
+			return entry;
+		}
+
+		static JournalEntry oldestLive(JournalEntry entry) {
+			JournalEntry oldest = null;
+			for (JournalEntry current = entry; current != null; current = current.earlier) {
+				if (!current.isRemoved()) {
+					oldest = current;
+				}
 			}
+			return oldest;
 		}
 	}
 
@@ -21,14 +21,20 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.tomakehurst.wiremock.common.Dates;
 import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.Limit;
 import com.github.tomakehurst.wiremock.common.Urls;
 import com.github.tomakehurst.wiremock.http.*;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
@@ -48,7 +54,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.FluentIterable.from;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class LoggedRequest implements Request {
+public class LoggedRequest implements Request, StreamableRequest {
 
     private final String scheme;
     private final String host;
@@ -60,7 +66,8 @@ public class LoggedRequest implements Request {
     private final HttpHeaders headers;
     private final Map<String, Cookie> cookies;
     private final Map<String, QueryParameter> queryParams;
-    private final byte[] body;
+    private byte[] body;
+    private final Request bodySource;
     private final boolean isBrowserProxyRequest;
     private final Date loggedDate;
     private final Collection<Part> multiparts;
@@ -75,7 +82,8 @@ public class LoggedRequest implements Request {
             ImmutableMap.copyOf(request.getCookies()),
             request.isBrowserProxyRequest(),
             new Date(),
-            request.getBody(),
+            null,
+            request,
             request.getParts()
         );
     }
@@ -107,6 +115,21 @@ public class LoggedRequest implements Request {
             Date loggedDate,
             byte[] body,
             Collection<Part> multiparts) {
+        this(url, absoluteUrl, method, clientIp, headers, cookies, isBrowserProxyRequest, loggedDate, body, null, multiparts);
+    }
+
+    private LoggedRequest(
+            String url,
+            String absoluteUrl,
+            RequestMethod method,
+            String clientIp,
+            HttpHeaders headers,
+            Map<String, Cookie> cookies,
+            boolean isBrowserProxyRequest,
+            Date loggedDate,
+            byte[] body,
+            Request bodySource,
+            Collection<Part> multiparts) {
         this.url = url;
 
         this.absoluteUrl = absoluteUrl;
@@ -124,6 +147,7 @@ public class LoggedRequest implements Request {
         this.clientIp = clientIp;
         this.method = method;
         this.body = body;
+        this.bodySource = bodySource;
         this.headers = headers;
         this.cookies = cookies;
         this.queryParams = splitQueryFromUrl(url);
@@ -211,19 +235,79 @@ public class LoggedRequest implements Request {
 
     @Override
     public byte[] getBody() {
+        if (body == null && bodySource != null) {
+            body = bodySource.getBody();
+        }
+
         return body;
     }
 
+    @Override
+    @JsonIgnore
+    public InputStream getBodyStream() {
+        if (body == null && bodySource != null) {
+            return RequestBodies.streamOf(bodySource);
+        }
+
+        return body != null ? new ByteArrayInputStream(body) : null;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isBodyInMemory() {
+        return body != null || bodySource == null || RequestBodies.isInMemory(bodySource);
+    }
+
     @Override
     @JsonProperty("body")
     public String getBodyAsString() {
-        return stringFromBytes(body, encodingFromContentTypeHeaderOrUtf8());
+        return stringFromBytes(getBody(), encodingFromContentTypeHeaderOrUtf8());
     }
 
     @Override
     @JsonProperty("bodyAsBase64")
     public String getBodyAsBase64() {
-        return encodeBase64(body);
+        return encodeBase64(getBody());
+    }
+
+    /**
+     * A request created via {@link #createFrom(Request)} only reads the body of the live request when asked for it.
+     * This returns a copy that holds at most {@code maxBodySize} bytes of the body itself, so is safe to keep
+     * after the live request has completed. Where the body hasn't already been read, only the retained
+     * bytes are read from it.
+     */
+    public LoggedRequest detach(Limit maxBodySize) {
+        if (bodySource == null && (body == null || !maxBodySize.isExceededBy(body.length))) {
+            return this;
+        }
+
+        return new LoggedRequest(
+            url,
+            absoluteUrl,
+            method,
+            clientIp,
+            headers,
+            cookies,
+            isBrowserProxyRequest,
+            loggedDate,
+            bodyUpTo(maxBodySize),
+            multiparts
+        );
+    }
+
+    private byte[] bodyUpTo(Limit maxSize) {
+        if (body != null || maxSize.isUnlimited()) {
+            byte[] fullBody = getBody();
+            return fullBody != null && maxSize.isExceededBy(fullBody.length) ?
+                Arrays.copyOf(fullBody, maxSize.getValue()) :
+                fullBody;
+        }
+
+        try (InputStream stream = RequestBodies.streamOf(bodySource)) {
+            return stream != null ? ByteStreams.toByteArray(ByteStreams.limit(stream, maxSize.getValue())) : null;
+        } catch (IOException e) {
+            return throwUnchecked(e, byte[].class);
+        }
     }
 
     @Override
@@ -18,11 +18,12 @@ package com.github.tomakehurst.wiremock.verification.diff;
 import com.github.tomakehurst.wiremock.http.*;
 import com.google.common.base.Optional;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
-public class EmptyToStringRequestWrapper implements Request {
+public class EmptyToStringRequestWrapper implements Request, StreamableRequest {
 
     private final Request target;
 
@@ -110,6 +111,16 @@ public class EmptyToStringRequestWrapper implements Request {
         return target.getBody();
     }
 
+    @Override
+    public InputStream getBodyStream() {
+        return RequestBodies.streamOf(target);
+    }
+
+    @Override
+    public boolean isBodyInMemory() {
+        return RequestBodies.isInMemory(target);
+    }
+
     @Override
     public String getBodyAsString() {
         return target.getBodyAsString();
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+
+public class AdminPortAcceptanceTest {
+
+    private static final int STUB_THREADS = 10;
+    private static final int SLOW_DELAY = 3000;
+
+    @Rule
+    public WireMockRule wm = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .dynamicAdminPort()
+            .containerThreads(STUB_THREADS),
+            false);
+
+    WireMockTestClient stubClient;
+    WireMockTestClient adminClient;
+    ExecutorService executor;
+
+    @Before
+    public void init() {
+        stubClient = new WireMockTestClient(wm.port());
+        adminClient = new WireMockTestClient(wm.adminPort());
+        executor = newCachedThreadPool();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void servesTheAdminApiOnlyOnTheAdminPort() {
+        assertThat(wm.adminPort(), is(not(wm.port())));
+
+        assertThat(adminClient.get("/__admin/mappings").statusCode(), is(200));
+        assertThat(stubClient.get("/__admin/mappings").statusCode(), is(404));
+    }
+
+    @Test
+    public void stillRendersTheNotMatchedPageOnTheStubPort() {
+        stubFor(get("/stubbed").willReturn(ok()));
+
+        WireMockResponse response = stubClient.get("/not-stubbed");
+
+        assertThat(response.statusCode(), is(404));
+        assertThat(response.content(), containsString("Request was not matched"));
+    }
+
+    @Test
+    public void servesStubsOnlyOnTheStubPort() {
+        stubFor(get("/things").willReturn(ok("Things")));
+
+        WireMockResponse response = stubClient.get("/things");
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Things"));
+
+        assertThat(adminClient.get("/things").statusCode(), is(404));
+    }
+
+    @Test
+    public void staticDslIsConfiguredForTheAdminPort() {
+        stubFor(get("/static-dsl").willReturn(ok()));
+
+        assertThat(stubClient.get("/static-dsl").statusCode(), is(200));
+        verify(getRequestedFor(urlEqualTo("/static-dsl")));
+    }
+
+    @Test
+    public void adminApiStaysResponsiveWhileAllStubThreadsAreBusy() throws Exception {
+        stubFor(get("/slow").willReturn(ok().withFixedDelay(SLOW_DELAY)));
+
+        List<Future<WireMockResponse>> slowResponses = new ArrayList<>();
+        for (int i = 0; i < STUB_THREADS * 2; i++) {
+            slowResponses.add(executor.submit(new Callable<WireMockResponse>() {
+                @Override
+                public WireMockResponse call() {
+                    return stubClient.get("/slow");
+                }
+            }));
+        }
+        Thread.sleep(200);
+
+        long start = System.currentTimeMillis();
+        assertThat(adminClient.get("/__admin/requests").statusCode(), is(200));
+        assertThat(System.currentTimeMillis() - start, lessThan(SLOW_DELAY / 2L));
+
+        for (Future<WireMockResponse> slowResponse: slowResponses) {
+            slowResponse.get();
+        }
+    }
+}
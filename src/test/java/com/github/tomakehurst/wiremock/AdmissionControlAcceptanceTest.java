@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.AdmissionControlStats;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.net.SocketException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class AdmissionControlAcceptanceTest {
+
+    private static final int SLOW_DELAY = 1000;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    WireMockServer wm;
+    WireMockTestClient testClient;
+    ExecutorService executor;
+
+    @Before
+    public void init() {
+        executor = newCachedThreadPool();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdown();
+        if (wm != null) {
+            wm.stop();
+        }
+    }
+
+    @Test
+    public void shedsStubRequestsWithA503WhenTheLimitIsReachedAndNothingMayQueue() throws Exception {
+        start(wireMockConfig().maxConcurrentStubRequests(1));
+
+        Future<WireMockResponse> slowResponse = getSlowResponseInBackground();
+
+        WireMockResponse shedResponse = testClient.get("/fast");
+        assertThat(shedResponse.statusCode(), is(503));
+        assertThat(shedResponse.content(), is(""));
+        assertThat(slowResponse.get().statusCode(), is(200));
+
+        AdmissionControlStats stats = wm.getAdmissionControlStats();
+        assertThat(stats.getShedQueueFull(), is(1L));
+        assertThat(stats.getAdmitted(), is(1L));
+    }
+
+    @Test
+    public void adminRequestsAreNotLimited() throws Exception {
+        start(wireMockConfig().maxConcurrentStubRequests(1));
+
+        Future<WireMockResponse> slowResponse = getSlowResponseInBackground();
+
+        assertThat(testClient.get("/__admin/mappings").statusCode(), is(200));
+        assertThat(testClient.get("/__admin/admission-control").statusCode(), is(200));
+        slowResponse.get();
+    }
+
+    @Test
+    public void queuedStubRequestsAreHandledOnceASlotIsFree() throws Exception {
+        start(wireMockConfig()
+                .maxConcurrentStubRequests(1)
+                .maxQueuedStubRequests(1)
+                .stubRequestQueueTimeout(SLOW_DELAY * 5));
+
+        Future<WireMockResponse> slowResponse = getSlowResponseInBackground();
+
+        assertThat(testClient.get("/fast").statusCode(), is(200));
+        assertThat(slowResponse.get().statusCode(), is(200));
+        assertThat(wm.getAdmissionControlStats().getShed(), is(0L));
+    }
+
+    @Test
+    public void shedsQueuedStubRequestsThatWaitLongerThanTheQueueTimeout() throws Exception {
+        start(wireMockConfig()
+                .maxConcurrentStubRequests(1)
+                .maxQueuedStubRequests(1)
+                .stubRequestQueueTimeout(100));
+
+        Future<WireMockResponse> slowResponse = getSlowResponseInBackground();
+
+        assertThat(testClient.get("/fast").statusCode(), is(503));
+        slowResponse.get();
+        assertThat(wm.getAdmissionControlStats().getShedQueueTimeout(), is(1L));
+    }
+
+    @Test
+    public void appliesTheConfiguredFaultToShedStubRequests() throws Exception {
+        start(wireMockConfig()
+                .maxConcurrentStubRequests(1)
+                .overloadFault(Fault.CONNECTION_RESET_BY_PEER));
+
+        getSlowResponseInBackground();
+
+        exception.expectCause(instanceOf(SocketException.class));
+        testClient.get("/fast");
+    }
+
+    @Test
+    public void releasesSlotsWhenDelayedResponsesAreSentAsynchronously() throws Exception {
+        // The slot is released just after the response is sent, so the next request may briefly have to queue
+        start(wireMockConfig()
+                .maxConcurrentStubRequests(1)
+                .maxQueuedStubRequests(1)
+                .stubRequestQueueTimeout(SLOW_DELAY)
+                .asynchronousResponseEnabled(true));
+        wm.stubFor(get("/delayed").willReturn(ok().withFixedDelay(10)));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(testClient.get("/delayed").statusCode(), is(200));
+        }
+
+        long deadline = System.currentTimeMillis() + SLOW_DELAY;
+        while (wm.getAdmissionControlStats().getActive() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        AdmissionControlStats stats = wm.getAdmissionControlStats();
+        assertThat(stats.getAdmitted(), is(5L));
+        assertThat(stats.getShed(), is(0L));
+        assertThat(stats.getActive(), is(0));
+    }
+
+    @Test
+    public void reportsNoLimitsWhenAdmissionControlIsDisabled() {
+        start(wireMockConfig());
+
+        AdmissionControlStats stats = WireMock.create().port(wm.port()).build().getAdmissionControlStats();
+        assertThat(stats.getMaxConcurrentRequests(), is(0));
+        assertThat(stats.getShed(), is(0L));
+    }
+
+    private void start(WireMockConfiguration options) {
+        wm = new WireMockServer(options.dynamicPort());
+        wm.start();
+        testClient = new WireMockTestClient(wm.port());
+        wm.stubFor(get("/slow").willReturn(ok().withFixedDelay(SLOW_DELAY)));
+        wm.stubFor(get("/fast").willReturn(ok()));
+    }
+
+    private Future<WireMockResponse> getSlowResponseInBackground() throws InterruptedException {
+        Future<WireMockResponse> future = executor.submit(new Callable<WireMockResponse>() {
+            @Override
+            public WireMockResponse call() {
+                return testClient.get("/slow");
+            }
+        });
+
+        while (wm.getAdmissionControlStats().getActive() < 1) {
+            Thread.sleep(10);
+        }
+
+        return future;
+    }
+}
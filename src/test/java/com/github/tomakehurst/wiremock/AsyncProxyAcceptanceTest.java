@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.google.common.base.Stopwatch;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+
+public class AsyncProxyAcceptanceTest {
+
+    private static final int CONTAINER_THREADS = 20;
+    private static final int ORIGIN_DELAY = 1000;
+
+    @Rule
+    public WireMockRule origin = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .containerThreads(200));
+
+    @Rule
+    public WireMockRule proxy = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .containerThreads(CONTAINER_THREADS)
+            .asynchronousProxyingEnabled(true), false);
+
+    WireMockTestClient testClient;
+
+    @Before
+    public void init() {
+        testClient = new WireMockTestClient(proxy.port());
+    }
+
+    @Test
+    public void proxiesRequestHeadersAndAddsAdditionalOnes() {
+        origin.stubFor(get("/headers").willReturn(ok("From origin").withHeader("X-Origin", "yes")));
+        proxy.stubFor(get("/headers").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withAdditionalRequestHeader("X-Extra", "added")
+                .withAdditionalRequestHeader("x-replaced", "new")));
+
+        WireMockResponse response = testClient.get("/headers",
+                withHeader("X-Client", "abc"),
+                withHeader("X-Replaced", "old"));
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("From origin"));
+        assertThat(response.firstHeader("X-Origin"), is("yes"));
+        origin.verify(getRequestedFor(urlEqualTo("/headers"))
+                .withHeader("X-Client", equalTo("abc"))
+                .withHeader("X-Extra", equalTo("added"))
+                .withHeader("X-Replaced", equalTo("new")));
+    }
+
+    @Test
+    public void proxiesRequestBodies() {
+        origin.stubFor(post("/body").willReturn(aResponse().withStatus(201)));
+        proxy.stubFor(post("/body").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        WireMockResponse response = testClient.postWithBody("/body", "Request body", "text/plain", "utf-8");
+
+        assertThat(response.statusCode(), is(201));
+        origin.verify(postRequestedFor(urlEqualTo("/body")).withRequestBody(equalTo("Request body")));
+    }
+
+    @Test
+    public void journalsAndAppliesDelaysToAsynchronouslyProxiedResponses() {
+        origin.stubFor(get("/delayed").willReturn(ok("Delayed")));
+        proxy.stubFor(get("/delayed").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withFixedDelay(200)));
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        WireMockResponse response = testClient.get("/delayed");
+
+        assertThat(response.content(), is("Delayed"));
+        assertThat(stopwatch.elapsed(MILLISECONDS) >= 200, is(true));
+        assertThat(proxy.getAllServeEvents().get(0).getResponse().getBodyAsString(), is("Delayed"));
+    }
+
+    @Test
+    public void returnsAServerErrorWhenTheTargetIsUnreachable() {
+        proxy.stubFor(get("/unreachable").willReturn(aResponse().proxiedFrom("http://localhost:1")));
+
+        WireMockResponse response = testClient.get("/unreachable");
+
+        assertThat(response.statusCode(), is(500));
+        assertThat(response.content(), startsWith("Network failure trying to make a proxied request from WireMock to http://localhost:1/unreachable"));
+    }
+
+    @Test
+    public void stopsTheAsyncClientThreadsWithTheServerAndStartsThemAgainOnRestart() throws Exception {
+        int threadsBeforeProxying = asyncProxyThreadCount();
+        origin.stubFor(get("/restart").willReturn(ok("Restarted")));
+        proxy.stubFor(get("/restart").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        assertThat(testClient.get("/restart").content(), is("Restarted"));
+        assertThat(asyncProxyThreadCount(), greaterThan(threadsBeforeProxying));
+
+        proxy.stop();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        while (asyncProxyThreadCount() > threadsBeforeProxying && stopwatch.elapsed(MILLISECONDS) < 5000) {
+            Thread.sleep(50);
+        }
+        assertThat(asyncProxyThreadCount(), is(threadsBeforeProxying));
+
+        proxy.start();
+        assertThat(new WireMockTestClient(proxy.port()).get("/restart").content(), is("Restarted"));
+    }
+
+    private static int asyncProxyThreadCount() {
+        int count = 0;
+        for (Thread thread: Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("wiremock-async-proxy")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void servesMoreConcurrentSlowProxiedRequestsThanThereAreContainerThreads() throws Exception {
+        final int requestCount = CONTAINER_THREADS * 3;
+        origin.stubFor(get("/slow").willReturn(ok("Slow").withFixedDelay(ORIGIN_DELAY)));
+        proxy.stubFor(get("/slow").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        ExecutorService executor = newFixedThreadPool(requestCount);
+        try {
+            List<Callable<WireMockResponse>> requests = new ArrayList<>();
+            for (int i = 0; i < requestCount; i++) {
+                requests.add(new Callable<WireMockResponse>() {
+                    @Override
+                    public WireMockResponse call() {
+                        return testClient.get("/slow");
+                    }
+                });
+            }
+
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            for (Future<WireMockResponse> response: executor.invokeAll(requests)) {
+                assertThat(response.get().statusCode(), is(200));
+            }
+
+            // Blocking on the container threads would need at least three rounds of the origin's delay
+            assertThat(stopwatch.elapsed(MILLISECONDS), lessThan(3L * ORIGIN_DELAY));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.hamcrest.Matcher;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+
+public class NetworkTrafficCaptureAcceptanceTest {
+
+    @ClassRule
+    public static TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Rule
+    public WireMockRule wm = new WireMockRule(options()
+            .dynamicPort()
+            .captureNetworkTraffic(new File(tempDir.getRoot(), "traffic").getAbsolutePath()));
+
+    @Test
+    public void writesRequestsAndResponsesToTheCaptureDirectory() throws Exception {
+        wm.stubFor(get(urlEqualTo("/captured")).willReturn(aResponse().withBody("Captured body")));
+
+        new WireMockTestClient(wm.port()).get("/captured");
+
+        assertThat(awaitCapturedTraffic(containsString("Captured body")), allOf(
+                containsString(" OPENED "),
+                containsString("GET /captured HTTP/1.1"),
+                containsString("Captured body")
+        ));
+    }
+
+    @Test
+    public void writesOutAllCapturedTrafficWhenTheServerStops() throws Exception {
+        wm.stubFor(get(urlEqualTo("/stopping")).willReturn(aResponse().withBody("Body before stopping")));
+
+        new WireMockTestClient(wm.port()).get("/stopping");
+        wm.stop();
+
+        assertThat(capturedTraffic(), containsString("Body before stopping"));
+    }
+
+    private static String awaitCapturedTraffic(Matcher<String> matcher) throws Exception {
+        String content = "";
+        for (int i = 0; i < 50 && !matcher.matches(content); i++) {
+            Thread.sleep(100);
+            content = capturedTraffic();
+        }
+        return content;
+    }
+
+    private static String capturedTraffic() throws Exception {
+        File file = new File(new File(tempDir.getRoot(), "traffic"), "network-traffic.log");
+        return file.exists() ? new String(Files.readAllBytes(file.toPath()), UTF_8) : "";
+    }
+}
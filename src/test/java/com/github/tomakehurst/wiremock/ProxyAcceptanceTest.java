@@ -23,10 +23,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 
+import com.github.tomakehurst.wiremock.admin.model.GetProxyConnectionPoolStatsResult;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.client.WireMockBuilder;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.ConnectionPoolStats;
 import com.github.tomakehurst.wiremock.testsupport.TestHttpHeader;
 import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
@@ -48,6 +51,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
 import static com.google.common.collect.Iterables.getLast;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.http.entity.ContentType.TEXT_PLAIN;
@@ -500,6 +504,22 @@ public class ProxyAcceptanceTest {
         assertThat(allowOriginHeaderValues.size(), is(0));
     }
 
+    @Test
+    public void reportsPooledConnectionsForEachProxyTarget() {
+        initWithDefaultConfig();
+        register200StubOnProxyAndTarget("/pooled");
+
+        testClient.get("/pooled");
+
+        GetProxyConnectionPoolStatsResult stats = proxyingServiceAdmin.getProxyConnectionPoolStats();
+        ConnectionPoolStats routeStats = getOnlyElement(stats.getRoutes());
+        assertThat(routeStats.getRoute(), is(targetServiceBaseUrl));
+        assertThat(routeStats.getLeased(), is(0));
+        assertThat(routeStats.getAvailable(), is(1));
+        assertThat(routeStats.getMax(), is(ProxyConnectionPoolSettings.DEFAULT_MAX_CONNECTIONS));
+        assertThat(stats.getTotal().getAvailable(), is(1));
+    }
+
     private void register200StubOnProxyAndTarget(String url) {
         targetServiceAdmin.register(get(urlEqualTo(url)).willReturn(aResponse().withStatus(200)));
         proxyingServiceAdmin.register(get(urlEqualTo(url)).willReturn(aResponse().proxiedFrom(targetServiceBaseUrl)));
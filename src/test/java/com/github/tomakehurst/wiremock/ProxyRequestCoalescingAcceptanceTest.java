@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.TestHttpHeader;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ProxyRequestCoalescingAcceptanceTest {
+
+    private static final int CONCURRENT_REQUESTS = 10;
+    private static final int ORIGIN_DELAY = 1000;
+
+    @Rule
+    public WireMockRule origin = new WireMockRule(wireMockConfig().dynamicPort());
+
+    // Blocked waiters hold a container thread each, so there must be enough for all of them to arrive together
+    @Rule
+    public WireMockRule proxy = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .containerThreads(CONCURRENT_REQUESTS * 3));
+
+    WireMockTestClient testClient;
+    ExecutorService executor;
+
+    @Before
+    public void init() {
+        testClient = new WireMockTestClient(proxy.port());
+        executor = newCachedThreadPool();
+        origin.stubFor(any(urlPathMatching("/coalesced.*")).willReturn(ok("From origin").withFixedDelay(ORIGIN_DELAY)));
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void concurrentIdenticalGetsShareOneUpstreamCall() throws Exception {
+        proxy.stubFor(get("/coalesced").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withRequestCoalescing()));
+
+        for (WireMockResponse response: sendConcurrently(CONCURRENT_REQUESTS, "GET", "/coalesced")) {
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.content(), is("From origin"));
+        }
+
+        origin.verify(1, getRequestedFor(urlEqualTo("/coalesced")));
+        assertThat(proxy.getAllServeEvents().size(), is(CONCURRENT_REQUESTS));
+    }
+
+    @Test
+    public void requestsWithDifferentKeyHeaderValuesAreNotShared() throws Exception {
+        proxy.stubFor(get("/coalesced").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withRequestCoalescing("Accept")));
+
+        sendConcurrently(4, "GET", "/coalesced", withHeader("Accept", "text/plain"));
+        sendConcurrently(4, "GET", "/coalesced", withHeader("Accept", "application/json"));
+
+        origin.verify(1, getRequestedFor(urlEqualTo("/coalesced")).withHeader("Accept", equalTo("text/plain")));
+        origin.verify(1, getRequestedFor(urlEqualTo("/coalesced")).withHeader("Accept", equalTo("application/json")));
+    }
+
+    @Test
+    public void requestsForDifferentUrlsAreNotShared() throws Exception {
+        proxy.stubFor(get(urlPathMatching("/coalesced.*")).willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withRequestCoalescing()));
+
+        sendConcurrently(3, "GET", "/coalesced?page=1");
+        sendConcurrently(3, "GET", "/coalesced?page=2");
+
+        origin.verify(1, getRequestedFor(urlEqualTo("/coalesced?page=1")));
+        origin.verify(1, getRequestedFor(urlEqualTo("/coalesced?page=2")));
+    }
+
+    @Test
+    public void requestsWithUnsafeMethodsAreNeverShared() throws Exception {
+        proxy.stubFor(delete("/coalesced").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withRequestCoalescing()));
+
+        sendConcurrently(3, "DELETE", "/coalesced");
+
+        origin.verify(3, deleteRequestedFor(urlEqualTo("/coalesced")));
+    }
+
+    @Test
+    public void sharesUpstreamCallsMadeByTheNonBlockingClient() throws Exception {
+        WireMockServer asyncProxy = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .asynchronousProxyingEnabled(true));
+        asyncProxy.start();
+        try {
+            asyncProxy.stubFor(get("/coalesced").willReturn(aResponse()
+                    .proxiedFrom(origin.baseUrl())
+                    .withRequestCoalescing()));
+            testClient = new WireMockTestClient(asyncProxy.port());
+
+            for (WireMockResponse response: sendConcurrently(CONCURRENT_REQUESTS, "GET", "/coalesced")) {
+                assertThat(response.content(), is("From origin"));
+            }
+
+            origin.verify(1, getRequestedFor(urlEqualTo("/coalesced")));
+        } finally {
+            asyncProxy.stop();
+        }
+    }
+
+    private List<WireMockResponse> sendConcurrently(int count, final String method, final String url, final TestHttpHeader... headers) throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(count);
+        List<Future<WireMockResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(new Callable<WireMockResponse>() {
+                @Override
+                public WireMockResponse call() throws Exception {
+                    barrier.await();
+                    return testClient.request(method, url, headers);
+                }
+            }));
+        }
+
+        List<WireMockResponse> responses = new ArrayList<>();
+        for (Future<WireMockResponse> future: futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.testsupport.TestHttpHeader.withHeader;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class ProxyResponseCacheAcceptanceTest {
+
+    @Rule
+    public WireMockRule origin = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule
+    public TemporaryFolder diskCacheFolder = new TemporaryFolder();
+
+    WireMockServer proxy;
+    WireMockTestClient testClient;
+
+    @Before
+    public void init() {
+        proxy = new WireMockServer(wireMockConfig().dynamicPort().cacheProxiedResponses(true));
+        proxy.start();
+        testClient = new WireMockTestClient(proxy.port());
+        proxy.stubFor(any(anyUrl()).willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+    }
+
+    @After
+    public void stop() {
+        proxy.stop();
+    }
+
+    @Test
+    public void servesFreshResponsesFromTheCache() {
+        origin.stubFor(get("/cached").willReturn(ok("Cached content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cached");
+        WireMockResponse response = testClient.get("/cached");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Cached content"));
+        assertThat(response.firstHeader("Age"), notNullValue());
+        origin.verify(1, getRequestedFor(urlEqualTo("/cached")));
+    }
+
+    @Test
+    public void doesNotCacheResponsesMarkedNoStore() {
+        origin.stubFor(get("/no-store").willReturn(ok("Not cached").withHeader("Cache-Control", "no-store, max-age=60")));
+
+        testClient.get("/no-store");
+        testClient.get("/no-store");
+
+        origin.verify(2, getRequestedFor(urlEqualTo("/no-store")));
+    }
+
+    @Test
+    public void doesNotCacheResponsesToOtherMethods() {
+        origin.stubFor(post("/posted").willReturn(ok("Posted").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.postWithBody("/posted", "one", "text/plain", "utf-8");
+        testClient.postWithBody("/posted", "two", "text/plain", "utf-8");
+
+        origin.verify(2, postRequestedFor(urlEqualTo("/posted")));
+    }
+
+    @Test
+    public void revalidatesStaleResponsesWithTheirETag() {
+        origin.stubFor(get("/etag").willReturn(ok("Tagged content")
+            .withHeader("Cache-Control", "no-cache")
+            .withHeader("ETag", "\"v1\"")));
+        origin.stubFor(get("/etag").withHeader("If-None-Match", equalTo("\"v1\"")).willReturn(aResponse()
+            .withStatus(304)
+            .withHeader("ETag", "\"v1\"")));
+
+        testClient.get("/etag");
+        WireMockResponse response = testClient.get("/etag");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(response.content(), is("Tagged content"));
+        origin.verify(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", absent()));
+        origin.verify(1, getRequestedFor(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    public void answersClientConditionalRequestsFromTheCache() {
+        origin.stubFor(get("/conditional").willReturn(ok("Tagged content")
+            .withHeader("Cache-Control", "max-age=60")
+            .withHeader("ETag", "W/\"v1\"")));
+
+        testClient.get("/conditional");
+        WireMockResponse response = testClient.get("/conditional", withHeader("If-None-Match", "\"v1\""));
+
+        assertThat(response.statusCode(), is(304));
+        origin.verify(1, getRequestedFor(urlEqualTo("/conditional")));
+    }
+
+    @Test
+    public void keepsSeparateEntriesForEachVariant() {
+        origin.stubFor(get("/varied").withHeader("Accept", equalTo("text/plain")).willReturn(ok("Text")
+            .withHeader("Cache-Control", "max-age=60")
+            .withHeader("Vary", "Accept")));
+        origin.stubFor(get("/varied").withHeader("Accept", equalTo("application/json")).willReturn(ok("{}")
+            .withHeader("Cache-Control", "max-age=60")
+            .withHeader("Vary", "Accept")));
+
+        testClient.get("/varied", withHeader("Accept", "text/plain"));
+        testClient.get("/varied", withHeader("Accept", "application/json"));
+
+        assertThat(testClient.get("/varied", withHeader("Accept", "text/plain")).content(), is("Text"));
+        assertThat(testClient.get("/varied", withHeader("Accept", "application/json")).content(), is("{}"));
+        origin.verify(2, getRequestedFor(urlEqualTo("/varied")));
+    }
+
+    @Test
+    public void bypassesTheCacheWhenTheClientAsksForRevalidation() {
+        origin.stubFor(get("/cached").willReturn(ok("Cached content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cached");
+        testClient.get("/cached", withHeader("Cache-Control", "no-cache"));
+
+        origin.verify(2, getRequestedFor(urlEqualTo("/cached")));
+    }
+
+    @Test
+    public void cachesForTheStubTtlRegardlessOfResponseHeaders() {
+        proxy.stubFor(get("/ttl").willReturn(aResponse()
+            .proxiedFrom(origin.baseUrl())
+            .withResponseCacheTtl(60)));
+        origin.stubFor(get("/ttl").willReturn(ok("Uncacheable").withHeader("Cache-Control", "no-store")));
+
+        testClient.get("/ttl");
+        assertThat(testClient.get("/ttl").content(), is("Uncacheable"));
+
+        origin.verify(1, getRequestedFor(urlEqualTo("/ttl")));
+    }
+
+    @Test
+    public void doesNotCacheForStubsWithCachingDisabled() {
+        proxy.stubFor(get("/uncached").willReturn(aResponse()
+            .proxiedFrom(origin.baseUrl())
+            .withoutResponseCaching()));
+        origin.stubFor(get("/uncached").willReturn(ok("Content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/uncached");
+        testClient.get("/uncached");
+
+        origin.verify(2, getRequestedFor(urlEqualTo("/uncached")));
+    }
+
+    @Test
+    public void resetClearsTheCache() {
+        origin.stubFor(get("/cached").willReturn(ok("Cached content").withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/cached");
+        proxy.resetAll();
+        proxy.stubFor(any(anyUrl()).willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+        testClient.get("/cached");
+
+        origin.verify(2, getRequestedFor(urlEqualTo("/cached")));
+    }
+
+    @Test
+    public void keepsResponsesEvictedFromMemoryOnDisk() throws Exception {
+        File diskCache = diskCacheFolder.newFolder();
+        proxy.stop();
+        proxy = new WireMockServer(wireMockConfig()
+            .dynamicPort()
+            .cacheProxiedResponses(true)
+            .proxyResponseCacheMaxSize(1000)
+            .proxyResponseCacheDirectory(diskCache.getAbsolutePath()));
+        proxy.start();
+        testClient = new WireMockTestClient(proxy.port());
+        proxy.stubFor(any(anyUrl()).willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        String largeBody = new String(new char[800]).replace('\0', 'x');
+        origin.stubFor(get(urlPathMatching("/large/.*")).willReturn(ok(largeBody).withHeader("Cache-Control", "max-age=60")));
+
+        testClient.get("/large/1");
+        testClient.get("/large/2");
+
+        assertThat(diskCache.listFiles().length, greaterThan(0));
+        assertThat(testClient.get("/large/1").content(), is(largeBody));
+        assertThat(testClient.get("/large/2").content(), is(largeBody));
+        origin.verify(1, getRequestedFor(urlEqualTo("/large/1")));
+        origin.verify(1, getRequestedFor(urlEqualTo("/large/2")));
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestListener;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.Options.ChunkedEncodingPolicy.NEVER;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ProxyStreamingAcceptanceTest {
+
+    private static final int CAPTURE_LIMIT = 1024;
+    private static final byte[] LARGE_BODY = largeBinaryBody();
+
+    @Rule
+    public WireMockRule origin = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Rule
+    public WireMockRule proxy = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .streamProxiedResponses(true)
+            .proxiedResponseCaptureLimit(CAPTURE_LIMIT)
+            .extensions(new PassThroughTransformer()));
+
+    WireMockTestClient testClient;
+
+    @Before
+    public void init() {
+        testClient = new WireMockTestClient(proxy.port());
+        origin.stubFor(get("/large").willReturn(ok().withBody(LARGE_BODY)));
+    }
+
+    @Test
+    public void streamsTheWholeBodyAndJournalsOnlyTheCapturedPrefix() {
+        proxy.stubFor(get("/large").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        WireMockResponse response = testClient.get("/large");
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(Arrays.equals(response.binaryContent(), LARGE_BODY), is(true));
+
+        ServeEvent serveEvent = proxy.getAllServeEvents().get(0);
+        assertThat(serveEvent.getResponse().getBody(), is(Arrays.copyOf(LARGE_BODY, CAPTURE_LIMIT)));
+    }
+
+    @Test
+    public void sendsTheStartOfTheBodyBeforeTheTargetHasFinishedSendingIt() throws Exception {
+        final CountDownLatch clientHasReadFirstPart = new CountDownLatch(1);
+        HttpServer stallingOrigin = HttpServer.create(new InetSocketAddress(0), 0);
+        stallingOrigin.createContext("/stalls", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream out = exchange.getResponseBody();
+                out.write("first part ".getBytes(UTF_8));
+                out.flush();
+                try {
+                    clientHasReadFirstPart.await(10, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write("second part".getBytes(UTF_8));
+                out.close();
+            }
+        });
+        stallingOrigin.start();
+        try {
+            proxy.stubFor(get("/stalls").willReturn(aResponse()
+                    .proxiedFrom("http://localhost:" + stallingOrigin.getAddress().getPort())));
+
+            HttpURLConnection connection = (HttpURLConnection) new URL(proxy.baseUrl() + "/stalls").openConnection();
+            connection.setReadTimeout(5000);
+            try (InputStream body = connection.getInputStream()) {
+                byte[] firstPart = new byte["first part ".length()];
+                ByteStreams.readFully(body, firstPart);
+                assertThat(new String(firstPart, UTF_8), is("first part "));
+
+                clientHasReadFirstPart.countDown();
+                assertThat(new String(ByteStreams.toByteArray(body), UTF_8), is("second part"));
+            }
+
+            ServeEvent serveEvent = proxy.getAllServeEvents().get(0);
+            assertThat(serveEvent.getResponse().getBodyAsString(), is("first part second part"));
+        } finally {
+            clientHasReadFirstPart.countDown();
+            stallingOrigin.stop(0);
+        }
+    }
+
+    @Test
+    public void buffersTheBodyWhenAResponseTransformerApplies() {
+        proxy.stubFor(get("/large").willReturn(aResponse()
+                .proxiedFrom(origin.baseUrl())
+                .withTransformers(PassThroughTransformer.NAME)));
+
+        WireMockResponse response = testClient.get("/large");
+
+        assertThat(Arrays.equals(response.binaryContent(), LARGE_BODY), is(true));
+
+        ServeEvent serveEvent = proxy.getAllServeEvents().get(0);
+        assertThat(serveEvent.getResponse().getBody().length, is(LARGE_BODY.length));
+    }
+
+    @Test
+    public void buffersTheBodyWhileRecording() {
+        proxy.startRecording(recordSpec()
+                .forTarget(origin.baseUrl())
+                .extractBinaryBodiesOver(LARGE_BODY.length * 2)
+                .makeStubsPersistent(false));
+
+        WireMockResponse response = testClient.get("/large");
+
+        assertThat(Arrays.equals(response.binaryContent(), LARGE_BODY), is(true));
+
+        List<StubMapping> recordedStubs = proxy.stopRecording().getStubMappings();
+        assertThat(recordedStubs.get(0).getResponse().getByteBody().length, is(LARGE_BODY.length));
+    }
+
+    @Test
+    public void buffersTheBodyForRequestListeners() {
+        final List<Integer> listenedBodyLengths = new ArrayList<>();
+        proxy.addMockServiceRequestListener(new RequestListener() {
+            @Override
+            public void requestReceived(Request request, Response response) {
+                listenedBodyLengths.add(response.getBody().length);
+            }
+        });
+        proxy.stubFor(get("/large").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+        WireMockResponse response = testClient.get("/large");
+
+        assertThat(Arrays.equals(response.binaryContent(), LARGE_BODY), is(true));
+        assertThat(listenedBodyLengths, is(Collections.singletonList(LARGE_BODY.length)));
+    }
+
+    @Test
+    public void setsTheContentLengthOfAStreamedBodyWhenChunkedEncodingIsDisabled() {
+        WireMockServer unchunkedProxy = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .streamProxiedResponses(true)
+                .proxiedResponseCaptureLimit(CAPTURE_LIMIT)
+                .useChunkedTransferEncoding(NEVER));
+        unchunkedProxy.start();
+        try {
+            unchunkedProxy.stubFor(get("/large").willReturn(aResponse().proxiedFrom(origin.baseUrl())));
+
+            WireMockResponse response = new WireMockTestClient(unchunkedProxy.port()).get("/large");
+
+            assertThat(response.firstHeader("Content-Length"), is(String.valueOf(LARGE_BODY.length)));
+            assertThat(Arrays.equals(response.binaryContent(), LARGE_BODY), is(true));
+        } finally {
+            unchunkedProxy.stop();
+        }
+    }
+
+    private static byte[] largeBinaryBody() {
+        byte[] body = new byte[CAPTURE_LIMIT * 200];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i % 251);
+        }
+        return body;
+    }
+
+    public static class PassThroughTransformer extends ResponseTransformer {
+
+        static final String NAME = "pass-through";
+
+        @Override
+        public Response transform(Request request, Response response, FileSource files, Parameters parameters) {
+            return response;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
+import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class RequestBodySpoolingAcceptanceTest {
+
+    private static final int SPOOL_THRESHOLD = 1024;
+    private static final int LOGGED_REQUEST_SIZE = 100;
+
+    @Rule
+    public WireMockRule wm = new WireMockRule(wireMockConfig()
+            .dynamicPort()
+            .requestBodySpoolThreshold(SPOOL_THRESHOLD)
+            .maxLoggedRequestSize(LOGGED_REQUEST_SIZE),
+            false);
+
+    WireMockTestClient testClient;
+
+    @Before
+    public void init() {
+        testClient = new WireMockTestClient(wm.port());
+    }
+
+    @Test
+    public void matchesBinaryBodyLargerThanTheSpoolThreshold() {
+        byte[] body = largeBinaryBody();
+        wm.stubFor(post("/binary").withRequestBody(binaryEqualTo(body)).willReturn(ok()));
+
+        WireMockResponse response = testClient.post("/binary", new ByteArrayEntity(body));
+
+        assertThat(response.statusCode(), is(200));
+    }
+
+    @Test
+    public void doesNotMatchBinaryBodyThatDiffersAfterTheSpoolThreshold() {
+        byte[] body = largeBinaryBody();
+        wm.stubFor(post("/binary").withRequestBody(binaryEqualTo(body)).willReturn(ok()));
+
+        byte[] differentBody = largeBinaryBody();
+        differentBody[differentBody.length - 1]++;
+        WireMockResponse response = testClient.post("/binary", new ByteArrayEntity(differentBody));
+
+        assertThat(response.statusCode(), is(404));
+    }
+
+    @Test
+    public void matchesJsonPathAndStringPatternsAgainstBodyLargerThanTheSpoolThreshold() {
+        wm.stubFor(post("/json")
+                .withRequestBody(matchingJsonPath("$.items[?(@.id == 999)]"))
+                .withRequestBody(containing("\"last\": true"))
+                .willReturn(ok()));
+
+        WireMockResponse response = testClient.postJson("/json", largeJsonBody());
+
+        assertThat(response.statusCode(), is(200));
+    }
+
+    @Test
+    public void matchesGzippedBodyLargerThanTheSpoolThreshold() {
+        String body = repeat("request body ", 1000);
+        wm.stubFor(post("/gzip").withRequestBody(equalTo(body)).willReturn(ok()));
+
+        WireMockResponse response = testClient.post("/gzip",
+                new GzipCompressingEntity(new StringEntity(body, ContentType.TEXT_PLAIN)));
+
+        assertThat(response.statusCode(), is(200));
+    }
+
+    @Test
+    public void retainsOnlyTheConfiguredNumberOfRequestBodyBytesInTheJournal() {
+        wm.stubFor(post("/json").willReturn(ok()));
+
+        String body = largeJsonBody();
+        testClient.postJson("/json", body);
+
+        List<LoggedRequest> requests = wm.findAll(postRequestedFor(urlEqualTo("/json")));
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0).getBodyAsString(), is(body.substring(0, LOGGED_REQUEST_SIZE)));
+    }
+
+    @Test
+    public void retainsTheWholeSpooledBodyInTheJournalWhenNoLimitIsConfigured() {
+        WireMockServer unlimitedJournal = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .requestBodySpoolThreshold(SPOOL_THRESHOLD));
+        unlimitedJournal.start();
+        try {
+            unlimitedJournal.stubFor(post("/json").willReturn(ok()));
+
+            String body = largeJsonBody();
+            new WireMockTestClient(unlimitedJournal.port()).postJson("/json", body);
+
+            List<LoggedRequest> requests = unlimitedJournal.findAll(postRequestedFor(urlEqualTo("/json")));
+            assertThat(requests.size(), is(1));
+            assertThat(requests.get(0).getBodyAsString(), is(body));
+            unlimitedJournal.verify(postRequestedFor(urlEqualTo("/json")).withRequestBody(containing("\"last\": true")));
+        } finally {
+            unlimitedJournal.stop();
+        }
+    }
+
+    private static byte[] largeBinaryBody() {
+        byte[] body = new byte[SPOOL_THRESHOLD * 50];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i % 251);
+        }
+        return body;
+    }
+
+    private static String largeJsonBody() {
+        StringBuilder sb = new StringBuilder("{ \"items\": [");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("{ \"id\": ").append(i).append(" },");
+        }
+        return sb.append("{ \"id\": 999 } ], \"last\": true }").toString();
+    }
+}
@@ -15,18 +15,29 @@
  */
 package com.github.tomakehurst.wiremock;
 
+import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.TemplateCacheStats;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import com.github.tomakehurst.wiremock.testsupport.WireMatchers;
 import com.github.tomakehurst.wiremock.testsupport.WireMockResponse;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.Option;
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import com.jayway.jsonpath.spi.json.JsonSmartJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JsonSmartMappingProvider;
+import com.jayway.jsonpath.spi.mapper.MappingProvider;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.io.InputStream;
 import java.net.InetAddress;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -72,6 +83,55 @@ public class ResponseTemplatingAcceptanceTest {
 
             assertThat(client.get("/not-templated").content(), is("{{request.path.[0]}}"));
         }
+
+        @Test
+        public void parsesJsonRequestBodyOnceForStubMatchingAndTemplating() {
+            wm.stubFor(post(urlPathEqualTo("/json"))
+                    .withRequestBody(matchingJsonPath("$.id"))
+                    .willReturn(aResponse()
+                            .withBody("{{jsonPath request.body '$.id'}}")
+                            .withTransformers("response-template")));
+            wm.stubFor(post(urlPathEqualTo("/json")).withRequestBody(matchingJsonPath("$.missing")).willReturn(ok()));
+            wm.stubFor(post(urlPathEqualTo("/json")).withRequestBody(matchingJsonPath("$.other")).willReturn(ok()));
+
+            final CountingJsonProvider jsonProvider = new CountingJsonProvider();
+            Configuration.setDefaults(new Configuration.Defaults() {
+                public JsonProvider jsonProvider() {
+                    return jsonProvider;
+                }
+
+                public Set<Option> options() {
+                    return EnumSet.noneOf(Option.class);
+                }
+
+                public MappingProvider mappingProvider() {
+                    return new JsonSmartMappingProvider();
+                }
+            });
+            try {
+                assertThat(client.postJson("/json", "{ \"id\": \"abc\" }").content(), is("abc"));
+                assertThat(jsonProvider.parses, is(1));
+            } finally {
+                Configuration.setDefaults(null);
+            }
+        }
+    }
+
+    private static class CountingJsonProvider extends JsonSmartJsonProvider {
+
+        volatile int parses;
+
+        @Override
+        public Object parse(String json) {
+            parses++;
+            return super.parse(json);
+        }
+
+        @Override
+        public Object parse(InputStream jsonStream, String charset) {
+            parses++;
+            return super.parse(jsonStream, charset);
+        }
     }
 
     public static class Global {
@@ -131,6 +191,29 @@ public class ResponseTemplatingAcceptanceTest {
             assertThat(client.get("/templated/3").content(), is("3"));
         }
 
+        @Test
+        public void compilesTemplatesWhenStubCreatedAndReportsCacheStats() {
+            TemplateCacheStats initialStats = getTemplateCacheStats();
+
+            wm.stubFor(get(urlPathEqualTo("/templated"))
+                    .willReturn(aResponse()
+                            .withBody("{{request.path.[0]}}")));
+
+            TemplateCacheStats stats = getTemplateCacheStats();
+            assertThat(stats.getCompilations(), is(initialStats.getCompilations() + 1));
+            assertThat(stats.getHits(), is(initialStats.getHits()));
+
+            client.get("/templated");
+
+            stats = getTemplateCacheStats();
+            assertThat(stats.getCompilations(), is(initialStats.getCompilations() + 1));
+            assertThat(stats.getHits(), is(initialStats.getHits() + 1));
+        }
+
+        private TemplateCacheStats getTemplateCacheStats() {
+            return Json.read(client.get("/__admin/response-templates/cache").content(), TemplateCacheStats.class);
+        }
+
         @Test
         public void cacheIsClearedWhenStubEdited() {
             String url = "/templated/one/two";
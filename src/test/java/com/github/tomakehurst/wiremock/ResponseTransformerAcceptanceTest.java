@@ -19,12 +19,16 @@ import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.extension.Extension;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.extension.StreamingResponseTransformer;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.Response;
 import com.github.tomakehurst.wiremock.testsupport.WireMockTestClient;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -79,6 +83,15 @@ public class ResponseTransformerAcceptanceTest {
         assertThat(client.get("/response-transform-with-files").content(), endsWith("src" + File.separator + "test" + File.separator + "resources" + File.separator + "__files"  + File.separator + "plain-example.txt"));
     }
 
+    @Test
+    public void transformsResponseBodyAsStream() {
+        startWithExtensions(UpperCasingStreamingResponseTransformer.class);
+
+        wm.stubFor(get(urlEqualTo("/streaming-response-transform")).willReturn(aResponse().withBody("Original body")));
+
+        assertThat(client.get("/streaming-response-transform").content(), is("ORIGINAL BODY"));
+    }
+
     @SuppressWarnings("unchecked")
     private void startWithExtensions(Class<? extends Extension> extensionClasses) {
         wm = new WireMockServer(wireMockConfig().dynamicPort().extensions(extensionClasses));
@@ -167,4 +180,32 @@ public class ResponseTransformerAcceptanceTest {
             return true;
         }
     }
+
+    public static class UpperCasingStreamingResponseTransformer extends StreamingResponseTransformer {
+
+        @Override
+        public InputStream transformBody(Request request, InputStream body, FileSource files, Parameters parameters) {
+            return new FilterInputStream(body) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    return b == -1 ? b : Character.toUpperCase(b);
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int count = super.read(buffer, offset, length);
+                    for (int i = offset; i < offset + count; i++) {
+                        buffer[i] = (byte) Character.toUpperCase(buffer[i]);
+                    }
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public String getName() {
+            return "upper-casing-streaming-transformer";
+        }
+    }
 }
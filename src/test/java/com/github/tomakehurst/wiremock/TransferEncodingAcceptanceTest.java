@@ -22,6 +22,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Test;
 
+import java.io.File;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.ok;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -107,6 +109,22 @@ public class TransferEncodingAcceptanceTest {
         assertThat(response.firstHeader("Content-Length"), is(expectedContentLength));
     }
 
+    @Test
+    public void sendsContentLengthOfBodyFileWhenTransferEncodingChunkedPolicyIsNever() {
+        startWithChunkedEncodingPolicy(Options.ChunkedEncodingPolicy.NEVER);
+
+        final String url = "/content-length-body-file";
+
+        wm.stubFor(get(url).willReturn(ok().withBodyFile("plain-example.txt")));
+
+        WireMockResponse response = testClient.get(url);
+        assertThat(response.statusCode(), is(200));
+
+        String expectedContentLength = String.valueOf(new File(filePath("test-file-root/__files/plain-example.txt")).length());
+        assertThat(response.firstHeader("Transfer-Encoding"), nullValue());
+        assertThat(response.firstHeader("Content-Length"), is(expectedContentLength));
+    }
+
     private void startWithChunkedEncodingPolicy(Options.ChunkedEncodingPolicy chunkedEncodingPolicy) {
         wm = new WireMockServer(wireMockConfig()
                 .dynamicPort()
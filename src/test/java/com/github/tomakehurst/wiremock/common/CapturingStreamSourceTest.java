@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CapturingStreamSourceTest {
+
+    @Test
+    public void capturesPrefixWithoutConsumingTheBody() throws Exception {
+        byte[] content = bytesOfLength(10000);
+        CapturingStreamSource body = new CapturingStreamSource(new ByteArrayInputStream(content), content.length, Limit.of(1024), null);
+
+        assertThat(body.getCaptured(Limit.of(100)), is(Arrays.copyOf(content, 100)));
+        assertThat(body.getCaptured(Limit.UNLIMITED), is(Arrays.copyOf(content, 1024)));
+        assertThat(readFully(body.getStream()), is(content));
+        assertThat(body.getCaptured(Limit.UNLIMITED), is(Arrays.copyOf(content, 1024)));
+    }
+
+    @Test
+    public void capturesTheWholeOfBodiesSmallerThanTheLimit() throws Exception {
+        byte[] content = bytesOfLength(100);
+        CapturingStreamSource body = new CapturingStreamSource(new ByteArrayInputStream(content), -1, Limit.of(1024), null);
+
+        assertThat(readFully(body.getStream()), is(content));
+        assertThat(body.getCaptured(Limit.UNLIMITED), is(content));
+    }
+
+    @Test
+    public void onlyOneStreamReadsPastTheCapture() throws Exception {
+        byte[] content = bytesOfLength(4096);
+        CapturingStreamSource body = new CapturingStreamSource(new ByteArrayInputStream(content), content.length, Limit.of(1024), null);
+
+        InputStream first = body.getStream();
+        InputStream second = body.getStream();
+
+        assertThat(ByteStreams.toByteArray(first), is(content));
+        assertThat(ByteStreams.toByteArray(second), is(Arrays.copyOf(content, 1024)));
+    }
+
+    @Test
+    public void abandonsTheSourceWhenClosedBeforeTheEnd() throws Exception {
+        byte[] content = bytesOfLength(4096);
+        AbandonTracker tracker = new AbandonTracker();
+        CapturingStreamSource body = new CapturingStreamSource(new ByteArrayInputStream(content), content.length, Limit.of(1024), tracker);
+
+        InputStream stream = body.getStream();
+        ByteStreams.readFully(stream, new byte[2048]);
+        stream.close();
+
+        assertThat(tracker.abandoned.get(), is(true));
+    }
+
+    @Test
+    public void doesNotAbandonTheSourceWhenReadToTheEnd() throws Exception {
+        AbandonTracker tracker = new AbandonTracker();
+        CapturingStreamSource body = new CapturingStreamSource(new ByteArrayInputStream(bytesOfLength(4096)), 4096, Limit.of(1024), tracker);
+
+        readFully(body.getStream());
+
+        assertThat(tracker.abandoned.get(), is(false));
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    private static byte[] bytesOfLength(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i % 251);
+        }
+        return bytes;
+    }
+
+    private static class AbandonTracker implements Closeable {
+
+        final AtomicBoolean abandoned = new AtomicBoolean(false);
+
+        @Override
+        public void close() {
+            abandoned.set(true);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Bytes;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+import static com.github.tomakehurst.wiremock.common.Gzip.gzip;
+import static com.github.tomakehurst.wiremock.common.Gzip.unGzip;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class GzipTest {
+
+    @Test
+    public void roundTripsCompressibleContent() {
+        byte[] content = Strings.bytesFromString(repeat("Some compressible content. ", 10000));
+        assertThat(unGzip(gzip(content)), is(content));
+    }
+
+    @Test
+    public void roundTripsIncompressibleContent() {
+        byte[] content = new byte[100000];
+        new Random(1).nextBytes(content);
+        assertThat(unGzip(gzip(content)), is(content));
+    }
+
+    @Test
+    public void roundTripsContentLargerThanTheInitialBuffer() {
+        byte[] content = new byte[10 * 1024 * 1024 + 1];
+        new Random(1).nextBytes(content);
+        Arrays.fill(content, 0, content.length - 100, (byte) 'a');
+        assertThat(unGzip(gzip(content)), is(content));
+    }
+
+    @Test
+    public void roundTripsEmptyContent() {
+        assertThat(unGzip(gzip(new byte[0])), is(new byte[0]));
+    }
+
+    @Test
+    public void readsUncompressedSizeFromTrailer() {
+        assertThat(Gzip.uncompressedSizeOf(gzip(new byte[12345])), is(12345L));
+        assertThat(Gzip.uncompressedSizeOf(new byte[] { 1, 2, 3 }), is(-1L));
+    }
+
+    @Test
+    public void decompressesAllMembersOfMultiMemberContent() {
+        byte[] content = Bytes.concat(gzip("first "), gzip("second"));
+        assertThat(unGzip(content), is(Strings.bytesFromString("first second")));
+    }
+
+    @Test
+    public void skipsOptionalHeaderFields() {
+        byte[] content = Strings.bytesFromString("content with a named gzip header");
+
+        assertThat(unGzip(gzipWithFileNameAndComment(content)), is(content));
+    }
+
+    @Test(expected = ZipException.class)
+    public void rejectsContentWithWrongTrailerSize() {
+        byte[] gzipped = gzip(repeat("abc", 1000));
+        gzipped[gzipped.length - 4] = 1;
+        gzipped[gzipped.length - 3] = 0;
+
+        unGzip(gzipped);
+    }
+
+    @Test(expected = ZipException.class)
+    public void rejectsContentWithBadChecksum() {
+        byte[] gzipped = gzip("checksummed content");
+        gzipped[gzipped.length - 8]++;
+
+        unGzip(gzipped);
+    }
+
+    @Test(expected = EOFException.class)
+    public void rejectsTruncatedContent() {
+        byte[] gzipped = gzip(repeat("truncated content ", 100));
+
+        unGzip(Arrays.copyOf(gzipped, gzipped.length / 2));
+    }
+
+    @Test(expected = ZipException.class)
+    public void rejectsContentThatIsNotGzipped() {
+        unGzip(Strings.bytesFromString("not gzipped at all"));
+    }
+
+    @Test
+    public void detectsGzippedStreamWithoutConsumingIt() throws Exception {
+        byte[] gzipped = gzip("content");
+        PushbackInputStream stream = new PushbackInputStream(new ByteArrayInputStream(gzipped), 2);
+
+        assertThat(Gzip.isGzipped(stream), is(true));
+        assertThat(ByteStreams.toByteArray(stream), is(gzipped));
+        assertThat(Gzip.isGzipped(new PushbackInputStream(new ByteArrayInputStream(new byte[] { 1 }), 2)), is(false));
+    }
+
+    private static byte[] gzipWithFileNameAndComment(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x1f);
+        out.write(0x8b);
+        out.write(8);
+        out.write(8 | 16);
+        out.write(new byte[6], 0, 6);
+        byte[] name = Strings.bytesFromString("file.txt");
+        out.write(name, 0, name.length);
+        out.write(0);
+        byte[] comment = Strings.bytesFromString("a comment");
+        out.write(comment, 0, comment.length);
+        out.write(0);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(content);
+        deflater.finish();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+        }
+        deflater.end();
+
+        byte[] standardGzipped = gzip(content);
+        byte[] trailer = Arrays.copyOfRange(standardGzipped, standardGzipped.length - 8, standardGzipped.length);
+        out.write(trailer, 0, trailer.length);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.jayway.jsonpath.DocumentContext;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class RequestCacheTest {
+
+    private static final String JSON = "{ \"id\": 123 }";
+
+    @Test
+    public void parsesJsonOnceWhileOpen() {
+        try (RequestCache ignored = RequestCache.open()) {
+            DocumentContext document = RequestCache.current().getJsonDocument(JSON);
+
+            assertThat(RequestCache.current().getJsonDocument(JSON), sameInstance(document));
+            assertThat(document.read("$.id"), is((Object) 123));
+        }
+    }
+
+    @Test
+    public void keepsNothingWhenNotOpen() {
+        DocumentContext document = RequestCache.current().getJsonDocument(JSON);
+
+        assertThat(RequestCache.current().getJsonDocument(JSON), not(sameInstance(document)));
+    }
+
+    @Test
+    public void discardsCachedValuesWhenClosed() {
+        try (RequestCache ignored = RequestCache.open()) {
+            RequestCache.current().put("key", "value");
+        }
+
+        assertThat(RequestCache.current().get("key"), nullValue());
+    }
+
+    @Test
+    public void restoresTheEnclosingCacheWhenANestedOneIsClosed() {
+        try (RequestCache outer = RequestCache.open()) {
+            outer.put("key", "outer");
+
+            try (RequestCache inner = RequestCache.open()) {
+                assertThat(RequestCache.current(), sameInstance(inner));
+                assertThat(RequestCache.current().get("key"), nullValue());
+            }
+
+            assertThat(RequestCache.current(), sameInstance(outer));
+            assertThat(RequestCache.current().get("key"), is((Object) "outer"));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SpooledBodyTest {
+
+    @Test
+    public void holdsBodiesUpToTheThresholdInMemory() throws Exception {
+        byte[] content = new byte[] { 1, 2, 3, 4 };
+
+        SpooledBody body = SpooledBody.spool(new ByteArrayInputStream(content), Limit.of(4));
+
+        assertThat(body.isInMemory(), is(true));
+        assertThat(body.getLength(), is(4L));
+        assertThat(body.getBytes(), is(content));
+    }
+
+    @Test
+    public void spoolsBodiesOverTheThresholdToATempFileThatCanBeReadRepeatedly() throws Exception {
+        byte[] content = bytesOfLength(10000);
+
+        SpooledBody body = SpooledBody.spool(new ByteArrayInputStream(content), Limit.of(1024));
+
+        assertThat(body.isInMemory(), is(false));
+        assertThat(body.getLength(), is(10000L));
+        assertThat(readFully(body), is(content));
+        assertThat(readFully(body), is(content));
+        assertThat(body.getBytes(), is(content));
+
+        body.delete();
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void removesTheTempFileWhenDeleted() throws Exception {
+        SpooledBody body = SpooledBody.spool(new ByteArrayInputStream(bytesOfLength(2048)), Limit.of(1024));
+
+        body.delete();
+
+        body.getStream();
+    }
+
+    @Test
+    public void neverSpoolsWhenUnlimited() throws Exception {
+        SpooledBody body = SpooledBody.spool(new ByteArrayInputStream(bytesOfLength(100000)), Limit.UNLIMITED);
+
+        assertThat(body.isInMemory(), is(true));
+        assertThat(body.getLength(), is(100000L));
+    }
+
+    @Test
+    public void unGzipsSmallBodiesIntoMemory() throws Exception {
+        byte[] content = bytesOfLength(1000);
+
+        SpooledBody body = SpooledBody.spoolUnGzipped(new ByteArrayInputStream(Gzip.gzip(content)), Limit.of(1024));
+
+        assertThat(body.isInMemory(), is(true));
+        assertThat(body.getBytes(), is(content));
+    }
+
+    @Test
+    public void spoolsGzippedBodiesThatDecompressToMoreThanTheThreshold() throws Exception {
+        byte[] content = new byte[100000];
+
+        SpooledBody body = SpooledBody.spoolUnGzipped(new ByteArrayInputStream(Gzip.gzip(content)), Limit.of(1024));
+
+        assertThat(body.isInMemory(), is(false));
+        assertThat(body.getLength(), is(100000L));
+        assertThat(readFully(body), is(content));
+
+        body.delete();
+    }
+
+    private static byte[] readFully(SpooledBody body) throws Exception {
+        try (InputStream stream = body.getStream()) {
+            return ByteStreams.toByteArray(stream);
+        }
+    }
+
+    private static byte[] bytesOfLength(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class UuidsTest {
+
+    @Test
+    public void randomUuidsAreVersion4() {
+        UUID uuid = Uuids.random();
+
+        assertThat(uuid.version(), is(4));
+        assertThat(uuid.variant(), is(2));
+        assertThat(UUID.fromString(uuid.toString()), is(uuid));
+    }
+
+    @Test
+    public void timeOrderedUuidsAreVersion7AndCarryTheirCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = Uuids.timeOrdered();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version(), is(7));
+        assertThat(uuid.variant(), is(2));
+        // May run slightly ahead of the clock when many are generated in the same millisecond
+        assertThat(Uuids.timestampOf(uuid), allOf(greaterThanOrEqualTo(before), lessThanOrEqualTo(after + 1000)));
+    }
+
+    @Test
+    public void timeOrderedUuidsSortInTheOrderTheyWereGenerated() {
+        List<UUID> generated = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            generated.add(Uuids.timeOrdered());
+        }
+
+        List<UUID> sorted = new ArrayList<>(generated);
+        Collections.shuffle(sorted);
+        Collections.sort(sorted);
+
+        assertThat(sorted, is(generated));
+    }
+}
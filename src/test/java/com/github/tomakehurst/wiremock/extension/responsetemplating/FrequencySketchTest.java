@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void countsHowOftenEachKeyIsSeenUpToFifteen() {
+        FrequencySketch sketch = new FrequencySketch(100);
+
+        for (int i = 0; i < 3; i++) {
+            sketch.increment("three");
+        }
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("many");
+        }
+
+        assertThat(sketch.frequency("three"), is(3));
+        assertThat(sketch.frequency("many"), is(15));
+        assertThat(sketch.frequency("never"), is(0));
+    }
+
+    @Test
+    public void halvesCountsOnceEnoughKeysHaveBeenSeen() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("popular");
+        }
+
+        for (int i = 0; i < 64 * 10; i++) {
+            sketch.increment("other" + i);
+        }
+
+        assertThat(sketch.frequency("popular"), is(4));
+    }
+}
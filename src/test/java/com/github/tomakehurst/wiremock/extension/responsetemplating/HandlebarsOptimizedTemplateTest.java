@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Options;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class HandlebarsOptimizedTemplateTest {
+
+    private final Handlebars handlebars = new Handlebars();
+
+    @Test
+    public void rendersContentEitherSideOfTheTemplateIntoTheWriter() throws Exception {
+        HandlebarsOptimizedTemplate template = new HandlebarsOptimizedTemplate(handlebars, "Start {{one}} middle {{two}} end");
+        StringWriter writer = new StringWriter();
+
+        template.apply(ImmutableMap.of("one", 1, "two", 2), writer);
+
+        assertThat(writer.toString(), is("Start 1 middle 2 end"));
+    }
+
+    @Test
+    public void rendersTheSameWhenReusingTheThreadsBuffer() throws Exception {
+        HandlebarsOptimizedTemplate longer = new HandlebarsOptimizedTemplate(handlebars, "A much longer template {{value}}");
+        HandlebarsOptimizedTemplate shorter = new HandlebarsOptimizedTemplate(handlebars, "Short {{value}}");
+
+        assertThat(longer.apply(ImmutableMap.of("value", "one")), is("A much longer template one"));
+        assertThat(shorter.apply(ImmutableMap.of("value", "two")), is("Short two"));
+    }
+
+    @Test
+    public void rendersTemplatesNestedOnTheSameThread() throws Exception {
+        final HandlebarsOptimizedTemplate inner = new HandlebarsOptimizedTemplate(handlebars, "inner {{value}}");
+        Handlebars withNestingHelper = new Handlebars();
+        withNestingHelper.registerHelper("nested", new Helper<Object>() {
+            @Override
+            public Object apply(Object context, Options options) throws IOException {
+                return inner.apply(ImmutableMap.of("value", context));
+            }
+        });
+        HandlebarsOptimizedTemplate outer = new HandlebarsOptimizedTemplate(withNestingHelper, "outer [{{nested value}}] done");
+
+        assertThat(outer.apply(ImmutableMap.of("value", "x")), is("outer [inner x] done"));
+    }
+}
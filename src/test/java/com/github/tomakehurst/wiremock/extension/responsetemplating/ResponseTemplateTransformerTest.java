@@ -21,29 +21,48 @@ import com.github.jknack.handlebars.Helper;
 import com.github.jknack.handlebars.Options;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.common.ClasspathFileSource;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.RequestCache;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.MockRequest;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.google.common.base.Strings;
+import com.google.common.io.Files;
+import com.jayway.jsonpath.DocumentContext;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matchers;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.common.Strings.stringFromBytes;
 import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static com.github.tomakehurst.wiremock.testsupport.NoFileSource.noFileSource;
+import static com.google.common.base.Charsets.UTF_8;
+import static java.util.concurrent.TimeUnit.HOURS;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class ResponseTemplateTransformerTest {
 
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
     private ResponseTemplateTransformer transformer;
 
     @Before
@@ -802,6 +821,116 @@ public class ResponseTemplateTransformerTest {
         assertThat(body, is("Start \n\n 1 middle 2 end\n"));
     }
 
+    @Test
+    public void onlyReadsThePartsOfTheRequestReferencedByTheTemplate() {
+        final AtomicInteger bodyReads = new AtomicInteger();
+        final AtomicInteger headerReads = new AtomicInteger();
+        MockRequest request = new MockRequest() {
+            @Override
+            public String getBodyAsString() {
+                bodyReads.incrementAndGet();
+                return super.getBodyAsString();
+            }
+
+            @Override
+            public Set<String> getAllHeaderKeys() {
+                headerReads.incrementAndGet();
+                return super.getAllHeaderKeys();
+            }
+        };
+
+        String body = transform(request.url("/one/two").header("X-Thing", "1").body("{ \"big\": true }"),
+                ok("{{request.path.[1]}}")).getBody();
+        assertThat(body, is("two"));
+        assertThat(bodyReads.get(), is(0));
+        assertThat(headerReads.get(), is(0));
+
+        body = transform(request, ok("{{{request.body}}} {{{request.body}}}")).getBody();
+        assertThat(body, is("{ \"big\": true } { \"big\": true }"));
+        assertThat(bodyReads.get(), is(1));
+    }
+
+    @Test
+    public void usesCachedBodyFileTemplateWithoutReadingTheFileUntilItIsRevalidated() throws Exception {
+        transformer = ResponseTemplateTransformer.builder()
+                .bodyFileRevalidationInterval(HOURS.toMillis(1))
+                .build();
+        File bodyFile = tempDir.newFile("body.txt");
+        Files.write("Original {{request.path.[0]}}", bodyFile, UTF_8);
+        ResponseDefinition responseDefinition = ok().withBodyFile("body.txt").build();
+
+        assertThat(transformFromFile(responseDefinition), is("Original things"));
+
+        Files.write("Changed {{request.path.[0]}}", bodyFile, UTF_8);
+
+        assertThat(transformFromFile(responseDefinition), is("Original things"));
+    }
+
+    @Test
+    public void recompilesBodyFileTemplateWhenTheFileChanges() throws Exception {
+        transformer = ResponseTemplateTransformer.builder()
+                .bodyFileRevalidationInterval(0)
+                .build();
+        File bodyFile = tempDir.newFile("body.txt");
+        Files.write("Original {{request.path.[0]}}", bodyFile, UTF_8);
+        ResponseDefinition responseDefinition = ok().withBodyFile("body.txt").build();
+
+        assertThat(transformFromFile(responseDefinition), is("Original things"));
+        assertThat(transformFromFile(responseDefinition), is("Original things"));
+        assertThat(transformer.getCacheStats().getCompilations(), is(2L));
+
+        Files.write("Changed {{request.path.[0]}}", bodyFile, UTF_8);
+        assertTrue(bodyFile.setLastModified(bodyFile.lastModified() + 2000));
+
+        assertThat(transformFromFile(responseDefinition), is("Changed things"));
+        assertThat(transformer.getCacheStats().getCompilations(), is(3L));
+    }
+
+    private String transformFromFile(ResponseDefinition responseDefinition) {
+        return transformer.transform(
+            mockRequest().url("/things"),
+            responseDefinition,
+            new SingleRootFileSource(tempDir.getRoot()),
+            Parameters.empty()
+        ).getBody();
+    }
+
+    @Test
+    public void writesValidJsonBodyAsRendered() {
+        ResponseDefinition transformed = transform(
+                mockRequest().url("/things"),
+                aResponse().withJsonBody(Json.node("{ \"path\": \"{{request.path.[0]}}\", \"count\": 2 }")));
+
+        assertThat(stringFromBytes(transformed.getByteBody()), is("{\"path\":\"things\",\"count\":2}"));
+        assertThat(transformed.getJsonBody(), is(Json.node("{ \"path\": \"things\", \"count\": 2 }")));
+    }
+
+    @Test
+    public void normalisesRenderedJsonBodyThatIsNotStrictlyValid() {
+        ResponseDefinition transformed = transform(
+                mockRequest().url("/things").body("one\", 'two': \"three"),
+                aResponse().withJsonBody(Json.node("{ \"one\": \"{{{request.body}}}\" }")));
+
+        assertThat(stringFromBytes(transformed.getByteBody()), is("{\"one\":\"one\",\"two\":\"three\"}"));
+    }
+
+    @Test
+    public void sharesParsedJsonBetweenTemplatesAndStubMatchingForTheSameRequest() {
+        String requestBody = "{ \"id\": \"abc\" }";
+
+        try (RequestCache requestCache = RequestCache.open()) {
+            DocumentContext parsedForMatching = requestCache.getJsonDocument(requestBody);
+
+            ResponseDefinition transformed = transform(mockRequest().body(requestBody),
+                    ok("{{jsonPath request.body '$.id'}}").withHeader("X-Id", "{{jsonPath request.body '$.id'}}"));
+
+            assertThat(transformed.getBody(), is("abc"));
+            assertThat(transformed.getHeaders().getHeader("X-Id").firstValue(), is("abc"));
+            DocumentContext usedByTemplates = RenderCache.forCurrentRequest().get(RenderCache.Key.keyFor(DocumentContext.class, requestBody));
+            assertThat(usedByTemplates, sameInstance(parsedForMatching));
+        }
+    }
+
     @Test
     public void clearsTemplateCacheOnReset() {
         transform("{{now}}");
@@ -813,13 +942,152 @@ public class ResponseTemplateTransformerTest {
     }
 
     @Test
-    public void clearsTemplateCacheWhenAnyStubRemovedReset() {
-        transform("{{now}}");
-        assertThat(transformer.getCacheSize(), greaterThan(0L));
+    public void evictsTemplatesOfRemovedStub() {
+        StubMapping removed = get(anyUrl()).willReturn(ok("{{now}} removed")).build();
+        StubMapping remaining = get(anyUrl()).willReturn(ok("{{now}} remaining")).build();
+        transformer.afterStubCreated(removed);
+        transformer.afterStubCreated(remaining);
+        assertThat(transformer.getCacheSize(), is(2L));
+
+        transformer.afterStubRemoved(removed);
+
+        assertThat(transformer.getCacheSize(), is(1L));
+        assertThat(transformer.getCacheStats().getEvictions(), is(1L));
+    }
+
+    @Test
+    public void compilesTemplatesWhenStubCreated() {
+        StubMapping stub = get(anyUrl()).willReturn(ok("{{request.path.[0]}}").withHeader("X-Path", "{{request.path.[1]}}")).build();
+
+        transformer.afterStubCreated(stub);
 
-        transformer.afterStubRemoved(get(anyUrl()).build());
+        TemplateCacheStats stats = transformer.getCacheStats();
+        assertThat(stats.getSize(), is(2L));
+        assertThat(stats.getCompilations(), is(2L));
+        assertThat(stats.getMisses(), is(2L));
+        assertThat(stats.getTotalCompileTimeNanos(), greaterThan(0L));
 
+        ResponseDefinition transformed = transformer.transform(mockRequest().url("/one/two"), stub.getResponse(), noFileSource(), Parameters.empty());
+
+        assertThat(transformed.getBody(), is("one"));
+        assertThat(transformed.getHeaders().getHeader("X-Path").firstValue(), is("two"));
+        stats = transformer.getCacheStats();
+        assertThat(stats.getCompilations(), is(2L));
+        assertThat(stats.getHits(), is(2L));
+    }
+
+    @Test
+    public void doesNotCompileTemplatesOfStubsNotUsingTheLocalTransformer() {
+        transformer = new ResponseTemplateTransformer(false);
+
+        transformer.afterStubCreated(get(anyUrl()).willReturn(ok("{{now}}")).build());
         assertThat(transformer.getCacheSize(), is(0L));
+
+        transformer.afterStubCreated(get(anyUrl()).willReturn(ok("{{now}}").withTransformers(ResponseTemplateTransformer.NAME)).build());
+        assertThat(transformer.getCacheSize(), is(1L));
+    }
+
+    @Test
+    public void replacesTemplatesOfEditedStub() {
+        StubMapping oldStub = get(anyUrl()).willReturn(ok("{{now}} old")).build();
+        StubMapping newStub = get(anyUrl()).willReturn(ok("{{now}} new")).build();
+        transformer.afterStubCreated(oldStub);
+
+        transformer.afterStubEdited(oldStub, newStub);
+
+        TemplateCacheStats stats = transformer.getCacheStats();
+        assertThat(stats.getSize(), is(1L));
+        assertThat(stats.getEvictions(), is(1L));
+        assertThat(stats.getCompilations(), is(2L));
+    }
+
+    @Test
+    public void countsTemplatesThatFailToCompileWithoutRejectingTheStub() {
+        transformer.afterStubCreated(get(anyUrl()).willReturn(ok("{{#each request.query}}")).build());
+
+        TemplateCacheStats stats = transformer.getCacheStats();
+        assertThat(stats.getCompilationFailures(), is(1L));
+        assertThat(stats.getSize(), is(0L));
+    }
+
+    @Test
+    public void returnsResponsesWithoutTemplatesUnchangedAndUncompiled() {
+        StubMapping stub = get(anyUrl()).willReturn(
+                okJson("{\"static\": true}")
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-Static", "one", "two")
+        ).build();
+        transformer.afterStubCreated(stub);
+
+        ResponseDefinition transformed = transformer.transform(mockRequest(), stub.getResponse(), noFileSource(), Parameters.empty());
+
+        assertThat(transformed, sameInstance(stub.getResponse()));
+        assertThat(transformer.getCacheStats().getCompilations(), is(0L));
+    }
+
+    @Test
+    public void remembersWhetherAStubIsStaticByItsIdWhenEachRequestBringsANewResponseDefinition() {
+        StubMapping stub = get(anyUrl()).willReturn(ok("static")).build();
+        transformer.afterStubCreated(stub);
+
+        try (RequestCache requestCache = RequestCache.open()) {
+            requestCache.put(StubMapping.class, stub);
+            ResponseDefinition perRequest = ResponseDefinitionBuilder.like(stub.getResponse()).build();
+
+            assertThat(transformer.transform(mockRequest(), perRequest, noFileSource(), Parameters.empty()), sameInstance(perRequest));
+        }
+
+        StubMapping edited = get(anyUrl()).willReturn(ok("{{request.path.[0]}}")).build();
+        edited.setId(stub.getId());
+        transformer.afterStubEdited(stub, edited);
+
+        try (RequestCache requestCache = RequestCache.open()) {
+            requestCache.put(StubMapping.class, edited);
+            ResponseDefinition perRequest = ResponseDefinitionBuilder.like(edited.getResponse()).build();
+
+            assertThat(transformer.transform(mockRequest().url("/one"), perRequest, noFileSource(), Parameters.empty()).getBody(), is("one"));
+        }
+    }
+
+    @Test
+    public void rendersResponsesWithATemplateInAnyField() {
+        ResponseDefinition templatedHeader = aResponse().withBody("static").withHeader("X-Path", "{{request.path}}").build();
+        ResponseDefinition templatedProxyUrl = aResponse().proxiedFrom("http://{{request.headers.Host}}").build();
+
+        ResponseDefinition transformedHeader = transformer.transform(mockRequest().url("/path"), templatedHeader, noFileSource(), Parameters.empty());
+        ResponseDefinition transformedProxy = transformer.transform(mockRequest().header("Host", "example.com"), templatedProxyUrl, noFileSource(), Parameters.empty());
+
+        assertThat(transformedHeader.getHeaders().getHeader("X-Path").firstValue(), is("/path"));
+        assertThat(transformedProxy.getProxyBaseUrl(), is("http://example.com"));
+    }
+
+    @Test
+    public void treatsBodyFilesAsStaticOnlyWhenBodyFileTemplatingIsDisabled() {
+        ResponseDefinition bodyFile = aResponse().withBodyFile("greet-{{request.path.[0]}}.txt").build();
+        ResponseDefinition staticBodyFile = aResponse().withBodyFile("plain.txt").build();
+
+        ResponseDefinition templatedBodyFile = transformer.transform(mockRequest().url("/one"), bodyFile, noFileSource(), Parameters.one("disableBodyFileTemplating", true));
+        ResponseDefinition untemplatedBodyFile = transformer.transform(mockRequest(), staticBodyFile, noFileSource(), Parameters.one("disableBodyFileTemplating", true));
+
+        assertThat(templatedBodyFile.getBodyFileName(), is("greet-one.txt"));
+        assertThat(untemplatedBodyFile, sameInstance(staticBodyFile));
+    }
+
+    @Test
+    public void memoizesOnlyStaticResponsesAndThoseGivingAMemoizationKey() {
+        ResponseDefinition staticResponse = aResponse().withBody("static").build();
+        ResponseDefinition templatedResponse = aResponse().withBody("{{request.path.[0]}}").build();
+
+        assertThat(transformer.memoizationKeyFor(mockRequest().url("/one"), staticResponse, Parameters.empty()), notNullValue());
+        assertThat(transformer.memoizationKeyFor(mockRequest().url("/one"), templatedResponse, Parameters.empty()), nullValue());
+
+        Parameters parameters = Parameters.one(ResponseTemplateTransformer.MEMOIZATION_KEY_PARAMETER, "{{request.path.[0]}}");
+        Object firstKey = transformer.memoizationKeyFor(mockRequest().url("/one/a"), templatedResponse, parameters);
+        Object secondKey = transformer.memoizationKeyFor(mockRequest().url("/one/b"), templatedResponse, parameters);
+        Object thirdKey = transformer.memoizationKeyFor(mockRequest().url("/two/a"), templatedResponse, parameters);
+
+        assertThat(firstKey, is(secondKey));
+        assertThat(firstKey, not(thirdKey));
     }
 
     @Test
@@ -837,6 +1105,54 @@ public class ResponseTemplateTransformerTest {
         assertThat(transformer.getCacheSize(), is(3L));
     }
 
+    @Test
+    public void onlyCachesTemplatesUsedBeforeOnceTheCacheIsFull() {
+        transformer = ResponseTemplateTransformer.builder()
+                .maxCacheEntries(2L)
+                .build();
+        transform("{{now}} 1");
+        transform("{{now}} 2");
+
+        ResponseDefinition usedTwice = aResponse().withBody("{{now}} twice").build();
+
+        transformer.transform(mockRequest(), usedTwice, noFileSource(), Parameters.empty());
+
+        TemplateCacheStats stats = transformer.getCacheStats();
+        assertThat(stats.getSize(), is(2L));
+        assertThat(stats.getRejections(), is(1L));
+        assertThat(stats.getEvictions(), is(0L));
+
+        transformer.transform(mockRequest(), usedTwice, noFileSource(), Parameters.empty());
+
+        stats = transformer.getCacheStats();
+        assertThat(stats.getRejections(), is(1L));
+        assertThat(stats.getEvictions(), is(1L));
+    }
+
+    @Test
+    public void honoursCacheSizeInBytesLimit() {
+        transformer = ResponseTemplateTransformer.builder()
+                .maxCacheBytes(2048L)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            transform("{{now}} " + Strings.repeat("x", 100) + i);
+            transform("{{now}} " + Strings.repeat("x", 100) + i);
+        }
+
+        TemplateCacheStats stats = transformer.getCacheStats();
+        assertThat(stats.getEstimatedBytes(), allOf(greaterThan(0L), lessThanOrEqualTo(2048L)));
+        assertThat(stats.getSize(), allOf(greaterThan(0L), lessThan(10L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotLimitCacheByBothEntriesAndBytes() {
+        ResponseTemplateTransformer.builder()
+                .maxCacheEntries(10L)
+                .maxCacheBytes(2048L)
+                .build();
+    }
+
     @Test
     public void honours0CacheSizeLimit() {
         transformer = ResponseTemplateTransformer.builder()
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.extension.responsetemplating;
+
+import com.github.jknack.handlebars.EscapingStrategy;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.helper.StringHelpers;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class VariableTemplateTest {
+
+    private final Handlebars handlebars = new Handlebars();
+
+    @Test
+    public void rendersVariablesFromMapsListsAndGettersAsHandlebarsWould() throws Exception {
+        Map<String, Object> model = ImmutableMap.<String, Object>of(
+                "request", RequestTemplateModel.from(mockRequest()
+                        .url("/users/123?id=5")
+                        .header("X-Id", "abc")),
+                "items", Arrays.asList("first", "second")
+        );
+
+        assertRendersAsHandlebarsWithoutIt(
+                "{{request.path.[1]}}, {{ request.query.id }}, {{request.headers.x-id}}, {{{request.url}}}, {{items.[1]}}",
+                model
+        );
+    }
+
+    @Test
+    public void escapesValuesAsHandlebarsWould() throws Exception {
+        Map<String, Object> model = ImmutableMap.<String, Object>of("value", "<a href=\"x\">Café & 'co'</a>");
+
+        assertRendersAsHandlebarsWithoutIt("{{value}} {{{value}}}", model);
+
+        handlebars.with(EscapingStrategy.JS);
+        assertRendersAsHandlebarsWithoutIt("{{value}} {{{value}}}", model);
+    }
+
+    @Test
+    public void leavesValuesThatCannotBeFoundToHandlebars() throws Exception {
+        Map<String, Object> model = ImmutableMap.<String, Object>of(
+                "request", RequestTemplateModel.from(mockRequest().url("/")),
+                "items", Arrays.asList("first")
+        );
+
+        HandlebarsOptimizedTemplate template = new HandlebarsOptimizedTemplate(handlebars,
+                "[{{request.path.[0]}}] [{{request.query.missing}}] [{{items.[3]}}] [{{items.nothing}}]", true);
+
+        assertThat(template.isRenderedWithoutHandlebars(), is(true));
+        assertThat(template.apply(model), is("[] [] [] []"));
+    }
+
+    @Test
+    public void doesNotCompileTemplatesUsingAnythingButVariables() {
+        handlebars.registerHelper("now", StringHelpers.now);
+        String[] unsupported = {
+                "{{#if value}}yes{{/if}}",
+                "{{now}}",
+                "{{jsonPath request.body '$.name'}}",
+                "{{! a comment }}",
+                "{{> partial}}",
+                "{{~value~}}",
+                "{{&value}}",
+                "{{this}}",
+                "{{../value}}",
+                "{{request/path}}",
+                "{{@index}}",
+                "{{1}}",
+                "{{[value]}}",
+                "\\{{value}}",
+                "{{value"
+        };
+
+        for (String content: unsupported) {
+            assertThat(content, VariableTemplate.compile(handlebars, content), nullValue());
+        }
+        assertThat(VariableTemplate.compile(handlebars, "{{request.path.[0]}} and {{{request.body}}}"), notNullValue());
+    }
+
+    @Test
+    public void onlyRendersWithoutHandlebarsWhenItIsKnownToUseTheDefaultDelimiters() throws Exception {
+        HandlebarsOptimizedTemplate template = new HandlebarsOptimizedTemplate(handlebars, "{{value}}");
+
+        assertThat(template.isRenderedWithoutHandlebars(), is(false));
+        assertThat(template.apply(ImmutableMap.of("value", "x")), is("x"));
+    }
+
+    private void assertRendersAsHandlebarsWithoutIt(String content, Object model) throws Exception {
+        HandlebarsOptimizedTemplate template = new HandlebarsOptimizedTemplate(handlebars, content, true);
+
+        assertThat(template.isRenderedWithoutHandlebars(), is(true));
+        assertThat(template.apply(model), is(handlebars.compileInline(content).apply(model)));
+    }
+}
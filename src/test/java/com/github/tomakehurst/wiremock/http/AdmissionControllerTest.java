@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.AdmissionControlSettings;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void admitsEverythingWhenDisabled() {
+        AdmissionController controller = new AdmissionController(AdmissionControlSettings.DEFAULTS);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(controller.tryAdmit(), is(true));
+        }
+
+        assertThat(controller.getStats().getAdmitted(), is(100L));
+        assertThat(controller.getStats().getActive(), is(0));
+    }
+
+    @Test
+    public void shedsImmediatelyWhenAtTheLimitAndTheQueueIsFull() {
+        AdmissionController controller = new AdmissionController(AdmissionControlSettings.builder()
+                .maxConcurrentRequests(2)
+                .queueTimeout(10000)
+                .build());
+
+        assertThat(controller.tryAdmit(), is(true));
+        assertThat(controller.tryAdmit(), is(true));
+
+        long start = System.currentTimeMillis();
+        assertThat(controller.tryAdmit(), is(false));
+        assertThat(System.currentTimeMillis() - start, lessThan(1000L));
+
+        AdmissionControlStats stats = controller.getStats();
+        assertThat(stats.getActive(), is(2));
+        assertThat(stats.getShedQueueFull(), is(1L));
+        assertThat(stats.getShedQueueTimeout(), is(0L));
+    }
+
+    @Test
+    public void admitsAgainOnceReleased() {
+        AdmissionController controller = new AdmissionController(AdmissionControlSettings.builder()
+                .maxConcurrentRequests(1)
+                .build());
+
+        assertThat(controller.tryAdmit(), is(true));
+        assertThat(controller.tryAdmit(), is(false));
+        controller.release();
+        assertThat(controller.tryAdmit(), is(true));
+    }
+
+    @Test
+    public void queuedRequestIsAdmittedWhenASlotIsReleasedBeforeTheTimeout() throws Exception {
+        final AdmissionController controller = new AdmissionController(AdmissionControlSettings.builder()
+                .maxConcurrentRequests(1)
+                .maxQueuedRequests(1)
+                .queueTimeout(10000)
+                .build());
+        assertThat(controller.tryAdmit(), is(true));
+
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (controller.getStats().getQueued() < 1) {
+                        Thread.sleep(5);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                controller.release();
+            }
+        });
+        releaser.start();
+
+        assertThat(controller.tryAdmit(), is(true));
+        releaser.join();
+        assertThat(controller.getStats().getQueued(), is(0));
+    }
+
+    @Test
+    public void shedsQueuedRequestAfterTheTimeout() {
+        AdmissionController controller = new AdmissionController(AdmissionControlSettings.builder()
+                .maxConcurrentRequests(1)
+                .maxQueuedRequests(1)
+                .queueTimeout(50)
+                .build());
+
+        assertThat(controller.tryAdmit(), is(true));
+        assertThat(controller.tryAdmit(), is(false));
+
+        AdmissionControlStats stats = controller.getStats();
+        assertThat(stats.getShedQueueTimeout(), is(1L));
+        assertThat(stats.getQueued(), is(0));
+    }
+}
@@ -75,4 +75,24 @@ public class BodyTest {
 
         assertThat(body.asJson(), is(jsonContent));
     }
+
+    @Test
+    public void equalBodiesHaveTheSameHashCode() {
+        Body body = new Body("content");
+        Body equalBody = new Body("content");
+
+        assertThat(body.equals(equalBody), is(true));
+        assertThat(body.hashCode(), is(equalBody.hashCode()));
+    }
+
+    @Test
+    public void bodiesWithDifferentContentAreNotEqualOnceHashed() {
+        Body body = new Body("content");
+        Body otherBody = new Body("other content");
+        body.hashCode();
+        otherBody.hashCode();
+
+        assertThat(body.equals(otherBody), is(false));
+        assertThat(body.equals(new Body("content")), is(true));
+    }
 }
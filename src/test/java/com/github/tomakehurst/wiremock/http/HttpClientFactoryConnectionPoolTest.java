@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.common.ProxySettings.NO_PROXY;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+public class HttpClientFactoryConnectionPoolTest {
+
+    @Rule
+    public WireMockRule target = new WireMockRule(wireMockConfig().dynamicPort());
+
+    @Test
+    public void appliesPerRouteLimitsToTheRoutesRequestsActuallyTake() throws Exception {
+        target.stubFor(get("/pooled").willReturn(ok()));
+        String baseUrl = "http://localhost:" + target.port();
+
+        ProxyConnectionPoolSettings poolSettings = ProxyConnectionPoolSettings.builder()
+                .maxConnections(50)
+                .maxConnectionsPerRoute(baseUrl, 3)
+                .build();
+        PoolingHttpClientConnectionManager connectionManager = HttpClientFactory.createConnectionManager(
+                poolSettings, 5000, NO_PROXY, KeyStoreSettings.NO_STORE, true, Collections.<String>emptyList());
+
+        try (CloseableHttpClient client = HttpClientFactory.createClient(connectionManager, poolSettings, NO_PROXY)) {
+            try (CloseableHttpResponse response = client.execute(new HttpGet(baseUrl + "/pooled"))) {
+                EntityUtils.consume(response.getEntity());
+            }
+
+            HttpRoute route = HttpClientFactory.routeFor(baseUrl, NO_PROXY);
+            assertThat(connectionManager.getRoutes(), hasItem(route));
+            assertThat(connectionManager.getMaxPerRoute(route), is(3));
+        }
+    }
+
+    @Test
+    public void defaultsPerRouteLimitToTheOverallMaximum() {
+        ProxyConnectionPoolSettings poolSettings = ProxyConnectionPoolSettings.builder().maxConnections(50).build();
+        PoolingHttpClientConnectionManager connectionManager = HttpClientFactory.createConnectionManager(
+                poolSettings, 5000, NO_PROXY, KeyStoreSettings.NO_STORE, true, Collections.<String>emptyList());
+
+        assertThat(connectionManager.getDefaultMaxPerRoute(), is(50));
+        assertThat(connectionManager.getMaxTotal(), is(50));
+    }
+}
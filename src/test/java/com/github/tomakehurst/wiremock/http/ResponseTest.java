@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http;
+
+import com.github.tomakehurst.wiremock.common.InputStreamSource;
+import com.github.tomakehurst.wiremock.common.Limit;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static com.github.tomakehurst.wiremock.common.SizedInputStreamSource.UNKNOWN_LENGTH;
+import static com.github.tomakehurst.wiremock.common.Strings.stringFromBytes;
+import static com.github.tomakehurst.wiremock.http.Response.response;
+import static com.github.tomakehurst.wiremock.testsupport.TestFiles.filePath;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ResponseTest {
+
+    @Test
+    public void knowsBodyLengthOfStringBody() {
+        Response response = response().body("Body content").build();
+
+        assertThat(response.getBodyLength(), is(12L));
+    }
+
+    @Test
+    public void knowsBodyLengthOfBodyFileWithoutReadingIt() {
+        SingleRootFileSource files = new SingleRootFileSource(filePath("test-file-root/__files"));
+        Response response = response().body(files.getBinaryFileNamed("plain-example.txt")).build();
+
+        assertThat(response.getBodyLength(), is((long) response.getBody().length));
+    }
+
+    @Test
+    public void reportsUnknownBodyLengthForPlainStreamSource() {
+        Response response = response().body(new InputStreamSource() {
+            @Override
+            public InputStream getStream() {
+                return new ByteArrayInputStream("Body content".getBytes());
+            }
+        }).build();
+
+        assertThat(response.getBodyLength(), is(UNKNOWN_LENGTH));
+    }
+
+    @Test
+    public void readsOnlyTheLeadingBytesOfTheBodyWhenLimited() {
+        Response response = response().body("Body content").build();
+
+        assertThat(stringFromBytes(response.getBody(new Limit(4))), is("Body"));
+        assertThat(stringFromBytes(response.getBody(Limit.UNLIMITED)), is("Body content"));
+    }
+
+    @Test
+    public void truncatesLoggedResponseBody() {
+        Response response = response().body("Body content").build();
+
+        assertThat(LoggedResponse.from(response, new Limit(4)).getBodyAsString(), is("Body"));
+    }
+}
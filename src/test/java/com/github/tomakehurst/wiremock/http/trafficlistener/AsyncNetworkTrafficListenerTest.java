@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http.trafficlistener;
+
+import com.github.tomakehurst.wiremock.testsupport.TestNotifier;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncNetworkTrafficListenerTest {
+
+    private final Socket socket = new Socket();
+
+    @Test
+    public void passesEventsToTheDelegateInOrderOnAnotherThread() throws Exception {
+        RecordingListener delegate = new RecordingListener(4);
+        AsyncNetworkTrafficListener listener = new AsyncNetworkTrafficListener(delegate, 16, new TestNotifier());
+
+        listener.opened(socket);
+        listener.incoming(socket, ByteBuffer.wrap("request".getBytes(UTF_8)));
+        listener.outgoing(socket, ByteBuffer.wrap("response".getBytes(UTF_8)));
+        listener.closed(socket);
+
+        delegate.await();
+        assertThat(delegate.events, contains("opened", "incoming request", "outgoing response", "closed"));
+        assertThat(delegate.threadNames, not(hasItem(Thread.currentThread().getName())));
+    }
+
+    @Test
+    public void copiesTheBytesWithoutConsumingThem() throws Exception {
+        RecordingListener delegate = new RecordingListener(1);
+        AsyncNetworkTrafficListener listener = new AsyncNetworkTrafficListener(delegate, 16, new TestNotifier());
+        ByteBuffer bytes = ByteBuffer.wrap("request".getBytes(UTF_8));
+
+        listener.incoming(socket, bytes);
+        bytes.put(0, (byte) 'X');
+
+        delegate.await();
+        assertThat(bytes.remaining(), is(7));
+        assertThat(delegate.events, contains("incoming request"));
+    }
+
+    @Test
+    public void dropsAndReportsEventsRatherThanWaitingWhenTheBufferIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingListener delegate = new BlockingListener(release);
+        TestNotifier notifier = new TestNotifier();
+        AsyncNetworkTrafficListener listener = new AsyncNetworkTrafficListener(delegate, 4, notifier);
+
+        listener.opened(socket);
+        assertTrue(delegate.blocked.await(5, SECONDS));
+        for (int i = 0; i < 10; i++) {
+            listener.incoming(socket, ByteBuffer.wrap(new byte[] { 1 }));
+        }
+        release.countDown();
+
+        assertThat(listener.getDroppedEventCount(), is(6L));
+        for (int i = 0; i < 50 && notifier.getErrorMessages().isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(notifier.getErrorMessages(), hasItem(startsWith("Network traffic listener dropped 6 events")));
+        assertThat(delegate.incomingCount, greaterThan(0));
+    }
+
+    @Test
+    public void handsOverBufferedEventsAndStopsItsThreadWhenClosed() throws Exception {
+        RecordingListener delegate = new RecordingListener(2);
+        AsyncNetworkTrafficListener listener = new AsyncNetworkTrafficListener(delegate, 16, new TestNotifier());
+
+        listener.opened(socket);
+        listener.closed(socket);
+        listener.close();
+
+        assertThat(delegate.events, contains("opened", "closed"));
+        assertThat(delegate.closed, is(true));
+        assertThat(delegate.lastThread.isAlive(), is(false));
+    }
+
+    @Test
+    public void startsAnotherThreadWhenUsedAgainAfterBeingClosed() throws Exception {
+        RecordingListener delegate = new RecordingListener(2);
+        AsyncNetworkTrafficListener listener = new AsyncNetworkTrafficListener(delegate, 16, new TestNotifier());
+
+        listener.opened(socket);
+        listener.close();
+        listener.closed(socket);
+
+        delegate.await();
+        assertThat(delegate.events, contains("opened", "closed"));
+        listener.close();
+    }
+
+    private static class RecordingListener implements WiremockNetworkTrafficListener, Closeable {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private volatile Thread lastThread;
+        private volatile boolean closed;
+
+        private RecordingListener(int expectedEvents) {
+            this.received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void opened(Socket socket) {
+            record("opened");
+        }
+
+        @Override
+        public void incoming(Socket socket, ByteBuffer bytes) {
+            record("incoming " + UTF_8.decode(bytes));
+        }
+
+        @Override
+        public void outgoing(Socket socket, ByteBuffer bytes) {
+            record("outgoing " + UTF_8.decode(bytes));
+        }
+
+        @Override
+        public void closed(Socket socket) {
+            record("closed");
+        }
+
+        private void record(String event) {
+            events.add(event);
+            threadNames.add(Thread.currentThread().getName());
+            lastThread = Thread.currentThread();
+            received.countDown();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("Timed out waiting for events", received.await(5, SECONDS));
+        }
+    }
+
+    private static class BlockingListener extends DoNothingWiremockNetworkTrafficListener {
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile int incomingCount;
+
+        private BlockingListener(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void opened(Socket socket) {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void incoming(Socket socket, ByteBuffer bytes) {
+            incomingCount++;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.http.trafficlistener;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static com.github.tomakehurst.wiremock.testsupport.WireMatchers.matches;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RollingFileNetworkTrafficListenerTest {
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void writesEachConnectionsTrafficWithAHeaderPerEvent() throws Exception {
+        File directory = new File(tempDir.getRoot(), "traffic");
+        RollingFileNetworkTrafficListener listener = new RollingFileNetworkTrafficListener(directory);
+        Socket first = new Socket();
+        Socket second = new Socket();
+
+        listener.opened(first);
+        listener.opened(second);
+        listener.incoming(second, ByteBuffer.wrap("GET / HTTP/1.1\r\n\r\n".getBytes(UTF_8)));
+        listener.outgoing(first, ByteBuffer.wrap("HTTP/1.1 200 OK\r\n\r\n".getBytes(UTF_8)));
+        listener.closed(first);
+        listener.close();
+
+        String[] lines = contentOf(new File(directory, "network-traffic.log")).split("\n");
+        assertThat(lines[0], matches("\\d+ 1 OPENED .+"));
+        assertThat(lines[1], matches("\\d+ 2 OPENED .+"));
+        assertThat(lines[2], matches("\\d+ 2 IN 18"));
+        assertThat(lines[3] + "\n" + lines[4], is("GET / HTTP/1.1\r\n\r"));
+        assertThat(lines[6], matches("\\d+ 1 OUT 19"));
+        assertThat(lines[7], is("HTTP/1.1 200 OK\r"));
+        assertThat(lines[10], matches("\\d+ 1 CLOSED"));
+    }
+
+    @Test
+    public void rollsOverToANewFileAndDeletesTheOldestOnceTheMaximumNumberIsReached() throws Exception {
+        File directory = tempDir.getRoot();
+        RollingFileNetworkTrafficListener listener = new RollingFileNetworkTrafficListener(directory, 100, 3);
+        Socket socket = new Socket();
+
+        for (int i = 0; i < 5; i++) {
+            listener.incoming(socket, ByteBuffer.wrap(("request " + i + " " + new String(new char[100]).replace('\0', 'x')).getBytes(UTF_8)));
+        }
+        listener.close();
+
+        assertThat(directory.list(), arrayContainingInAnyOrder("network-traffic.log", "network-traffic.1.log", "network-traffic.2.log"));
+        assertThat(contentOf(new File(directory, "network-traffic.log")), containsString("request 4"));
+        assertThat(contentOf(new File(directory, "network-traffic.1.log")), containsString("request 3"));
+        assertThat(contentOf(new File(directory, "network-traffic.2.log")), containsString("request 2"));
+    }
+
+    private static String contentOf(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2011 Thomas Akehurst
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.tomakehurst.wiremock.jetty9;
+
+import com.github.tomakehurst.wiremock.common.Limit;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.servlet.WireMockHttpServletRequestAdapter;
+import com.google.common.collect.LinkedListMultimap;
+import org.eclipse.jetty.http.HttpFields;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.servlet.http.Cookie;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.enumeration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class JettyHttpServletRequestAdapterTest {
+
+    private LinkedListMultimap<String, String> headers;
+    private List<Cookie> cookies;
+    private String queryString;
+
+    @Before
+    public void init() {
+        headers = LinkedListMultimap.create();
+        cookies = new ArrayList<>();
+        queryString = null;
+    }
+
+    @Test
+    public void looksUpHeadersCaseInsensitively() {
+        headers.put("Content-Type", "application/json; charset=utf-8");
+        headers.put("X-Custom", "one");
+
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.getHeader("content-type"), is("application/json; charset=utf-8"));
+            assertThat(request.getHeader("X-CUSTOM"), is("one"));
+            assertThat(request.header("x-custom").values(), contains("one"));
+            assertThat(request.containsHeader("CONTENT-TYPE"), is(true));
+            assertThat(request.contentTypeHeader().mimeTypePart(), is("application/json"));
+            assertThat(request.getHeaders().getHeader("x-Custom").firstValue(), is("one"));
+        }
+    }
+
+    @Test
+    public void returnsEveryValueOfMultiValuedHeadersInOrder() {
+        headers.put("Accept", "text/html");
+        headers.put("X-Other", "other");
+        headers.put("accept", "application/json");
+
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.header("Accept").values(), contains("text/html", "application/json"));
+            assertThat(request.getHeaders().getHeader("ACCEPT").values(), contains("text/html", "application/json"));
+            assertThat(request.getHeader("accept"), is("text/html"));
+        }
+    }
+
+    @Test
+    public void treatsMissingHeadersAsAbsent() {
+        headers.put("X-Present", "yes");
+
+        for (Request request: jettyAndServletAdapters()) {
+            HttpHeader header = request.header("X-Missing");
+            assertThat(header.isPresent(), is(false));
+            assertThat(header.key(), is("X-Missing"));
+            assertThat(request.getHeader("X-Missing"), nullValue());
+            assertThat(request.containsHeader("X-Missing"), is(false));
+            assertThat(request.contentTypeHeader().isPresent(), is(false));
+        }
+    }
+
+    @Test
+    public void listsEachHeaderNameOnce() {
+        headers.put("Accept", "text/html");
+        headers.put("Accept", "application/json");
+        headers.put("Host", "localhost");
+
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.getAllHeaderKeys(), contains("Accept", "Host"));
+        }
+    }
+
+    @Test
+    public void groupsCookieValuesByName() {
+        cookies.add(new Cookie("session", "abc"));
+        cookies.add(new Cookie("theme", "dark"));
+        cookies.add(new Cookie("session", "def"));
+
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.getCookies().size(), is(2));
+            assertThat(request.getCookies().get("session").getValues(), contains("abc", "def"));
+            assertThat(request.getCookies().get("theme").getValue(), is("dark"));
+            assertThat(request.getCookies().get("missing"), nullValue());
+        }
+    }
+
+    @Test
+    public void hasNoCookiesWhenNoneWereSent() {
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.getCookies().isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void decodesQueryParametersAndKeepsRepeatedValues() {
+        queryString = "id=1&name=a%20b&id=2&empty=";
+
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.queryParameter("id").values(), contains("1", "2"));
+            assertThat(request.queryParameter("name").firstValue(), is("a b"));
+            assertThat(request.queryParameter("empty").values(), contains(""));
+            assertThat(request.queryParameter("missing").isPresent(), is(false));
+        }
+    }
+
+    @Test
+    public void hasNoQueryParametersWithoutAQueryString() {
+        for (Request request: jettyAndServletAdapters()) {
+            assertThat(request.queryParameter("id").isPresent(), is(false));
+        }
+    }
+
+    /**
+     * The Jetty adapter should behave exactly as the servlet one it replaces, so both are checked against the
+     * same request
+     */
+    private List<Request> jettyAndServletAdapters() {
+        return Arrays.<Request>asList(
+            new JettyHttpServletRequestAdapter(jettyRequest(), null, null, Limit.UNLIMITED),
+            new WireMockHttpServletRequestAdapter(jettyRequest(), null, null, Limit.UNLIMITED)
+        );
+    }
+
+    private org.eclipse.jetty.server.Request jettyRequest() {
+        org.eclipse.jetty.server.Request request = mock(org.eclipse.jetty.server.Request.class);
+
+        HttpFields fields = new HttpFields();
+        LinkedListMultimap<String, String> valuesByName = LinkedListMultimap.create();
+        List<String> names = new ArrayList<>();
+        for (Map.Entry<String, String> header: headers.entries()) {
+            fields.add(header.getKey(), header.getValue());
+            String name = nameAsFirstSent(names, header.getKey());
+            valuesByName.put(name, header.getValue());
+        }
+        given(request.getHttpFields()).willReturn(fields);
+        given(request.getHeaderNames()).willAnswer(enumerationOf(names));
+        for (String name: names) {
+            given(request.getHeader(name)).willReturn(valuesByName.get(name).get(0));
+            given(request.getHeaders(name)).willAnswer(enumerationOf(valuesByName.get(name)));
+        }
+
+        given(request.getCookies()).willReturn(cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]));
+        given(request.getQueryString()).willReturn(queryString);
+        given(request.getMethod()).willReturn("GET");
+        return request;
+    }
+
+    // A new enumeration each time, as the adapters ask for the header names more than once
+    private static Answer<Enumeration<String>> enumerationOf(final List<String> values) {
+        return new Answer<Enumeration<String>>() {
+            @Override
+            public Enumeration<String> answer(InvocationOnMock invocation) {
+                return enumeration(values);
+            }
+        };
+    }
+
+    private static String nameAsFirstSent(List<String> names, String name) {
+        for (String existing: names) {
+            if (existing.equalsIgnoreCase(name)) {
+                return existing;
+            }
+        }
+
+        names.add(name);
+        return name;
+    }
+}
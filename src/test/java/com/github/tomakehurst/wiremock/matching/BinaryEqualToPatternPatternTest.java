@@ -20,6 +20,9 @@ import com.github.tomakehurst.wiremock.common.Json;
 import com.google.common.io.BaseEncoding;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+
+import static com.google.common.base.Charsets.UTF_8;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -60,6 +63,24 @@ public class BinaryEqualToPatternPatternTest {
         assertThat(match.isExactMatch(), is(false));
     }
 
+    @Test
+    public void matchesEqualStream() {
+        BinaryEqualToPattern pattern = new BinaryEqualToPattern(new byte[] { 1, 2, 3 });
+
+        MatchResult match = pattern.matchStream(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), UTF_8);
+
+        assertThat(match.isExactMatch(), is(true));
+    }
+
+    @Test
+    public void doesNotMatchStreamThatIsLongerShorterOrDifferent() {
+        BinaryEqualToPattern pattern = new BinaryEqualToPattern(new byte[] { 1, 2, 3 });
+
+        assertThat(pattern.matchStream(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }), UTF_8).isExactMatch(), is(false));
+        assertThat(pattern.matchStream(new ByteArrayInputStream(new byte[] { 1, 2 }), UTF_8).isExactMatch(), is(false));
+        assertThat(pattern.matchStream(new ByteArrayInputStream(new byte[] { 1, 2, 4 }), UTF_8).isExactMatch(), is(false));
+    }
+
     @Test
     public void serialisesCorrectly() throws Exception {
         byte[] expected = { 5, 5, 5, 5 };
@@ -27,9 +27,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.testsupport.WireMatchers.equalToJson;
+import static com.google.common.base.Charsets.UTF_8;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
@@ -80,6 +83,25 @@ public class MatchesJsonPathPatternTest {
                 .isExactMatch());
     }
 
+    @Test
+    public void matchesABasicJsonPathAgainstAStream() {
+        MatchesJsonPathPattern pattern = new MatchesJsonPathPattern("$.numbers[?(@.number == '2')]");
+
+        assertTrue(pattern.canMatchStream());
+        assertTrue("Expected match when JSON attribute is present",
+            pattern.matchStream(new ByteArrayInputStream("{ \"numbers\": [ {\"number\": 1}, {\"number\": 2} ]}".getBytes(UTF_8)), UTF_8)
+                .isExactMatch());
+        assertFalse("Expected no match when JSON attribute is absent",
+            pattern.matchStream(new ByteArrayInputStream("{ \"numbers\": [{\"number\": 7} ]}".getBytes(UTF_8)), UTF_8)
+                .isExactMatch());
+    }
+
+    @Test
+    public void cannotMatchAStreamWhenAValuePatternIsPresent() {
+        MatchesJsonPathPattern pattern = new MatchesJsonPathPattern("$.one", equalTo("1"));
+        assertFalse(pattern.canMatchStream());
+    }
+
     @Test
     public void matchesOnJsonPathsWithSizeFilter() {
         StringValuePattern pattern = WireMock.matchingJsonPath("$[?(@.numbers.size() == 2)]");
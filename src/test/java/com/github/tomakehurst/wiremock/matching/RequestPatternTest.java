@@ -17,12 +17,16 @@ package com.github.tomakehurst.wiremock.matching;
 
 import com.github.tomakehurst.wiremock.common.Json;
 import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.StreamableRequest;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.*;
@@ -501,6 +505,44 @@ public class RequestPatternTest {
         JSONAssert.assertEquals(ALL_BODY_PATTERNS_EXAMPLE, json, true);
     }
 
+    @Test
+    public void streamsBodyToJsonPathPatternOnlyWhenItIsSpooledToDisk() {
+        RequestPattern requestPattern = newRequestPattern(POST, urlPathEqualTo("/json"))
+            .withRequestBody(matchingJsonPath("$.thing"))
+            .build();
+
+        StreamableMockRequest inMemory = new StreamableMockRequest(true);
+        inMemory.method(POST).url("/json").body("{ \"thing\": 1 }");
+        assertTrue(requestPattern.match(inMemory).isExactMatch());
+        assertThat(inMemory.bodyStreams, is(0));
+
+        StreamableMockRequest spooled = new StreamableMockRequest(false);
+        spooled.method(POST).url("/json").body("{ \"thing\": 1 }");
+        assertTrue(requestPattern.match(spooled).isExactMatch());
+        assertThat(spooled.bodyStreams, is(1));
+    }
+
+    private static class StreamableMockRequest extends MockRequest implements StreamableRequest {
+
+        private final boolean bodyInMemory;
+        private int bodyStreams;
+
+        StreamableMockRequest(boolean bodyInMemory) {
+            this.bodyInMemory = bodyInMemory;
+        }
+
+        @Override
+        public InputStream getBodyStream() {
+            bodyStreams++;
+            return new ByteArrayInputStream(getBody());
+        }
+
+        @Override
+        public boolean isBodyInMemory() {
+            return bodyInMemory;
+        }
+    }
+
     static Matcher<ContentPattern<?>> valuePattern(final Class<? extends StringValuePattern> patternClass, final String expectedValue) {
         return new TypeSafeDiagnosingMatcher<ContentPattern<?>>() {
             @Override
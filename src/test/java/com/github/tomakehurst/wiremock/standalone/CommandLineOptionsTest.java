@@ -15,18 +15,29 @@
  */
 package com.github.tomakehurst.wiremock.standalone;
 
+import com.github.tomakehurst.wiremock.QueuedThreadPoolAcceptanceTest.InstrumentedThreadPoolFactory;
 import com.github.tomakehurst.wiremock.client.BasicCredentials;
+import com.github.tomakehurst.wiremock.common.AdminConnectorSettings;
+import com.github.tomakehurst.wiremock.common.AdmissionControlSettings;
 import com.github.tomakehurst.wiremock.common.FileSource;
 import com.github.tomakehurst.wiremock.common.ssl.KeyStoreSettings;
+import com.github.tomakehurst.wiremock.common.Http2Settings;
+import com.github.tomakehurst.wiremock.common.ProxyConnectionPoolSettings;
+import com.github.tomakehurst.wiremock.common.ProxyResponseCacheSettings;
 import com.github.tomakehurst.wiremock.common.ProxySettings;
 import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
 import com.github.tomakehurst.wiremock.extension.Parameters;
 import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
 import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import com.github.tomakehurst.wiremock.http.CaseInsensitiveKey;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.http.trafficlistener.AsyncNetworkTrafficListener;
 import com.github.tomakehurst.wiremock.http.trafficlistener.ConsoleNotifyingWiremockNetworkTrafficListener;
+import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
 import com.github.tomakehurst.wiremock.matching.MatchResult;
 import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
 import com.github.tomakehurst.wiremock.security.Authenticator;
@@ -312,6 +323,76 @@ public class CommandLineOptionsTest {
         assertThat(options.jettySettings().getStopTimeout().isPresent(), is(false));
     }
 
+    @Test
+    public void returnsCorrectlyParsedHttp2Settings() {
+        CommandLineOptions options = new CommandLineOptions(
+                "--disable-http2-plain",
+                "--disable-http2-tls",
+                "--http2-max-concurrent-streams", "50",
+                "--http2-initial-stream-window", "131072",
+                "--http2-initial-session-window", "262144");
+
+        Http2Settings http2Settings = options.getHttp2Settings();
+        assertThat(http2Settings.plainTextEnabled(), is(false));
+        assertThat(http2Settings.tlsEnabled(), is(false));
+        assertThat(http2Settings.maxConcurrentStreams(), is(50));
+        assertThat(http2Settings.initialStreamRecvWindow(), is(131072));
+        assertThat(http2Settings.initialSessionRecvWindow(), is(262144));
+    }
+
+    @Test
+    public void returnsDefaultHttp2SettingsIfNotSet() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getHttp2Settings(), is(Http2Settings.DEFAULTS));
+    }
+
+    @Test
+    public void returnsCorrectlyParsedAdminConnectorSettings() {
+        CommandLineOptions options = new CommandLineOptions("--admin-port", "8081", "--admin-container-threads", "2");
+        assertThat(options.getAdminConnectorSettings(), is(new AdminConnectorSettings(true, 8081, 2)));
+    }
+
+    @Test
+    public void adminConnectorIsDisabledByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getAdminConnectorSettings().enabled(), is(false));
+    }
+
+    @Test
+    public void usesQueuedThreadPoolFactoryByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.threadPoolFactory(), instanceOf(QueuedThreadPoolFactory.class));
+    }
+
+    @Test
+    public void returnsThreadPoolFactoryOfTheSpecifiedClass() {
+        CommandLineOptions options = new CommandLineOptions("--thread-pool-factory", InstrumentedThreadPoolFactory.class.getName());
+        assertThat(options.threadPoolFactory(), instanceOf(InstrumentedThreadPoolFactory.class));
+    }
+
+    @Test
+    public void returnsCorrectlyParsedAdmissionControlSettings() {
+        CommandLineOptions options = new CommandLineOptions(
+                "--max-concurrent-stub-requests", "20",
+                "--max-queued-stub-requests", "5",
+                "--stub-request-queue-timeout", "250",
+                "--overload-fault", "CONNECTION_RESET_BY_PEER");
+
+        AdmissionControlSettings admissionControlSettings = options.getAdmissionControlSettings();
+        assertThat(admissionControlSettings.enabled(), is(true));
+        assertThat(admissionControlSettings.maxConcurrentRequests(), is(20));
+        assertThat(admissionControlSettings.maxQueuedRequests(), is(5));
+        assertThat(admissionControlSettings.queueTimeout(), is(250));
+        assertThat(admissionControlSettings.overloadFault(), is(Fault.CONNECTION_RESET_BY_PEER));
+    }
+
+    @Test
+    public void admissionControlIsDisabledByDefault() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getAdmissionControlSettings(), is(AdmissionControlSettings.DEFAULTS));
+        assertThat(options.getAdmissionControlSettings().enabled(), is(false));
+    }
+
     @Test(expected=IllegalArgumentException.class)
     public void preventsRecordingWhenRequestJournalDisabled() {
         new CommandLineOptions("--no-request-journal", "--record-mappings");
@@ -351,6 +432,12 @@ public class CommandLineOptionsTest {
         assertThat(options.networkTrafficListener(), is(instanceOf(ConsoleNotifyingWiremockNetworkTrafficListener.class)));
     }
 
+    @Test
+    public void returnsAnAsynchronousFileCapturingListenerWhenCaptureOptionPresent() {
+        CommandLineOptions options = new CommandLineOptions("--capture-network-traffic", "/tmp/traffic", "--capture-network-traffic-max-files", "3");
+        assertThat(options.networkTrafficListener(), is(instanceOf(AsyncNetworkTrafficListener.class)));
+    }
+
     @Test
     public void enablesGlobalResponseTemplating() {
         CommandLineOptions options = new CommandLineOptions("--global-response-templating");
@@ -367,6 +454,15 @@ public class CommandLineOptionsTest {
         assertThat(extensions.get("response-template").applyGlobally(), is(false));
     }
 
+    @Test
+    public void registersTheSameResponseTemplateTransformerAsStubLifecycleListenerAndAdminApiExtension() {
+        CommandLineOptions options = new CommandLineOptions("--global-response-templating");
+        ResponseDefinitionTransformer transformer = options.extensionsOfType(ResponseDefinitionTransformer.class).get(ResponseTemplateTransformer.NAME);
+
+        assertThat(options.extensionsOfType(StubLifecycleListener.class).get(ResponseTemplateTransformer.NAME), sameInstance((Object) transformer));
+        assertThat(options.extensionsOfType(AdminApiExtension.class).get(ResponseTemplateTransformer.NAME), sameInstance((Object) transformer));
+    }
+
     @Test
     public void supportsAdminApiBasicAuth() {
         CommandLineOptions options = new CommandLineOptions("--admin-api-basic-auth", "user:pass");
@@ -429,6 +525,16 @@ public class CommandLineOptionsTest {
         assertThat(transformer.getMaxCacheEntries(), is(5L));
     }
 
+    @Test
+    public void configuresMaxTemplateCacheBytesIfSpecified() {
+        CommandLineOptions options = new CommandLineOptions("--global-response-templating", "--max-template-cache-bytes", "1048576");
+        Map<String, ResponseTemplateTransformer> extensions = options.extensionsOfType(ResponseTemplateTransformer.class);
+        ResponseTemplateTransformer transformer = extensions.get(ResponseTemplateTransformer.NAME);
+
+        assertThat(transformer.getMaxCacheBytes(), is(1048576L));
+        assertThat(transformer.getMaxCacheEntries(), nullValue());
+    }
+
     @Test
     public void configuresMaxTemplateCacheEntriesToNullIfNotSpecified() {
         CommandLineOptions options = new CommandLineOptions("--global-response-templating");
@@ -456,6 +562,110 @@ public class CommandLineOptionsTest {
         assertThat(options.getGzipDisabled(), is(true));
     }
 
+    @Test
+    public void setsLoggedResponseBodySizeLimit() {
+        CommandLineOptions options = new CommandLineOptions("--logged-response-body-size-limit", "1024");
+        assertThat(options.getDataTruncationSettings().getMaxResponseBodySize().getValue(), is(1024));
+    }
+
+    @Test
+    public void setsLoggedRequestBodySizeLimit() {
+        CommandLineOptions options = new CommandLineOptions("--logged-request-body-size-limit", "2048");
+        assertThat(options.getDataTruncationSettings().getMaxRequestBodySize().getValue(), is(2048));
+        assertThat(options.getDataTruncationSettings().getMaxResponseBodySize().isUnlimited(), is(true));
+    }
+
+    @Test
+    public void setsRequestBodySpoolThreshold() {
+        CommandLineOptions options = new CommandLineOptions("--request-body-spool-threshold", "1048576");
+        assertThat(options.getRequestBodySpoolThreshold().getValue(), is(1048576));
+    }
+
+    @Test
+    public void defaultsToNoRequestBodySpooling() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getRequestBodySpoolThreshold().isUnlimited(), is(true));
+    }
+
+    @Test
+    public void enablesProxyResponseStreamingWithCaptureLimit() {
+        CommandLineOptions options = new CommandLineOptions("--proxy-response-streaming", "--proxy-response-capture-limit", "4096");
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(true));
+        assertThat(options.getProxyStreamingSettings().getCaptureLimit().getValue(), is(4096));
+    }
+
+    @Test
+    public void setsProxyConnectionPoolOptions() {
+        CommandLineOptions options = new CommandLineOptions(
+                "--proxy-max-connections", "200",
+                "--proxy-max-connections-per-route", "50",
+                "--proxy-route-max-connections", "http://backend:8080=20",
+                "--proxy-route-max-connections", "https://other.example.com=5",
+                "--proxy-idle-connection-timeout", "30000",
+                "--proxy-connection-ttl", "600000",
+                "--proxy-keep-alive-duration", "15000");
+
+        ProxyConnectionPoolSettings poolSettings = options.getProxyConnectionPoolSettings();
+        assertThat(poolSettings.maxConnections(), is(200));
+        assertThat(poolSettings.maxConnectionsPerRoute(), is(50));
+        assertThat(poolSettings.maxConnectionsPerBaseUrl().get("http://backend:8080"), is(20));
+        assertThat(poolSettings.maxConnectionsPerBaseUrl().get("https://other.example.com"), is(5));
+        assertThat(poolSettings.idleConnectionTimeout(), is(30000));
+        assertThat(poolSettings.connectionTimeToLive(), is(600000));
+        assertThat(poolSettings.keepAliveDuration(), is(15000));
+    }
+
+    @Test
+    public void defaultsProxyConnectionsPerRouteToTheOverallMaximum() {
+        CommandLineOptions options = new CommandLineOptions("--proxy-max-connections", "200");
+        assertThat(options.getProxyConnectionPoolSettings().maxConnectionsPerRoute(), is(200));
+    }
+
+    @Test
+    public void enablesAsynchronousProxying() {
+        CommandLineOptions options = new CommandLineOptions("--async-proxy-enabled");
+        assertThat(options.getAsynchronousProxyingEnabled(), is(true));
+    }
+
+    @Test
+    public void defaultsToBlockingProxying() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getAsynchronousProxyingEnabled(), is(false));
+    }
+
+    @Test
+    public void enablesProxyResponseCaching() {
+        CommandLineOptions options = new CommandLineOptions(
+            "--proxy-response-cache",
+            "--proxy-response-cache-size", "1048576",
+            "--proxy-response-cache-dir", "/tmp/proxy-cache",
+            "--proxy-response-cache-disk-size", "10485760");
+
+        ProxyResponseCacheSettings settings = options.getProxyResponseCacheSettings();
+        assertThat(settings.isEnabled(), is(true));
+        assertThat(settings.getMaxMemorySize(), is(1048576L));
+        assertThat(settings.getDiskDirectory(), is("/tmp/proxy-cache"));
+        assertThat(settings.getMaxDiskSize(), is(10485760L));
+    }
+
+    @Test
+    public void defaultsToNoProxyResponseCaching() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getProxyResponseCacheSettings().isEnabled(), is(false));
+    }
+
+    @Test
+    public void defaultsToBufferedProxyResponses() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getProxyStreamingSettings().isEnabled(), is(false));
+    }
+
+    @Test
+    public void defaultsToNoLoggedResponseBodySizeLimit() {
+        CommandLineOptions options = new CommandLineOptions();
+        assertThat(options.getDataTruncationSettings().getMaxResponseBodySize().isUnlimited(), is(true));
+    }
+
     @Test
     public void defaultsToGzipEnabled() {
         CommandLineOptions options = new CommandLineOptions();
@@ -545,6 +755,21 @@ public class CommandLineOptionsTest {
         assertThat(caKeyStore.type(), is("jks"));
     }
 
+    @Test
+    public void setsGeneratedCertificatesKeyStorePathWithTheCaKeyStorePasswordAndType() {
+        CommandLineOptions options = new CommandLineOptions("--enable-browser-proxying", "--generated-certificates-keystore", "/my/generated", "--ca-keystore", "/my/keystore", "--ca-keystore-password", "someotherpwd", "--ca-keystore-type", "pkcs12");
+        KeyStoreSettings generatedCertificatesKeyStore = options.browserProxySettings().generatedCertificatesKeyStore();
+        assertThat(generatedCertificatesKeyStore.path(), is("/my/generated"));
+        assertThat(generatedCertificatesKeyStore.password(), is("someotherpwd"));
+        assertThat(generatedCertificatesKeyStore.type(), is("pkcs12"));
+    }
+
+    @Test
+    public void doesNotSaveGeneratedCertificatesByDefault() {
+        CommandLineOptions options = new CommandLineOptions("--enable-browser-proxying");
+        assertThat(options.browserProxySettings().generatedCertificatesKeyStore(), is(KeyStoreSettings.NO_STORE));
+    }
+
     @Test
     public void printsBothActualPortsOnlyWhenHttpsEnabled() {
 	    CommandLineOptions options = new CommandLineOptions();
@@ -15,15 +15,30 @@
  */
 package com.github.tomakehurst.wiremock.stubbing;
 
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.SingleRootFileSource;
+import com.github.tomakehurst.wiremock.extension.MemoizableTransformer;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.matching.RequestMatcherExtension;
 import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.List;
 
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.http.RequestMethod.ANY;
+import static com.github.tomakehurst.wiremock.matching.MockRequest.mockRequest;
 import static com.github.tomakehurst.wiremock.matching.RequestPatternBuilder.newRequestPattern;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
@@ -94,6 +109,98 @@ public class InMemoryStubMappingsTest {
 		}
 	}
 
+	@Test
+	public void reusesTheResponseOfAMemoizableTransformerForRequestsWithTheSameKey() {
+		CountingTransformer transformer = new CountingTransformer(true);
+		inMemoryStubMappings = withTransformers(transformer);
+		inMemoryStubMappings.addMapping(any(anyUrl()).willReturn(ok()).build());
+
+		ResponseDefinition first = inMemoryStubMappings.serveFor(mockRequest().url("/one")).getResponseDefinition();
+		ResponseDefinition second = inMemoryStubMappings.serveFor(mockRequest().url("/one")).getResponseDefinition();
+		ResponseDefinition third = inMemoryStubMappings.serveFor(mockRequest().url("/two")).getResponseDefinition();
+
+		assertThat(transformer.transformations, is(2));
+		assertThat(first.getBody(), is("/one 1"));
+		assertThat(second.getBody(), is("/one 1"));
+		assertThat(third.getBody(), is("/two 2"));
+		assertThat(inMemoryStubMappings.getMemoizedResponseCount(), is(2L));
+	}
+
+	@Test
+	public void doesNotMemoizeWhenAnyAppliedTransformerIsNotMemoizable() {
+		CountingTransformer memoizable = new CountingTransformer(true);
+		CountingTransformer notMemoizable = new CountingTransformer(false);
+		inMemoryStubMappings = withTransformers(memoizable, notMemoizable);
+		inMemoryStubMappings.addMapping(any(anyUrl()).willReturn(ok()).build());
+
+		inMemoryStubMappings.serveFor(mockRequest().url("/one"));
+		inMemoryStubMappings.serveFor(mockRequest().url("/one"));
+
+		assertThat(memoizable.transformations, is(2));
+		assertThat(inMemoryStubMappings.getMemoizedResponseCount(), is(0L));
+	}
+
+	@Test
+	public void forgetsMemoizedResponsesOfEditedAndRemovedStubs() {
+		CountingTransformer transformer = new CountingTransformer(true);
+		inMemoryStubMappings = withTransformers(transformer);
+		StubMapping stub = any(anyUrl()).willReturn(ok("old")).build();
+		inMemoryStubMappings.addMapping(stub);
+		inMemoryStubMappings.serveFor(mockRequest().url("/one"));
+
+		StubMapping editedStub = any(anyUrl()).willReturn(ok("new")).build();
+		editedStub.setUuid(stub.getUuid());
+		inMemoryStubMappings.editMapping(editedStub);
+
+		assertThat(inMemoryStubMappings.getMemoizedResponseCount(), is(0L));
+		assertThat(inMemoryStubMappings.serveFor(mockRequest().url("/one")).getResponseDefinition().getBody(), is("/one 2"));
+
+		inMemoryStubMappings.removeMapping(editedStub);
+
+		assertThat(inMemoryStubMappings.getMemoizedResponseCount(), is(0L));
+	}
+
+	private static InMemoryStubMappings withTransformers(ResponseDefinitionTransformer... transformers) {
+		ImmutableMap.Builder<String, ResponseDefinitionTransformer> transformerMap = ImmutableMap.builder();
+		for (ResponseDefinitionTransformer transformer: transformers) {
+			transformerMap.put(transformer.getName(), transformer);
+		}
+
+		return new InMemoryStubMappings(
+				new Scenarios(),
+				Collections.<String, RequestMatcherExtension>emptyMap(),
+				transformerMap.build(),
+				new SingleRootFileSource("."),
+				Collections.<StubLifecycleListener>emptyList()
+		);
+	}
+
+	private static class CountingTransformer extends ResponseDefinitionTransformer implements MemoizableTransformer {
+
+		private final boolean memoizable;
+		private int transformations;
+
+		CountingTransformer(boolean memoizable) {
+			this.memoizable = memoizable;
+		}
+
+		@Override
+		public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+			transformations++;
+			return like(responseDefinition).withBody(request.getUrl() + " " + transformations).build();
+		}
+
+		@Override
+		public Object memoizationKeyFor(Request request, ResponseDefinition responseDefinition, Parameters parameters) {
+			return memoizable ? request.getUrl() : null;
+		}
+
+		@Override
+		public String getName() {
+			return "counting-" + memoizable;
+		}
+	}
+
 	private StubMapping aMapping(Integer priority, String url) {
 		RequestPattern requestPattern = newRequestPattern(ANY, urlEqualTo(url)).build();
 		StubMapping mapping = new StubMapping(requestPattern, new ResponseDefinition());
@@ -157,4 +157,47 @@ public class ResponseDefinitionTest {
         assertThat(json, not(containsString("transformerParameters")));
     }
 
+    @Test
+    public void unmarshalsProxyRequestCoalescingFromJson() {
+        ResponseDefinition responseDef = Json.read(
+            "{                                                               \n" +
+            "    \"proxyBaseUrl\": \"http://example.com\",                      \n" +
+            "    \"proxyRequestCoalescing\": { \"headers\": [\"Accept\"] }    \n" +
+            "}",
+            ResponseDefinition.class);
+
+        assertThat(responseDef.getProxyRequestCoalescing().getHeaders(), contains("Accept"));
+        assertTrue(responseDef.getProxyRequestCoalescing().includesHeader("accept"));
+        assertThat(copyOf(responseDef), is(responseDef));
+    }
+
+    @Test
+    public void omitsProxyRequestCoalescingFromJsonWhenNotEnabled() {
+        String json = Json.write(responseDefinition().proxiedFrom("http://example.com").build());
+
+        assertThat(json, not(containsString("proxyRequestCoalescing")));
+    }
+
+    @Test
+    public void readsProxyResponseCachingFromJson() {
+        ResponseDefinition responseDef = Json.read(
+            "{                                                               \n" +
+            "    \"proxyBaseUrl\": \"http://example.com\",                      \n" +
+            "    \"proxyResponseCaching\": { \"ttlSeconds\": 30 }              \n" +
+            "}",
+            ResponseDefinition.class);
+
+        assertTrue(responseDef.getProxyResponseCaching().isEnabled());
+        assertThat(responseDef.getProxyResponseCaching().getTtlSeconds(), is(30));
+        assertThat(copyOf(responseDef), is(responseDef));
+    }
+
+    @Test
+    public void writesDisabledProxyResponseCachingToJson() {
+        String json = Json.write(responseDefinition().proxiedFrom("http://example.com").withoutResponseCaching().build());
+
+        assertThat(json, containsString("\"proxyResponseCaching\""));
+        assertThat(Json.read(json, ResponseDefinition.class).getProxyResponseCaching().isEnabled(), is(false));
+    }
+
 }
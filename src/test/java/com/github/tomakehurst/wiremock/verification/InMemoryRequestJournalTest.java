@@ -21,21 +21,28 @@ import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static com.github.tomakehurst.wiremock.matching.RequestPattern.everything;
 import static com.github.tomakehurst.wiremock.testsupport.MockRequestBuilder.aRequest;
 import static com.github.tomakehurst.wiremock.verification.LoggedRequest.createFrom;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class InMemoryRequestJournalTest {
 
+    private Mockery context;
     private ServeEvent serveEvent1, serveEvent2, serveEvent3;
 
     @Before
     public void createTestRequests() {
-        Mockery context = new Mockery();
+        context = new Mockery();
         serveEvent1 = ServeEvent.of(createFrom(aRequest(context, "log1").withUrl("/logging1").build()), null);
         serveEvent2 = ServeEvent.of(createFrom(aRequest(context, "log2").withUrl("/logging2").build()), null);
         serveEvent3 = ServeEvent.of(createFrom(aRequest(context, "log3").withUrl("/logging3").build()), null);
@@ -82,6 +89,84 @@ public class InMemoryRequestJournalTest {
         assertOnlyLastTwoRequestsLeft(journal);
     }
 
+    @Test
+    public void looksUpEventsByIdOnlyWhileTheyAreInTheJournal() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.of(2));
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+        journal.removeEvent(serveEvent2.getId());
+
+        assertThat(journal.getServeEvent(serveEvent1.getId()).isPresent(), is(false));
+        assertThat(journal.getServeEvent(serveEvent2.getId()).isPresent(), is(false));
+        assertThat(journal.getServeEvent(serveEvent3.getId()).get(), sameInstance(serveEvent3));
+        assertThat(journal.getAllServeEvents().size(), is(1));
+
+        journal.reset();
+        assertThat(journal.getServeEvent(serveEvent3.getId()).isPresent(), is(false));
+    }
+
+    @Test
+    public void returnsEventsNewestFirstAndRemovesEveryCopyOfAnEventById() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+
+        journal.requestReceived(serveEvent1);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent2);
+        journal.requestReceived(serveEvent3);
+
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3, serveEvent2, serveEvent2, serveEvent1));
+
+        journal.removeEvent(serveEvent2.getId());
+        assertThat(journal.getAllServeEvents(), contains(serveEvent3, serveEvent1));
+    }
+
+    @Test
+    public void keepsEventsInTheOrderTheyWereReceivedWhateverTheirIds() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.of(3));
+        List<ServeEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(withRandomId(ServeEvent.of(createFrom(aRequest(context, "random" + i).withUrl("/random/" + i).build()), null)));
+        }
+
+        for (ServeEvent event: events) {
+            journal.requestReceived(event);
+        }
+
+        assertThat(journal.getAllServeEvents(), contains(events.get(9), events.get(8), events.get(7)));
+        assertThat(journal.getServeEvent(events.get(6).getId()).isPresent(), is(false));
+        assertThat(journal.getServeEvent(events.get(8).getId()).get(), sameInstance(events.get(8)));
+
+        journal.removeEvent(events.get(8).getId());
+        journal.requestReceived(events.get(0));
+        assertThat(journal.getAllServeEvents(), contains(events.get(0), events.get(9), events.get(7)));
+    }
+
+    @Test
+    public void staysConsistentAfterManyEventsAreRemovedById() {
+        RequestJournal journal = new InMemoryRequestJournal(Optional.<Integer>absent());
+        List<ServeEvent> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ServeEvent event = withRandomId(ServeEvent.of(createFrom(aRequest(context, "many" + i).withUrl("/many/" + i).build()), null));
+            events.add(event);
+            journal.requestReceived(event);
+        }
+
+        for (int i = 0; i < 499; i++) {
+            journal.removeEvent(events.get(i).getId());
+        }
+
+        assertThat(journal.getAllServeEvents(), contains(events.get(499)));
+        assertThat(journal.countRequestsMatching(everything()), is(1));
+        assertThat(journal.removeEventsMatching(everything()), contains(events.get(499)));
+        assertThat(journal.getServeEvent(events.get(499).getId()).isPresent(), is(false));
+    }
+
+    private static ServeEvent withRandomId(ServeEvent event) {
+        return new ServeEvent(UUID.randomUUID(), event.getRequest(), null, event.getResponseDefinition(), null, false, null);
+    }
+
     private void assertOnlyLastTwoRequestsLeft(RequestJournal journal) {
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging1")).build()), is(0));
         assertThat(journal.countRequestsMatching(getRequestedFor(urlEqualTo("/logging2")).build()), is(1));